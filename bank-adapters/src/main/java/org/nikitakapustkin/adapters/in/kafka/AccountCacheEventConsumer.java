@@ -0,0 +1,79 @@
+package org.nikitakapustkin.adapters.in.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.nikitakapustkin.adapters.out.persistence.AccountCache;
+import org.nikitakapustkin.bank.contracts.events.EventTypes;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Evicts {@link AccountCache} entries changed by other bank instances. Every instance reads the
+ * account and transaction topics in its own consumer group from the latest offset and commits no
+ * offsets, so the group disappears with the instance (see {@link
+ * KafkaConsumerConfig#accountCacheListenerContainerFactory}). The events are relayed from the
+ * outbox after the write commits, so a read after the eviction sees the new row. This instance's
+ * own events only evict entries it already evicted on commit.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccountCacheEventConsumer {
+  private final ObjectMapper objectMapper;
+  private final AccountCache accountCache;
+
+  @KafkaListener(
+      topics = {"${kafka.topics.account}", "${kafka.topics.transaction}"},
+      groupId = "${kafka.consumer.group-id}-account-cache-${random.uuid}",
+      containerFactory = "accountCacheListenerContainerFactory",
+      properties = "auto.offset.reset=latest")
+  public void consumeAccountEvent(ConsumerRecord<String, String> record) {
+    JsonNode envelope;
+    try {
+      envelope = objectMapper.readTree(record.value());
+    } catch (JsonProcessingException ex) {
+      log.warn("Skipping unreadable record at offset {}: {}", record.offset(), ex.getMessage());
+      return;
+    }
+    String eventType = envelope.path("eventType").asText(null);
+    JsonNode payload = envelope.path("payload");
+    if (EventTypes.ACCOUNT_CREATED.equals(eventType)) {
+      UUID ownerId = uuid(payload, "ownerId");
+      if (ownerId != null) {
+        accountCache.evictUserAccounts(ownerId);
+      }
+    } else if (EventTypes.ACCOUNT_DEPOSIT.equals(eventType)
+        || EventTypes.ACCOUNT_WITHDRAWAL.equals(eventType)
+        || EventTypes.ACCOUNT_TRANSFER.equals(eventType)
+        || EventTypes.TRANSACTION_CREATED.equals(eventType)) {
+      List<UUID> accountIds = new ArrayList<>(2);
+      for (String field : List.of("accountId", "counterpartyAccountId")) {
+        UUID accountId = uuid(payload, field);
+        if (accountId != null) {
+          accountIds.add(accountId);
+        }
+      }
+      accountCache.evictAccounts(accountIds);
+    }
+  }
+
+  private UUID uuid(JsonNode payload, String field) {
+    String value = payload.path(field).asText(null);
+    if (value == null) {
+      return null;
+    }
+    try {
+      return UUID.fromString(value);
+    } catch (IllegalArgumentException ex) {
+      log.warn("Skipping invalid {} '{}'", field, value);
+      return null;
+    }
+  }
+}
@@ -14,4 +14,6 @@ public class BankKafkaConsumerProperties {
   private String dltSuffix = ".dlt";
   private long backoffMs = 1000;
   private long maxRetries = 3;
+  // Listener threads for the shared consumer group; only useful up to the topic's partition count.
+  private int concurrency = 1;
 }
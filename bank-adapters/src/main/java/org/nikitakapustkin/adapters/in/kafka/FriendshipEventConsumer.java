@@ -0,0 +1,60 @@
+package org.nikitakapustkin.adapters.in.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.nikitakapustkin.adapters.out.friendship.FriendshipIndex;
+import org.nikitakapustkin.bank.contracts.events.EventTypes;
+import org.nikitakapustkin.bank.contracts.events.FriendAddedPayload;
+import org.nikitakapustkin.bank.contracts.events.FriendRemovedPayload;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps {@link FriendshipIndex} in step with friendship changes made by other bank instances. Every
+ * instance reads the user topic in its own consumer group from the latest offset and commits no
+ * offsets, so the group disappears with the instance; see {@link
+ * KafkaConsumerConfig#friendshipListenerContainerFactory} for how that start point lines up with
+ * the index snapshot. An event only names the pair that changed: its current state is read back
+ * from {@code user_friends}, so a late FRIEND_ADDED cannot undo a newer FRIEND_REMOVED, and this
+ * instance's own events are harmless.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FriendshipEventConsumer {
+  private final ObjectMapper objectMapper;
+  private final FriendshipIndex friendshipIndex;
+
+  @KafkaListener(
+      topics = "${kafka.topics.user}",
+      groupId = "${kafka.consumer.group-id}-friendship-${random.uuid}",
+      containerFactory = "friendshipListenerContainerFactory",
+      properties = "auto.offset.reset=latest")
+  public void consumeFriendshipEvent(ConsumerRecord<String, String> record) {
+    JsonNode envelope;
+    try {
+      envelope = objectMapper.readTree(record.value());
+    } catch (JsonProcessingException ex) {
+      log.warn("Skipping unreadable record at offset {}: {}", record.offset(), ex.getMessage());
+      return;
+    }
+    String eventType = envelope.path("eventType").asText(null);
+    JsonNode payload = envelope.path("payload");
+    try {
+      if (EventTypes.FRIEND_ADDED.equals(eventType)) {
+        FriendAddedPayload added = objectMapper.treeToValue(payload, FriendAddedPayload.class);
+        friendshipIndex.refresh(added.userId(), added.friendId());
+      } else if (EventTypes.FRIEND_REMOVED.equals(eventType)) {
+        FriendRemovedPayload removed =
+            objectMapper.treeToValue(payload, FriendRemovedPayload.class);
+        friendshipIndex.refresh(removed.userId(), removed.friendId());
+      }
+    } catch (JsonProcessingException ex) {
+      log.warn("Skipping invalid {} payload at offset {}", eventType, record.offset());
+    }
+  }
+}
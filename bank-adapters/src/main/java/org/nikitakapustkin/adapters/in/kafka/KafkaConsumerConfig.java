@@ -1,13 +1,16 @@
 package org.nikitakapustkin.adapters.in.kafka;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.nikitakapustkin.adapters.out.friendship.FriendshipIndex;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
@@ -18,6 +21,8 @@ import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.util.backoff.FixedBackOff;
@@ -78,7 +83,74 @@ public class KafkaConsumerConfig {
         new ConcurrentKafkaListenerContainerFactory<>();
     factory.setConsumerFactory(consumerFactory);
     factory.setCommonErrorHandler(kafkaErrorHandler);
+    factory.setConcurrency(consumerProperties.getConcurrency());
     factory.setAutoStartup(autoStartup);
     return factory;
   }
+
+  /**
+   * Container for {@link FriendshipEventConsumer}. When partitions are assigned the consumer is
+   * moved to the log end and its position resolved before {@link FriendshipIndex} reloads from the
+   * database: an event published after that point is consumed, and one published before it was
+   * committed before the reload started, so the snapshot already holds it. It keeps a single
+   * consumer: every child container of a concurrent one would rebuild the index on its own
+   * assignment.
+   */
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, String> friendshipListenerContainerFactory(
+      ConsumerFactory<String, String> consumerFactory, FriendshipIndex friendshipIndex) {
+    ConcurrentKafkaListenerContainerFactory<String, String> factory =
+        new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(consumerFactory);
+    factory.setAutoStartup(autoStartup);
+    withoutOffsetCommits(factory);
+    factory
+        .getContainerProperties()
+        .setConsumerRebalanceListener(
+            new ConsumerAwareRebalanceListener() {
+              @Override
+              public void onPartitionsAssigned(
+                  Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                if (partitions.isEmpty()) {
+                  return;
+                }
+                consumer.seekToEnd(partitions);
+                partitions.forEach(consumer::position);
+                friendshipIndex.rebuild();
+              }
+            });
+    return factory;
+  }
+
+  /** Container for {@link AccountCacheEventConsumer}. */
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, String>
+      accountCacheListenerContainerFactory(ConsumerFactory<String, String> consumerFactory) {
+    ConcurrentKafkaListenerContainerFactory<String, String> factory =
+        new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(consumerFactory);
+    factory.setConcurrency(consumerProperties.getConcurrency());
+    factory.setAutoStartup(autoStartup);
+    withoutOffsetCommits(factory);
+    return factory;
+  }
+
+  /**
+   * For the per-instance listeners, which join a fresh consumer group on every start and always
+   * read from the log end. Neither the client nor the container commits an offset: MANUAL acks are
+   * never given, and a failed record is logged and skipped without committing past it. A group with
+   * no committed offsets is dropped by the broker once its last consumer leaves, so restarts and
+   * deploys leave no orphan groups behind.
+   */
+  private static void withoutOffsetCommits(
+      ConcurrentKafkaListenerContainerFactory<String, String> factory) {
+    ContainerProperties containerProperties = factory.getContainerProperties();
+    containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+    containerProperties
+        .getKafkaConsumerProperties()
+        .setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+    DefaultErrorHandler errorHandler = new DefaultErrorHandler(new FixedBackOff(0, 0));
+    errorHandler.setAckAfterHandle(false);
+    factory.setCommonErrorHandler(errorHandler);
+  }
 }
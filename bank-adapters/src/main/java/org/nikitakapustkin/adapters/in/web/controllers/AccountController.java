@@ -1,5 +1,7 @@
 package org.nikitakapustkin.adapters.in.web.controllers;
 
+import static org.nikitakapustkin.adapters.in.web.idempotency.IdempotentRequestHandler.IDEMPOTENCY_KEY_HEADER;
+
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -10,6 +12,8 @@ import lombok.RequiredArgsConstructor;
 import org.nikitakapustkin.adapters.in.web.dto.mapper.AccountWebMapper;
 import org.nikitakapustkin.adapters.in.web.dto.mapper.TransactionWebMapper;
 import org.nikitakapustkin.adapters.in.web.dto.response.CommonErrorResponses;
+import org.nikitakapustkin.adapters.in.web.idempotency.IdempotentRequestHandler;
+import org.nikitakapustkin.application.ports.in.BatchTransferUseCase;
 import org.nikitakapustkin.application.ports.in.CreateAccountUseCase;
 import org.nikitakapustkin.application.ports.in.DepositMoneyUseCase;
 import org.nikitakapustkin.application.ports.in.TransferMoneyUseCase;
@@ -17,12 +21,15 @@ import org.nikitakapustkin.application.ports.in.WithdrawMoneyUseCase;
 import org.nikitakapustkin.application.ports.in.queries.GetAccountQuery;
 import org.nikitakapustkin.application.ports.in.queries.GetAccountsQuery;
 import org.nikitakapustkin.application.ports.in.queries.GetTransactionsQuery;
+import org.nikitakapustkin.application.ports.in.queries.TransactionsPageQuery;
+import org.nikitakapustkin.bank.contracts.dto.request.BatchTransferRequestDto;
 import org.nikitakapustkin.bank.contracts.dto.request.CreateAccountRequestDto;
 import org.nikitakapustkin.bank.contracts.dto.request.DepositRequestDto;
 import org.nikitakapustkin.bank.contracts.dto.request.TransferRequestDto;
 import org.nikitakapustkin.bank.contracts.dto.request.WithdrawRequestDto;
 import org.nikitakapustkin.bank.contracts.dto.response.AccountDetailsResponseDto;
 import org.nikitakapustkin.bank.contracts.dto.response.AccountResponseDto;
+import org.nikitakapustkin.bank.contracts.dto.response.BatchTransferResponseDto;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,7 +37,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -49,9 +58,11 @@ public class AccountController {
   private final DepositMoneyUseCase depositMoneyUseCase;
   private final WithdrawMoneyUseCase withdrawMoneyUseCase;
   private final TransferMoneyUseCase transferMoneyUseCase;
+  private final BatchTransferUseCase batchTransferUseCase;
 
   private final AccountWebMapper accountMapper;
   private final TransactionWebMapper transactionMapper;
+  private final IdempotentRequestHandler idempotentRequests;
 
   @GetMapping
   @Transactional(readOnly = true)
@@ -72,17 +83,38 @@ public class AccountController {
   @GetMapping("/{accountId}")
   @Transactional(readOnly = true)
   public ResponseEntity<AccountDetailsResponseDto> getAccount(
-      @PathVariable("accountId") UUID accountId) {
+      @PathVariable("accountId") UUID accountId,
+      @RequestParam(required = false, name = "limit") Integer limit) {
     var account = getAccountQuery.getAccount(accountId);
-    var transactions = getTransactionsQuery.getTransactions(null, accountId);
+    var transactions =
+        getTransactionsQuery.getTransactions(TransactionsPageQuery.firstPage(accountId, limit));
 
     var accountResponse = accountMapper.toResponse(account);
-    var transactionResponses = transactions.stream().map(transactionMapper::toResponse).toList();
+    var transactionResponses =
+        transactions.items().stream().map(transactionMapper::toResponse).toList();
 
-    var details = new AccountDetailsResponseDto(accountResponse, transactionResponses);
+    var details =
+        new AccountDetailsResponseDto(
+            accountResponse, transactionResponses, transactions.nextCursor());
     return ResponseEntity.ok(details);
   }
 
+  /**
+   * Ownership probe for callers that only need to authorize a write: 200 when the account belongs
+   * to {@code ownerId}, 404 when it does not exist or belongs to someone else. Reads the account
+   * row only, through the account cache, and sends no body.
+   */
+  @RequestMapping(value = "/{accountId}", method = RequestMethod.HEAD, params = "ownerId")
+  @Transactional(readOnly = true)
+  public ResponseEntity<Void> checkOwnership(
+      @PathVariable("accountId") UUID accountId, @RequestParam("ownerId") UUID ownerId) {
+    var account = getAccountQuery.getAccount(accountId);
+    if (!ownerId.equals(account.getUserId())) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.ok().build();
+  }
+
   @GetMapping("/{accountId}/balance")
   @Transactional(readOnly = true)
   public ResponseEntity<BigDecimal> getBalance(
@@ -98,28 +130,70 @@ public class AccountController {
   @PostMapping("/{accountId}/deposit")
   @Transactional
   public ResponseEntity<Void> deposit(
-      @PathVariable("accountId") UUID accountId, @Valid @RequestBody DepositRequestDto request) {
-    var command = accountMapper.toDepositCommand(accountId, request.amount());
-    depositMoneyUseCase.deposit(command);
-    return ResponseEntity.ok().build();
+      @PathVariable("accountId") UUID accountId,
+      @Valid @RequestBody DepositRequestDto request,
+      @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+    return idempotentRequests.execute(
+        idempotencyKey,
+        "deposit " + accountId,
+        request,
+        Void.class,
+        () -> {
+          depositMoneyUseCase.deposit(accountMapper.toDepositCommand(accountId, request.amount()));
+          return ResponseEntity.ok().build();
+        });
   }
 
   @PostMapping("/{accountId}/withdraw")
   @Transactional
   public ResponseEntity<Void> withdraw(
-      @PathVariable("accountId") UUID accountId, @Valid @RequestBody WithdrawRequestDto request) {
-    var command = accountMapper.toWithdrawCommand(accountId, request.amount());
-    withdrawMoneyUseCase.withdraw(command);
-    return ResponseEntity.ok().build();
+      @PathVariable("accountId") UUID accountId,
+      @Valid @RequestBody WithdrawRequestDto request,
+      @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+    return idempotentRequests.execute(
+        idempotencyKey,
+        "withdraw " + accountId,
+        request,
+        Void.class,
+        () -> {
+          withdrawMoneyUseCase.withdraw(
+              accountMapper.toWithdrawCommand(accountId, request.amount()));
+          return ResponseEntity.ok().build();
+        });
   }
 
   @PostMapping("/{fromAccountId}/transfer")
   @Transactional
   public ResponseEntity<Void> transfer(
       @PathVariable("fromAccountId") UUID fromAccountId,
-      @Valid @RequestBody TransferRequestDto request) {
-    var command = accountMapper.toTransferCommand(fromAccountId, request);
-    transferMoneyUseCase.transferMoney(command);
-    return ResponseEntity.ok().build();
+      @Valid @RequestBody TransferRequestDto request,
+      @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+    return idempotentRequests.execute(
+        idempotencyKey,
+        "transfer " + fromAccountId,
+        request,
+        Void.class,
+        () -> {
+          transferMoneyUseCase.transferMoney(
+              accountMapper.toTransferCommand(fromAccountId, request));
+          return ResponseEntity.ok().build();
+        });
+  }
+
+  @PostMapping("/transfers:batch")
+  @Transactional
+  public ResponseEntity<BatchTransferResponseDto> transferBatch(
+      @Valid @RequestBody BatchTransferRequestDto request,
+      @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+    return idempotentRequests.execute(
+        idempotencyKey,
+        "transfers:batch",
+        request,
+        BatchTransferResponseDto.class,
+        () -> {
+          var result =
+              batchTransferUseCase.transferBatch(accountMapper.toBatchTransferCommand(request));
+          return ResponseEntity.ok(accountMapper.toBatchTransferResponse(result));
+        });
   }
 }
@@ -1,13 +1,26 @@
 package org.nikitakapustkin.adapters.in.web.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.nikitakapustkin.adapters.in.web.dto.mapper.TransactionWebMapper;
 import org.nikitakapustkin.adapters.in.web.dto.response.CommonErrorResponses;
+import org.nikitakapustkin.application.ports.in.queries.ExportTransactionsQuery;
 import org.nikitakapustkin.application.ports.in.queries.GetTransactionsQuery;
-import org.nikitakapustkin.bank.contracts.dto.response.TransactionResponseDto;
+import org.nikitakapustkin.application.ports.in.queries.TransactionsPageQuery;
+import org.nikitakapustkin.bank.contracts.dto.response.TransactionPageResponseDto;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,18 +35,73 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class TransactionController {
 
+  private static final String NDJSON = "application/x-ndjson";
+
   private final GetTransactionsQuery getTransactionsQuery;
+  private final ExportTransactionsQuery exportTransactionsQuery;
   private final TransactionWebMapper transactionMapper;
+  private final ObjectMapper objectMapper;
 
+  /**
+   * One page of history, newest first. {@code accountIds} merges the history of several accounts
+   * into a single time-ordered stream that pages with the same cursor.
+   */
   @GetMapping
   @Transactional(readOnly = true)
-  public ResponseEntity<List<TransactionResponseDto>> getTransactions(
+  public ResponseEntity<TransactionPageResponseDto> getTransactions(
       @RequestParam(required = false, name = "type") String type,
-      @RequestParam(required = false, name = "accountId") UUID accountId) {
+      @RequestParam(required = false, name = "accountId") UUID accountId,
+      @RequestParam(required = false, name = "accountIds") List<UUID> accountIds,
+      @RequestParam(required = false, name = "from") @DateTimeFormat(iso = ISO.DATE_TIME)
+          Instant from,
+      @RequestParam(required = false, name = "to") @DateTimeFormat(iso = ISO.DATE_TIME) Instant to,
+      @RequestParam(required = false, name = "cursor") String cursor,
+      @RequestParam(required = false, name = "limit") Integer limit) {
+
+    var page =
+        getTransactionsQuery.getTransactions(
+            new TransactionsPageQuery(type, accountId, accountIds, from, to, cursor, limit));
 
-    var transactions = getTransactionsQuery.getTransactions(type, accountId);
-    var response = transactions.stream().map(transactionMapper::toResponse).toList();
+    return ResponseEntity.ok(transactionMapper.toPageResponse(page));
+  }
 
-    return ResponseEntity.ok(response);
+  /**
+   * Streams the matching ledger as NDJSON, oldest first, one transaction per line. Rows are read
+   * through a database cursor and written as they arrive, so memory use does not grow with the
+   * ledger. Every line, the last one included, ends with a newline.
+   */
+  @GetMapping(value = "/export", produces = NDJSON)
+  @Transactional(readOnly = true)
+  public void exportTransactions(
+      @RequestParam(required = false, name = "type") String type,
+      @RequestParam(required = false, name = "accountId") UUID accountId,
+      @RequestParam(required = false, name = "from") @DateTimeFormat(iso = ISO.DATE_TIME)
+          Instant from,
+      @RequestParam(required = false, name = "to") @DateTimeFormat(iso = ISO.DATE_TIME) Instant to,
+      HttpServletResponse response)
+      throws IOException {
+    response.setContentType(NDJSON);
+    // Without FLUSH_AFTER_WRITE_VALUE the servlet buffer decides when a chunk goes out, instead
+    // of every row forcing its own write.
+    ObjectWriter writer =
+        objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    // A root value separator only goes between values, so the newline is written after each one.
+    try (JsonGenerator generator =
+            objectMapper.getFactory().createGenerator(response.getOutputStream());
+        SequenceWriter lines = writer.writeValues(generator.setRootValueSeparator(null))) {
+      exportTransactionsQuery.exportTransactions(
+          type,
+          accountId,
+          from,
+          to,
+          transaction -> {
+            try {
+              lines.write(transactionMapper.toResponse(transaction));
+              generator.writeRaw('\n');
+            } catch (IOException ex) {
+              throw new UncheckedIOException(ex);
+            }
+          });
+    }
   }
 }
@@ -2,13 +2,21 @@ package org.nikitakapustkin.adapters.in.web.dto.mapper;
 
 import java.math.BigDecimal;
 import java.util.UUID;
+import org.nikitakapustkin.application.ports.in.commands.BatchTransferCommand;
 import org.nikitakapustkin.application.ports.in.commands.CreateAccountCommand;
 import org.nikitakapustkin.application.ports.in.commands.DepositMoneyCommand;
 import org.nikitakapustkin.application.ports.in.commands.TransferMoneyCommand;
 import org.nikitakapustkin.application.ports.in.commands.WithdrawMoneyCommand;
+import org.nikitakapustkin.application.ports.in.results.BatchTransferItemResult;
+import org.nikitakapustkin.application.ports.in.results.BatchTransferResult;
+import org.nikitakapustkin.bank.contracts.dto.request.BatchTransferRequestDto;
 import org.nikitakapustkin.bank.contracts.dto.request.CreateAccountRequestDto;
 import org.nikitakapustkin.bank.contracts.dto.request.TransferRequestDto;
 import org.nikitakapustkin.bank.contracts.dto.response.AccountResponseDto;
+import org.nikitakapustkin.bank.contracts.dto.response.BatchTransferItemResponseDto;
+import org.nikitakapustkin.bank.contracts.dto.response.BatchTransferResponseDto;
+import org.nikitakapustkin.bank.contracts.enums.TransferStatus;
+import org.nikitakapustkin.bank.contracts.errors.ErrorCode;
 import org.nikitakapustkin.domain.models.Account;
 import org.springframework.stereotype.Component;
 
@@ -34,4 +42,53 @@ public class AccountWebMapper {
   public WithdrawMoneyCommand toWithdrawCommand(UUID accountId, BigDecimal amount) {
     return new WithdrawMoneyCommand(accountId, amount);
   }
+
+  public BatchTransferCommand toBatchTransferCommand(BatchTransferRequestDto dto) {
+    return new BatchTransferCommand(
+        dto.transfers().stream()
+            .map(
+                item ->
+                    new TransferMoneyCommand(
+                        item.fromAccountId(), item.toAccountId(), item.amount()))
+            .toList());
+  }
+
+  public BatchTransferResponseDto toBatchTransferResponse(BatchTransferResult result) {
+    return new BatchTransferResponseDto(
+        result.succeededCount(),
+        result.failedCount(),
+        result.items().stream().map(AccountWebMapper::toBatchTransferItemResponse).toList());
+  }
+
+  private static BatchTransferItemResponseDto toBatchTransferItemResponse(
+      BatchTransferItemResult item) {
+    if (item.succeeded()) {
+      return new BatchTransferItemResponseDto(
+          item.index(),
+          item.fromAccountId(),
+          item.toAccountId(),
+          item.amount(),
+          TransferStatus.SUCCEEDED,
+          item.commission(),
+          item.credited(),
+          null,
+          null);
+    }
+    ErrorCode error =
+        switch (item.failureReason()) {
+          case ACCOUNT_NOT_FOUND -> ErrorCode.NOT_FOUND;
+          case NOT_ENOUGH_MONEY -> ErrorCode.NOT_ENOUGH_MONEY;
+          case INVALID_ARGUMENT -> ErrorCode.INVALID_ARGUMENT;
+        };
+    return new BatchTransferItemResponseDto(
+        item.index(),
+        item.fromAccountId(),
+        item.toAccountId(),
+        item.amount(),
+        TransferStatus.FAILED,
+        null,
+        null,
+        error,
+        item.message());
+  }
 }
@@ -1,5 +1,7 @@
 package org.nikitakapustkin.adapters.in.web.dto.mapper;
 
+import org.nikitakapustkin.application.ports.in.results.TransactionPage;
+import org.nikitakapustkin.bank.contracts.dto.response.TransactionPageResponseDto;
 import org.nikitakapustkin.bank.contracts.dto.response.TransactionResponseDto;
 import org.nikitakapustkin.bank.contracts.enums.TransactionType;
 import org.nikitakapustkin.domain.models.Transaction;
@@ -17,6 +19,11 @@ public class TransactionWebMapper {
         t.getCreatedAt());
   }
 
+  public TransactionPageResponseDto toPageResponse(TransactionPage page) {
+    return new TransactionPageResponseDto(
+        page.items().stream().map(this::toResponse).toList(), page.nextCursor());
+  }
+
   private static TransactionType toContractType(
       org.nikitakapustkin.domain.enums.TransactionType type) {
     if (type == null) {
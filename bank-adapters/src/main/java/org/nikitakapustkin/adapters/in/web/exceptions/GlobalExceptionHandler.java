@@ -1,12 +1,17 @@
 package org.nikitakapustkin.adapters.in.web.exceptions;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.PessimisticLockException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import java.time.Instant;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
+import org.nikitakapustkin.adapters.in.web.idempotency.IdempotencyConflictException;
 import org.nikitakapustkin.bank.contracts.errors.ApiError;
 import org.nikitakapustkin.bank.contracts.errors.ErrorCode;
 import org.nikitakapustkin.domain.exceptions.AccountNotFoundException;
@@ -14,7 +19,7 @@ import org.nikitakapustkin.domain.exceptions.NotEnoughMoneyException;
 import org.nikitakapustkin.domain.exceptions.UserAlreadyExistsException;
 import org.nikitakapustkin.domain.exceptions.UserHasNoFriendsException;
 import org.nikitakapustkin.domain.exceptions.UserNotFoundException;
-import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -30,8 +35,11 @@ import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 @RestControllerAdvice
 @Slf4j
+@RequiredArgsConstructor
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
+  private final MeterRegistry meterRegistry;
+
   @ExceptionHandler({UserNotFoundException.class, AccountNotFoundException.class})
   public ResponseEntity<ApiError> handleNotFound(RuntimeException ex, HttpServletRequest req) {
     return build(HttpStatus.NOT_FOUND, ErrorCode.NOT_FOUND, ex.getMessage(), req);
@@ -43,6 +51,12 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     return build(HttpStatus.CONFLICT, ErrorCode.ALREADY_EXISTS, ex.getMessage(), req);
   }
 
+  @ExceptionHandler({IdempotencyConflictException.class})
+  public ResponseEntity<ApiError> handleIdempotencyConflict(
+      IdempotencyConflictException ex, HttpServletRequest req) {
+    return build(HttpStatus.CONFLICT, ErrorCode.IDEMPOTENCY_CONFLICT, ex.getMessage(), req);
+  }
+
   @ExceptionHandler({NotEnoughMoneyException.class})
   public ResponseEntity<ApiError> handleNotEnoughMoney(
       NotEnoughMoneyException ex, HttpServletRequest req) {
@@ -50,9 +64,18 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     return build(HttpStatus.CONFLICT, ErrorCode.NOT_ENOUGH_MONEY, ex.getMessage(), req);
   }
 
-  @ExceptionHandler({OptimisticLockingFailureException.class})
-  public ResponseEntity<ApiError> handleOptimisticLock(
-      OptimisticLockingFailureException ex, HttpServletRequest req) {
+  @ExceptionHandler({
+    ConcurrencyFailureException.class,
+    PessimisticLockException.class,
+    LockTimeoutException.class
+  })
+  public ResponseEntity<ApiError> handleConcurrentUpdate(
+      RuntimeException ex, HttpServletRequest req) {
+    // Optimistic version conflicts and lock waits that ran out both end up here; the counter lets
+    // deployments compare how often each account locking strategy sends clients back to retry.
+    meterRegistry
+        .counter("bank.concurrency.conflicts", "exception", ex.getClass().getSimpleName())
+        .increment();
     return build(
         HttpStatus.CONFLICT,
         ErrorCode.CONCURRENT_UPDATE,
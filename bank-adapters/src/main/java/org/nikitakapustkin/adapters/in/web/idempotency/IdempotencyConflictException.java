@@ -0,0 +1,7 @@
+package org.nikitakapustkin.adapters.in.web.idempotency;
+
+public class IdempotencyConflictException extends RuntimeException {
+  public IdempotencyConflictException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,101 @@
+package org.nikitakapustkin.adapters.in.web.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.nikitakapustkin.application.ports.out.IdempotencyKeyPort;
+import org.nikitakapustkin.application.ports.out.IdempotencyRecord;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes a write endpoint safe to retry under an {@code Idempotency-Key}. The key is claimed and the
+ * response stored in the transaction of the write itself, so either both are committed or neither
+ * is: a request that failed leaves no trace and can simply be sent again, and a request that
+ * succeeded is answered from the stored outcome without running twice.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotentRequestHandler {
+  public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+  private static final int MAX_KEY_LENGTH = 255;
+
+  private final IdempotencyKeyPort idempotencyKeys;
+  private final ObjectMapper objectMapper;
+
+  /** Must be called inside the transaction of the write that {@code action} performs. */
+  public <T> ResponseEntity<T> execute(
+      String key,
+      String operation,
+      Object request,
+      Class<T> bodyType,
+      Supplier<ResponseEntity<T>> action) {
+    if (key == null) {
+      return action.get();
+    }
+    if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+      throw new IllegalArgumentException(
+          IDEMPOTENCY_KEY_HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+    }
+
+    String requestHash = hash(operation, request);
+    if (idempotencyKeys.claim(key, operation, requestHash, Instant.now())) {
+      ResponseEntity<T> response = action.get();
+      idempotencyKeys.complete(key, response.getStatusCode().value(), write(response.getBody()));
+      return response;
+    }
+
+    IdempotencyRecord stored =
+        idempotencyKeys
+            .load(key)
+            .orElseThrow(() -> new IllegalStateException("Idempotency key vanished: " + key));
+    if (!stored.operation().equals(operation) || !stored.requestHash().equals(requestHash)) {
+      throw new IdempotencyConflictException(
+          IDEMPOTENCY_KEY_HEADER + " was already used for a different request");
+    }
+    return ResponseEntity.status(stored.responseStatus())
+        .header(REPLAYED_HEADER, "true")
+        .body(read(stored.responseBody(), bodyType));
+  }
+
+  private String hash(String operation, Object request) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(operation.getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) '\n');
+      digest.update(objectMapper.writeValueAsBytes(request));
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException | JsonProcessingException ex) {
+      throw new IllegalStateException("Failed to hash request", ex);
+    }
+  }
+
+  private String write(Object body) {
+    if (body == null) {
+      return null;
+    }
+    try {
+      return objectMapper.writeValueAsString(body);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Failed to store response", ex);
+    }
+  }
+
+  private <T> T read(String body, Class<T> bodyType) {
+    if (body == null || bodyType == Void.class) {
+      return null;
+    }
+    try {
+      return objectMapper.readValue(body, bodyType);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Failed to replay stored response", ex);
+    }
+  }
+}
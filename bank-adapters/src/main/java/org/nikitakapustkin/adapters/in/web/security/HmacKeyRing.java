@@ -0,0 +1,87 @@
+package org.nikitakapustkin.adapters.in.web.security;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.crypto.SecretKey;
+
+/**
+ * The HMAC keys a service signs and verifies with, derived once at startup. Every key gets a stable
+ * id (a short hash of the key, so nothing extra has to be configured) that is written into the
+ * {@code kid} header of each signed token; verification looks the key up by that header.
+ *
+ * <p>Rotation: add the new secret to the accepted list everywhere, then make it the signing secret
+ * and move the old one to the accepted list until tokens signed with it have expired. Tokens
+ * without a {@code kid}, issued before key ids existed, are checked against the signing key.
+ *
+ * <p>The security service derives key ids with an identical class; both must change together, or
+ * the {@code kid} it writes will no longer match one here.
+ */
+final class HmacKeyRing extends LocatorAdapter<Key> {
+  private final String signingKeyId;
+  private final SecretKey signingKey;
+  private final Map<String, SecretKey> keysById;
+
+  private HmacKeyRing(SecretKey signingKey, Map<String, SecretKey> keysById) {
+    this.signingKeyId = keyId(signingKey);
+    this.signingKey = signingKey;
+    this.keysById = Map.copyOf(keysById);
+  }
+
+  /**
+   * @param signingSecret Base64 secret new tokens are signed with
+   * @param acceptedSecrets comma-separated Base64 secrets that are only verified, may be blank
+   */
+  static HmacKeyRing of(String signingSecret, String acceptedSecrets) {
+    SecretKey signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(signingSecret));
+    Map<String, SecretKey> keysById = new LinkedHashMap<>();
+    keysById.put(keyId(signingKey), signingKey);
+    if (acceptedSecrets != null && !acceptedSecrets.isBlank()) {
+      Arrays.stream(acceptedSecrets.split(","))
+          .map(String::trim)
+          .filter(secret -> !secret.isEmpty())
+          .map(secret -> Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+          .forEach(key -> keysById.putIfAbsent(keyId(key), key));
+    }
+    return new HmacKeyRing(signingKey, keysById);
+  }
+
+  String signingKeyId() {
+    return signingKeyId;
+  }
+
+  SecretKey signingKey() {
+    return signingKey;
+  }
+
+  @Override
+  protected Key locate(JwsHeader header) {
+    String keyId = header.getKeyId();
+    if (keyId == null) {
+      return signingKey;
+    }
+    SecretKey key = keysById.get(keyId);
+    if (key == null) {
+      throw new JwtException("Unknown signing key id: " + keyId);
+    }
+    return key;
+  }
+
+  private static String keyId(SecretKey key) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getEncoded());
+      return HexFormat.of().formatHex(hash, 0, 8);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -23,6 +23,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 @Component
 public class JwtFilter extends OncePerRequestFilter {
   private final JwtService jwtService;
+  private final VerifiedTokenCache verifiedTokens;
 
   @Override
   protected void doFilterInternal(
@@ -34,15 +35,12 @@ public class JwtFilter extends OncePerRequestFilter {
     if (header != null && header.startsWith("Bearer ")) {
       String token = header.substring(7);
       try {
-        String username = jwtService.extractUsername(token);
-        if (username != null
-            && jwtService.isAllowedSubject(username)
-            && SecurityContextHolder.getContext().getAuthentication() == null) {
-          if (jwtService.validateToken(token)) {
-            UUID userId = jwtService.extractUserId(token);
-            String role = jwtService.extractRole(token);
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+          VerifiedToken verified = verifiedTokens.verify(token);
+          if (jwtService.isAllowedSubject(verified.subject())) {
             UsernamePasswordAuthenticationToken authentication =
-                getUsernamePasswordAuthenticationToken(role, username, userId);
+                getUsernamePasswordAuthenticationToken(
+                    verified.role(), verified.subject(), verified.userId());
             authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authentication);
           }
@@ -1,19 +1,16 @@
 package org.nikitakapustkin.adapters.in.web.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import jakarta.annotation.PostConstruct;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.function.Function;
 import java.util.stream.Collectors;
-import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -22,22 +19,18 @@ public class JwtService {
   private static final String CLAIM_USER_ID = "userId";
   private static final String CLAIM_ROLE = "role";
 
-  @Value("${jwt.service.secret}")
-  private String secret;
-
-  @Value("${jwt.service.issuer}")
-  private String issuer;
-
-  @Value("${jwt.service.audience}")
-  private String audience;
-
-  @Value("${jwt.service.allowed-subjects:security-service}")
-  private String allowedSubjects;
-
-  private Set<String> allowedSubjectSet;
-
-  @PostConstruct
-  void validateSecret() {
+  private final String issuer;
+  private final String audience;
+  private final Set<String> allowedSubjectSet;
+  private final HmacKeyRing keyRing;
+  private final JwtParser parser;
+
+  public JwtService(
+      @Value("${jwt.service.secret}") String secret,
+      @Value("${jwt.service.issuer}") String issuer,
+      @Value("${jwt.service.audience}") String audience,
+      @Value("${jwt.service.allowed-subjects:security-service}") String allowedSubjects,
+      @Value("${jwt.service.accepted-secrets:}") String acceptedSecrets) {
     if (secret == null || secret.isBlank()) {
       throw new IllegalStateException(
           "jwt.service.secret is not set. Provide it via env var JWT_SERVICE_SECRET or application properties.");
@@ -51,7 +44,9 @@ public class JwtService {
     if (allowedSubjects == null || allowedSubjects.isBlank()) {
       throw new IllegalStateException("jwt.service.allowed-subjects is not set.");
     }
-    allowedSubjectSet =
+    this.issuer = issuer;
+    this.audience = audience;
+    this.allowedSubjectSet =
         Arrays.stream(allowedSubjects.split(","))
             .map(String::trim)
             .filter(subject -> !subject.isEmpty())
@@ -60,6 +55,10 @@ public class JwtService {
       throw new IllegalStateException(
           "jwt.service.allowed-subjects must contain at least one value.");
     }
+    // Keys and parser are immutable and thread-safe, so they are built once for all requests.
+    this.keyRing = HmacKeyRing.of(secret, acceptedSecrets);
+    this.parser =
+        Jwts.parser().keyLocator(keyRing).requireIssuer(issuer).requireAudience(audience).build();
   }
 
   public String generateToken(String login, UUID userId, String role) {
@@ -71,6 +70,9 @@ public class JwtService {
       claims.put(CLAIM_ROLE, role);
     }
     return Jwts.builder()
+        .header()
+        .keyId(keyRing.signingKeyId())
+        .and()
         .claims()
         .add(claims)
         .issuer(issuer)
@@ -81,21 +83,34 @@ public class JwtService {
         .issuedAt(new Date(System.currentTimeMillis()))
         .expiration(new Date(System.currentTimeMillis() + 1000L * 60 * 60 * 24))
         .and()
-        .signWith(getKey())
+        .signWith(keyRing.signingKey())
         .compact();
   }
 
-  private SecretKey getKey() {
-    byte[] encodedKey = Decoders.BASE64.decode(secret);
-    return Keys.hmacShaKeyFor(encodedKey);
+  /**
+   * Verifies the signature, issuer, audience and expiry in a single parse and returns the claims
+   * the filter needs.
+   *
+   * @throws JwtException when the token is invalid or expired
+   */
+  public VerifiedToken verify(String token) {
+    Claims claims = parser.parseSignedClaims(token).getPayload();
+    Date expiration = claims.getExpiration();
+    if (expiration == null) {
+      throw new JwtException("Token has no expiration");
+    }
+    return new VerifiedToken(
+        claims.getSubject(),
+        parseUserId(claims.get(CLAIM_USER_ID, String.class)),
+        claims.get(CLAIM_ROLE, String.class),
+        expiration.toInstant());
   }
 
-  public String extractUsername(String token) {
-    return extractClaims(token, Claims::getSubject);
+  public boolean isAllowedSubject(String subject) {
+    return subject != null && allowedSubjectSet.contains(subject);
   }
 
-  public UUID extractUserId(String token) {
-    String raw = extractClaims(token, claims -> claims.get(CLAIM_USER_ID, String.class));
+  private static UUID parseUserId(String raw) {
     if (raw == null || raw.isBlank()) {
       return null;
     }
@@ -105,43 +120,4 @@ public class JwtService {
       return null;
     }
   }
-
-  public String extractRole(String token) {
-    return extractClaims(token, claims -> claims.get(CLAIM_ROLE, String.class));
-  }
-
-  public boolean isAllowedSubject(String subject) {
-    return subject != null && allowedSubjectSet.contains(subject);
-  }
-
-  private <T> T extractClaims(String token, Function<Claims, T> claimsResolver) {
-    Claims claims = extractAllClaims(token);
-    return claimsResolver.apply(claims);
-  }
-
-  private Claims extractAllClaims(String token) {
-    return Jwts.parser()
-        .verifyWith(getKey())
-        .requireIssuer(issuer)
-        .requireAudience(audience)
-        .build()
-        .parseSignedClaims(token)
-        .getPayload();
-  }
-
-  public boolean validateToken(String token) {
-    try {
-      return !isTokenExpired(token);
-    } catch (Exception e) {
-      return false;
-    }
-  }
-
-  private boolean isTokenExpired(String token) {
-    return extractExpiration(token).before(new Date());
-  }
-
-  private Date extractExpiration(String token) {
-    return extractClaims(token, Claims::getExpiration);
-  }
 }
@@ -23,7 +23,7 @@ public class SecurityConfig {
             request ->
                 request
                     .requestMatchers(
-                        "/actuator/**", "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html")
+                        "/actuator/health", "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html")
                     .permitAll()
                     .anyRequest()
                     .hasRole("SERVICE"))
@@ -0,0 +1,7 @@
+package org.nikitakapustkin.adapters.in.web.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** Claims of a token whose signature, issuer and audience have been checked. */
+public record VerifiedToken(String subject, UUID userId, String role, Instant expiresAt) {}
@@ -0,0 +1,76 @@
+package org.nikitakapustkin.adapters.in.web.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers tokens that already passed {@link JwtService#verify}, keyed by their SHA-256 so raw
+ * tokens are not kept. Callers send the same service token on every request, so after the first one
+ * authentication is a hash and a map lookup. Each entry expires with its token.
+ */
+@Component
+public class VerifiedTokenCache {
+  private final JwtService jwtService;
+  private final Cache<String, VerifiedToken> verified;
+
+  public VerifiedTokenCache(
+      JwtService jwtService,
+      @Value("${jwt.service.verified-cache.maximum-size:10000}") long maximumSize) {
+    this.jwtService = jwtService;
+    this.verified =
+        Caffeine.newBuilder().maximumSize(maximumSize).expireAfter(new UntilTokenExpiry()).build();
+  }
+
+  /**
+   * The claims of {@code token}, from the cache or from a fresh verification.
+   *
+   * @throws io.jsonwebtoken.JwtException when the token is invalid or expired
+   */
+  public VerifiedToken verify(String token) {
+    String key = fingerprint(token);
+    VerifiedToken cached = verified.getIfPresent(key);
+    if (cached != null && Instant.now().isBefore(cached.expiresAt())) {
+      return cached;
+    }
+    VerifiedToken fresh = jwtService.verify(token);
+    verified.put(key, fresh);
+    return fresh;
+  }
+
+  private static String fingerprint(String token) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+    @Override
+    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+      return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String key, VerifiedToken token, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, token, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        String key, VerifiedToken token, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -0,0 +1,204 @@
+package org.nikitakapustkin.adapters.out.friendship;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.nikitakapustkin.application.ports.out.CheckFriendshipPort;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-process copy of {@code user_friends} that answers {@link #areFriends} without touching the
+ * database. Users are interned to dense ints and every friendship is stored once as the pair key
+ * {@code min << 32 | max} in a primitive hash set, so a lookup is two map reads and one probe.
+ *
+ * <p>The index is loaded at startup and kept current from two sides: {@link
+ * org.nikitakapustkin.adapters.out.persistence.UserPersistenceAdapter} applies this instance's
+ * writes once their transaction commits, and {@code FriendshipEventConsumer} {@link #refresh
+ * refreshes} the pair named by every FRIEND_ADDED / FRIEND_REMOVED event from the table, since
+ * events of one pair may arrive out of order. A periodic {@link #rebuild} repairs anything both
+ * paths missed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FriendshipIndex implements CheckFriendshipPort, SmartInitializingSingleton {
+  private static final String LOAD_SQL = "select user_id, friend_id from user_friends";
+  private static final String PAIR_SQL =
+      "select count(*) from user_friends"
+          + " where (user_id = ? and friend_id = ?) or (user_id = ? and friend_id = ?)";
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  private final Map<UUID, Integer> userIds = new ConcurrentHashMap<>();
+  private final AtomicInteger nextUserId = new AtomicInteger(1);
+  private final StampedLock lock = new StampedLock();
+  private final Object rebuildMonitor = new Object();
+
+  private volatile LongHashSet pairs = new LongHashSet(INITIAL_CAPACITY);
+  // Non-null while a rebuild runs; guarded by the write lock.
+  private List<Change> pendingChanges;
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    rebuild();
+  }
+
+  @Override
+  public boolean areFriends(UUID userId, UUID otherUserId) {
+    Integer a = userIds.get(userId);
+    Integer b = userIds.get(otherUserId);
+    if (a == null || b == null || a.equals(b)) {
+      return false;
+    }
+    long key = pairKey(a, b);
+    long stamp = lock.tryOptimisticRead();
+    boolean found = pairs.contains(key);
+    if (lock.validate(stamp)) {
+      return found;
+    }
+    stamp = lock.readLock();
+    try {
+      return pairs.contains(key);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /** Records a friendship; returns {@code false} if the index already had it. */
+  public boolean link(UUID userId, UUID friendId) {
+    return apply(new Change(userId, friendId, true));
+  }
+
+  /** Drops a friendship; returns {@code false} if the index did not have it. */
+  public boolean unlink(UUID userId, UUID friendId) {
+    return apply(new Change(userId, friendId, false));
+  }
+
+  /**
+   * Sets the pair to what {@code user_friends} holds now, whatever change announced it; returns
+   * {@code false} if the index already agreed.
+   */
+  public boolean refresh(UUID userId, UUID friendId) {
+    if (userId == null || friendId == null || userId.equals(friendId)) {
+      return false;
+    }
+    Integer rows =
+        jdbcTemplate.queryForObject(PAIR_SQL, Integer.class, userId, friendId, friendId, userId);
+    return apply(new Change(userId, friendId, rows != null && rows > 0));
+  }
+
+  /**
+   * Applies a write made by this instance once its transaction commits, so no reader ever sees a
+   * friendship that is rolled back; outside a transaction it is applied right away.
+   */
+  public void applyLocal(UUID userId, UUID friendId, boolean friends) {
+    Change change = new Change(userId, friendId, friends);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      apply(change);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            apply(change);
+          }
+        });
+  }
+
+  /**
+   * Reloads the whole graph from {@code user_friends}. Changes applied while the table is read are
+   * replayed onto the new graph before it replaces the old one, so none of them is lost.
+   */
+  @Scheduled(
+      fixedDelayString = "#{@friendshipIndexProperties.rebuildIntervalMs}",
+      initialDelayString = "#{@friendshipIndexProperties.rebuildIntervalMs}")
+  public void rebuild() {
+    synchronized (rebuildMonitor) {
+      long stamp = lock.writeLock();
+      try {
+        pendingChanges = new ArrayList<>();
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+
+      LongHashSet fresh = new LongHashSet(INITIAL_CAPACITY);
+      try {
+        jdbcTemplate.query(
+            LOAD_SQL,
+            rs -> {
+              int a = intern(rs.getObject(1, UUID.class));
+              int b = intern(rs.getObject(2, UUID.class));
+              if (a != b) {
+                fresh.add(pairKey(a, b));
+              }
+            });
+      } catch (RuntimeException ex) {
+        stamp = lock.writeLock();
+        try {
+          pendingChanges = null;
+        } finally {
+          lock.unlockWrite(stamp);
+        }
+        throw ex;
+      }
+
+      stamp = lock.writeLock();
+      try {
+        for (Change change : pendingChanges) {
+          applyTo(fresh, change);
+        }
+        pendingChanges = null;
+        pairs = fresh;
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+      log.info("Friendship index loaded with {} friendships", fresh.size());
+    }
+  }
+
+  private boolean apply(Change change) {
+    if (change.userId() == null
+        || change.friendId() == null
+        || change.userId().equals(change.friendId())) {
+      return false;
+    }
+    long stamp = lock.writeLock();
+    try {
+      if (pendingChanges != null) {
+        pendingChanges.add(change);
+      }
+      return applyTo(pairs, change);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  private boolean applyTo(LongHashSet set, Change change) {
+    long key = pairKey(intern(change.userId()), intern(change.friendId()));
+    return change.friends() ? set.add(key) : set.remove(key);
+  }
+
+  private int intern(UUID userId) {
+    return userIds.computeIfAbsent(userId, ignored -> nextUserId.getAndIncrement());
+  }
+
+  // Ids start at 1, so a pair key is never the set's empty marker.
+  private static long pairKey(int a, int b) {
+    return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+  }
+
+  private record Change(UUID userId, UUID friendId, boolean friends) {}
+}
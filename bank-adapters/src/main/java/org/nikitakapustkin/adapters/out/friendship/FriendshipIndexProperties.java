@@ -0,0 +1,15 @@
+package org.nikitakapustkin.adapters.out.friendship;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "friendship.index")
+public class FriendshipIndexProperties {
+  // Backstop for changes neither this instance's commits nor the event stream delivered.
+  private long rebuildIntervalMs = 300_000;
+}
@@ -0,0 +1,115 @@
+package org.nikitakapustkin.adapters.out.friendship;
+
+/**
+ * Open-addressing set of non-zero {@code long} keys with linear probing. Zero marks a free slot.
+ * Not thread-safe: {@link FriendshipIndex} serializes writers and validates optimistic readers.
+ */
+final class LongHashSet {
+  private static final int MIN_CAPACITY = 16;
+
+  private long[] keys;
+  private int size;
+
+  LongHashSet(int expectedSize) {
+    keys = new long[tableSizeFor(expectedSize)];
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Safe to call while a writer mutates the set: the table is read once, probing stops after one
+   * full lap, and the caller discards the answer if its optimistic read does not validate.
+   */
+  boolean contains(long key) {
+    long[] table = keys;
+    int mask = table.length - 1;
+    int slot = mix(key) & mask;
+    for (int probes = 0; probes < table.length; probes++) {
+      long current = table[slot];
+      if (current == key) {
+        return true;
+      }
+      if (current == 0L) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return false;
+  }
+
+  boolean add(long key) {
+    if (key == 0L) {
+      throw new IllegalArgumentException("Zero key is reserved");
+    }
+    if ((size + 1) * 2 > keys.length) {
+      resize(keys.length * 2);
+    }
+    int mask = keys.length - 1;
+    int slot = mix(key) & mask;
+    while (keys[slot] != 0L) {
+      if (keys[slot] == key) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    size++;
+    return true;
+  }
+
+  boolean remove(long key) {
+    int mask = keys.length - 1;
+    int slot = mix(key) & mask;
+    while (keys[slot] != key) {
+      if (keys[slot] == 0L) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    // Backward-shift deletion keeps probe chains intact without tombstones.
+    int gap = slot;
+    int next = (gap + 1) & mask;
+    while (keys[next] != 0L) {
+      int home = mix(keys[next]) & mask;
+      if (((next - home) & mask) >= ((next - gap) & mask)) {
+        keys[gap] = keys[next];
+        gap = next;
+      }
+      next = (next + 1) & mask;
+    }
+    keys[gap] = 0L;
+    size--;
+    return true;
+  }
+
+  private void resize(int capacity) {
+    long[] old = keys;
+    long[] table = new long[capacity];
+    int mask = capacity - 1;
+    for (long key : old) {
+      if (key != 0L) {
+        int slot = mix(key) & mask;
+        while (table[slot] != 0L) {
+          slot = (slot + 1) & mask;
+        }
+        table[slot] = key;
+      }
+    }
+    keys = table;
+  }
+
+  private static int tableSizeFor(int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while (capacity < expectedSize * 2L && capacity < (1 << 30)) {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+
+  static int mix(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+}
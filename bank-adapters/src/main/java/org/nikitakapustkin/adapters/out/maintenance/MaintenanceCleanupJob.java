@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.nikitakapustkin.adapters.out.persistence.jpa.OutboxEventJpaRepository;
 import org.nikitakapustkin.adapters.out.persistence.jpa.entity.OutboxStatus;
+import org.nikitakapustkin.application.ports.out.IdempotencyKeyPort;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -16,6 +17,7 @@ import org.springframework.stereotype.Service;
 @ConditionalOnProperty(value = "maintenance.cleanup.enabled", matchIfMissing = true)
 public class MaintenanceCleanupJob {
   private final OutboxEventJpaRepository outboxRepository;
+  private final IdempotencyKeyPort idempotencyKeys;
   private final MaintenanceCleanupProperties properties;
 
   @Scheduled(cron = "#{@maintenanceCleanupProperties.cron}")
@@ -27,10 +29,15 @@ public class MaintenanceCleanupJob {
         outboxRepository.deleteByStatusAndPublishedAtBefore(OutboxStatus.SENT, outboxCutoff);
     long failedDeleted =
         outboxRepository.deleteByStatusAndLastAttemptAtBefore(OutboxStatus.FAILED, outboxCutoff);
+    long idempotencyKeysDeleted =
+        idempotencyKeys.deleteCreatedBefore(
+            now.minus(properties.getIdempotencyKeyRetentionHours(), ChronoUnit.HOURS));
 
     log.info(
-        "Cleanup completed: outboxSentDeleted={}, outboxFailedDeleted={}",
+        "Cleanup completed: outboxSentDeleted={}, outboxFailedDeleted={},"
+            + " idempotencyKeysDeleted={}",
         outboxDeleted,
-        failedDeleted);
+        failedDeleted,
+        idempotencyKeysDeleted);
   }
 }
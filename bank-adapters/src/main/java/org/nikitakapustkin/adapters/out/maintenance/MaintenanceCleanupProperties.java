@@ -11,5 +11,7 @@ import org.springframework.stereotype.Component;
 @ConfigurationProperties(prefix = "maintenance.cleanup")
 public class MaintenanceCleanupProperties {
   private long outboxRetentionDays = 7;
+  // Must outlast the longest window in which a client may still retry a write.
+  private long idempotencyKeyRetentionHours = 24;
   private String cron = "0 0 3 * * *";
 }
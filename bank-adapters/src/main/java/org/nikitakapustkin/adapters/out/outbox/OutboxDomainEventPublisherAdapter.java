@@ -3,11 +3,15 @@ package org.nikitakapustkin.adapters.out.outbox;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.nikitakapustkin.adapters.out.persistence.jpa.OutboxEventJpaRepository;
 import org.nikitakapustkin.adapters.out.persistence.jpa.entity.OutboxEventEntity;
 import org.nikitakapustkin.application.ports.out.PublishAccountEventPort;
+import org.nikitakapustkin.application.ports.out.PublishEventsPort;
 import org.nikitakapustkin.application.ports.out.PublishTransactionEventPort;
 import org.nikitakapustkin.application.ports.out.PublishUserEventPort;
 import org.nikitakapustkin.bank.contracts.enums.HairColor;
@@ -37,15 +41,30 @@ import org.nikitakapustkin.domain.events.payload.FriendRemovedEventData;
 import org.nikitakapustkin.domain.events.payload.TransactionCreatedEventData;
 import org.nikitakapustkin.domain.events.payload.UserCreatedEventData;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class OutboxDomainEventPublisherAdapter
-    implements PublishUserEventPort, PublishAccountEventPort, PublishTransactionEventPort {
+    implements PublishUserEventPort,
+        PublishAccountEventPort,
+        PublishTransactionEventPort,
+        PublishEventsPort {
+
+  private static final String INSERT_SQL =
+      """
+      insert into outbox_events
+          (id, topic, event_key, event_type, payload, status, attempts, created_at)
+      values (:id, :topic, :key, :eventType, :payload, :status, :attempts, :createdAt)
+      """;
 
   private final OutboxEventJpaRepository outboxRepository;
   private final ObjectMapper objectMapper;
+  private final NamedParameterJdbcTemplate jdbc;
 
   @Value("${kafka.topics.user}")
   private String userTopic;
@@ -73,7 +92,51 @@ public class OutboxDomainEventPublisherAdapter
     record(transactionTopic, event);
   }
 
+  @Override
+  @Transactional
+  public void publishAll(List<DomainEvent> events) {
+    if (events == null || events.isEmpty()) {
+      return;
+    }
+    SqlParameterSource[] batch =
+        events.stream()
+            .map(event -> toOutboxEvent(topicFor(event), event))
+            .map(
+                entity ->
+                    new MapSqlParameterSource()
+                        .addValue("id", entity.getId())
+                        .addValue("topic", entity.getTopic())
+                        .addValue("key", entity.getKey())
+                        .addValue("eventType", entity.getEventType())
+                        .addValue("payload", entity.getPayload())
+                        .addValue("status", entity.getStatus().name())
+                        .addValue("attempts", entity.getAttempts())
+                        .addValue(
+                            "createdAt",
+                            OffsetDateTime.ofInstant(entity.getCreatedAt(), ZoneOffset.UTC)))
+            .toArray(SqlParameterSource[]::new);
+    jdbc.batchUpdate(INSERT_SQL, batch);
+  }
+
   private void record(String topic, DomainEvent event) {
+    outboxRepository.save(toOutboxEvent(topic, event));
+  }
+
+  private String topicFor(DomainEvent event) {
+    EventType eventType = event != null ? event.getEventType() : null;
+    if (eventType == null) {
+      throw new IllegalStateException("Cannot route event without type to an outbox topic");
+    }
+    return switch (eventType) {
+      case USER_CREATED, FRIEND_ADDED, FRIEND_REMOVED -> userTopic;
+      case ACCOUNT_CREATED, ACCOUNT_DEPOSIT, ACCOUNT_WITHDRAWAL, ACCOUNT_TRANSFER -> accountTopic;
+      case TRANSACTION_CREATED -> transactionTopic;
+      case UNKNOWN ->
+          throw new IllegalStateException("Cannot route UNKNOWN event to an outbox topic");
+    };
+  }
+
+  private OutboxEventEntity toOutboxEvent(String topic, DomainEvent event) {
     try {
       String eventType = resolveEventType(event != null ? event.getEventType() : null);
       Object eventPayload = resolvePayload(event, eventType);
@@ -87,7 +150,7 @@ public class OutboxDomainEventPublisherAdapter
               eventPayload);
       String payload = objectMapper.writeValueAsString(envelope);
       String key = resolveKey(event);
-      outboxRepository.save(OutboxEventEntity.newEvent(topic, key, envelope.eventType(), payload));
+      return OutboxEventEntity.newEvent(topic, key, envelope.eventType(), payload);
     } catch (JsonProcessingException e) {
       throw new IllegalStateException("Failed to serialize event for outbox topic " + topic, e);
     }
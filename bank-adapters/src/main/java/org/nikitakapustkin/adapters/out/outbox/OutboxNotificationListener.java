@@ -0,0 +1,99 @@
+package org.nikitakapustkin.adapters.out.outbox;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds one connection in {@code LISTEN outbox_events} and drains the outbox whenever the insert
+ * trigger fires, so events leave the database without waiting for the next poll. Notifications that
+ * arrive while a drain runs are queued on the connection and picked up right after it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnExpression("${outbox.publisher.enabled:true}")
+// Ignores case like the enum binding of the mode, so "notify" also gets a listener.
+@ConditionalOnProperty(
+    value = "outbox.publisher.wakeup-mode",
+    havingValue = "NOTIFY",
+    matchIfMissing = true)
+public class OutboxNotificationListener implements SmartLifecycle {
+  static final String CHANNEL = "outbox_events";
+  private static final int RECEIVE_TIMEOUT_MS = 1000;
+
+  private final DataSource dataSource;
+  private final OutboxKafkaPublisher publisher;
+  private final OutboxPublisherProperties properties;
+
+  private volatile boolean running;
+  private Thread thread;
+
+  @Override
+  public void start() {
+    running = true;
+    thread = new Thread(this::listenLoop, "outbox-notify-listener");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void listenLoop() {
+    while (running) {
+      try (Connection connection = dataSource.getConnection()) {
+        if (!connection.isWrapperFor(PGConnection.class)) {
+          log.warn("Outbox NOTIFY wakeup needs PostgreSQL; relying on the fallback poll only");
+          running = false;
+          return;
+        }
+        PGConnection pg = connection.unwrap(PGConnection.class);
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + CHANNEL);
+        }
+        // Catch up on anything inserted while no listener was attached.
+        publisher.drain();
+        while (running) {
+          PGNotification[] notifications = pg.getNotifications(RECEIVE_TIMEOUT_MS);
+          if (notifications != null && notifications.length > 0) {
+            publisher.drain();
+          }
+        }
+      } catch (SQLException | RuntimeException ex) {
+        if (!running) {
+          return;
+        }
+        log.warn(
+            "Outbox listener lost its connection, reconnecting in {} ms: {}",
+            properties.getNotifyReconnectDelayMs(),
+            ex.toString());
+        try {
+          Thread.sleep(properties.getNotifyReconnectDelayMs());
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+}
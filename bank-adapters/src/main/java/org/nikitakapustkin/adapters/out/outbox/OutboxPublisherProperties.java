@@ -14,4 +14,22 @@ public class OutboxPublisherProperties {
   private long publishTimeoutMs = 5000;
   private int maxAttempts = 5;
   private long intervalMs = 1000;
+  // Must exceed publishTimeoutMs, otherwise a slow batch is reclaimed while still in flight.
+  private long leaseMs = 30000;
+  // How long a record waits after a failed send before it is claimed again.
+  private long retryBackoffMs = 5000;
+  private long instanceTtlMs = 15000;
+  // Empty means a random id per process start.
+  private String instanceId = "";
+  private OutboxWakeupMode wakeupMode = OutboxWakeupMode.NOTIFY;
+  private long notifyFallbackIntervalMs = 30000;
+  private long notifyReconnectDelayMs = 5000;
+
+  public long getHeartbeatIntervalMs() {
+    return instanceTtlMs / 3;
+  }
+
+  public long getPollIntervalMs() {
+    return wakeupMode == OutboxWakeupMode.NOTIFY ? notifyFallbackIntervalMs : intervalMs;
+  }
 }
@@ -0,0 +1,178 @@
+package org.nikitakapustkin.adapters.out.outbox;
+
+import jakarta.annotation.PreDestroy;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Tracks which relay instances are alive so each one can own a stable hash partition of the outbox.
+ * Every instance heartbeats into {@code outbox_relay_instances}; an instance whose heartbeat is
+ * older than the TTL is treated as gone and its partition is redistributed on the next refresh.
+ *
+ * <p>Every join, leave and expiry bumps {@code outbox_relay_epoch} in the same statement, and an
+ * {@link Assignment} carries the epoch of the member list it was computed from. Outbox claims only
+ * match while that epoch is current and hold a share lock on it until they commit, so two relays
+ * never claim under different views of the membership, and a membership change waits for claims in
+ * flight. A relay that has not yet seen a change claims nothing until it refreshes, which {@link
+ * #currentAssignment()} does as soon as the epoch moves.
+ *
+ * <p>Heartbeats run on their own schedule at a third of the TTL rather than as part of a drain, so
+ * an idle relay that only drains at the NOTIFY fallback interval still stays a member.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "outbox.publisher.enabled", matchIfMissing = true)
+public class OutboxRelayMembership {
+  private static final String HEARTBEAT_SQL =
+      """
+      with touched as (
+          update outbox_relay_instances set heartbeat_at = :now
+          where instance_id = :instanceId
+          returning instance_id),
+      joined as (
+          insert into outbox_relay_instances (instance_id, heartbeat_at)
+          select :instanceId, :now
+          where not exists (select 1 from touched)
+          on conflict (instance_id) do nothing
+          returning instance_id)
+      update outbox_relay_epoch set epoch = epoch + 1
+      where id = 1 and exists (select 1 from joined)
+      """;
+
+  private static final String EXPIRE_SQL =
+      """
+      with gone as (
+          delete from outbox_relay_instances where heartbeat_at < :cutoff
+          returning instance_id)
+      update outbox_relay_epoch set epoch = epoch + 1
+      where id = 1 and exists (select 1 from gone)
+      """;
+
+  private static final String LEAVE_SQL =
+      """
+      with gone as (
+          delete from outbox_relay_instances where instance_id = :instanceId
+          returning instance_id)
+      update outbox_relay_epoch set epoch = epoch + 1
+      where id = 1 and exists (select 1 from gone)
+      """;
+
+  // One statement, so the member list and the epoch come from the same snapshot.
+  private static final String MEMBERS_SQL =
+      """
+      select i.instance_id, f.epoch
+      from outbox_relay_instances i
+      cross join outbox_relay_epoch f
+      where f.id = 1
+      order by i.instance_id
+      """;
+
+  private final NamedParameterJdbcTemplate jdbc;
+  private final OutboxPublisherProperties properties;
+  private final String instanceId;
+  private volatile Assignment assignment = new Assignment(0, 1, -1);
+  private volatile boolean refreshed;
+
+  public OutboxRelayMembership(
+      NamedParameterJdbcTemplate jdbc, OutboxPublisherProperties properties) {
+    this.jdbc = jdbc;
+    this.properties = properties;
+    this.instanceId =
+        StringUtils.hasText(properties.getInstanceId())
+            ? properties.getInstanceId()
+            : UUID.randomUUID().toString();
+  }
+
+  public String instanceId() {
+    return instanceId;
+  }
+
+  /**
+   * Returns this instance's partition, joining first when this instance is not a member yet and
+   * re-reading the member list when the epoch has moved since the last read.
+   */
+  public synchronized Assignment currentAssignment() {
+    if (!refreshed) {
+      refresh();
+    } else if (currentEpoch() != assignment.epoch()) {
+      readAssignment();
+    }
+    return assignment;
+  }
+
+  @Scheduled(fixedDelayString = "#{@outboxPublisherProperties.heartbeatIntervalMs}")
+  public synchronized void heartbeat() {
+    refresh();
+  }
+
+  @PreDestroy
+  public void leave() {
+    // Hand the partition over immediately instead of waiting for the TTL to expire.
+    jdbc.update(LEAVE_SQL, Map.of("instanceId", instanceId));
+  }
+
+  private void refresh() {
+    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+    jdbc.update(
+        HEARTBEAT_SQL,
+        new MapSqlParameterSource().addValue("instanceId", instanceId).addValue("now", now));
+    jdbc.update(
+        EXPIRE_SQL,
+        Map.of(
+            "cutoff",
+            now.minusNanos(TimeUnit.MILLISECONDS.toNanos(properties.getInstanceTtlMs()))));
+    refreshed = true;
+    readAssignment();
+  }
+
+  private void readAssignment() {
+    List<String> live = new ArrayList<>();
+    long[] epoch = {-1};
+    jdbc.query(
+        MEMBERS_SQL,
+        Map.of(),
+        rs -> {
+          live.add(rs.getString("instance_id"));
+          epoch[0] = rs.getLong("epoch");
+        });
+
+    int slot = live.indexOf(instanceId);
+    if (slot < 0) {
+      // Expired by another instance: the stale epoch keeps claims fenced, and the next call
+      // rejoins.
+      refreshed = false;
+      return;
+    }
+    Assignment next = new Assignment(slot, live.size(), epoch[0]);
+    if (next.slot() != assignment.slot() || next.members() != assignment.members()) {
+      log.info(
+          "Outbox relay {} now owns partition {}/{} (epoch {})",
+          instanceId,
+          slot,
+          live.size(),
+          next.epoch());
+    }
+    assignment = next;
+  }
+
+  private long currentEpoch() {
+    Long epoch =
+        jdbc.queryForObject(
+            "select epoch from outbox_relay_epoch where id = 1", Map.of(), Long.class);
+    return epoch != null ? epoch : -1;
+  }
+
+  public record Assignment(int slot, int members, long epoch) {}
+}
@@ -0,0 +1,12 @@
+package org.nikitakapustkin.adapters.out.outbox;
+
+/** What triggers an outbox relay run. */
+public enum OutboxWakeupMode {
+  /** Poll every {@code outbox.publisher.interval-ms}. */
+  POLL,
+  /**
+   * React to Postgres {@code NOTIFY outbox_events}; poll every {@code
+   * outbox.publisher.notify-fallback-interval-ms} in case a notification is lost.
+   */
+  NOTIFY
+}
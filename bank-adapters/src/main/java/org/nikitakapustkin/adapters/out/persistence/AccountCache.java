@@ -0,0 +1,168 @@
+package org.nikitakapustkin.adapters.out.persistence;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import org.nikitakapustkin.domain.models.Account;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Read-through cache for account reads, bounded by size and TTL. Accounts are cached by id; a
+ * user's accounts are cached as the list of their ids, so a balance change only evicts the one
+ * account entry.
+ *
+ * <p>Reads inside a read-write transaction go straight to the database: they must see the
+ * transaction's own uncommitted changes and must not publish them to other readers. Write paths
+ * evict once their transaction completes; writes made by other instances are evicted by {@code
+ * AccountCacheEventConsumer} when their account or transaction event arrives. The TTL bounds
+ * staleness when no event does, e.g. after a user delete or while Kafka is unreachable. Loads run
+ * inside Caffeine's per-key compute, so an eviction that races a load waits for it and then removes
+ * the value it stored.
+ */
+@Component
+public class AccountCache {
+  static final String ACCOUNTS_CACHE = "bank.accounts";
+  static final String USER_ACCOUNTS_CACHE = "bank.user-accounts";
+
+  private final boolean enabled;
+  private final Cache<UUID, Account> accounts;
+  private final Cache<UUID, List<UUID>> userAccountIds;
+
+  public AccountCache(AccountCacheProperties properties, MeterRegistry registry) {
+    this.enabled = properties.isEnabled();
+    this.accounts = newCache(properties);
+    this.userAccountIds = newCache(properties);
+    if (enabled) {
+      CaffeineCacheMetrics.monitor(registry, accounts, ACCOUNTS_CACHE);
+      CaffeineCacheMetrics.monitor(registry, userAccountIds, USER_ACCOUNTS_CACHE);
+    }
+  }
+
+  Optional<Account> getAccount(UUID accountId, Function<UUID, Optional<Account>> loader) {
+    if (bypass()) {
+      return loader.apply(accountId);
+    }
+    Account cached =
+        accounts.get(accountId, id -> loader.apply(id).map(AccountCache::copy).orElse(null));
+    return Optional.ofNullable(cached).map(AccountCache::copy);
+  }
+
+  List<Account> getUserAccounts(
+      UUID userId,
+      Function<UUID, List<Account>> loadByUser,
+      Function<UUID, Optional<Account>> loadById) {
+    if (bypass()) {
+      return loadByUser.apply(userId);
+    }
+    List<UUID> ids = userAccountIds.getIfPresent(userId);
+    if (ids == null) {
+      // The ids are cached, the freshly loaded accounts are returned as they are.
+      AtomicReference<List<Account>> loaded = new AtomicReference<>();
+      ids =
+          userAccountIds.get(
+              userId,
+              id -> {
+                List<Account> fresh = loadByUser.apply(id);
+                loaded.set(fresh);
+                return fresh.stream().map(Account::getId).toList();
+              });
+      if (loaded.get() != null) {
+        return loaded.get();
+      }
+    }
+    List<Account> result = new ArrayList<>(ids.size());
+    for (UUID accountId : ids) {
+      getAccount(accountId, loadById).ifPresent(result::add);
+    }
+    return result;
+  }
+
+  /** Evicts accounts written by another instance. */
+  public void evictAccounts(Collection<UUID> accountIds) {
+    if (enabled) {
+      accounts.invalidateAll(accountIds);
+    }
+  }
+
+  /** Evicts a user's account list after another instance opened an account for them. */
+  public void evictUserAccounts(UUID userId) {
+    if (enabled) {
+      userAccountIds.invalidate(userId);
+    }
+  }
+
+  void evictAccountAfterCompletion(UUID accountId) {
+    afterCompletion(() -> accounts.invalidate(accountId));
+  }
+
+  void evictAccountsAfterCompletion(Collection<UUID> accountIds) {
+    List<UUID> ids = List.copyOf(accountIds);
+    afterCompletion(() -> accounts.invalidateAll(ids));
+  }
+
+  void evictUserAccountsAfterCompletion(UUID userId) {
+    afterCompletion(() -> userAccountIds.invalidate(userId));
+  }
+
+  /** Evicts everything a deleted user owned; user deletes are rare, so a scan is acceptable. */
+  void evictUserAfterCompletion(UUID userId) {
+    afterCompletion(
+        () -> {
+          userAccountIds.invalidate(userId);
+          accounts.asMap().values().removeIf(account -> userId.equals(account.getUserId()));
+        });
+  }
+
+  private boolean bypass() {
+    return !enabled
+        || (TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+  }
+
+  // Evicting on rollback too is harmless and keeps the rule simple.
+  private void afterCompletion(Runnable eviction) {
+    if (!enabled) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      eviction.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            eviction.run();
+          }
+        });
+  }
+
+  private static <V> Cache<UUID, V> newCache(AccountCacheProperties properties) {
+    return Caffeine.newBuilder()
+        .maximumSize(properties.getMaximumSize())
+        .expireAfterWrite(Duration.ofMillis(properties.getTtlMs()))
+        .recordStats()
+        .build();
+  }
+
+  // Account is mutable, so callers never share an instance with the cache.
+  private static Account copy(Account account) {
+    return Account.builder()
+        .id(account.getId())
+        .userId(account.getUserId())
+        .ownerLogin(account.getOwnerLogin())
+        .balance(account.getBalance())
+        .build();
+  }
+}
@@ -0,0 +1,18 @@
+package org.nikitakapustkin.adapters.out.persistence;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.cache")
+public class AccountCacheProperties {
+  private boolean enabled = true;
+  private long maximumSize = 10_000;
+  // Writes evict on commit here and on event arrival elsewhere; the TTL bounds how long a write
+  // can go unseen when its event is late or missing.
+  private long ttlMs = 30_000;
+}
@@ -0,0 +1,50 @@
+package org.nikitakapustkin.adapters.out.persistence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contention metrics for account row locks, tagged with the active strategy so deployments running
+ * different strategies can be compared side by side.
+ */
+@Component
+public class AccountLockMetrics {
+  private final Timer acquireTimer;
+  private final Counter skippedCounter;
+  private final Counter timeoutCounter;
+
+  public AccountLockMetrics(MeterRegistry registry, AccountLockingProperties properties) {
+    String strategy = properties.getStrategy().name().toLowerCase();
+    this.acquireTimer =
+        Timer.builder("bank.account.lock.acquire")
+            .description("Time spent loading an account for update, including lock waits")
+            .tag("strategy", strategy)
+            .publishPercentiles(0.5, 0.99)
+            .register(registry);
+    this.skippedCounter =
+        Counter.builder("bank.account.lock.retries")
+            .description("SKIP LOCKED reads that found the row locked and were retried")
+            .tag("strategy", strategy)
+            .register(registry);
+    this.timeoutCounter =
+        Counter.builder("bank.account.lock.timeouts")
+            .description("Loads that gave up because the row stayed locked")
+            .tag("strategy", strategy)
+            .register(registry);
+  }
+
+  void recordAcquire(long startNanos) {
+    acquireTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+  }
+
+  void recordRetry() {
+    skippedCounter.increment();
+  }
+
+  void recordTimeout() {
+    timeoutCounter.increment();
+  }
+}
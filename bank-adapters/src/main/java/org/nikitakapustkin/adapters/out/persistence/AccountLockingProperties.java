@@ -0,0 +1,17 @@
+package org.nikitakapustkin.adapters.out.persistence;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.locking")
+public class AccountLockingProperties {
+  private AccountLockingStrategy strategy = AccountLockingStrategy.OPTIMISTIC;
+  private long lockTimeoutMs = 2000;
+  private long skipLockedMaxWaitMs = 500;
+  private long skipLockedBackoffMs = 5;
+}
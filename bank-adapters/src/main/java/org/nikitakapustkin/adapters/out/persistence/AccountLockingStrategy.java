@@ -0,0 +1,19 @@
+package org.nikitakapustkin.adapters.out.persistence;
+
+/**
+ * How {@link AccountPersistenceAdapter#loadAccountForUpdate} protects a row that will be written.
+ */
+public enum AccountLockingStrategy {
+  /** Plain read; concurrent writers are detected by the {@code @Version} column on commit. */
+  OPTIMISTIC,
+  /**
+   * {@code SELECT ... FOR UPDATE}: writers queue on the row lock for up to the lock timeout (a
+   * transaction-local {@code lock_timeout} on PostgreSQL; H2 applies its own session timeout).
+   */
+  PESSIMISTIC,
+  /**
+   * {@code SELECT ... FOR UPDATE SKIP LOCKED}, polled with a short backoff until the row is free or
+   * the maximum wait is spent.
+   */
+  SKIP_LOCKED
+}
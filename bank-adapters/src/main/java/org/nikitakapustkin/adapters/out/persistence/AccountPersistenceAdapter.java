@@ -1,32 +1,78 @@
 package org.nikitakapustkin.adapters.out.persistence;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.PessimisticLockException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
 import org.nikitakapustkin.adapters.out.persistence.jpa.AccountJpaRepository;
 import org.nikitakapustkin.adapters.out.persistence.jpa.UserJpaRepository;
+import org.nikitakapustkin.adapters.out.persistence.jpa.entity.AccountEntity;
 import org.nikitakapustkin.adapters.out.persistence.mapper.AccountMapper;
+import org.nikitakapustkin.application.ports.out.ApplyBalanceDeltaPort;
 import org.nikitakapustkin.application.ports.out.CreateAccountPort;
 import org.nikitakapustkin.application.ports.out.LoadAccountPort;
+import org.nikitakapustkin.application.ports.out.LoadAccountsForUpdatePort;
 import org.nikitakapustkin.application.ports.out.LoadAccountsPort;
 import org.nikitakapustkin.application.ports.out.UpdateAccountStatePort;
+import org.nikitakapustkin.application.ports.out.UpdateAccountsStatePort;
 import org.nikitakapustkin.domain.models.Account;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 @Component
 @RequiredArgsConstructor
 public class AccountPersistenceAdapter
-    implements LoadAccountPort, LoadAccountsPort, CreateAccountPort, UpdateAccountStatePort {
+    implements LoadAccountPort,
+        LoadAccountsPort,
+        LoadAccountsForUpdatePort,
+        CreateAccountPort,
+        UpdateAccountStatePort,
+        UpdateAccountsStatePort,
+        ApplyBalanceDeltaPort {
+
+  private static final String LOCK_TIMEOUT_HINT = "jakarta.persistence.lock.timeout";
+  // Hibernate renders a lock timeout of -2 as SKIP LOCKED.
+  private static final int SKIP_LOCKED_TIMEOUT = -2;
 
   private final AccountJpaRepository accounts;
   private final UserJpaRepository users;
+  private final EntityManager entityManager;
+  private final AccountLockingProperties locking;
+  private final AccountLockMetrics lockMetrics;
+  private final AccountCache accountCache;
+  private volatile Boolean postgres;
 
   @Override
   @Transactional(readOnly = true)
   public Optional<Account> loadAccount(UUID accountId) {
-    return accounts.findById(accountId).map(AccountMapper::toDomain);
+    return accountCache.getAccount(accountId, this::findAccount);
+  }
+
+  @Override
+  @Transactional
+  public Optional<Account> loadAccountForUpdate(UUID accountId) {
+    long start = System.nanoTime();
+    Optional<AccountEntity> entity =
+        switch (locking.getStrategy()) {
+          case OPTIMISTIC -> accounts.findById(accountId);
+          case PESSIMISTIC -> Optional.ofNullable(findPessimistic(accountId));
+          case SKIP_LOCKED -> findSkipLocked(accountId);
+        };
+    lockMetrics.recordAcquire(start);
+    return entity.map(AccountMapper::toDomain);
   }
 
   @Override
@@ -34,6 +80,7 @@ public class AccountPersistenceAdapter
   public Account createAccount(Account account) {
     var userRef = users.getReferenceById(account.getUserId());
     var entity = AccountMapper.toJpaEntity(account, userRef);
+    accountCache.evictUserAccountsAfterCompletion(account.getUserId());
     return AccountMapper.toDomain(accounts.save(entity));
   }
 
@@ -48,6 +95,20 @@ public class AccountPersistenceAdapter
     AccountMapper.applyToJpaEntity(account, entity);
 
     AccountMapper.toDomain(accounts.save(entity));
+    accountCache.evictAccountAfterCompletion(account.getId());
+  }
+
+  @Override
+  @Transactional
+  public BalanceDeltaOutcome applyBalanceDelta(UUID accountId, BigDecimal delta) {
+    if (accounts.applyBalanceDelta(accountId, delta) == 1) {
+      accountCache.evictAccountAfterCompletion(accountId);
+      return BalanceDeltaOutcome.APPLIED;
+    }
+    // Only the rejected path pays for the second statement.
+    return accounts.existsById(accountId)
+        ? BalanceDeltaOutcome.INSUFFICIENT_FUNDS
+        : BalanceDeltaOutcome.ACCOUNT_NOT_FOUND;
   }
 
   @Override
@@ -55,6 +116,118 @@ public class AccountPersistenceAdapter
     if (userId == null) {
       return accounts.findAll().stream().map(AccountMapper::toDomain).toList();
     }
+    return accountCache.getUserAccounts(userId, this::findUserAccounts, this::findAccount);
+  }
+
+  @Override
+  @Transactional
+  public List<Account> loadAccountsForUpdate(Collection<UUID> accountIds) {
+    if (accountIds == null || accountIds.isEmpty()) {
+      return List.of();
+    }
+    // The batch read is a plain FOR UPDATE under every strategy, so its wait is bounded under every
+    // strategy too: by the SKIP_LOCKED wait budget or by the lock timeout.
+    boundLockWait(
+        locking.getStrategy() == AccountLockingStrategy.SKIP_LOCKED
+            ? locking.getSkipLockedMaxWaitMs()
+            : locking.getLockTimeoutMs());
+    List<AccountEntity> locked;
+    try {
+      locked = accounts.findAllByIdForUpdate(accountIds);
+    } catch (PessimisticLockingFailureException ex) {
+      lockMetrics.recordTimeout();
+      throw ex;
+    }
+    return locked.stream().map(AccountMapper::toDomain).toList();
+  }
+
+  @Override
+  @Transactional
+  public void updateAccounts(Collection<Account> updated) {
+    // The entities are already managed after loadAccountsForUpdate, so getReferenceById resolves
+    // them from the persistence context and the changes are flushed as batched UPDATEs on commit.
+    for (Account account : updated) {
+      AccountMapper.applyToJpaEntity(account, accounts.getReferenceById(account.getId()));
+    }
+    accountCache.evictAccountsAfterCompletion(updated.stream().map(Account::getId).toList());
+  }
+
+  private Optional<Account> findAccount(UUID accountId) {
+    return accounts.findById(accountId).map(AccountMapper::toDomain);
+  }
+
+  private List<Account> findUserAccounts(UUID userId) {
     return accounts.findByUser_Id(userId).stream().map(AccountMapper::toDomain).toList();
   }
+
+  private Optional<AccountEntity> findSkipLocked(UUID accountId) {
+    // An empty SKIP LOCKED result means either "locked by someone else" or "does not exist", so
+    // existence is settled once up front and every empty result after it means locked.
+    if (!accounts.existsById(accountId)) {
+      return Optional.empty();
+    }
+    long deadline = System.nanoTime() + locking.getSkipLockedMaxWaitMs() * 1_000_000;
+    while (true) {
+      AccountEntity entity = findLocked(accountId, SKIP_LOCKED_TIMEOUT);
+      if (entity != null) {
+        return Optional.of(entity);
+      }
+      if (System.nanoTime() >= deadline) {
+        lockMetrics.recordTimeout();
+        throw new CannotAcquireLockException(
+            "Account is locked by another operation: " + accountId);
+      }
+      lockMetrics.recordRetry();
+      try {
+        Thread.sleep(locking.getSkipLockedBackoffMs());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new CannotAcquireLockException("Interrupted while waiting for account " + accountId);
+      }
+    }
+  }
+
+  private AccountEntity findPessimistic(UUID accountId) {
+    long timeoutMs = locking.getLockTimeoutMs();
+    boundLockWait(timeoutMs);
+    try {
+      return findLocked(accountId, timeoutMs);
+    } catch (PessimisticLockException | LockTimeoutException ex) {
+      lockMetrics.recordTimeout();
+      throw ex;
+    }
+  }
+
+  // Hibernate's PostgreSQL dialect drops a positive lock timeout hint and renders a plain FOR
+  // UPDATE, which would wait forever; lock_timeout bounds the wait instead. SET LOCAL ends with
+  // the transaction, so the pooled connection keeps the server default.
+  private void boundLockWait(long timeoutMs) {
+    entityManager
+        .unwrap(Session.class)
+        .doWork(
+            connection -> {
+              if (timeoutMs > 0 && isPostgres(connection)) {
+                try (Statement statement = connection.createStatement()) {
+                  statement.execute("set local lock_timeout = " + timeoutMs);
+                }
+              }
+            });
+  }
+
+  private boolean isPostgres(Connection connection) throws SQLException {
+    Boolean cached = postgres;
+    if (cached == null) {
+      cached = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+      postgres = cached;
+    }
+    return cached;
+  }
+
+  private AccountEntity findLocked(UUID accountId, long timeoutMs) {
+    return entityManager.find(
+        AccountEntity.class,
+        accountId,
+        LockModeType.PESSIMISTIC_WRITE,
+        Map.of(LOCK_TIMEOUT_HINT, timeoutMs));
+  }
 }
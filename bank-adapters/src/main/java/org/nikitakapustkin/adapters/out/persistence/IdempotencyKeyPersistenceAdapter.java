@@ -0,0 +1,98 @@
+package org.nikitakapustkin.adapters.out.persistence;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.nikitakapustkin.application.ports.out.IdempotencyKeyPort;
+import org.nikitakapustkin.application.ports.out.IdempotencyRecord;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@RequiredArgsConstructor
+public class IdempotencyKeyPersistenceAdapter implements IdempotencyKeyPort {
+
+  // The primary key turns a concurrent duplicate into a wait on the first claim instead of a
+  // second execution: once that transaction commits the insert does nothing, and if it rolls back
+  // this one takes the key.
+  private static final String CLAIM_SQL =
+      """
+      insert into idempotency_keys (idempotency_key, operation, request_hash, created_at)
+      values (:key, :operation, :requestHash, :createdAt)
+      on conflict do nothing
+      """;
+
+  private static final String COMPLETE_SQL =
+      """
+      update idempotency_keys
+      set response_status = :status, response_body = :body
+      where idempotency_key = :key
+      """;
+
+  private static final String LOAD_SQL =
+      """
+      select idempotency_key, operation, request_hash, response_status, response_body, created_at
+      from idempotency_keys
+      where idempotency_key = :key
+      """;
+
+  private static final String DELETE_SQL =
+      "delete from idempotency_keys where created_at < :cutoff";
+
+  private final NamedParameterJdbcTemplate jdbc;
+
+  @Override
+  @Transactional
+  public boolean claim(String key, String operation, String requestHash, Instant now) {
+    return jdbc.update(
+            CLAIM_SQL,
+            new MapSqlParameterSource()
+                .addValue("key", key)
+                .addValue("operation", operation)
+                .addValue("requestHash", requestHash)
+                .addValue("createdAt", OffsetDateTime.ofInstant(now, ZoneOffset.UTC)))
+        == 1;
+  }
+
+  @Override
+  @Transactional
+  public void complete(String key, int responseStatus, String responseBody) {
+    jdbc.update(
+        COMPLETE_SQL,
+        new MapSqlParameterSource()
+            .addValue("key", key)
+            .addValue("status", responseStatus)
+            .addValue("body", responseBody));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<IdempotencyRecord> load(String key) {
+    return jdbc
+        .query(
+            LOAD_SQL,
+            new MapSqlParameterSource("key", key),
+            (rs, rowNum) ->
+                new IdempotencyRecord(
+                    rs.getString("idempotency_key"),
+                    rs.getString("operation"),
+                    rs.getString("request_hash"),
+                    rs.getObject("response_status", Integer.class),
+                    rs.getString("response_body"),
+                    rs.getObject("created_at", OffsetDateTime.class).toInstant()))
+        .stream()
+        .findFirst();
+  }
+
+  @Override
+  @Transactional
+  public long deleteCreatedBefore(Instant cutoff) {
+    return jdbc.update(
+        DELETE_SQL,
+        new MapSqlParameterSource("cutoff", OffsetDateTime.ofInstant(cutoff, ZoneOffset.UTC)));
+  }
+}
@@ -1,23 +1,52 @@
 package org.nikitakapustkin.adapters.out.persistence;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import org.nikitakapustkin.adapters.out.persistence.jpa.AccountJpaRepository;
 import org.nikitakapustkin.adapters.out.persistence.jpa.TransactionJpaRepository;
 import org.nikitakapustkin.adapters.out.persistence.mapper.TransactionMapper;
 import org.nikitakapustkin.application.ports.out.LoadTransactionsPort;
 import org.nikitakapustkin.application.ports.out.RecordTransactionPort;
-import org.nikitakapustkin.domain.enums.TransactionType;
+import org.nikitakapustkin.application.ports.out.RecordTransactionsPort;
+import org.nikitakapustkin.application.ports.out.StreamTransactionsPort;
+import org.nikitakapustkin.application.ports.out.TransactionCursor;
+import org.nikitakapustkin.application.ports.out.TransactionFilter;
 import org.nikitakapustkin.domain.models.Transaction;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 @Component
 @RequiredArgsConstructor
-public class TransactionPersistenceAdapter implements RecordTransactionPort, LoadTransactionsPort {
+public class TransactionPersistenceAdapter
+    implements RecordTransactionPort,
+        RecordTransactionsPort,
+        LoadTransactionsPort,
+        StreamTransactionsPort {
+
+  private static final String INSERT_SQL =
+      """
+      insert into transactions (id, transaction_type, account_id, amount, created_at)
+      values (:id, :transactionType, :accountId, :amount, :createdAt)
+      """;
 
   private final TransactionJpaRepository transactions;
   private final AccountJpaRepository accounts;
+  private final NamedParameterJdbcTemplate jdbc;
+  private final EntityManager entityManager;
 
   @Override
   public Transaction recordTransaction(Transaction transaction) {
@@ -28,28 +57,87 @@ public class TransactionPersistenceAdapter implements RecordTransactionPort, Loa
   }
 
   @Override
-  public List<Transaction> loadAll() {
-    return transactions.findAll().stream().map(TransactionMapper::toDomain).toList();
+  @Transactional
+  public List<Transaction> recordTransactions(List<Transaction> toRecord) {
+    if (toRecord == null || toRecord.isEmpty()) {
+      return List.of();
+    }
+    List<Transaction> saved = new ArrayList<>(toRecord.size());
+    SqlParameterSource[] batch = new SqlParameterSource[toRecord.size()];
+    for (int i = 0; i < toRecord.size(); i++) {
+      Transaction tx = toRecord.get(i);
+      Transaction withId =
+          Transaction.builder()
+              .id(UUID.randomUUID())
+              .accountId(tx.getAccountId())
+              .transactionType(tx.getTransactionType())
+              .amount(tx.getAmount())
+              .createdAt(tx.getCreatedAt() != null ? tx.getCreatedAt() : Instant.now())
+              .build();
+      saved.add(withId);
+      batch[i] =
+          new MapSqlParameterSource()
+              .addValue("id", withId.getId())
+              .addValue("transactionType", withId.getTransactionType().name())
+              .addValue("accountId", withId.getAccountId())
+              .addValue("amount", withId.getAmount())
+              .addValue(
+                  "createdAt", OffsetDateTime.ofInstant(withId.getCreatedAt(), ZoneOffset.UTC));
+    }
+    jdbc.batchUpdate(INSERT_SQL, batch);
+    return saved;
   }
 
+  // JPQL constructor projection: rows become domain objects directly, without managed entities,
+  // and Hibernate still flushes pending inserts of the current transaction before the read.
   @Override
-  public List<Transaction> loadByType(TransactionType type) {
-    return transactions.findByTransactionType(type).stream()
-        .map(TransactionMapper::toDomain)
-        .toList();
-  }
+  public List<Transaction> loadPage(TransactionFilter filter, TransactionCursor after, int limit) {
+    StringBuilder jpql =
+        new StringBuilder(
+            "select new org.nikitakapustkin.domain.models.Transaction("
+                + "t.id, t.account.accountId, t.transactionType, t.amount, t.createdAt)"
+                + " from TransactionEntity t where 1 = 1");
+    Map<String, Object> params = new HashMap<>();
+    if (filter.accountId() != null) {
+      jpql.append(" and t.account.accountId = :accountId");
+      params.put("accountId", filter.accountId());
+    }
+    if (filter.accountIds() != null) {
+      jpql.append(" and t.account.accountId in :accountIds");
+      params.put("accountIds", filter.accountIds());
+    }
+    if (filter.type() != null) {
+      jpql.append(" and t.transactionType = :type");
+      params.put("type", filter.type());
+    }
+    if (filter.from() != null) {
+      jpql.append(" and t.createdAt >= :from");
+      params.put("from", filter.from());
+    }
+    if (filter.to() != null) {
+      jpql.append(" and t.createdAt < :to");
+      params.put("to", filter.to());
+    }
+    if (after != null) {
+      // Row-value comparison keeps the keyset predicate a single index range condition.
+      jpql.append(" and (t.createdAt, t.id) < (:afterCreatedAt, :afterId)");
+      params.put("afterCreatedAt", after.createdAt());
+      params.put("afterId", after.id());
+    }
+    jpql.append(" order by t.createdAt desc, t.id desc");
 
-  @Override
-  public List<Transaction> loadByAccountId(UUID accountId) {
-    return transactions.findByAccount_AccountId(accountId).stream()
-        .map(TransactionMapper::toDomain)
-        .toList();
+    TypedQuery<Transaction> query =
+        entityManager.createQuery(jpql.toString(), Transaction.class).setMaxResults(limit);
+    params.forEach(query::setParameter);
+    return query.getResultList();
   }
 
   @Override
-  public List<Transaction> loadByAccountIdAndType(UUID accountId, TransactionType type) {
-    return transactions.findByTransactionTypeAndAccount_AccountId(type, accountId).stream()
-        .map(TransactionMapper::toDomain)
-        .toList();
+  public void streamTransactions(TransactionFilter filter, Consumer<Transaction> consumer) {
+    try (Stream<Transaction> rows =
+        transactions.streamForExport(
+            filter.accountId(), filter.type(), filter.from(), filter.to())) {
+      rows.forEach(consumer);
+    }
   }
 }
@@ -1,17 +1,23 @@
 package org.nikitakapustkin.adapters.out.persistence;
 
 import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.nikitakapustkin.adapters.out.friendship.FriendshipIndex;
 import org.nikitakapustkin.adapters.out.persistence.jpa.UserJpaRepository;
 import org.nikitakapustkin.adapters.out.persistence.jpa.entity.UserEntity;
 import org.nikitakapustkin.adapters.out.persistence.mapper.UserMapper;
 import org.nikitakapustkin.application.ports.out.CreateUserPort;
 import org.nikitakapustkin.application.ports.out.DeleteUserPort;
+import org.nikitakapustkin.application.ports.out.LoadFriendLoginsPort;
 import org.nikitakapustkin.application.ports.out.LoadFriendsPort;
 import org.nikitakapustkin.application.ports.out.LoadUserPort;
+import org.nikitakapustkin.application.ports.out.LoadUsersByIdsPort;
 import org.nikitakapustkin.application.ports.out.LoadUsersPort;
 import org.nikitakapustkin.application.ports.out.UpdateFriendsPort;
 import org.nikitakapustkin.domain.enums.HairColor;
@@ -25,13 +31,21 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserPersistenceAdapter
     implements LoadUserPort,
         LoadUsersPort,
+        LoadUsersByIdsPort,
         LoadFriendsPort,
+        LoadFriendLoginsPort,
         CreateUserPort,
         UpdateFriendsPort,
         DeleteUserPort {
 
+  // Keeps each IN list well below driver and planner limits; with Hibernate's IN-clause padding
+  // the chunks also reuse a handful of cached statement shapes.
+  static final int IN_CHUNK_SIZE = 500;
+
   private final UserJpaRepository users;
   private final EntityManager entityManager;
+  private final FriendshipIndex friendshipIndex;
+  private final AccountCache accountCache;
 
   @Override
   @Transactional(readOnly = true)
@@ -44,12 +58,35 @@ public class UserPersistenceAdapter
     return users.findById(id).map(UserMapper::toDomain);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public List<User> loadUsersByIds(Collection<UUID> ids) {
+    if (ids == null || ids.isEmpty()) {
+      return List.of();
+    }
+    List<UUID> distinct = List.copyOf(new LinkedHashSet<>(ids));
+    List<User> loaded = new ArrayList<>(distinct.size());
+    for (int from = 0; from < distinct.size(); from += IN_CHUNK_SIZE) {
+      List<UUID> chunk = distinct.subList(from, Math.min(from + IN_CHUNK_SIZE, distinct.size()));
+      for (UserEntity entity : users.findAllById(chunk)) {
+        loaded.add(UserMapper.toDomain(entity));
+      }
+    }
+    return loaded;
+  }
+
   @Override
   @Transactional(readOnly = true)
   public List<UUID> loadFriendsIds(UUID userId) {
     return users.findFriendIdsByUserId(userId);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public List<String> loadFriendLogins(UUID userId) {
+    return users.findFriendLoginsByUserId(userId);
+  }
+
   @Override
   @Transactional
   public User create(User user) {
@@ -69,6 +106,7 @@ public class UserPersistenceAdapter
     }
     int deleted = users.deleteExistingById(userId);
     entityManager.clear();
+    accountCache.evictUserAfterCompletion(userId);
     return deleted > 0;
   }
 
@@ -86,6 +124,7 @@ public class UserPersistenceAdapter
 
     user.addFriend(friend);
     users.save(user);
+    friendshipIndex.applyLocal(userId, friendId, true);
   }
 
   @Override
@@ -102,6 +141,7 @@ public class UserPersistenceAdapter
 
     user.removeFriend(friend);
     users.save(user);
+    friendshipIndex.applyLocal(userId, friendId, false);
   }
 
   @Override
@@ -1,10 +1,36 @@
 package org.nikitakapustkin.adapters.out.persistence.jpa;
 
+import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import org.nikitakapustkin.adapters.out.persistence.jpa.entity.AccountEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface AccountJpaRepository extends JpaRepository<AccountEntity, UUID> {
   List<AccountEntity> findByUser_Id(UUID userId);
+
+  // ORDER BY makes every caller acquire the row locks in the same order, which rules out deadlocks
+  // between batches touching overlapping accounts.
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select a from AccountEntity a where a.accountId in :ids order by a.accountId")
+  List<AccountEntity> findAllByIdForUpdate(@Param("ids") Collection<UUID> ids);
+
+  // Flush before so pending inserts are visible to the statement, clear after so no managed
+  // entity keeps the old balance.
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      """
+            update AccountEntity a
+            set a.balance = a.balance + :delta,
+                a.version = a.version + 1
+            where a.accountId = :id
+              and a.balance + :delta >= 0
+            """)
+  int applyBalanceDelta(@Param("id") UUID id, @Param("delta") BigDecimal delta);
 }
@@ -1,11 +1,10 @@
 package org.nikitakapustkin.adapters.out.persistence.jpa;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.UUID;
 import org.nikitakapustkin.adapters.out.persistence.jpa.entity.OutboxEventEntity;
 import org.nikitakapustkin.adapters.out.persistence.jpa.entity.OutboxStatus;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -15,28 +14,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface OutboxEventJpaRepository extends JpaRepository<OutboxEventEntity, UUID> {
-  Page<OutboxEventEntity> findByStatusOrderByCreatedAt(OutboxStatus status, Pageable pageable);
-
   long deleteByStatusAndPublishedAtBefore(OutboxStatus status, Instant cutoff);
 
   long deleteByStatusAndLastAttemptAtBefore(OutboxStatus status, Instant cutoff);
 
-  @Modifying
-  @Transactional
-  @Query(
-      """
-            update OutboxEventEntity e
-            set e.status = :processingStatus,
-                e.lastAttemptAt = :now
-            where e.id = :id
-              and e.status = :newStatus
-            """)
-  int claimForProcessing(
-      @Param("id") UUID id,
-      @Param("newStatus") OutboxStatus newStatus,
-      @Param("processingStatus") OutboxStatus processingStatus,
-      @Param("now") Instant now);
-
   @Modifying
   @Transactional
   @Query(
@@ -44,28 +25,15 @@ public interface OutboxEventJpaRepository extends JpaRepository<OutboxEventEntit
             update OutboxEventEntity e
             set e.status = :sentStatus,
                 e.publishedAt = :publishedAt,
-                e.lastError = null
-            where e.id = :id
+                e.lastError = null,
+                e.leaseOwner = null,
+                e.leaseUntil = null
+            where e.id in :ids
+              and e.leaseOwner = :owner
             """)
-  void markSent(
-      @Param("id") UUID id,
+  int markSent(
+      @Param("ids") Collection<UUID> ids,
+      @Param("owner") String owner,
       @Param("sentStatus") OutboxStatus sentStatus,
       @Param("publishedAt") Instant publishedAt);
-
-  @Modifying
-  @Transactional
-  @Query(
-      """
-            update OutboxEventEntity e
-            set e.status = :newStatus,
-                e.attempts = e.attempts + 1,
-                e.lastAttemptAt = :now,
-                e.lastError = :lastError
-            where e.id = :id
-            """)
-  void markFailed(
-      @Param("id") UUID id,
-      @Param("newStatus") OutboxStatus newStatus,
-      @Param("now") Instant now,
-      @Param("lastError") String lastError);
 }
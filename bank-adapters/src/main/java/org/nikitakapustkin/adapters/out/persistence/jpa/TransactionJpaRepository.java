@@ -1,16 +1,38 @@
 package org.nikitakapustkin.adapters.out.persistence.jpa;
 
-import java.util.List;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.nikitakapustkin.adapters.out.persistence.jpa.entity.TransactionEntity;
 import org.nikitakapustkin.domain.enums.TransactionType;
+import org.nikitakapustkin.domain.models.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface TransactionJpaRepository extends JpaRepository<TransactionEntity, UUID> {
-  List<TransactionEntity> findByTransactionType(TransactionType type);
+  int EXPORT_FETCH_SIZE = 1000;
 
-  List<TransactionEntity> findByAccount_AccountId(UUID accountId);
-
-  List<TransactionEntity> findByTransactionTypeAndAccount_AccountId(
-      TransactionType type, UUID accountId);
+  // Constructor projection: rows never enter the persistence context, and with a fetch size the
+  // driver pulls them from a server-side cursor instead of buffering the whole result.
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+  @Query(
+      """
+      select new org.nikitakapustkin.domain.models.Transaction(
+          t.id, t.account.accountId, t.transactionType, t.amount, t.createdAt)
+      from TransactionEntity t
+      where (:accountId is null or t.account.accountId = :accountId)
+        and (:type is null or t.transactionType = :type)
+        and (cast(:from as Instant) is null or t.createdAt >= :from)
+        and (cast(:to as Instant) is null or t.createdAt < :to)
+      order by t.createdAt, t.id
+      """)
+  Stream<Transaction> streamForExport(
+      @Param("accountId") UUID accountId,
+      @Param("type") TransactionType type,
+      @Param("from") Instant from,
+      @Param("to") Instant to);
 }
@@ -26,6 +26,9 @@ public interface UserJpaRepository extends JpaRepository<UserEntity, UUID> {
   @Query("SELECT f.id FROM UserEntity u JOIN u.friends f WHERE u.id = :userId")
   List<UUID> findFriendIdsByUserId(@Param("userId") UUID userId);
 
+  @Query("SELECT f.login FROM UserEntity u JOIN u.friends f WHERE u.id = :userId")
+  List<String> findFriendLoginsByUserId(@Param("userId") UUID userId);
+
   @Modifying
   @Query("delete from UserEntity u where u.id = :userId")
   int deleteExistingById(@Param("userId") UUID userId);
@@ -0,0 +1,8 @@
+package org.nikitakapustkin.application.ports.in;
+
+import org.nikitakapustkin.application.ports.in.commands.BatchTransferCommand;
+import org.nikitakapustkin.application.ports.in.results.BatchTransferResult;
+
+public interface BatchTransferUseCase {
+  BatchTransferResult transferBatch(BatchTransferCommand command);
+}
@@ -0,0 +1,22 @@
+package org.nikitakapustkin.application.ports.in.commands;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Getter;
+import org.nikitakapustkin.application.ports.in.SelfValidating;
+
+@Getter
+public class BatchTransferCommand extends SelfValidating<BatchTransferCommand> {
+  public static final int MAX_TRANSFERS = 1000;
+
+  @NotEmpty
+  @Size(max = MAX_TRANSFERS)
+  private final List<@NotNull TransferMoneyCommand> transfers;
+
+  public BatchTransferCommand(List<TransferMoneyCommand> transfers) {
+    this.transfers = transfers;
+    validateSelf();
+  }
+}
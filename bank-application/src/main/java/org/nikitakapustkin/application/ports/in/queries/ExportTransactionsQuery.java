@@ -0,0 +1,11 @@
+package org.nikitakapustkin.application.ports.in.queries;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.nikitakapustkin.domain.models.Transaction;
+
+public interface ExportTransactionsQuery {
+  void exportTransactions(
+      String type, UUID accountId, Instant from, Instant to, Consumer<Transaction> sink);
+}
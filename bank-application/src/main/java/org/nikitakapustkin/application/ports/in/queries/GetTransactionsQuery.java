@@ -1,9 +1,7 @@
 package org.nikitakapustkin.application.ports.in.queries;
 
-import java.util.List;
-import java.util.UUID;
-import org.nikitakapustkin.domain.models.Transaction;
+import org.nikitakapustkin.application.ports.in.results.TransactionPage;
 
 public interface GetTransactionsQuery {
-  List<Transaction> getTransactions(String type, UUID accountId);
+  TransactionPage getTransactions(TransactionsPageQuery query);
 }
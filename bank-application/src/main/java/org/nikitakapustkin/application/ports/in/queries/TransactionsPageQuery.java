@@ -0,0 +1,64 @@
+package org.nikitakapustkin.application.ports.in.queries;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import lombok.Getter;
+import org.nikitakapustkin.application.ports.in.SelfValidating;
+
+@Getter
+public class TransactionsPageQuery extends SelfValidating<TransactionsPageQuery> {
+  public static final int DEFAULT_LIMIT = 50;
+  public static final int MAX_LIMIT = 500;
+  public static final int MAX_ACCOUNT_IDS = 100;
+
+  private final String type;
+  private final UUID accountId;
+
+  @Size(max = MAX_ACCOUNT_IDS)
+  private final List<UUID> accountIds;
+
+  private final Instant from;
+  private final Instant to;
+  private final String cursor;
+
+  @Min(1)
+  @Max(MAX_LIMIT)
+  private final int limit;
+
+  public TransactionsPageQuery(
+      String type, UUID accountId, Instant from, Instant to, String cursor, Integer limit) {
+    this(type, accountId, null, from, to, cursor, limit);
+  }
+
+  public TransactionsPageQuery(
+      String type,
+      UUID accountId,
+      List<UUID> accountIds,
+      Instant from,
+      Instant to,
+      String cursor,
+      Integer limit) {
+    this.type = type;
+    this.accountId = accountId;
+    this.accountIds = accountIds != null ? List.copyOf(accountIds) : null;
+    this.from = from;
+    this.to = to;
+    this.cursor = cursor;
+    this.limit = limit != null ? limit : DEFAULT_LIMIT;
+    validateSelf();
+    if (from != null && to != null && !from.isBefore(to)) {
+      throw new IllegalArgumentException("'from' must be before 'to'");
+    }
+    if (accountId != null && accountIds != null) {
+      throw new IllegalArgumentException("Use either 'accountId' or 'accountIds', not both");
+    }
+  }
+
+  public static TransactionsPageQuery firstPage(UUID accountId, Integer limit) {
+    return new TransactionsPageQuery(null, accountId, null, null, null, limit);
+  }
+}
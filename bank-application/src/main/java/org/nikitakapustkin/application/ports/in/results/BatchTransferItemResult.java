@@ -0,0 +1,45 @@
+package org.nikitakapustkin.application.ports.in.results;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Outcome of a single transfer inside a batch. Successful items carry the commission and the
+ * credited amount; failed items carry the reason and a human-readable message.
+ */
+public record BatchTransferItemResult(
+    int index,
+    UUID fromAccountId,
+    UUID toAccountId,
+    BigDecimal amount,
+    BigDecimal commission,
+    BigDecimal credited,
+    TransferFailureReason failureReason,
+    String message) {
+
+  public static BatchTransferItemResult success(
+      int index,
+      UUID fromAccountId,
+      UUID toAccountId,
+      BigDecimal amount,
+      BigDecimal commission,
+      BigDecimal credited) {
+    return new BatchTransferItemResult(
+        index, fromAccountId, toAccountId, amount, commission, credited, null, null);
+  }
+
+  public static BatchTransferItemResult failure(
+      int index,
+      UUID fromAccountId,
+      UUID toAccountId,
+      BigDecimal amount,
+      TransferFailureReason failureReason,
+      String message) {
+    return new BatchTransferItemResult(
+        index, fromAccountId, toAccountId, amount, null, null, failureReason, message);
+  }
+
+  public boolean succeeded() {
+    return failureReason == null;
+  }
+}
@@ -0,0 +1,14 @@
+package org.nikitakapustkin.application.ports.in.results;
+
+import java.util.List;
+
+public record BatchTransferResult(List<BatchTransferItemResult> items) {
+
+  public long succeededCount() {
+    return items.stream().filter(BatchTransferItemResult::succeeded).count();
+  }
+
+  public long failedCount() {
+    return items.size() - succeededCount();
+  }
+}
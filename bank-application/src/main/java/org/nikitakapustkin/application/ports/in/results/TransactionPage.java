@@ -0,0 +1,7 @@
+package org.nikitakapustkin.application.ports.in.results;
+
+import java.util.List;
+import org.nikitakapustkin.domain.models.Transaction;
+
+/** One page of history; {@code nextCursor} is {@code null} when there is nothing after it. */
+public record TransactionPage(List<Transaction> items, String nextCursor) {}
@@ -0,0 +1,7 @@
+package org.nikitakapustkin.application.ports.in.results;
+
+public enum TransferFailureReason {
+  ACCOUNT_NOT_FOUND,
+  NOT_ENOUGH_MONEY,
+  INVALID_ARGUMENT
+}
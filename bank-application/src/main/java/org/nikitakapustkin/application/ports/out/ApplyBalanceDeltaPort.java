@@ -0,0 +1,18 @@
+package org.nikitakapustkin.application.ports.out;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Changes an account balance in one conditional statement instead of load, modify and save. The
+ * delta is applied only if the resulting balance stays non-negative.
+ */
+public interface ApplyBalanceDeltaPort {
+  BalanceDeltaOutcome applyBalanceDelta(UUID accountId, BigDecimal delta);
+
+  enum BalanceDeltaOutcome {
+    APPLIED,
+    ACCOUNT_NOT_FOUND,
+    INSUFFICIENT_FUNDS
+  }
+}
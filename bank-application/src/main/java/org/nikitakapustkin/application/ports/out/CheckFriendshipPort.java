@@ -0,0 +1,7 @@
+package org.nikitakapustkin.application.ports.out;
+
+import java.util.UUID;
+
+public interface CheckFriendshipPort {
+  boolean areFriends(UUID userId, UUID otherUserId);
+}
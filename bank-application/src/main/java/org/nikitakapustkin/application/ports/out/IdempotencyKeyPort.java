@@ -0,0 +1,20 @@
+package org.nikitakapustkin.application.ports.out;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotencyKeyPort {
+  /**
+   * Claims the key for a request in the current transaction. Returns {@code false} if the key is
+   * already taken; a claim held by a transaction still in flight is waited for, so the caller then
+   * sees that request's stored outcome.
+   */
+  boolean claim(String key, String operation, String requestHash, Instant now);
+
+  /** Stores the outcome of the request that claimed the key, in the same transaction. */
+  void complete(String key, int responseStatus, String responseBody);
+
+  Optional<IdempotencyRecord> load(String key);
+
+  long deleteCreatedBefore(Instant cutoff);
+}
@@ -0,0 +1,11 @@
+package org.nikitakapustkin.application.ports.out;
+
+import java.time.Instant;
+
+public record IdempotencyRecord(
+    String key,
+    String operation,
+    String requestHash,
+    Integer responseStatus,
+    String responseBody,
+    Instant createdAt) {}
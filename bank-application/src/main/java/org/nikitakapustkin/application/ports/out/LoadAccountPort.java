@@ -6,4 +6,12 @@ import org.nikitakapustkin.domain.models.Account;
 
 public interface LoadAccountPort {
   Optional<Account> loadAccount(UUID accountId);
+
+  /**
+   * Loads an account that is about to be modified in the current transaction. Adapters may lock the
+   * row here; by default it is a plain read and conflicts are detected on write.
+   */
+  default Optional<Account> loadAccountForUpdate(UUID accountId) {
+    return loadAccount(accountId);
+  }
 }
@@ -0,0 +1,15 @@
+package org.nikitakapustkin.application.ports.out;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.nikitakapustkin.domain.models.Account;
+
+public interface LoadAccountsForUpdatePort {
+  /**
+   * Loads the given accounts in a single statement and locks them until the surrounding transaction
+   * ends. Rows are locked in ascending account id order, so concurrent callers with overlapping id
+   * sets cannot deadlock each other. Unknown ids are silently skipped.
+   */
+  List<Account> loadAccountsForUpdate(Collection<UUID> accountIds);
+}
@@ -0,0 +1,8 @@
+package org.nikitakapustkin.application.ports.out;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface LoadFriendLoginsPort {
+  List<String> loadFriendLogins(UUID userId);
+}
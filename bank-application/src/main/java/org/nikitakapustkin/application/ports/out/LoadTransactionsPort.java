@@ -1,16 +1,13 @@
 package org.nikitakapustkin.application.ports.out;
 
 import java.util.List;
-import java.util.UUID;
-import org.nikitakapustkin.domain.enums.TransactionType;
 import org.nikitakapustkin.domain.models.Transaction;
 
 public interface LoadTransactionsPort {
-  List<Transaction> loadAll();
-
-  List<Transaction> loadByType(TransactionType type);
-
-  List<Transaction> loadByAccountId(UUID accountId);
-
-  List<Transaction> loadByAccountIdAndType(UUID accountId, TransactionType type);
+  /**
+   * Loads at most {@code limit} transactions matching {@code filter}, newest first, ordered by
+   * {@code createdAt desc, id desc}. With a non-null {@code after} only rows past that position are
+   * returned.
+   */
+  List<Transaction> loadPage(TransactionFilter filter, TransactionCursor after, int limit);
 }
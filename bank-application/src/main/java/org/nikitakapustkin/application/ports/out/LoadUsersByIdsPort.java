@@ -0,0 +1,14 @@
+package org.nikitakapustkin.application.ports.out;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.nikitakapustkin.domain.models.User;
+
+public interface LoadUsersByIdsPort {
+  /**
+   * Loads the users with the given ids in a bounded number of statements. Unknown ids are skipped;
+   * the result order is unspecified.
+   */
+  List<User> loadUsersByIds(Collection<UUID> ids);
+}
@@ -0,0 +1,9 @@
+package org.nikitakapustkin.application.ports.out;
+
+import java.util.List;
+import org.nikitakapustkin.domain.events.DomainEvent;
+
+public interface PublishEventsPort {
+  /** Publishes events of any type at once; each one is routed by its {@code eventType}. */
+  void publishAll(List<DomainEvent> events);
+}
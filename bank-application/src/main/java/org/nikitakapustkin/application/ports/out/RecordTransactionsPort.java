@@ -0,0 +1,9 @@
+package org.nikitakapustkin.application.ports.out;
+
+import java.util.List;
+import org.nikitakapustkin.domain.models.Transaction;
+
+public interface RecordTransactionsPort {
+  /** Persists all transactions at once and returns them, in the same order, with ids assigned. */
+  List<Transaction> recordTransactions(List<Transaction> transactions);
+}
@@ -0,0 +1,12 @@
+package org.nikitakapustkin.application.ports.out;
+
+import java.util.function.Consumer;
+import org.nikitakapustkin.domain.models.Transaction;
+
+public interface StreamTransactionsPort {
+  /**
+   * Hands every transaction matching {@code filter} to {@code consumer}, oldest first by {@code
+   * createdAt, id}, without holding the result set in memory. Must run inside a transaction.
+   */
+  void streamTransactions(TransactionFilter filter, Consumer<Transaction> consumer);
+}
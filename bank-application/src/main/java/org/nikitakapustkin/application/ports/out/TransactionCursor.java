@@ -0,0 +1,10 @@
+package org.nikitakapustkin.application.ports.out;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Keyset position in the history: the {@code (createdAt, id)} of the last row a page returned. The
+ * next page continues strictly after it in {@code createdAt desc, id desc} order.
+ */
+public record TransactionCursor(Instant createdAt, UUID id) {}
@@ -0,0 +1,19 @@
+package org.nikitakapustkin.application.ports.out;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import org.nikitakapustkin.domain.enums.TransactionType;
+
+/**
+ * Optional restrictions for a transaction history read; {@code null} components are not applied.
+ * {@code accountIds} keeps rows of any of the listed accounts and is honoured by paged reads only.
+ * {@code from} is inclusive and {@code to} is exclusive.
+ */
+public record TransactionFilter(
+    UUID accountId, Set<UUID> accountIds, TransactionType type, Instant from, Instant to) {
+
+  public TransactionFilter(UUID accountId, TransactionType type, Instant from, Instant to) {
+    this(accountId, null, type, from, to);
+  }
+}
@@ -0,0 +1,8 @@
+package org.nikitakapustkin.application.ports.out;
+
+import java.util.Collection;
+import org.nikitakapustkin.domain.models.Account;
+
+public interface UpdateAccountsStatePort {
+  void updateAccounts(Collection<Account> accounts);
+}
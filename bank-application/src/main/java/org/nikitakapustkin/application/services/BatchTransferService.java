@@ -0,0 +1,221 @@
+package org.nikitakapustkin.application.services;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.nikitakapustkin.application.ports.in.BatchTransferUseCase;
+import org.nikitakapustkin.application.ports.in.commands.BatchTransferCommand;
+import org.nikitakapustkin.application.ports.in.commands.TransferMoneyCommand;
+import org.nikitakapustkin.application.ports.in.results.BatchTransferItemResult;
+import org.nikitakapustkin.application.ports.in.results.BatchTransferResult;
+import org.nikitakapustkin.application.ports.in.results.TransferFailureReason;
+import org.nikitakapustkin.application.ports.out.CheckFriendshipPort;
+import org.nikitakapustkin.application.ports.out.LoadAccountsForUpdatePort;
+import org.nikitakapustkin.application.ports.out.PublishEventsPort;
+import org.nikitakapustkin.application.ports.out.RecordTransactionsPort;
+import org.nikitakapustkin.application.ports.out.UpdateAccountsStatePort;
+import org.nikitakapustkin.domain.enums.EventType;
+import org.nikitakapustkin.domain.enums.TransactionType;
+import org.nikitakapustkin.domain.events.DomainEvent;
+import org.nikitakapustkin.domain.events.payload.AccountTransferredEventData;
+import org.nikitakapustkin.domain.events.payload.TransactionCreatedEventData;
+import org.nikitakapustkin.domain.events.payload.TransferDirection;
+import org.nikitakapustkin.domain.exceptions.NotEnoughMoneyException;
+import org.nikitakapustkin.domain.models.Account;
+import org.nikitakapustkin.domain.models.Transaction;
+import org.nikitakapustkin.domain.services.CommissionPolicy;
+import org.nikitakapustkin.domain.services.TransferRules;
+
+/**
+ * Applies many transfers with a constant number of statements: one locking read for every involved
+ * account, then one batched write each for balances, transactions and outbox events. Items are
+ * applied in request order against the in-memory balances, so a later item sees the effect of
+ * earlier ones. A failing item is reported and skipped; it never aborts the batch.
+ */
+@RequiredArgsConstructor
+public class BatchTransferService implements BatchTransferUseCase {
+
+  private final LoadAccountsForUpdatePort loadAccountsForUpdatePort;
+  private final UpdateAccountsStatePort updateAccountsStatePort;
+  private final CheckFriendshipPort checkFriendshipPort;
+  private final RecordTransactionsPort recordTransactionsPort;
+  private final PublishEventsPort publishEventsPort;
+  private final CommissionPolicy commissionPolicy;
+
+  @Override
+  public BatchTransferResult transferBatch(BatchTransferCommand cmd) {
+    List<TransferMoneyCommand> transfers = cmd.getTransfers();
+
+    Set<UUID> accountIds = new LinkedHashSet<>();
+    for (TransferMoneyCommand transfer : transfers) {
+      accountIds.add(transfer.getFromAccountId());
+      accountIds.add(transfer.getToAccountId());
+    }
+    Map<UUID, Account> accounts = new HashMap<>();
+    for (Account account : loadAccountsForUpdatePort.loadAccountsForUpdate(accountIds)) {
+      accounts.put(account.getId(), account);
+    }
+
+    Map<UUID, Account> touched = new LinkedHashMap<>();
+    List<AppliedTransfer> applied = new ArrayList<>();
+    List<Transaction> transactions = new ArrayList<>();
+    List<BatchTransferItemResult> results = new ArrayList<>(transfers.size());
+    Instant now = Instant.now();
+
+    for (int i = 0; i < transfers.size(); i++) {
+      TransferMoneyCommand transfer = transfers.get(i);
+      UUID fromId = transfer.getFromAccountId();
+      UUID toId = transfer.getToAccountId();
+      BigDecimal amount = transfer.getAmount();
+
+      Account from = accounts.get(fromId);
+      Account to = accounts.get(toId);
+      if (from == null || to == null) {
+        UUID missing = from == null ? fromId : toId;
+        results.add(
+            BatchTransferItemResult.failure(
+                i,
+                fromId,
+                toId,
+                amount,
+                TransferFailureReason.ACCOUNT_NOT_FOUND,
+                "Account not found: " + missing));
+        continue;
+      }
+
+      TransferRules.TransferCalculation calculation;
+      try {
+        calculation =
+            TransferRules.calculate(
+                fromId,
+                toId,
+                from.getUserId(),
+                to.getUserId(),
+                amount,
+                areFriends(from, to),
+                commissionPolicy);
+        from.withdraw(amount);
+      } catch (NotEnoughMoneyException ex) {
+        results.add(
+            BatchTransferItemResult.failure(
+                i, fromId, toId, amount, TransferFailureReason.NOT_ENOUGH_MONEY, ex.getMessage()));
+        continue;
+      } catch (IllegalArgumentException ex) {
+        results.add(
+            BatchTransferItemResult.failure(
+                i, fromId, toId, amount, TransferFailureReason.INVALID_ARGUMENT, ex.getMessage()));
+        continue;
+      }
+      to.deposit(calculation.credited());
+
+      touched.put(fromId, from);
+      touched.put(toId, to);
+      transactions.add(transferTransaction(fromId, amount.negate(), now));
+      transactions.add(transferTransaction(toId, calculation.credited(), now));
+      applied.add(new AppliedTransfer(fromId, toId, amount, calculation.credited()));
+      results.add(
+          BatchTransferItemResult.success(
+              i, fromId, toId, amount, calculation.commission(), calculation.credited()));
+    }
+
+    if (!applied.isEmpty()) {
+      updateAccountsStatePort.updateAccounts(touched.values());
+      List<Transaction> saved = recordTransactionsPort.recordTransactions(transactions);
+      publishEventsPort.publishAll(buildEvents(applied, saved, now));
+    }
+    return new BatchTransferResult(results);
+  }
+
+  private boolean areFriends(Account from, Account to) {
+    UUID fromUserId = from.getUserId();
+    UUID toUserId = to.getUserId();
+    if (fromUserId == null || toUserId == null || fromUserId.equals(toUserId)) {
+      return false;
+    }
+    return checkFriendshipPort.areFriends(fromUserId, toUserId);
+  }
+
+  private static Transaction transferTransaction(UUID accountId, BigDecimal amount, Instant now) {
+    return Transaction.builder()
+        .accountId(accountId)
+        .transactionType(TransactionType.TRANSFER)
+        .amount(amount)
+        .createdAt(now)
+        .build();
+  }
+
+  private static List<DomainEvent> buildEvents(
+      List<AppliedTransfer> applied, List<Transaction> saved, Instant now) {
+    List<DomainEvent> events = new ArrayList<>(applied.size() * 4);
+    for (int i = 0; i < applied.size(); i++) {
+      AppliedTransfer transfer = applied.get(i);
+      UUID correlationId = UUID.randomUUID();
+      events.add(transactionCreated(saved.get(2 * i), correlationId));
+      events.add(transactionCreated(saved.get(2 * i + 1), correlationId));
+
+      String outDescription =
+          "Transfer out " + transfer.amount().toPlainString() + " to account " + transfer.toId();
+      events.add(
+          new DomainEvent(
+              UUID.randomUUID(),
+              correlationId,
+              transfer.fromId(),
+              EventType.ACCOUNT_TRANSFER,
+              now,
+              outDescription,
+              new AccountTransferredEventData(
+                  transfer.fromId(),
+                  transfer.toId(),
+                  transfer.amount(),
+                  TransferDirection.OUT,
+                  outDescription)));
+
+      String inDescription =
+          "Transfer in "
+              + transfer.credited().toPlainString()
+              + " from account "
+              + transfer.fromId();
+      events.add(
+          new DomainEvent(
+              UUID.randomUUID(),
+              correlationId,
+              transfer.toId(),
+              EventType.ACCOUNT_TRANSFER,
+              now,
+              inDescription,
+              new AccountTransferredEventData(
+                  transfer.toId(),
+                  transfer.fromId(),
+                  transfer.credited(),
+                  TransferDirection.IN,
+                  inDescription)));
+    }
+    return events;
+  }
+
+  private static DomainEvent transactionCreated(Transaction tx, UUID correlationId) {
+    return new DomainEvent(
+        tx.getId(),
+        correlationId,
+        tx.getAccountId(),
+        EventType.TRANSACTION_CREATED,
+        tx.getCreatedAt(),
+        "Transaction created for account " + tx.getAccountId(),
+        new TransactionCreatedEventData(
+            tx.getId(),
+            tx.getAccountId(),
+            tx.getTransactionType(),
+            tx.getAmount(),
+            tx.getCreatedAt()));
+  }
+
+  private record AppliedTransfer(UUID fromId, UUID toId, BigDecimal amount, BigDecimal credited) {}
+}
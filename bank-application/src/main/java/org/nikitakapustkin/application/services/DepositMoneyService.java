@@ -5,24 +5,24 @@ import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.nikitakapustkin.application.ports.in.DepositMoneyUseCase;
 import org.nikitakapustkin.application.ports.in.commands.DepositMoneyCommand;
-import org.nikitakapustkin.application.ports.out.LoadAccountPort;
+import org.nikitakapustkin.application.ports.out.ApplyBalanceDeltaPort;
 import org.nikitakapustkin.application.ports.out.PublishAccountEventPort;
 import org.nikitakapustkin.application.ports.out.PublishTransactionEventPort;
 import org.nikitakapustkin.application.ports.out.RecordTransactionPort;
-import org.nikitakapustkin.application.ports.out.UpdateAccountStatePort;
 import org.nikitakapustkin.domain.enums.EventType;
 import org.nikitakapustkin.domain.enums.TransactionType;
 import org.nikitakapustkin.domain.events.DomainEvent;
 import org.nikitakapustkin.domain.events.payload.AccountDepositedEventData;
 import org.nikitakapustkin.domain.events.payload.TransactionCreatedEventData;
 import org.nikitakapustkin.domain.exceptions.AccountNotFoundException;
+import org.nikitakapustkin.domain.exceptions.NotEnoughMoneyException;
 import org.nikitakapustkin.domain.models.Transaction;
+import org.nikitakapustkin.domain.services.MoneyRules;
 
 @RequiredArgsConstructor
 public class DepositMoneyService implements DepositMoneyUseCase {
 
-  private final LoadAccountPort loadAccountPort;
-  private final UpdateAccountStatePort updateAccountStatePort;
+  private final ApplyBalanceDeltaPort applyBalanceDeltaPort;
   private final RecordTransactionPort recordTransactionPort;
   private final PublishAccountEventPort publishAccountEventPort;
   private final PublishTransactionEventPort publishTransactionEventPort;
@@ -30,19 +30,19 @@ public class DepositMoneyService implements DepositMoneyUseCase {
   @Override
   public void deposit(DepositMoneyCommand cmd) {
     UUID correlationId = UUID.randomUUID();
-    var account =
-        loadAccountPort
-            .loadAccount(cmd.getAccountId())
-            .orElseThrow(
-                () -> new AccountNotFoundException("Account not found: " + cmd.getAccountId()));
-
-    account.deposit(cmd.getAmount());
-    updateAccountStatePort.updateAccount(account);
+    MoneyRules.requirePositive(cmd.getAmount());
+    UUID accountId = cmd.getAccountId();
+    switch (applyBalanceDeltaPort.applyBalanceDelta(accountId, cmd.getAmount())) {
+      case ACCOUNT_NOT_FOUND ->
+          throw new AccountNotFoundException("Account not found: " + accountId);
+      case INSUFFICIENT_FUNDS -> throw new NotEnoughMoneyException("Not enough money");
+      case APPLIED -> {}
+    }
 
     Transaction saved =
         recordTransactionPort.recordTransaction(
             Transaction.builder()
-                .accountId(account.getId())
+                .accountId(accountId)
                 .transactionType(TransactionType.DEPOSIT)
                 .amount(cmd.getAmount())
                 .createdAt(Instant.now())
@@ -64,14 +64,13 @@ public class DepositMoneyService implements DepositMoneyUseCase {
                 saved.getAmount(),
                 saved.getCreatedAt())));
 
-    String description =
-        "Deposit " + cmd.getAmount().toPlainString() + " to account " + account.getId();
+    String description = "Deposit " + cmd.getAmount().toPlainString() + " to account " + accountId;
     publishAccountEventPort.publishAccountEvent(
         DomainEvent.now(
-            account.getId(),
+            accountId,
             EventType.ACCOUNT_DEPOSIT,
             description,
             correlationId,
-            new AccountDepositedEventData(account.getId(), cmd.getAmount(), description)));
+            new AccountDepositedEventData(accountId, cmd.getAmount(), description)));
   }
 }
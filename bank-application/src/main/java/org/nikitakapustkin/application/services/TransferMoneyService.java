@@ -6,8 +6,8 @@ import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.nikitakapustkin.application.ports.in.TransferMoneyUseCase;
 import org.nikitakapustkin.application.ports.in.commands.TransferMoneyCommand;
+import org.nikitakapustkin.application.ports.out.CheckFriendshipPort;
 import org.nikitakapustkin.application.ports.out.LoadAccountPort;
-import org.nikitakapustkin.application.ports.out.LoadFriendsPort;
 import org.nikitakapustkin.application.ports.out.PublishAccountEventPort;
 import org.nikitakapustkin.application.ports.out.PublishTransactionEventPort;
 import org.nikitakapustkin.application.ports.out.RecordTransactionPort;
@@ -29,7 +29,7 @@ public class TransferMoneyService implements TransferMoneyUseCase {
 
   private final LoadAccountPort loadAccountPort;
   private final UpdateAccountStatePort updateAccountStatePort;
-  private final LoadFriendsPort loadFriendsPort;
+  private final CheckFriendshipPort checkFriendshipPort;
   private final RecordTransactionPort recordTransactionPort;
   private final PublishAccountEventPort publishAccountEventPort;
   private final PublishTransactionEventPort publishTransactionEventPort;
@@ -39,16 +39,18 @@ public class TransferMoneyService implements TransferMoneyUseCase {
   public void transferMoney(TransferMoneyCommand cmd) {
     UUID correlationId = UUID.randomUUID();
 
-    Account from =
-        loadAccountPort
-            .loadAccount(cmd.getFromAccountId())
-            .orElseThrow(
-                () -> new AccountNotFoundException("Account not found: " + cmd.getFromAccountId()));
-    Account to =
-        loadAccountPort
-            .loadAccount(cmd.getToAccountId())
-            .orElseThrow(
-                () -> new AccountNotFoundException("Account not found: " + cmd.getToAccountId()));
+    // Lock the two rows in a fixed order so opposite transfers between the same accounts cannot
+    // deadlock when the adapter uses pessimistic locking. The order is the database's (unsigned)
+    // uuid order, the one batch transfers lock in.
+    Account from;
+    Account to;
+    if (lockOrder(cmd.getFromAccountId(), cmd.getToAccountId()) <= 0) {
+      from = loadForUpdate(cmd.getFromAccountId());
+      to = loadForUpdate(cmd.getToAccountId());
+    } else {
+      to = loadForUpdate(cmd.getToAccountId());
+      from = loadForUpdate(cmd.getFromAccountId());
+    }
 
     BigDecimal amount = cmd.getAmount();
 
@@ -56,7 +58,7 @@ public class TransferMoneyService implements TransferMoneyUseCase {
     if (from.getUserId() != null
         && to.getUserId() != null
         && !from.getUserId().equals(to.getUserId())) {
-      friends = loadFriendsPort.loadFriendsIds(from.getUserId()).contains(to.getUserId());
+      friends = checkFriendshipPort.areFriends(from.getUserId(), to.getUserId());
     }
 
     TransferRules.TransferCalculation calculation =
@@ -151,4 +153,19 @@ public class TransferMoneyService implements TransferMoneyUseCase {
             new AccountTransferredEventData(
                 to.getId(), from.getId(), credited, TransferDirection.IN, inDescription)));
   }
+
+  // UUID.compareTo compares the halves as signed longs; PostgreSQL and H2 compare the bytes
+  // unsigned, so the two disagree whenever the top bit of a half differs.
+  private static int lockOrder(UUID a, UUID b) {
+    int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+    return high != 0
+        ? high
+        : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+  }
+
+  private Account loadForUpdate(UUID accountId) {
+    return loadAccountPort
+        .loadAccountForUpdate(accountId)
+        .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountId));
+  }
 }
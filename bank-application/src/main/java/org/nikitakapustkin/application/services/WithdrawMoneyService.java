@@ -5,24 +5,24 @@ import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.nikitakapustkin.application.ports.in.WithdrawMoneyUseCase;
 import org.nikitakapustkin.application.ports.in.commands.WithdrawMoneyCommand;
-import org.nikitakapustkin.application.ports.out.LoadAccountPort;
+import org.nikitakapustkin.application.ports.out.ApplyBalanceDeltaPort;
 import org.nikitakapustkin.application.ports.out.PublishAccountEventPort;
 import org.nikitakapustkin.application.ports.out.PublishTransactionEventPort;
 import org.nikitakapustkin.application.ports.out.RecordTransactionPort;
-import org.nikitakapustkin.application.ports.out.UpdateAccountStatePort;
 import org.nikitakapustkin.domain.enums.EventType;
 import org.nikitakapustkin.domain.enums.TransactionType;
 import org.nikitakapustkin.domain.events.DomainEvent;
 import org.nikitakapustkin.domain.events.payload.AccountWithdrawnEventData;
 import org.nikitakapustkin.domain.events.payload.TransactionCreatedEventData;
 import org.nikitakapustkin.domain.exceptions.AccountNotFoundException;
+import org.nikitakapustkin.domain.exceptions.NotEnoughMoneyException;
 import org.nikitakapustkin.domain.models.Transaction;
+import org.nikitakapustkin.domain.services.MoneyRules;
 
 @RequiredArgsConstructor
 public class WithdrawMoneyService implements WithdrawMoneyUseCase {
 
-  private final LoadAccountPort loadAccountPort;
-  private final UpdateAccountStatePort updateAccountStatePort;
+  private final ApplyBalanceDeltaPort applyBalanceDeltaPort;
   private final RecordTransactionPort recordTransactionPort;
   private final PublishAccountEventPort publishAccountEventPort;
   private final PublishTransactionEventPort publishTransactionEventPort;
@@ -30,19 +30,19 @@ public class WithdrawMoneyService implements WithdrawMoneyUseCase {
   @Override
   public void withdraw(WithdrawMoneyCommand cmd) {
     UUID correlationId = UUID.randomUUID();
-    var account =
-        loadAccountPort
-            .loadAccount(cmd.getAccountId())
-            .orElseThrow(
-                () -> new AccountNotFoundException("Account not found: " + cmd.getAccountId()));
-
-    account.withdraw(cmd.getAmount());
-    updateAccountStatePort.updateAccount(account);
+    MoneyRules.requirePositive(cmd.getAmount());
+    UUID accountId = cmd.getAccountId();
+    switch (applyBalanceDeltaPort.applyBalanceDelta(accountId, cmd.getAmount().negate())) {
+      case ACCOUNT_NOT_FOUND ->
+          throw new AccountNotFoundException("Account not found: " + accountId);
+      case INSUFFICIENT_FUNDS -> throw new NotEnoughMoneyException("Not enough money");
+      case APPLIED -> {}
+    }
 
     Transaction saved =
         recordTransactionPort.recordTransaction(
             Transaction.builder()
-                .accountId(account.getId())
+                .accountId(accountId)
                 .transactionType(TransactionType.WITHDRAWAL)
                 .amount(cmd.getAmount().negate())
                 .createdAt(Instant.now())
@@ -65,13 +65,13 @@ public class WithdrawMoneyService implements WithdrawMoneyUseCase {
                 saved.getCreatedAt())));
 
     String description =
-        "Withdraw " + cmd.getAmount().toPlainString() + " from account " + account.getId();
+        "Withdraw " + cmd.getAmount().toPlainString() + " from account " + accountId;
     publishAccountEventPort.publishAccountEvent(
         DomainEvent.now(
-            account.getId(),
+            accountId,
             EventType.ACCOUNT_WITHDRAWAL,
             description,
             correlationId,
-            new AccountWithdrawnEventData(account.getId(), cmd.getAmount(), description)));
+            new AccountWithdrawnEventData(accountId, cmd.getAmount(), description)));
   }
 }
@@ -0,0 +1,31 @@
+package org.nikitakapustkin.application.services.queries;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.nikitakapustkin.application.ports.in.queries.ExportTransactionsQuery;
+import org.nikitakapustkin.application.ports.out.StreamTransactionsPort;
+import org.nikitakapustkin.application.ports.out.TransactionFilter;
+import org.nikitakapustkin.domain.enums.TransactionType;
+import org.nikitakapustkin.domain.models.Transaction;
+
+@RequiredArgsConstructor
+public class ExportTransactionsQueryService implements ExportTransactionsQuery {
+
+  private final StreamTransactionsPort streamTransactionsPort;
+
+  @Override
+  public void exportTransactions(
+      String typeStr, UUID accountId, Instant from, Instant to, Consumer<Transaction> sink) {
+    TransactionType type = null;
+    if (typeStr != null && !typeStr.isBlank()) {
+      type = TransactionType.valueOf(typeStr.trim().toUpperCase());
+    }
+    if (from != null && to != null && !from.isBefore(to)) {
+      throw new IllegalArgumentException("'from' must be before 'to'");
+    }
+    streamTransactionsPort.streamTransactions(
+        new TransactionFilter(accountId, type, from, to), sink);
+  }
+}
@@ -1,31 +1,83 @@
 package org.nikitakapustkin.application.services.queries;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.nikitakapustkin.application.ports.in.queries.GetTransactionsQuery;
+import org.nikitakapustkin.application.ports.in.queries.TransactionsPageQuery;
+import org.nikitakapustkin.application.ports.in.results.TransactionPage;
 import org.nikitakapustkin.application.ports.out.LoadTransactionsPort;
+import org.nikitakapustkin.application.ports.out.TransactionCursor;
+import org.nikitakapustkin.application.ports.out.TransactionFilter;
 import org.nikitakapustkin.domain.enums.TransactionType;
 import org.nikitakapustkin.domain.models.Transaction;
 
+/**
+ * Serves history in keyset pages. The cursor is an opaque token holding the {@code (createdAt, id)}
+ * of the last returned row, so every page costs one index range scan no matter how deep the client
+ * has paged. A list of account ids is served as one merged history in the same order, so a caller
+ * showing several accounts needs one request instead of one per account.
+ */
 @RequiredArgsConstructor
 public class GetTransactionsQueryService implements GetTransactionsQuery {
 
+  private static final String CURSOR_SEPARATOR = "|";
+
   private final LoadTransactionsPort loadTransactionsPort;
 
   @Override
-  public List<Transaction> getTransactions(String typeStr, UUID accountId) {
+  public TransactionPage getTransactions(TransactionsPageQuery query) {
     TransactionType type = null;
+    String typeStr = query.getType();
     if (typeStr != null && !typeStr.isBlank()) {
       type = TransactionType.valueOf(typeStr.trim().toUpperCase());
     }
+    Set<UUID> accountIds = null;
+    if (query.getAccountIds() != null) {
+      if (query.getAccountIds().isEmpty()) {
+        return new TransactionPage(List.of(), null);
+      }
+      accountIds = Set.copyOf(query.getAccountIds());
+    }
+    TransactionFilter filter =
+        new TransactionFilter(
+            query.getAccountId(), accountIds, type, query.getFrom(), query.getTo());
 
-    if (accountId != null) {
-      return (type == null)
-          ? loadTransactionsPort.loadByAccountId(accountId)
-          : loadTransactionsPort.loadByAccountIdAndType(accountId, type);
+    int limit = query.getLimit();
+    // One extra row tells whether another page exists without a separate count query.
+    List<Transaction> rows =
+        loadTransactionsPort.loadPage(filter, decodeCursor(query.getCursor()), limit + 1);
+    if (rows.size() <= limit) {
+      return new TransactionPage(rows, null);
     }
+    List<Transaction> page = rows.subList(0, limit);
+    return new TransactionPage(List.copyOf(page), encodeCursor(page.get(limit - 1)));
+  }
 
-    return (type == null) ? loadTransactionsPort.loadAll() : loadTransactionsPort.loadByType(type);
+  static String encodeCursor(Transaction last) {
+    String raw = last.getCreatedAt().toString() + CURSOR_SEPARATOR + last.getId();
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  static TransactionCursor decodeCursor(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = raw.indexOf(CURSOR_SEPARATOR);
+      return new TransactionCursor(
+          Instant.parse(raw.substring(0, separator)),
+          UUID.fromString(raw.substring(separator + 1)));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+      throw new IllegalArgumentException("Invalid cursor", ex);
+    }
   }
 }
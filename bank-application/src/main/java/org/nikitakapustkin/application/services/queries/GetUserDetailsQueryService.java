@@ -5,7 +5,7 @@ import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.nikitakapustkin.application.ports.in.queries.GetUserDetailsQuery;
 import org.nikitakapustkin.application.ports.out.LoadAccountsPort;
-import org.nikitakapustkin.application.ports.out.LoadFriendsPort;
+import org.nikitakapustkin.application.ports.out.LoadFriendLoginsPort;
 import org.nikitakapustkin.application.ports.out.LoadUserPort;
 import org.nikitakapustkin.domain.exceptions.UserNotFoundException;
 import org.nikitakapustkin.domain.models.Account;
@@ -15,7 +15,7 @@ import org.nikitakapustkin.domain.models.User;
 public class GetUserDetailsQueryService implements GetUserDetailsQuery {
 
   private final LoadUserPort loadUserPort;
-  private final LoadFriendsPort loadFriendsPort;
+  private final LoadFriendLoginsPort loadFriendLoginsPort;
   private final LoadAccountsPort loadAccountsPort;
 
   @Override
@@ -25,13 +25,7 @@ public class GetUserDetailsQueryService implements GetUserDetailsQuery {
             .loadUserById(userId)
             .orElseThrow(() -> new UserNotFoundException("User with ID " + userId + " not found"));
 
-    List<UUID> friendIds = loadFriendsPort.loadFriendsIds(user.getId());
-    List<String> friendsLogins =
-        friendIds.stream()
-            .map(loadUserPort::loadUserById)
-            .map(opt -> opt.orElseThrow(() -> new UserNotFoundException("Friend not found")))
-            .map(User::getLogin)
-            .toList();
+    List<String> friendsLogins = loadFriendLoginsPort.loadFriendLogins(user.getId());
 
     List<Account> accounts = loadAccountsPort.loadAccounts(user.getId());
 
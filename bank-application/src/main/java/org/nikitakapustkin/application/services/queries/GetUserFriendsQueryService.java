@@ -1,11 +1,15 @@
 package org.nikitakapustkin.application.services.queries;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.nikitakapustkin.application.ports.in.queries.GetUserFriendsQuery;
 import org.nikitakapustkin.application.ports.out.LoadFriendsPort;
 import org.nikitakapustkin.application.ports.out.LoadUserPort;
+import org.nikitakapustkin.application.ports.out.LoadUsersByIdsPort;
 import org.nikitakapustkin.domain.exceptions.UserNotFoundException;
 import org.nikitakapustkin.domain.models.User;
 
@@ -14,6 +18,7 @@ public class GetUserFriendsQueryService implements GetUserFriendsQuery {
 
   private final LoadUserPort loadUserPort;
   private final LoadFriendsPort loadFriendsPort;
+  private final LoadUsersByIdsPort loadUsersByIdsPort;
 
   @Override
   public List<User> getFriends(UUID userId) {
@@ -23,10 +28,22 @@ public class GetUserFriendsQueryService implements GetUserFriendsQuery {
             .orElseThrow(() -> new UserNotFoundException("User with ID " + userId + " not found"));
 
     List<UUID> friendIds = loadFriendsPort.loadFriendsIds(user.getId());
+    if (friendIds.isEmpty()) {
+      return List.of();
+    }
 
-    return friendIds.stream()
-        .map(loadUserPort::loadUserById)
-        .map(opt -> opt.orElseThrow(() -> new UserNotFoundException("Friend not found")))
-        .toList();
+    Map<UUID, User> friendsById = new HashMap<>();
+    for (User friend : loadUsersByIdsPort.loadUsersByIds(friendIds)) {
+      friendsById.put(friend.getId(), friend);
+    }
+    List<User> friends = new ArrayList<>(friendIds.size());
+    for (UUID friendId : friendIds) {
+      User friend = friendsById.get(friendId);
+      if (friend == null) {
+        throw new UserNotFoundException("Friend not found");
+      }
+      friends.add(friend);
+    }
+    return friends;
   }
 }
@@ -0,0 +1,162 @@
+package org.nikitakapustkin.application.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.nikitakapustkin.application.ports.in.commands.BatchTransferCommand;
+import org.nikitakapustkin.application.ports.in.commands.TransferMoneyCommand;
+import org.nikitakapustkin.application.ports.in.results.BatchTransferItemResult;
+import org.nikitakapustkin.application.ports.in.results.BatchTransferResult;
+import org.nikitakapustkin.application.ports.in.results.TransferFailureReason;
+import org.nikitakapustkin.application.ports.out.CheckFriendshipPort;
+import org.nikitakapustkin.application.ports.out.LoadAccountsForUpdatePort;
+import org.nikitakapustkin.application.ports.out.PublishEventsPort;
+import org.nikitakapustkin.application.ports.out.RecordTransactionsPort;
+import org.nikitakapustkin.application.ports.out.UpdateAccountsStatePort;
+import org.nikitakapustkin.domain.enums.EventType;
+import org.nikitakapustkin.domain.events.DomainEvent;
+import org.nikitakapustkin.domain.models.Account;
+import org.nikitakapustkin.domain.models.Transaction;
+import org.nikitakapustkin.domain.services.CommissionPolicy;
+
+@ExtendWith(MockitoExtension.class)
+class BatchTransferServiceTest {
+
+  @Mock LoadAccountsForUpdatePort loadAccountsForUpdatePort;
+  @Mock UpdateAccountsStatePort updateAccountsStatePort;
+  @Mock CheckFriendshipPort checkFriendshipPort;
+  @Mock RecordTransactionsPort recordTransactionsPort;
+  @Mock PublishEventsPort publishEventsPort;
+  @Mock CommissionPolicy commissionPolicy;
+
+  @InjectMocks BatchTransferService service;
+
+  @Captor ArgumentCaptor<Collection<Account>> accountsCaptor;
+  @Captor ArgumentCaptor<List<Transaction>> txCaptor;
+  @Captor ArgumentCaptor<List<DomainEvent>> eventsCaptor;
+
+  @Test
+  void batch_loads_accounts_once_and_writes_everything_in_one_call_per_port() {
+    UUID userA = UUID.randomUUID();
+    UUID userB = UUID.randomUUID();
+    Account a = account(userA, "100.00");
+    Account b = account(userB, "0.00");
+    Account c = account(userB, "0.00");
+
+    when(loadAccountsForUpdatePort.loadAccountsForUpdate(any())).thenReturn(List.of(a, b, c));
+    when(checkFriendshipPort.areFriends(userA, userB)).thenReturn(true);
+    when(commissionPolicy.rateFor(userA, userB, true)).thenReturn(new BigDecimal("0.03"));
+    when(recordTransactionsPort.recordTransactions(any())).thenAnswer(this::assignIds);
+
+    BatchTransferResult result =
+        service.transferBatch(
+            new BatchTransferCommand(
+                List.of(
+                    new TransferMoneyCommand(a.getId(), b.getId(), new BigDecimal("50.00")),
+                    new TransferMoneyCommand(a.getId(), c.getId(), new BigDecimal("50.00")))));
+
+    assertThat(result.succeededCount()).isEqualTo(2);
+    assertThat(result.failedCount()).isZero();
+    assertThat(a.getBalance()).isEqualByComparingTo("0.00");
+    assertThat(b.getBalance()).isEqualByComparingTo("48.50");
+    assertThat(c.getBalance()).isEqualByComparingTo("48.50");
+
+    verify(loadAccountsForUpdatePort, times(1)).loadAccountsForUpdate(any());
+    verify(checkFriendshipPort, times(2)).areFriends(userA, userB);
+    verify(updateAccountsStatePort).updateAccounts(accountsCaptor.capture());
+    verify(recordTransactionsPort).recordTransactions(txCaptor.capture());
+    verify(publishEventsPort).publishAll(eventsCaptor.capture());
+
+    assertThat(accountsCaptor.getValue()).containsExactlyInAnyOrder(a, b, c);
+    assertThat(txCaptor.getValue()).hasSize(4);
+    List<DomainEvent> events = eventsCaptor.getValue();
+    assertThat(events).hasSize(8);
+    assertThat(events)
+        .filteredOn(e -> e.getEventType() == EventType.TRANSACTION_CREATED)
+        .hasSize(4)
+        .allSatisfy(e -> assertThat(e.getEventId()).isNotNull());
+    assertThat(events.get(0).getCorrelationId()).isEqualTo(events.get(3).getCorrelationId());
+    assertThat(events.get(0).getCorrelationId()).isNotEqualTo(events.get(4).getCorrelationId());
+  }
+
+  @Test
+  void failed_items_are_reported_and_do_not_abort_the_batch() {
+    UUID userA = UUID.randomUUID();
+    UUID userB = UUID.randomUUID();
+    Account a = account(userA, "100.00");
+    Account b = account(userB, "0.00");
+    UUID missing = UUID.randomUUID();
+
+    when(loadAccountsForUpdatePort.loadAccountsForUpdate(any())).thenReturn(List.of(a, b));
+    when(checkFriendshipPort.areFriends(userA, userB)).thenReturn(false);
+    when(commissionPolicy.rateFor(userA, userB, false)).thenReturn(new BigDecimal("0.10"));
+    when(recordTransactionsPort.recordTransactions(any())).thenAnswer(this::assignIds);
+
+    BatchTransferResult result =
+        service.transferBatch(
+            new BatchTransferCommand(
+                List.of(
+                    new TransferMoneyCommand(a.getId(), missing, new BigDecimal("10.00")),
+                    new TransferMoneyCommand(a.getId(), b.getId(), new BigDecimal("80.00")),
+                    new TransferMoneyCommand(a.getId(), b.getId(), new BigDecimal("30.00")))));
+
+    List<BatchTransferItemResult> items = result.items();
+    assertThat(items).extracting(BatchTransferItemResult::index).containsExactly(0, 1, 2);
+    assertThat(items.get(0).failureReason()).isEqualTo(TransferFailureReason.ACCOUNT_NOT_FOUND);
+    assertThat(items.get(1).succeeded()).isTrue();
+    assertThat(items.get(1).credited()).isEqualByComparingTo("72.00");
+    // The third item sees the balance left by the second one.
+    assertThat(items.get(2).failureReason()).isEqualTo(TransferFailureReason.NOT_ENOUGH_MONEY);
+
+    assertThat(a.getBalance()).isEqualByComparingTo("20.00");
+    assertThat(b.getBalance()).isEqualByComparingTo("72.00");
+    verify(recordTransactionsPort).recordTransactions(txCaptor.capture());
+    assertThat(txCaptor.getValue()).hasSize(2);
+  }
+
+  @Test
+  void batch_without_applied_items_writes_nothing() {
+    UUID from = UUID.randomUUID();
+    UUID to = UUID.randomUUID();
+    when(loadAccountsForUpdatePort.loadAccountsForUpdate(any())).thenReturn(List.of());
+
+    BatchTransferResult result =
+        service.transferBatch(
+            new BatchTransferCommand(
+                List.of(new TransferMoneyCommand(from, to, new BigDecimal("1.00")))));
+
+    assertThat(result.failedCount()).isEqualTo(1);
+    verifyNoInteractions(updateAccountsStatePort, recordTransactionsPort, publishEventsPort);
+  }
+
+  private static Account account(UUID userId, String balance) {
+    return Account.builder()
+        .id(UUID.randomUUID())
+        .userId(userId)
+        .balance(new BigDecimal(balance))
+        .build();
+  }
+
+  private List<Transaction> assignIds(InvocationOnMock invocation) {
+    List<Transaction> txs = invocation.getArgument(0);
+    List<Transaction> saved = new ArrayList<>(txs.size());
+    for (Transaction tx : txs) {
+      tx.setId(UUID.randomUUID());
+      saved.add(tx);
+    }
+    return saved;
+  }
+}
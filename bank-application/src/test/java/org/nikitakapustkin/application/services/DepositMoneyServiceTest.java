@@ -5,7 +5,6 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 import java.math.BigDecimal;
-import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,25 +14,23 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.nikitakapustkin.application.ports.in.commands.DepositMoneyCommand;
-import org.nikitakapustkin.application.ports.out.LoadAccountPort;
+import org.nikitakapustkin.application.ports.out.ApplyBalanceDeltaPort;
+import org.nikitakapustkin.application.ports.out.ApplyBalanceDeltaPort.BalanceDeltaOutcome;
 import org.nikitakapustkin.application.ports.out.PublishAccountEventPort;
 import org.nikitakapustkin.application.ports.out.PublishTransactionEventPort;
 import org.nikitakapustkin.application.ports.out.RecordTransactionPort;
-import org.nikitakapustkin.application.ports.out.UpdateAccountStatePort;
 import org.nikitakapustkin.domain.enums.EventType;
 import org.nikitakapustkin.domain.enums.TransactionType;
 import org.nikitakapustkin.domain.events.DomainEvent;
 import org.nikitakapustkin.domain.events.payload.AccountDepositedEventData;
 import org.nikitakapustkin.domain.events.payload.TransactionCreatedEventData;
 import org.nikitakapustkin.domain.exceptions.AccountNotFoundException;
-import org.nikitakapustkin.domain.models.Account;
 import org.nikitakapustkin.domain.models.Transaction;
 
 @ExtendWith(MockitoExtension.class)
 class DepositMoneyServiceTest {
 
-  @Mock LoadAccountPort loadAccountPort;
-  @Mock UpdateAccountStatePort updateAccountStatePort;
+  @Mock ApplyBalanceDeltaPort applyBalanceDeltaPort;
   @Mock RecordTransactionPort recordTransactionPort;
   @Mock PublishAccountEventPort publishAccountEventPort;
   @Mock PublishTransactionEventPort publishTransactionEventPort;
@@ -45,16 +42,11 @@ class DepositMoneyServiceTest {
   @Captor ArgumentCaptor<DomainEvent> txEventCaptor;
 
   @Test
-  void deposit_updates_balance_persists_account_and_records_transaction() {
+  void deposit_applies_positive_delta_and_records_transaction() {
     UUID accountId = UUID.randomUUID();
-    Account account =
-        Account.builder()
-            .id(accountId)
-            .ownerLogin("alice")
-            .balance(new BigDecimal("10.00"))
-            .build();
-
-    when(loadAccountPort.loadAccount(accountId)).thenReturn(Optional.of(account));
+
+    when(applyBalanceDeltaPort.applyBalanceDelta(accountId, new BigDecimal("5.50")))
+        .thenReturn(BalanceDeltaOutcome.APPLIED);
     when(recordTransactionPort.recordTransaction(any()))
         .thenAnswer(
             invocation -> {
@@ -65,9 +57,6 @@ class DepositMoneyServiceTest {
 
     service.deposit(new DepositMoneyCommand(accountId, new BigDecimal("5.50")));
 
-    assertThat(account.getBalance()).isEqualByComparingTo(new BigDecimal("15.50"));
-
-    verify(updateAccountStatePort).updateAccount(account);
     verify(recordTransactionPort).recordTransaction(txCaptor.capture());
     verify(publishAccountEventPort).publishAccountEvent(eventCaptor.capture());
     verify(publishTransactionEventPort).publish(txEventCaptor.capture());
@@ -108,13 +97,13 @@ class DepositMoneyServiceTest {
   @Test
   void deposit_throws_when_account_not_found() {
     UUID accountId = UUID.randomUUID();
-    when(loadAccountPort.loadAccount(accountId)).thenReturn(Optional.empty());
+    when(applyBalanceDeltaPort.applyBalanceDelta(accountId, new BigDecimal("1.00")))
+        .thenReturn(BalanceDeltaOutcome.ACCOUNT_NOT_FOUND);
 
     assertThatThrownBy(
             () -> service.deposit(new DepositMoneyCommand(accountId, new BigDecimal("1.00"))))
         .isInstanceOf(AccountNotFoundException.class);
 
-    verifyNoInteractions(updateAccountStatePort);
     verifyNoInteractions(recordTransactionPort);
     verifyNoInteractions(publishAccountEventPort);
     verifyNoInteractions(publishTransactionEventPort);
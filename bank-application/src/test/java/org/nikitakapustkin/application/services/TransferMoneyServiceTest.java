@@ -16,8 +16,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.nikitakapustkin.application.ports.in.commands.TransferMoneyCommand;
+import org.nikitakapustkin.application.ports.out.CheckFriendshipPort;
 import org.nikitakapustkin.application.ports.out.LoadAccountPort;
-import org.nikitakapustkin.application.ports.out.LoadFriendsPort;
 import org.nikitakapustkin.application.ports.out.PublishAccountEventPort;
 import org.nikitakapustkin.application.ports.out.PublishTransactionEventPort;
 import org.nikitakapustkin.application.ports.out.RecordTransactionPort;
@@ -38,7 +38,7 @@ class TransferMoneyServiceTest {
 
   @Mock LoadAccountPort loadAccountPort;
   @Mock UpdateAccountStatePort updateAccountStatePort;
-  @Mock LoadFriendsPort loadFriendsPort;
+  @Mock CheckFriendshipPort checkFriendshipPort;
   @Mock RecordTransactionPort recordTransactionPort;
   @Mock PublishAccountEventPort publishAccountEventPort;
   @Mock PublishTransactionEventPort publishTransactionEventPort;
@@ -63,9 +63,9 @@ class TransferMoneyServiceTest {
     Account to =
         Account.builder().id(toId).userId(toUserId).balance(new BigDecimal("0.00")).build();
 
-    when(loadAccountPort.loadAccount(fromId)).thenReturn(Optional.of(from));
-    when(loadAccountPort.loadAccount(toId)).thenReturn(Optional.of(to));
-    when(loadFriendsPort.loadFriendsIds(fromUserId)).thenReturn(List.of(toUserId));
+    when(loadAccountPort.loadAccountForUpdate(fromId)).thenReturn(Optional.of(from));
+    when(loadAccountPort.loadAccountForUpdate(toId)).thenReturn(Optional.of(to));
+    when(checkFriendshipPort.areFriends(fromUserId, toUserId)).thenReturn(true);
     when(commissionPolicy.rateFor(fromUserId, toUserId, true)).thenReturn(new BigDecimal("0.03"));
     when(recordTransactionPort.recordTransaction(any()))
         .thenAnswer(
@@ -171,9 +171,9 @@ class TransferMoneyServiceTest {
     Account to =
         Account.builder().id(toId).userId(toUserId).balance(new BigDecimal("0.00")).build();
 
-    when(loadAccountPort.loadAccount(fromId)).thenReturn(Optional.of(from));
-    when(loadAccountPort.loadAccount(toId)).thenReturn(Optional.of(to));
-    when(loadFriendsPort.loadFriendsIds(fromUserId)).thenReturn(List.of());
+    when(loadAccountPort.loadAccountForUpdate(fromId)).thenReturn(Optional.of(from));
+    when(loadAccountPort.loadAccountForUpdate(toId)).thenReturn(Optional.of(to));
+    when(checkFriendshipPort.areFriends(fromUserId, toUserId)).thenReturn(false);
     when(commissionPolicy.rateFor(fromUserId, toUserId, false)).thenReturn(new BigDecimal("0.10"));
     when(recordTransactionPort.recordTransaction(any()))
         .thenAnswer(
@@ -191,12 +191,47 @@ class TransferMoneyServiceTest {
     verify(publishTransactionEventPort, times(2)).publish(any());
   }
 
+  @Test
+  void transfer_loads_accounts_in_id_order_to_avoid_lock_deadlocks() {
+    UUID fromId = new UUID(0, 2);
+    UUID toId = new UUID(0, 1);
+
+    when(loadAccountPort.loadAccountForUpdate(toId)).thenReturn(Optional.empty());
+
+    assertThatThrownBy(
+            () ->
+                service.transferMoney(
+                    new TransferMoneyCommand(fromId, toId, new BigDecimal("10.00"))))
+        .isInstanceOf(AccountNotFoundException.class)
+        .hasMessageContaining(toId.toString());
+
+    verify(loadAccountPort, never()).loadAccountForUpdate(fromId);
+  }
+
+  @Test
+  void transfer_locks_in_unsigned_uuid_order_like_the_database() {
+    // Signed comparison puts the negative msb first; the database puts it last.
+    UUID fromId = new UUID(0x8000_0000_0000_0000L, 1);
+    UUID toId = new UUID(0x7FFF_FFFF_FFFF_FFFFL, 1);
+
+    when(loadAccountPort.loadAccountForUpdate(toId)).thenReturn(Optional.empty());
+
+    assertThatThrownBy(
+            () ->
+                service.transferMoney(
+                    new TransferMoneyCommand(fromId, toId, new BigDecimal("10.00"))))
+        .isInstanceOf(AccountNotFoundException.class)
+        .hasMessageContaining(toId.toString());
+
+    verify(loadAccountPort, never()).loadAccountForUpdate(fromId);
+  }
+
   @Test
   void transfer_throws_when_from_account_not_found() {
-    UUID fromId = UUID.randomUUID();
-    UUID toId = UUID.randomUUID();
+    UUID fromId = new UUID(0, 1);
+    UUID toId = new UUID(0, 2);
 
-    when(loadAccountPort.loadAccount(fromId)).thenReturn(Optional.empty());
+    when(loadAccountPort.loadAccountForUpdate(fromId)).thenReturn(Optional.empty());
 
     assertThatThrownBy(
             () ->
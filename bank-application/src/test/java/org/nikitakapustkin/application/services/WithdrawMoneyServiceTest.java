@@ -5,7 +5,6 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 import java.math.BigDecimal;
-import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,11 +14,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.nikitakapustkin.application.ports.in.commands.WithdrawMoneyCommand;
-import org.nikitakapustkin.application.ports.out.LoadAccountPort;
+import org.nikitakapustkin.application.ports.out.ApplyBalanceDeltaPort;
+import org.nikitakapustkin.application.ports.out.ApplyBalanceDeltaPort.BalanceDeltaOutcome;
 import org.nikitakapustkin.application.ports.out.PublishAccountEventPort;
 import org.nikitakapustkin.application.ports.out.PublishTransactionEventPort;
 import org.nikitakapustkin.application.ports.out.RecordTransactionPort;
-import org.nikitakapustkin.application.ports.out.UpdateAccountStatePort;
 import org.nikitakapustkin.domain.enums.EventType;
 import org.nikitakapustkin.domain.enums.TransactionType;
 import org.nikitakapustkin.domain.events.DomainEvent;
@@ -27,14 +26,12 @@ import org.nikitakapustkin.domain.events.payload.AccountWithdrawnEventData;
 import org.nikitakapustkin.domain.events.payload.TransactionCreatedEventData;
 import org.nikitakapustkin.domain.exceptions.AccountNotFoundException;
 import org.nikitakapustkin.domain.exceptions.NotEnoughMoneyException;
-import org.nikitakapustkin.domain.models.Account;
 import org.nikitakapustkin.domain.models.Transaction;
 
 @ExtendWith(MockitoExtension.class)
 class WithdrawMoneyServiceTest {
 
-  @Mock LoadAccountPort loadAccountPort;
-  @Mock UpdateAccountStatePort updateAccountStatePort;
+  @Mock ApplyBalanceDeltaPort applyBalanceDeltaPort;
   @Mock RecordTransactionPort recordTransactionPort;
   @Mock PublishAccountEventPort publishAccountEventPort;
   @Mock PublishTransactionEventPort publishTransactionEventPort;
@@ -46,16 +43,11 @@ class WithdrawMoneyServiceTest {
   @Captor ArgumentCaptor<DomainEvent> txEventCaptor;
 
   @Test
-  void withdraw_updates_balance_persists_account_and_records_negative_transaction() {
+  void withdraw_applies_negative_delta_and_records_negative_transaction() {
     UUID accountId = UUID.randomUUID();
-    Account account =
-        Account.builder()
-            .id(accountId)
-            .ownerLogin("alice")
-            .balance(new BigDecimal("50.00"))
-            .build();
-
-    when(loadAccountPort.loadAccount(accountId)).thenReturn(Optional.of(account));
+
+    when(applyBalanceDeltaPort.applyBalanceDelta(accountId, new BigDecimal("-10.00")))
+        .thenReturn(BalanceDeltaOutcome.APPLIED);
     when(recordTransactionPort.recordTransaction(any()))
         .thenAnswer(
             invocation -> {
@@ -66,9 +58,6 @@ class WithdrawMoneyServiceTest {
 
     service.withdraw(new WithdrawMoneyCommand(accountId, new BigDecimal("10.00")));
 
-    assertThat(account.getBalance()).isEqualByComparingTo(new BigDecimal("40.00"));
-
-    verify(updateAccountStatePort).updateAccount(account);
     verify(recordTransactionPort).recordTransaction(txCaptor.capture());
     verify(publishAccountEventPort).publishAccountEvent(eventCaptor.capture());
     verify(publishTransactionEventPort).publish(txEventCaptor.capture());
@@ -109,16 +98,14 @@ class WithdrawMoneyServiceTest {
   @Test
   void withdraw_throws_not_enough_money_and_does_not_persist_or_record() {
     UUID accountId = UUID.randomUUID();
-    Account account =
-        Account.builder().id(accountId).ownerLogin("alice").balance(new BigDecimal("5.00")).build();
 
-    when(loadAccountPort.loadAccount(accountId)).thenReturn(Optional.of(account));
+    when(applyBalanceDeltaPort.applyBalanceDelta(accountId, new BigDecimal("-10.00")))
+        .thenReturn(BalanceDeltaOutcome.INSUFFICIENT_FUNDS);
 
     assertThatThrownBy(
             () -> service.withdraw(new WithdrawMoneyCommand(accountId, new BigDecimal("10.00"))))
         .isInstanceOf(NotEnoughMoneyException.class);
 
-    verifyNoInteractions(updateAccountStatePort);
     verifyNoInteractions(recordTransactionPort);
     verifyNoInteractions(publishAccountEventPort);
     verifyNoInteractions(publishTransactionEventPort);
@@ -127,13 +114,13 @@ class WithdrawMoneyServiceTest {
   @Test
   void withdraw_throws_when_account_not_found() {
     UUID accountId = UUID.randomUUID();
-    when(loadAccountPort.loadAccount(accountId)).thenReturn(Optional.empty());
+    when(applyBalanceDeltaPort.applyBalanceDelta(accountId, new BigDecimal("-1.00")))
+        .thenReturn(BalanceDeltaOutcome.ACCOUNT_NOT_FOUND);
 
     assertThatThrownBy(
             () -> service.withdraw(new WithdrawMoneyCommand(accountId, new BigDecimal("1.00"))))
         .isInstanceOf(AccountNotFoundException.class);
 
-    verifyNoInteractions(updateAccountStatePort);
     verifyNoInteractions(recordTransactionPort);
     verifyNoInteractions(publishAccountEventPort);
     verifyNoInteractions(publishTransactionEventPort);
@@ -0,0 +1,126 @@
+package org.nikitakapustkin.application.services.queries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.nikitakapustkin.application.ports.in.queries.TransactionsPageQuery;
+import org.nikitakapustkin.application.ports.in.results.TransactionPage;
+import org.nikitakapustkin.application.ports.out.LoadTransactionsPort;
+import org.nikitakapustkin.application.ports.out.TransactionCursor;
+import org.nikitakapustkin.application.ports.out.TransactionFilter;
+import org.nikitakapustkin.domain.enums.TransactionType;
+import org.nikitakapustkin.domain.models.Transaction;
+
+@ExtendWith(MockitoExtension.class)
+class GetTransactionsQueryServiceTest {
+
+  @Mock LoadTransactionsPort loadTransactionsPort;
+
+  @InjectMocks GetTransactionsQueryService service;
+
+  @Test
+  void full_page_returns_cursor_of_last_item_and_drops_lookahead_row() {
+    UUID accountId = UUID.randomUUID();
+    Transaction newest = tx(Instant.parse("2024-01-03T00:00:00Z"));
+    Transaction middle = tx(Instant.parse("2024-01-02T00:00:00Z"));
+    Transaction oldest = tx(Instant.parse("2024-01-01T00:00:00Z"));
+    when(loadTransactionsPort.loadPage(
+            eq(new TransactionFilter(accountId, TransactionType.DEPOSIT, null, null)),
+            isNull(),
+            eq(3)))
+        .thenReturn(List.of(newest, middle, oldest));
+
+    TransactionPage page =
+        service.getTransactions(
+            new TransactionsPageQuery("deposit", accountId, null, null, null, 2));
+
+    assertThat(page.items()).containsExactly(newest, middle);
+    assertThat(GetTransactionsQueryService.decodeCursor(page.nextCursor()))
+        .isEqualTo(new TransactionCursor(middle.getCreatedAt(), middle.getId()));
+  }
+
+  @Test
+  void last_page_has_no_cursor_and_passes_decoded_cursor_to_port() {
+    Transaction last = tx(Instant.parse("2024-01-01T00:00:00Z"));
+    String cursor = GetTransactionsQueryService.encodeCursor(last);
+    when(loadTransactionsPort.loadPage(any(), any(), eq(TransactionsPageQuery.DEFAULT_LIMIT + 1)))
+        .thenReturn(List.of());
+
+    TransactionPage page =
+        service.getTransactions(new TransactionsPageQuery(null, null, null, null, cursor, null));
+
+    assertThat(page.items()).isEmpty();
+    assertThat(page.nextCursor()).isNull();
+    verify(loadTransactionsPort)
+        .loadPage(
+            new TransactionFilter(null, null, null, null),
+            new TransactionCursor(last.getCreatedAt(), last.getId()),
+            TransactionsPageQuery.DEFAULT_LIMIT + 1);
+  }
+
+  @Test
+  void account_ids_are_read_as_one_merged_page() {
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    Transaction newest = tx(Instant.parse("2024-01-02T00:00:00Z"));
+    when(loadTransactionsPort.loadPage(
+            eq(new TransactionFilter(null, Set.of(first, second), null, null, null)),
+            isNull(),
+            eq(11)))
+        .thenReturn(List.of(newest));
+
+    TransactionPage page =
+        service.getTransactions(
+            new TransactionsPageQuery(
+                null, null, List.of(first, second, first), null, null, null, 10));
+
+    assertThat(page.items()).containsExactly(newest);
+    assertThat(page.nextCursor()).isNull();
+  }
+
+  @Test
+  void empty_account_ids_read_nothing() {
+    TransactionPage page =
+        service.getTransactions(
+            new TransactionsPageQuery(null, null, List.of(), null, null, null, null));
+
+    assertThat(page.items()).isEmpty();
+    verifyNoInteractions(loadTransactionsPort);
+  }
+
+  @Test
+  void malformed_cursor_is_rejected_as_invalid_argument() {
+    assertThatThrownBy(
+            () ->
+                service.getTransactions(
+                    new TransactionsPageQuery(null, null, null, null, "bm90LWEtY3Vyc29y", null)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid cursor");
+  }
+
+  private static Transaction tx(Instant createdAt) {
+    return Transaction.builder()
+        .id(UUID.randomUUID())
+        .accountId(UUID.randomUUID())
+        .transactionType(TransactionType.DEPOSIT)
+        .amount(new BigDecimal("1.00"))
+        .createdAt(createdAt)
+        .build();
+  }
+}
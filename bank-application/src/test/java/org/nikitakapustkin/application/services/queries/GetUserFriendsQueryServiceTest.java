@@ -0,0 +1,76 @@
+package org.nikitakapustkin.application.services.queries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.nikitakapustkin.application.ports.out.LoadFriendsPort;
+import org.nikitakapustkin.application.ports.out.LoadUserPort;
+import org.nikitakapustkin.application.ports.out.LoadUsersByIdsPort;
+import org.nikitakapustkin.domain.exceptions.UserNotFoundException;
+import org.nikitakapustkin.domain.models.User;
+
+@ExtendWith(MockitoExtension.class)
+class GetUserFriendsQueryServiceTest {
+
+  @Mock LoadUserPort loadUserPort;
+  @Mock LoadFriendsPort loadFriendsPort;
+  @Mock LoadUsersByIdsPort loadUsersByIdsPort;
+
+  @InjectMocks GetUserFriendsQueryService service;
+
+  @Test
+  void friends_are_loaded_in_one_batch_and_keep_friend_id_order() {
+    User user = user("alice");
+    User bob = user("bob");
+    User carol = user("carol");
+    when(loadUserPort.loadUserById(user.getId())).thenReturn(Optional.of(user));
+    when(loadFriendsPort.loadFriendsIds(user.getId()))
+        .thenReturn(List.of(bob.getId(), carol.getId()));
+    when(loadUsersByIdsPort.loadUsersByIds(List.of(bob.getId(), carol.getId())))
+        .thenReturn(List.of(carol, bob));
+
+    List<User> friends = service.getFriends(user.getId());
+
+    assertThat(friends).containsExactly(bob, carol);
+    verify(loadUserPort, never()).loadUserById(bob.getId());
+    verify(loadUserPort, never()).loadUserById(carol.getId());
+  }
+
+  @Test
+  void no_friends_skips_the_batch_load() {
+    User user = user("alice");
+    when(loadUserPort.loadUserById(user.getId())).thenReturn(Optional.of(user));
+    when(loadFriendsPort.loadFriendsIds(user.getId())).thenReturn(List.of());
+
+    assertThat(service.getFriends(user.getId())).isEmpty();
+    verifyNoInteractions(loadUsersByIdsPort);
+  }
+
+  @Test
+  void missing_friend_throws_user_not_found() {
+    User user = user("alice");
+    UUID ghostId = UUID.randomUUID();
+    when(loadUserPort.loadUserById(user.getId())).thenReturn(Optional.of(user));
+    when(loadFriendsPort.loadFriendsIds(user.getId())).thenReturn(List.of(ghostId));
+    when(loadUsersByIdsPort.loadUsersByIds(List.of(ghostId))).thenReturn(List.of());
+
+    assertThatThrownBy(() -> service.getFriends(user.getId()))
+        .isInstanceOf(UserNotFoundException.class);
+  }
+
+  private static User user(String login) {
+    return User.builder().id(UUID.randomUUID()).login(login).name(login).build();
+  }
+}
@@ -0,0 +1,31 @@
+package org.nikitakapustkin.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for the bank benchmark suites. Accepts the regular JMH command line (include regex,
+ * {@code -f}, {@code -wi}, {@code -rf json}, ...) and always attaches the GC profiler, so every
+ * result carries {@code gc.alloc.rate.norm} (bytes allocated per operation) next to ops/s and the
+ * sampled latency percentiles.
+ *
+ * <p>Run with {@code ./mvnw -pl bank-benchmarks -am -DskipTests install} followed by {@code ./mvnw
+ * -pl bank-benchmarks exec:exec -Dbenchmarks.args="Transfer"}.
+ */
+public final class BankBenchmarks {
+  private BankBenchmarks() {}
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    Options options =
+        new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,127 @@
+package org.nikitakapustkin.benchmarks.application;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.nikitakapustkin.application.ports.out.ApplyBalanceDeltaPort;
+import org.nikitakapustkin.application.ports.out.CheckFriendshipPort;
+import org.nikitakapustkin.application.ports.out.LoadAccountPort;
+import org.nikitakapustkin.application.ports.out.PublishAccountEventPort;
+import org.nikitakapustkin.application.ports.out.PublishTransactionEventPort;
+import org.nikitakapustkin.application.ports.out.RecordTransactionPort;
+import org.nikitakapustkin.application.ports.out.UpdateAccountStatePort;
+import org.nikitakapustkin.domain.events.DomainEvent;
+import org.nikitakapustkin.domain.models.Account;
+import org.nikitakapustkin.domain.models.Transaction;
+
+/**
+ * Map-backed implementation of the outbound ports used by the money-movement services. Accounts are
+ * copied on load and on update, like the JPA adapter does, so the services see the same object
+ * lifecycle as in production. Transactions and events are only counted, not retained, to keep the
+ * heap flat during long measurement runs.
+ */
+public class InMemoryBankPorts
+    implements LoadAccountPort,
+        UpdateAccountStatePort,
+        ApplyBalanceDeltaPort,
+        CheckFriendshipPort,
+        RecordTransactionPort,
+        PublishAccountEventPort,
+        PublishTransactionEventPort {
+
+  private final Map<UUID, Account> accounts = new ConcurrentHashMap<>();
+  private final Map<UUID, Set<UUID>> friends = new ConcurrentHashMap<>();
+  private final LongAdder recordedTransactions = new LongAdder();
+  private final LongAdder publishedEvents = new LongAdder();
+
+  public void putAccount(Account account) {
+    accounts.put(account.getId(), copy(account));
+  }
+
+  public void addFriends(UUID userId, UUID friendId) {
+    friends.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(friendId);
+    friends.computeIfAbsent(friendId, id -> ConcurrentHashMap.newKeySet()).add(userId);
+  }
+
+  public long recordedTransactions() {
+    return recordedTransactions.sum();
+  }
+
+  public long publishedEvents() {
+    return publishedEvents.sum();
+  }
+
+  @Override
+  public Optional<Account> loadAccount(UUID accountId) {
+    Account account = accounts.get(accountId);
+    return account == null ? Optional.empty() : Optional.of(copy(account));
+  }
+
+  @Override
+  public void updateAccount(Account account) {
+    accounts.put(account.getId(), copy(account));
+  }
+
+  @Override
+  public BalanceDeltaOutcome applyBalanceDelta(UUID accountId, BigDecimal delta) {
+    BalanceDeltaOutcome[] outcome = {BalanceDeltaOutcome.ACCOUNT_NOT_FOUND};
+    accounts.computeIfPresent(
+        accountId,
+        (id, account) -> {
+          BigDecimal updated = account.getBalance().add(delta);
+          if (updated.signum() < 0) {
+            outcome[0] = BalanceDeltaOutcome.INSUFFICIENT_FUNDS;
+            return account;
+          }
+          outcome[0] = BalanceDeltaOutcome.APPLIED;
+          return Account.builder()
+              .id(account.getId())
+              .userId(account.getUserId())
+              .ownerLogin(account.getOwnerLogin())
+              .balance(updated)
+              .build();
+        });
+    return outcome[0];
+  }
+
+  @Override
+  public boolean areFriends(UUID userId, UUID otherUserId) {
+    Set<UUID> ids = friends.get(userId);
+    return ids != null && ids.contains(otherUserId);
+  }
+
+  @Override
+  public Transaction recordTransaction(Transaction transaction) {
+    recordedTransactions.increment();
+    return Transaction.builder()
+        .id(UUID.randomUUID())
+        .accountId(transaction.getAccountId())
+        .transactionType(transaction.getTransactionType())
+        .amount(transaction.getAmount())
+        .createdAt(transaction.getCreatedAt())
+        .build();
+  }
+
+  @Override
+  public void publishAccountEvent(DomainEvent event) {
+    publishedEvents.increment();
+  }
+
+  @Override
+  public void publish(DomainEvent event) {
+    publishedEvents.increment();
+  }
+
+  private static Account copy(Account account) {
+    return Account.builder()
+        .id(account.getId())
+        .userId(account.getUserId())
+        .ownerLogin(account.getOwnerLogin())
+        .balance(account.getBalance())
+        .build();
+  }
+}
@@ -0,0 +1,106 @@
+package org.nikitakapustkin.benchmarks.application;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.nikitakapustkin.application.ports.in.DepositMoneyUseCase;
+import org.nikitakapustkin.application.ports.in.TransferMoneyUseCase;
+import org.nikitakapustkin.application.ports.in.WithdrawMoneyUseCase;
+import org.nikitakapustkin.application.ports.in.commands.DepositMoneyCommand;
+import org.nikitakapustkin.application.ports.in.commands.TransferMoneyCommand;
+import org.nikitakapustkin.application.ports.in.commands.WithdrawMoneyCommand;
+import org.nikitakapustkin.application.services.DefaultCommissionPolicy;
+import org.nikitakapustkin.application.services.DepositMoneyService;
+import org.nikitakapustkin.application.services.TransferMoneyService;
+import org.nikitakapustkin.application.services.WithdrawMoneyService;
+import org.nikitakapustkin.domain.models.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Application services wired to {@link InMemoryBankPorts}. Measures the use-case orchestration
+ * (command validation, domain rules, transaction records and event construction) without any I/O.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyMovementServiceBenchmark {
+  private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000000000.00");
+  private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+  @Param({"true", "false"})
+  public boolean friends;
+
+  private InMemoryBankPorts ports;
+  private DepositMoneyUseCase depositMoneyUseCase;
+  private WithdrawMoneyUseCase withdrawMoneyUseCase;
+  private TransferMoneyUseCase transferMoneyUseCase;
+  private UUID fromAccountId;
+  private UUID toAccountId;
+
+  @Setup
+  public void setUp() {
+    ports = new InMemoryBankPorts();
+    depositMoneyUseCase = new DepositMoneyService(ports, ports, ports, ports);
+    withdrawMoneyUseCase = new WithdrawMoneyService(ports, ports, ports, ports);
+    transferMoneyUseCase =
+        new TransferMoneyService(
+            ports,
+            ports,
+            ports,
+            ports,
+            ports,
+            ports,
+            new DefaultCommissionPolicy(new BigDecimal("0.03"), new BigDecimal("0.10")));
+
+    UUID fromUserId = UUID.randomUUID();
+    UUID toUserId = UUID.randomUUID();
+    fromAccountId = UUID.randomUUID();
+    toAccountId = UUID.randomUUID();
+    ports.putAccount(
+        Account.builder()
+            .id(fromAccountId)
+            .userId(fromUserId)
+            .ownerLogin("bench-from")
+            .balance(INITIAL_BALANCE)
+            .build());
+    ports.putAccount(
+        Account.builder()
+            .id(toAccountId)
+            .userId(toUserId)
+            .ownerLogin("bench-to")
+            .balance(INITIAL_BALANCE)
+            .build());
+    if (friends) {
+      ports.addFriends(fromUserId, toUserId);
+    }
+  }
+
+  @Benchmark
+  public void deposit() {
+    depositMoneyUseCase.deposit(new DepositMoneyCommand(fromAccountId, AMOUNT));
+  }
+
+  @Benchmark
+  public void withdraw() {
+    withdrawMoneyUseCase.withdraw(new WithdrawMoneyCommand(fromAccountId, AMOUNT));
+  }
+
+  @Benchmark
+  public void transfer() {
+    transferMoneyUseCase.transferMoney(
+        new TransferMoneyCommand(fromAccountId, toAccountId, AMOUNT));
+  }
+}
@@ -0,0 +1,90 @@
+package org.nikitakapustkin.benchmarks.domain;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.nikitakapustkin.application.services.DefaultCommissionPolicy;
+import org.nikitakapustkin.domain.models.Account;
+import org.nikitakapustkin.domain.services.CommissionPolicy;
+import org.nikitakapustkin.domain.services.TransferRules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Pure domain path: balance arithmetic on {@link Account} and {@link TransferRules}. */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DomainBenchmark {
+  private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000000.00");
+
+  @Param({"10.00", "12345.67"})
+  public String amount;
+
+  @Param({"true", "false"})
+  public boolean friends;
+
+  private BigDecimal value;
+  private CommissionPolicy commissionPolicy;
+  private UUID fromAccountId;
+  private UUID toAccountId;
+  private UUID fromUserId;
+  private UUID toUserId;
+  private Account from;
+  private Account to;
+
+  @Setup
+  public void setUp() {
+    value = new BigDecimal(amount);
+    commissionPolicy = new DefaultCommissionPolicy(new BigDecimal("0.03"), new BigDecimal("0.10"));
+    fromAccountId = UUID.randomUUID();
+    toAccountId = UUID.randomUUID();
+    fromUserId = UUID.randomUUID();
+    toUserId = UUID.randomUUID();
+    from = Account.builder().id(fromAccountId).userId(fromUserId).balance(INITIAL_BALANCE).build();
+    to = Account.builder().id(toAccountId).userId(toUserId).balance(INITIAL_BALANCE).build();
+  }
+
+  @Benchmark
+  public BigDecimal deposit() {
+    from.deposit(value);
+    return from.getBalance();
+  }
+
+  @Benchmark
+  public BigDecimal withdrawThenDeposit() {
+    from.withdraw(value);
+    from.deposit(value);
+    return from.getBalance();
+  }
+
+  @Benchmark
+  public TransferRules.TransferCalculation calculateTransfer() {
+    return TransferRules.calculate(
+        fromAccountId, toAccountId, fromUserId, toUserId, value, friends, commissionPolicy);
+  }
+
+  @Benchmark
+  public BigDecimal transferRoundTrip() {
+    TransferRules.TransferCalculation calculation =
+        TransferRules.calculate(
+            fromAccountId, toAccountId, fromUserId, toUserId, value, friends, commissionPolicy);
+    from.withdraw(value);
+    to.deposit(calculation.credited());
+    // Move the money back so balances stay bounded regardless of iteration length.
+    to.withdraw(calculation.credited());
+    from.deposit(value);
+    return from.getBalance();
+  }
+}
@@ -0,0 +1,137 @@
+package org.nikitakapustkin.benchmarks.persistence;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.nikitakapustkin.BankServiceApplication;
+import org.nikitakapustkin.application.ports.in.CreateAccountUseCase;
+import org.nikitakapustkin.application.ports.in.DepositMoneyUseCase;
+import org.nikitakapustkin.application.ports.in.ImportUserUseCase;
+import org.nikitakapustkin.application.ports.in.TransferMoneyUseCase;
+import org.nikitakapustkin.application.ports.in.WithdrawMoneyUseCase;
+import org.nikitakapustkin.application.ports.in.commands.CreateAccountCommand;
+import org.nikitakapustkin.application.ports.in.commands.DepositMoneyCommand;
+import org.nikitakapustkin.application.ports.in.commands.ImportUserCommand;
+import org.nikitakapustkin.application.ports.in.commands.TransferMoneyCommand;
+import org.nikitakapustkin.application.ports.in.commands.WithdrawMoneyCommand;
+import org.nikitakapustkin.domain.enums.HairColor;
+import org.nikitakapustkin.domain.enums.Sex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Full persistence path: the real bank-service context (JPA adapters, outbox writer, Flyway schema)
+ * on an embedded H2 database in PostgreSQL mode. Every operation runs in its own transaction, like
+ * the {@code AccountController} endpoints do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PersistenceBenchmark {
+  private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000000000.00");
+  private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+  private ConfigurableApplicationContext context;
+  private TransactionTemplate transactionTemplate;
+  private JdbcTemplate jdbcTemplate;
+  private DepositMoneyUseCase depositMoneyUseCase;
+  private WithdrawMoneyUseCase withdrawMoneyUseCase;
+  private TransferMoneyUseCase transferMoneyUseCase;
+  private UUID fromAccountId;
+  private UUID toAccountId;
+
+  @Setup(Level.Trial)
+  public void startContext() {
+    context =
+        new SpringApplicationBuilder(BankServiceApplication.class)
+            .run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bankbench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--spring.flyway.enabled=true",
+                "--outbox.publisher.enabled=false",
+                "--maintenance.cleanup.enabled=false",
+                "--kafka.consumer.auto-startup=false",
+                "--jwt.service.secret=MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY=",
+                "--logging.level.root=WARN");
+
+    transactionTemplate = context.getBean(TransactionTemplate.class);
+    jdbcTemplate = context.getBean(JdbcTemplate.class);
+    depositMoneyUseCase = context.getBean(DepositMoneyUseCase.class);
+    withdrawMoneyUseCase = context.getBean(WithdrawMoneyUseCase.class);
+    transferMoneyUseCase = context.getBean(TransferMoneyUseCase.class);
+
+    ImportUserUseCase importUserUseCase = context.getBean(ImportUserUseCase.class);
+    CreateAccountUseCase createAccountUseCase = context.getBean(CreateAccountUseCase.class);
+    UUID fromUserId = UUID.randomUUID();
+    UUID toUserId = UUID.randomUUID();
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          importUserUseCase.importUser(
+              new ImportUserCommand(
+                  fromUserId, "bench-from", "From", 30, Sex.MALE, HairColor.BLACK));
+          importUserUseCase.importUser(
+              new ImportUserCommand(toUserId, "bench-to", "To", 30, Sex.FEMALE, HairColor.BLONDE));
+        });
+    fromAccountId =
+        createAccountUseCase.createAccount(new CreateAccountCommand(fromUserId)).getId();
+    toAccountId = createAccountUseCase.createAccount(new CreateAccountCommand(toUserId)).getId();
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          depositMoneyUseCase.deposit(new DepositMoneyCommand(fromAccountId, INITIAL_BALANCE));
+          depositMoneyUseCase.deposit(new DepositMoneyCommand(toAccountId, INITIAL_BALANCE));
+        });
+  }
+
+  @TearDown(Level.Iteration)
+  public void truncateLedger() {
+    // Keep table sizes stable between iterations so later iterations are not slowed by growth.
+    jdbcTemplate.update("delete from transactions");
+    jdbcTemplate.update("delete from outbox_events");
+  }
+
+  @TearDown(Level.Trial)
+  public void stopContext() {
+    context.close();
+  }
+
+  @Benchmark
+  public void deposit() {
+    transactionTemplate.executeWithoutResult(
+        status -> depositMoneyUseCase.deposit(new DepositMoneyCommand(fromAccountId, AMOUNT)));
+  }
+
+  @Benchmark
+  public void withdraw() {
+    transactionTemplate.executeWithoutResult(
+        status -> withdrawMoneyUseCase.withdraw(new WithdrawMoneyCommand(fromAccountId, AMOUNT)));
+  }
+
+  @Benchmark
+  public void transfer() {
+    transactionTemplate.executeWithoutResult(
+        status ->
+            transferMoneyUseCase.transferMoney(
+                new TransferMoneyCommand(fromAccountId, toAccountId, AMOUNT)));
+  }
+}
@@ -2,6 +2,7 @@ package org.nikitakapustkin.config;
 
 import java.math.BigDecimal;
 import org.nikitakapustkin.application.ports.in.AddFriendUseCase;
+import org.nikitakapustkin.application.ports.in.BatchTransferUseCase;
 import org.nikitakapustkin.application.ports.in.CreateAccountUseCase;
 import org.nikitakapustkin.application.ports.in.CreateUserUseCase;
 import org.nikitakapustkin.application.ports.in.DeleteUserUseCase;
@@ -10,28 +11,39 @@ import org.nikitakapustkin.application.ports.in.ImportUserUseCase;
 import org.nikitakapustkin.application.ports.in.RemoveFriendUseCase;
 import org.nikitakapustkin.application.ports.in.TransferMoneyUseCase;
 import org.nikitakapustkin.application.ports.in.WithdrawMoneyUseCase;
+import org.nikitakapustkin.application.ports.in.queries.ExportTransactionsQuery;
 import org.nikitakapustkin.application.ports.in.queries.GetAccountQuery;
 import org.nikitakapustkin.application.ports.in.queries.GetAccountsQuery;
 import org.nikitakapustkin.application.ports.in.queries.GetTransactionsQuery;
 import org.nikitakapustkin.application.ports.in.queries.GetUserDetailsQuery;
 import org.nikitakapustkin.application.ports.in.queries.GetUserFriendsQuery;
 import org.nikitakapustkin.application.ports.in.queries.GetUsersQuery;
+import org.nikitakapustkin.application.ports.out.ApplyBalanceDeltaPort;
+import org.nikitakapustkin.application.ports.out.CheckFriendshipPort;
 import org.nikitakapustkin.application.ports.out.CreateAccountPort;
 import org.nikitakapustkin.application.ports.out.CreateUserPort;
 import org.nikitakapustkin.application.ports.out.DeleteUserPort;
 import org.nikitakapustkin.application.ports.out.LoadAccountPort;
+import org.nikitakapustkin.application.ports.out.LoadAccountsForUpdatePort;
 import org.nikitakapustkin.application.ports.out.LoadAccountsPort;
+import org.nikitakapustkin.application.ports.out.LoadFriendLoginsPort;
 import org.nikitakapustkin.application.ports.out.LoadFriendsPort;
 import org.nikitakapustkin.application.ports.out.LoadTransactionsPort;
 import org.nikitakapustkin.application.ports.out.LoadUserPort;
+import org.nikitakapustkin.application.ports.out.LoadUsersByIdsPort;
 import org.nikitakapustkin.application.ports.out.LoadUsersPort;
 import org.nikitakapustkin.application.ports.out.PublishAccountEventPort;
+import org.nikitakapustkin.application.ports.out.PublishEventsPort;
 import org.nikitakapustkin.application.ports.out.PublishTransactionEventPort;
 import org.nikitakapustkin.application.ports.out.PublishUserEventPort;
 import org.nikitakapustkin.application.ports.out.RecordTransactionPort;
+import org.nikitakapustkin.application.ports.out.RecordTransactionsPort;
+import org.nikitakapustkin.application.ports.out.StreamTransactionsPort;
 import org.nikitakapustkin.application.ports.out.UpdateAccountStatePort;
+import org.nikitakapustkin.application.ports.out.UpdateAccountsStatePort;
 import org.nikitakapustkin.application.ports.out.UpdateFriendsPort;
 import org.nikitakapustkin.application.services.AddFriendService;
+import org.nikitakapustkin.application.services.BatchTransferService;
 import org.nikitakapustkin.application.services.CreateAccountService;
 import org.nikitakapustkin.application.services.CreateUserService;
 import org.nikitakapustkin.application.services.DefaultCommissionPolicy;
@@ -41,6 +53,7 @@ import org.nikitakapustkin.application.services.ImportUserService;
 import org.nikitakapustkin.application.services.RemoveFriendService;
 import org.nikitakapustkin.application.services.TransferMoneyService;
 import org.nikitakapustkin.application.services.WithdrawMoneyService;
+import org.nikitakapustkin.application.services.queries.ExportTransactionsQueryService;
 import org.nikitakapustkin.application.services.queries.GetAccountQueryService;
 import org.nikitakapustkin.application.services.queries.GetAccountsQueryService;
 import org.nikitakapustkin.application.services.queries.GetTransactionsQueryService;
@@ -107,14 +120,12 @@ public class ApplicationServiceConfig {
 
   @Bean
   public DepositMoneyUseCase depositMoneyUseCase(
-      LoadAccountPort loadAccountPort,
-      UpdateAccountStatePort updateAccountStatePort,
+      ApplyBalanceDeltaPort applyBalanceDeltaPort,
       RecordTransactionPort recordTransactionPort,
       PublishAccountEventPort publishAccountEventPort,
       PublishTransactionEventPort publishTransactionEventPort) {
     return new DepositMoneyService(
-        loadAccountPort,
-        updateAccountStatePort,
+        applyBalanceDeltaPort,
         recordTransactionPort,
         publishAccountEventPort,
         publishTransactionEventPort);
@@ -122,14 +133,12 @@ public class ApplicationServiceConfig {
 
   @Bean
   public WithdrawMoneyUseCase withdrawMoneyUseCase(
-      LoadAccountPort loadAccountPort,
-      UpdateAccountStatePort updateAccountStatePort,
+      ApplyBalanceDeltaPort applyBalanceDeltaPort,
       RecordTransactionPort recordTransactionPort,
       PublishAccountEventPort publishAccountEventPort,
       PublishTransactionEventPort publishTransactionEventPort) {
     return new WithdrawMoneyService(
-        loadAccountPort,
-        updateAccountStatePort,
+        applyBalanceDeltaPort,
         recordTransactionPort,
         publishAccountEventPort,
         publishTransactionEventPort);
@@ -139,7 +148,7 @@ public class ApplicationServiceConfig {
   public TransferMoneyUseCase transferMoneyUseCase(
       LoadAccountPort loadAccountPort,
       UpdateAccountStatePort updateAccountStatePort,
-      LoadFriendsPort loadFriendsPort,
+      CheckFriendshipPort checkFriendshipPort,
       RecordTransactionPort recordTransactionPort,
       PublishAccountEventPort publishAccountEventPort,
       PublishTransactionEventPort publishTransactionEventPort,
@@ -147,13 +156,30 @@ public class ApplicationServiceConfig {
     return new TransferMoneyService(
         loadAccountPort,
         updateAccountStatePort,
-        loadFriendsPort,
+        checkFriendshipPort,
         recordTransactionPort,
         publishAccountEventPort,
         publishTransactionEventPort,
         commissionPolicy);
   }
 
+  @Bean
+  public BatchTransferUseCase batchTransferUseCase(
+      LoadAccountsForUpdatePort loadAccountsForUpdatePort,
+      UpdateAccountsStatePort updateAccountsStatePort,
+      CheckFriendshipPort checkFriendshipPort,
+      RecordTransactionsPort recordTransactionsPort,
+      PublishEventsPort publishEventsPort,
+      CommissionPolicy commissionPolicy) {
+    return new BatchTransferService(
+        loadAccountsForUpdatePort,
+        updateAccountsStatePort,
+        checkFriendshipPort,
+        recordTransactionsPort,
+        publishEventsPort,
+        commissionPolicy);
+  }
+
   @Bean
   public GetUsersQuery getUsersQuery(LoadUsersPort loadUsersPort) {
     return new GetUsersQueryService(loadUsersPort);
@@ -162,15 +188,17 @@ public class ApplicationServiceConfig {
   @Bean
   public GetUserDetailsQuery getUserDetailsQuery(
       LoadUserPort loadUserPort,
-      LoadFriendsPort loadFriendsPort,
+      LoadFriendLoginsPort loadFriendLoginsPort,
       LoadAccountsPort loadAccountsPort) {
-    return new GetUserDetailsQueryService(loadUserPort, loadFriendsPort, loadAccountsPort);
+    return new GetUserDetailsQueryService(loadUserPort, loadFriendLoginsPort, loadAccountsPort);
   }
 
   @Bean
   public GetUserFriendsQuery getUserFriendsQuery(
-      LoadUserPort loadUserPort, LoadFriendsPort loadFriendsPort) {
-    return new GetUserFriendsQueryService(loadUserPort, loadFriendsPort);
+      LoadUserPort loadUserPort,
+      LoadFriendsPort loadFriendsPort,
+      LoadUsersByIdsPort loadUsersByIdsPort) {
+    return new GetUserFriendsQueryService(loadUserPort, loadFriendsPort, loadUsersByIdsPort);
   }
 
   @Bean
@@ -187,4 +215,10 @@ public class ApplicationServiceConfig {
   public GetTransactionsQuery getTransactionsQuery(LoadTransactionsPort loadTransactionsPort) {
     return new GetTransactionsQueryService(loadTransactionsPort);
   }
+
+  @Bean
+  public ExportTransactionsQuery exportTransactionsQuery(
+      StreamTransactionsPort streamTransactionsPort) {
+    return new ExportTransactionsQueryService(streamTransactionsPort);
+  }
 }
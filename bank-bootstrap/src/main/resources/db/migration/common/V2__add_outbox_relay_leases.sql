@@ -0,0 +1,10 @@
+alter table outbox_events add column lease_owner varchar(255);
+alter table outbox_events add column lease_until timestamp with time zone;
+
+create index idx_outbox_events_status_lease_until
+    on outbox_events (status, lease_until);
+
+create table outbox_relay_instances (
+    instance_id varchar(255) primary key,
+    heartbeat_at timestamp with time zone not null
+);
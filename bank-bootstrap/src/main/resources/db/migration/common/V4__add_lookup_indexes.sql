@@ -0,0 +1,17 @@
+-- History reads filter by account and/or type and page newest first by (created_at, id); the
+-- trailing columns let the keyset predicate and the sort be served from the index.
+create index idx_transactions_account_created
+    on transactions (account_id, created_at desc, id desc);
+
+create index idx_transactions_type_created
+    on transactions (transaction_type, created_at desc, id desc);
+
+create index idx_transactions_created
+    on transactions (created_at desc, id desc);
+
+create index idx_accounts_user_id
+    on accounts (user_id);
+
+-- Leading hair_color also serves hair-colour-only filters.
+create index idx_users_hair_color_sex
+    on users (hair_color, sex);
@@ -0,0 +1,10 @@
+create table idempotency_keys (
+    idempotency_key varchar(255) primary key,
+    operation varchar(255) not null,
+    request_hash varchar(64) not null,
+    response_status integer,
+    response_body text,
+    created_at timestamp with time zone not null
+);
+
+create index idx_idempotency_keys_created_at on idempotency_keys (created_at);
@@ -0,0 +1,7 @@
+-- Bumped with every relay membership change; outbox claims are fenced on it.
+create table outbox_relay_epoch (
+    id integer primary key,
+    epoch bigint not null
+);
+
+insert into outbox_relay_epoch (id, epoch) values (1, 0);
@@ -0,0 +1,175 @@
+package org.nikitakapustkin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.util.UUID;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nikitakapustkin.adapters.in.kafka.AccountCacheEventConsumer;
+import org.nikitakapustkin.adapters.in.web.security.JwtService;
+import org.nikitakapustkin.application.ports.in.ImportUserUseCase;
+import org.nikitakapustkin.application.ports.in.commands.ImportUserCommand;
+import org.nikitakapustkin.domain.enums.HairColor;
+import org.nikitakapustkin.domain.enums.Sex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Not {@code @Transactional}: the cache is only consulted outside read-write transactions and is
+ * evicted on commit, so every request here has to commit on its own.
+ */
+@SpringBootTest(classes = BankServiceApplication.class)
+@AutoConfigureMockMvc
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:bankcachetest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.datasource.username=sa",
+      "spring.datasource.password=",
+      "spring.jpa.hibernate.ddl-auto=validate",
+      "spring.jpa.show-sql=false",
+      "spring.flyway.enabled=true",
+      "outbox.publisher.enabled=false",
+      "maintenance.cleanup.enabled=false",
+      "kafka.consumer.auto-startup=false",
+      "jwt.service.secret=MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY=",
+      "jwt.service.issuer=security-service",
+      "jwt.service.audience=bank-service"
+    })
+class AccountCacheTest {
+
+  @Autowired MockMvc mvc;
+  @Autowired ObjectMapper objectMapper;
+  @Autowired JwtService jwtService;
+  @Autowired ImportUserUseCase importUserUseCase;
+  @Autowired MeterRegistry meterRegistry;
+  @Autowired AccountCacheEventConsumer accountCacheEventConsumer;
+  @Autowired JdbcTemplate jdbcTemplate;
+
+  private String serviceToken;
+
+  @BeforeEach
+  void setUpToken() {
+    serviceToken = jwtService.generateToken("security-service", null, "SERVICE");
+  }
+
+  private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder builder) {
+    return builder.header(HttpHeaders.AUTHORIZATION, "Bearer " + serviceToken);
+  }
+
+  @Test
+  void balance_reads_are_cached_and_evicted_when_a_deposit_commits() throws Exception {
+    UUID accountId = createAccount(createUser());
+    double hitsBefore = gets("bank.accounts", "hit");
+
+    assertThat(balance(accountId)).isEqualByComparingTo("0.00");
+    assertThat(balance(accountId)).isEqualByComparingTo("0.00");
+    assertThat(gets("bank.accounts", "hit") - hitsBefore).isEqualTo(1);
+
+    mvc.perform(
+            authorized(
+                post("/accounts/{id}/deposit", accountId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"amount\":50.00}")))
+        .andExpect(status().isOk());
+
+    assertThat(balance(accountId)).isEqualByComparingTo("50.00");
+  }
+
+  @Test
+  void user_accounts_are_cached_and_evicted_when_an_account_is_opened() throws Exception {
+    UUID userId = createUser();
+    createAccount(userId);
+    double hitsBefore = gets("bank.user-accounts", "hit");
+
+    mvc.perform(authorized(get("/users/{id}/accounts", userId)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1));
+    mvc.perform(authorized(get("/users/{id}/accounts", userId)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1));
+    assertThat(gets("bank.user-accounts", "hit") - hitsBefore).isEqualTo(1);
+
+    createAccount(userId);
+
+    mvc.perform(authorized(get("/users/{id}/accounts", userId)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2));
+  }
+
+  @Test
+  void another_instances_deposit_is_seen_once_its_event_arrives() throws Exception {
+    UUID accountId = createAccount(createUser());
+    assertThat(balance(accountId)).isEqualByComparingTo("0.00");
+
+    // A write committed by another instance: this one only learns about it from the event.
+    jdbcTemplate.update("update accounts set balance = 75.00 where account_id = ?", accountId);
+    assertThat(balance(accountId)).isEqualByComparingTo("0.00");
+
+    accountCacheEventConsumer.consumeAccountEvent(
+        new ConsumerRecord<>(
+            "account-topic",
+            0,
+            0L,
+            accountId.toString(),
+            """
+            {"eventType":"account.deposit","payload":{"accountId":"%s","amount":75.00}}
+            """
+                .formatted(accountId)));
+
+    assertThat(balance(accountId)).isEqualByComparingTo("75.00");
+  }
+
+  private double gets(String cache, String result) {
+    return meterRegistry
+        .get("cache.gets")
+        .tag("cache", cache)
+        .tag("result", result)
+        .functionCounter()
+        .count();
+  }
+
+  private BigDecimal balance(UUID accountId) throws Exception {
+    String body =
+        mvc.perform(authorized(get("/accounts/{id}/balance", accountId)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return new BigDecimal(body.trim());
+  }
+
+  private UUID createUser() {
+    UUID userId = UUID.randomUUID();
+    importUserUseCase.importUser(
+        new ImportUserCommand(userId, "cache-" + userId, "Cache", 30, Sex.FEMALE, HairColor.BROWN));
+    return userId;
+  }
+
+  private UUID createAccount(UUID ownerId) throws Exception {
+    String response =
+        mvc.perform(
+                authorized(
+                    post("/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ownerId\":\"" + ownerId + "\"}")))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return UUID.fromString(objectMapper.readTree(response).get("id").asText());
+  }
+}
@@ -0,0 +1,131 @@
+package org.nikitakapustkin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nikitakapustkin.adapters.in.web.security.JwtService;
+import org.nikitakapustkin.application.ports.in.ImportUserUseCase;
+import org.nikitakapustkin.application.ports.in.commands.ImportUserCommand;
+import org.nikitakapustkin.domain.enums.HairColor;
+import org.nikitakapustkin.domain.enums.Sex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest(classes = BankServiceApplication.class)
+@AutoConfigureMockMvc
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:banklocktest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.datasource.username=sa",
+      "spring.datasource.password=",
+      "spring.jpa.hibernate.ddl-auto=validate",
+      "spring.jpa.show-sql=false",
+      "spring.flyway.enabled=true",
+      "outbox.publisher.enabled=false",
+      "maintenance.cleanup.enabled=false",
+      "kafka.consumer.auto-startup=false",
+      "account.locking.strategy=SKIP_LOCKED",
+      "jwt.service.secret=MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY=",
+      "jwt.service.issuer=security-service",
+      "jwt.service.audience=bank-service"
+    })
+@Transactional
+class AccountLockingStrategyTest {
+
+  @Autowired MockMvc mvc;
+  @Autowired ObjectMapper objectMapper;
+  @Autowired JwtService jwtService;
+  @Autowired ImportUserUseCase importUserUseCase;
+  @Autowired MeterRegistry meterRegistry;
+
+  private String serviceToken;
+
+  @BeforeEach
+  void setUpToken() {
+    serviceToken = jwtService.generateToken("security-service", null, "SERVICE");
+  }
+
+  private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder builder) {
+    return builder.header(HttpHeaders.AUTHORIZATION, "Bearer " + serviceToken);
+  }
+
+  @Test
+  void skip_locked_strategy_locks_accounts_and_records_acquire_metrics() throws Exception {
+    UUID aliceAcc = createAccount(createUser("alice", "Alice"));
+    UUID bobAcc = createAccount(createUser("bob", "Bob"));
+    long before = acquireCount();
+
+    mvc.perform(
+            authorized(
+                post("/accounts/{id}/deposit", aliceAcc)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"amount\":100.00}")))
+        .andExpect(status().isOk());
+    mvc.perform(
+            authorized(
+                post("/accounts/{from}/transfer", aliceAcc)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"toAccountId\":\"" + bobAcc + "\",\"amount\":10.00}")))
+        .andExpect(status().isOk());
+    mvc.perform(
+            authorized(
+                post("/accounts/{id}/deposit", UUID.randomUUID())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"amount\":1.00}")))
+        .andExpect(status().isNotFound());
+
+    String balance =
+        mvc.perform(authorized(get("/accounts/{id}/balance", aliceAcc)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    assertThat(new BigDecimal(balance.trim())).isEqualByComparingTo("90.00");
+    // Deposits go through the atomic balance update; only the transfer locks its two accounts.
+    assertThat(acquireCount() - before).isEqualTo(2);
+  }
+
+  private long acquireCount() {
+    return meterRegistry
+        .get("bank.account.lock.acquire")
+        .tag("strategy", "skip_locked")
+        .timer()
+        .count();
+  }
+
+  private UUID createUser(String login, String name) {
+    UUID userId = UUID.randomUUID();
+    importUserUseCase.importUser(
+        new ImportUserCommand(userId, login, name, 30, Sex.MALE, HairColor.BLACK));
+    return userId;
+  }
+
+  private UUID createAccount(UUID ownerId) throws Exception {
+    String response =
+        mvc.perform(
+                authorized(
+                    post("/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ownerId\":\"" + ownerId + "\"}")))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return UUID.fromString(objectMapper.readTree(response).get("id").asText());
+  }
+}
@@ -7,7 +7,12 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.nikitakapustkin.adapters.in.web.security.JwtService;
@@ -20,9 +25,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @SpringBootTest(classes = BankServiceApplication.class)
@@ -50,6 +58,7 @@ class BankServiceApplicationTest {
   @Autowired ObjectMapper objectMapper;
   @Autowired JwtService jwtService;
   @Autowired ImportUserUseCase importUserUseCase;
+  @Autowired JdbcTemplate jdbcTemplate;
 
   private String adminToken;
 
@@ -58,11 +67,26 @@ class BankServiceApplicationTest {
     adminToken = jwtService.generateToken("security-service", null, "SERVICE");
   }
 
+  // The friendship index sees a friendship only once its transaction commits, so the scenarios
+  // that transfer between friends run outside the test transaction and clean up here.
+  @AfterEach
+  void deleteCommittedData() {
+    if (TestTransaction.isActive()) {
+      return;
+    }
+    for (String table :
+        List.of("transactions", "user_friends", "accounts", "idempotency_keys", "outbox_events")) {
+      jdbcTemplate.update("delete from " + table);
+    }
+    jdbcTemplate.update("delete from users");
+  }
+
   private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder builder) {
     return builder.header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken);
   }
 
   @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   void happy_path_create_users_accounts_and_do_operations() throws Exception {
     UUID aliceId = createUser("alice", "Alice", 20, "FEMALE", "BLONDE");
     UUID bobId = createUser("bob", "Bob", 22, "MALE", "BROWN");
@@ -135,6 +159,88 @@ class BankServiceApplicationTest {
         .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
   }
 
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  void transfer_after_unfriending_charges_the_non_friend_commission() throws Exception {
+    UUID carolId = createUser("carol", "Carol", 25, "FEMALE", "RED");
+    UUID daveId = createUser("dave", "Dave", 27, "MALE", "BLACK");
+    UUID carolAcc = createAccount(carolId);
+    UUID daveAcc = createAccount(daveId);
+    String friendship = "{\"userId\":\"" + carolId + "\",\"friendId\":\"" + daveId + "\"}";
+
+    mvc.perform(
+            authorized(
+                post("/accounts/{id}/deposit", carolAcc)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"amount\":100.00}")))
+        .andExpect(status().isOk());
+    mvc.perform(
+            authorized(
+                post("/users/friends").contentType(MediaType.APPLICATION_JSON).content(friendship)))
+        .andExpect(status().isCreated());
+    mvc.perform(
+            authorized(
+                delete("/users/friends")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(friendship)))
+        .andExpect(status().is2xxSuccessful());
+    mvc.perform(
+            authorized(
+                post("/accounts/{from}/transfer", carolAcc)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"toAccountId\":\"" + daveAcc + "\",\"amount\":25.00}")))
+        .andExpect(status().isOk());
+
+    BigDecimal daveBalance =
+        readBigDecimal(
+            mvc.perform(authorized(get("/accounts/{id}/balance", daveAcc)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+    assertThat(daveBalance).isEqualByComparingTo(new BigDecimal("22.50"));
+  }
+
+  @Test
+  void deposit_with_repeated_idempotency_key_is_applied_once_and_replayed() throws Exception {
+    UUID accountId = createAccount(createUser("erin", "Erin", 31, "FEMALE", "BLONDE"));
+    String key = UUID.randomUUID().toString();
+
+    mvc.perform(
+            authorized(
+                post("/accounts/{id}/deposit", accountId)
+                    .header("Idempotency-Key", key)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"amount\":40.00}")))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist("Idempotent-Replayed"));
+    mvc.perform(
+            authorized(
+                post("/accounts/{id}/deposit", accountId)
+                    .header("Idempotency-Key", key)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"amount\":40.00}")))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Idempotent-Replayed", "true"));
+    mvc.perform(
+            authorized(
+                post("/accounts/{id}/deposit", accountId)
+                    .header("Idempotency-Key", key)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"amount\":41.00}")))
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.error").value("IDEMPOTENCY_CONFLICT"));
+
+    BigDecimal balance =
+        readBigDecimal(
+            mvc.perform(authorized(get("/accounts/{id}/balance", accountId)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+    assertThat(balance).isEqualByComparingTo(new BigDecimal("40.00"));
+  }
+
   @Test
   void withdraw_more_than_balance_returns_409_and_domain_error_code() throws Exception {
     UUID aliceId = createUser("alice", "Alice", 20, "FEMALE", "BLONDE");
@@ -150,6 +256,30 @@ class BankServiceApplicationTest {
         .andExpect(jsonPath("$.error").value("NOT_ENOUGH_MONEY"));
   }
 
+  @Test
+  void head_account_with_owner_id_reports_ownership_without_a_body() throws Exception {
+    UUID aliceId = createUser("alice", "Alice", 20, "FEMALE", "BLONDE");
+    UUID bobId = createUser("bob", "Bob", 22, "MALE", "BLACK");
+    UUID aliceAcc = createAccount(aliceId);
+
+    mvc.perform(authorized(head("/accounts/{id}", aliceAcc).param("ownerId", aliceId.toString())))
+        .andExpect(status().isOk())
+        .andExpect(content().string(""));
+    mvc.perform(authorized(head("/accounts/{id}", aliceAcc).param("ownerId", bobId.toString())))
+        .andExpect(status().isNotFound());
+    mvc.perform(
+            authorized(
+                head("/accounts/{id}", UUID.randomUUID()).param("ownerId", aliceId.toString())))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  void actuator_health_is_public_and_metrics_need_a_service_token() throws Exception {
+    mvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    mvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+    mvc.perform(authorized(get("/actuator/metrics"))).andExpect(status().isOk());
+  }
+
   @Test
   void createUser_endpoint_disabled_returns_405() throws Exception {
     mvc.perform(
@@ -296,6 +426,235 @@ class BankServiceApplicationTest {
         .andExpect(jsonPath("$.path").value("/accounts/" + accountId + "/withdraw"));
   }
 
+  @Test
+  void batch_transfer_applies_valid_items_and_reports_failed_ones() throws Exception {
+    UUID aliceId = createUser("alice", "Alice", 20, "FEMALE", "BLONDE");
+    UUID bobId = createUser("bob", "Bob", 22, "MALE", "BROWN");
+    UUID aliceAcc = createAccount(aliceId);
+    UUID bobAcc = createAccount(bobId);
+    UUID missingAcc = UUID.randomUUID();
+
+    mvc.perform(
+            authorized(
+                post("/accounts/{id}/deposit", aliceAcc)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"amount\":100.00}")))
+        .andExpect(status().isOk());
+
+    String body =
+        """
+        {"transfers":[
+          {"fromAccountId":"%1$s","toAccountId":"%2$s","amount":50.00},
+          {"fromAccountId":"%1$s","toAccountId":"%3$s","amount":10.00},
+          {"fromAccountId":"%1$s","toAccountId":"%2$s","amount":60.00}
+        ]}
+        """
+            .formatted(aliceAcc, bobAcc, missingAcc);
+
+    mvc.perform(
+            authorized(
+                post("/accounts/transfers:batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.succeeded").value(1))
+        .andExpect(jsonPath("$.failed").value(2))
+        .andExpect(jsonPath("$.results[0].status").value("SUCCEEDED"))
+        .andExpect(jsonPath("$.results[0].credited").value(45.00))
+        .andExpect(jsonPath("$.results[1].status").value("FAILED"))
+        .andExpect(jsonPath("$.results[1].error").value("NOT_FOUND"))
+        .andExpect(jsonPath("$.results[2].status").value("FAILED"))
+        .andExpect(jsonPath("$.results[2].error").value("NOT_ENOUGH_MONEY"));
+
+    BigDecimal aliceBalance =
+        readBigDecimal(
+            mvc.perform(authorized(get("/accounts/{id}/balance", aliceAcc)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+    BigDecimal bobBalance =
+        readBigDecimal(
+            mvc.perform(authorized(get("/accounts/{id}/balance", bobAcc)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+
+    assertThat(aliceBalance).isEqualByComparingTo(new BigDecimal("50.00"));
+    assertThat(bobBalance).isEqualByComparingTo(new BigDecimal("45.00"));
+
+    mvc.perform(authorized(get("/transactions").param("accountId", bobAcc.toString())))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].amount").value(45.00));
+  }
+
+  @Test
+  void batch_transfer_emptyList_returns_400_validation_error() throws Exception {
+    mvc.perform(
+            authorized(
+                post("/accounts/transfers:batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"transfers\":[]}")))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void transactions_are_paged_by_cursor_newest_first_without_gaps_or_duplicates() throws Exception {
+    UUID aliceId = createUser("alice", "Alice", 20, "FEMALE", "BLONDE");
+    UUID aliceAcc = createAccount(aliceId);
+    for (int i = 1; i <= 5; i++) {
+      mvc.perform(
+              authorized(
+                  post("/accounts/{id}/deposit", aliceAcc)
+                      .contentType(MediaType.APPLICATION_JSON)
+                      .content("{\"amount\":" + i + ".00}")))
+          .andExpect(status().isOk());
+    }
+
+    List<String> seenIds = new ArrayList<>();
+    List<Instant> seenCreatedAt = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      MockHttpServletRequestBuilder request =
+          get("/transactions").param("accountId", aliceAcc.toString()).param("limit", "2");
+      if (cursor != null) {
+        request.param("cursor", cursor);
+      }
+      JsonNode page =
+          objectMapper.readTree(
+              mvc.perform(authorized(request))
+                  .andExpect(status().isOk())
+                  .andReturn()
+                  .getResponse()
+                  .getContentAsString());
+      assertThat(page.get("items").size()).isLessThanOrEqualTo(2);
+      page.get("items")
+          .forEach(
+              item -> {
+                seenIds.add(item.get("id").asText());
+                seenCreatedAt.add(Instant.parse(item.get("createdAt").asText()));
+              });
+      cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+      pages++;
+    } while (cursor != null);
+
+    assertThat(pages).isEqualTo(3);
+    assertThat(seenIds).hasSize(5).doesNotHaveDuplicates();
+    assertThat(seenCreatedAt).isSortedAccordingTo(Comparator.reverseOrder());
+
+    mvc.perform(authorized(get("/accounts/{id}", aliceAcc).param("limit", "3")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.transactions.length()").value(3))
+        .andExpect(jsonPath("$.transactionsNextCursor").isNotEmpty());
+
+    mvc.perform(
+            authorized(
+                get("/transactions")
+                    .param("accountId", aliceAcc.toString())
+                    .param("to", seenCreatedAt.get(4).toString())))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(0))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  void transactions_for_several_accounts_come_back_as_one_merged_history() throws Exception {
+    UUID aliceId = createUser("alice", "Alice", 20, "FEMALE", "BLONDE");
+    UUID firstAcc = createAccount(aliceId);
+    UUID secondAcc = createAccount(aliceId);
+    UUID otherAcc = createAccount(createUser("bob", "Bob", 22, "MALE", "BLACK"));
+    for (UUID account : List.of(firstAcc, secondAcc, otherAcc, firstAcc)) {
+      mvc.perform(
+              authorized(
+                  post("/accounts/{id}/deposit", account)
+                      .contentType(MediaType.APPLICATION_JSON)
+                      .content("{\"amount\":5.00}")))
+          .andExpect(status().isOk());
+    }
+
+    JsonNode page =
+        objectMapper.readTree(
+            mvc.perform(
+                    authorized(
+                        get("/transactions")
+                            .param("accountIds", firstAcc.toString(), secondAcc.toString())))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+
+    List<String> accounts = new ArrayList<>();
+    List<Instant> createdAt = new ArrayList<>();
+    page.get("items")
+        .forEach(
+            item -> {
+              accounts.add(item.get("accountId").asText());
+              createdAt.add(Instant.parse(item.get("createdAt").asText()));
+            });
+    assertThat(accounts)
+        .hasSize(3)
+        .containsOnly(firstAcc.toString(), secondAcc.toString())
+        .contains(secondAcc.toString());
+    assertThat(createdAt).isSortedAccordingTo(Comparator.reverseOrder());
+
+    mvc.perform(
+            authorized(
+                get("/transactions")
+                    .param("accountId", firstAcc.toString())
+                    .param("accountIds", secondAcc.toString())))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error").value("INVALID_ARGUMENT"));
+  }
+
+  @Test
+  void transactions_export_streams_one_json_object_per_line_oldest_first() throws Exception {
+    UUID aliceId = createUser("alice", "Alice", 20, "FEMALE", "BLONDE");
+    UUID aliceAcc = createAccount(aliceId);
+    for (int i = 1; i <= 3; i++) {
+      mvc.perform(
+              authorized(
+                  post("/accounts/{id}/deposit", aliceAcc)
+                      .contentType(MediaType.APPLICATION_JSON)
+                      .content("{\"amount\":" + i + ".00}")))
+          .andExpect(status().isOk());
+    }
+
+    String body =
+        mvc.perform(
+                authorized(
+                    get("/transactions/export")
+                        .param("accountId", aliceAcc.toString())
+                        .param("type", "DEPOSIT")
+                        .param("from", "2000-01-01T00:00:00Z")))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    assertThat(body).endsWith("}\n");
+    assertThat(body.split("\n", -1)).hasSize(4);
+    List<JsonNode> lines = new ArrayList<>();
+    for (String line : body.split("\n")) {
+      lines.add(objectMapper.readTree(line));
+    }
+    assertThat(lines)
+        .extracting(node -> node.get("amount").decimalValue())
+        .containsExactly(new BigDecimal("1.0"), new BigDecimal("2.0"), new BigDecimal("3.0"));
+    assertThat(lines)
+        .allSatisfy(
+            node -> assertThat(node.get("accountId").asText()).isEqualTo(aliceAcc.toString()));
+  }
+
+  @Test
+  void transactions_invalid_cursor_returns_400() throws Exception {
+    mvc.perform(authorized(get("/transactions").param("cursor", "not-a-cursor")))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error").value("INVALID_ARGUMENT"));
+  }
+
   private UUID createUser(String login, String name, int age, String sex, String hairColor) {
     UUID userId = UUID.randomUUID();
     ImportUserCommand command =
@@ -0,0 +1,258 @@
+package org.nikitakapustkin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.nikitakapustkin.adapters.out.outbox.OutboxKafkaPublisher;
+import org.nikitakapustkin.adapters.out.outbox.OutboxPublisherProperties;
+import org.nikitakapustkin.adapters.out.outbox.OutboxRelayMembership;
+import org.nikitakapustkin.adapters.out.persistence.jpa.OutboxEventJpaRepository;
+import org.nikitakapustkin.adapters.out.persistence.jpa.entity.OutboxStatus;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.TaskScheduler;
+
+class OutboxKafkaPublisherTest {
+  private static final String OWNER = "relay-1";
+  private static final OffsetDateTime CREATED =
+      OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+  private final OutboxEventJpaRepository repository = mock(OutboxEventJpaRepository.class);
+  private final NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+
+  @SuppressWarnings("unchecked")
+  private final KafkaTemplate<String, String> kafkaTemplate = mock(KafkaTemplate.class);
+
+  private final OutboxRelayMembership membership = mock(OutboxRelayMembership.class);
+  private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+  private final OutboxPublisherProperties properties = new OutboxPublisherProperties();
+  private final List<List<Row>> batches = new ArrayList<>();
+
+  private OutboxKafkaPublisher publisher;
+
+  @BeforeEach
+  void setUp() {
+    properties.setBatchSize(3);
+    properties.setMaxAttempts(5);
+    properties.setPublishTimeoutMs(1000);
+    when(membership.instanceId()).thenReturn(OWNER);
+    when(membership.currentAssignment()).thenReturn(new OutboxRelayMembership.Assignment(0, 1, 0));
+    when(jdbc.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+        .thenAnswer(
+            invocation -> {
+              List<Row> rows = batches.isEmpty() ? List.of() : batches.remove(0);
+              RowMapper<?> mapper = invocation.getArgument(2);
+              List<Object> mapped = new ArrayList<>();
+              for (int i = 0; i < rows.size(); i++) {
+                mapped.add(mapper.mapRow(rows.get(i).resultSet(), i));
+              }
+              return mapped;
+            });
+    publisher =
+        new OutboxKafkaPublisher(
+            repository, jdbc, kafkaTemplate, properties, membership, taskScheduler);
+  }
+
+  @Test
+  void mixed_batch_marks_acked_rows_sent_and_failed_rows_for_retry_or_failure() {
+    Row acked = new Row("ok", 0, 0);
+    Row rejected = new Row("broker-down", 1, 1);
+    Row exhausted = new Row("exhausted", 5, 2);
+    batches.add(List.of(acked, rejected, exhausted));
+    when(kafkaTemplate.send(anyString(), eq("ok"), anyString())).thenReturn(acked());
+    when(kafkaTemplate.send(anyString(), eq("broker-down"), anyString()))
+        .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+    publisher.drain();
+
+    ArgumentCaptor<Collection<UUID>> sent = captor();
+    verify(repository).markSent(sent.capture(), eq(OWNER), eq(OutboxStatus.SENT), any());
+    assertThat(sent.getValue()).containsExactly(acked.id());
+    verify(kafkaTemplate, never()).send(anyString(), eq("exhausted"), anyString());
+
+    Map<UUID, SqlParameterSource> failed = markedFailed();
+    assertThat(failed).containsOnlyKeys(rejected.id(), exhausted.id());
+    assertThat(failed.get(rejected.id()).getValue("status")).isEqualTo("NEW");
+    assertThat(failed.get(rejected.id()).getValue("lastError")).isEqualTo("broker down");
+    assertThat(failed.get(rejected.id()).getValue("owner")).isEqualTo(OWNER);
+    assertThat(failed.get(exhausted.id()).getValue("status")).isEqualTo("FAILED");
+  }
+
+  @Test
+  void last_allowed_attempt_that_fails_moves_the_row_to_failed() {
+    Row lastTry = new Row("last-try", 4, 0);
+    batches.add(List.of(lastTry));
+    when(kafkaTemplate.send(anyString(), anyString(), anyString()))
+        .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("still down")));
+
+    publisher.drain();
+
+    verify(repository, never()).markSent(any(), any(), any(), any());
+    assertThat(markedFailed().get(lastTry.id()).getValue("status")).isEqualTo("FAILED");
+  }
+
+  @Test
+  void failed_send_schedules_a_drain_for_when_its_backoff_ends() {
+    batches.add(List.of(new Row("broker-down", 0, 0)));
+    when(kafkaTemplate.send(anyString(), anyString(), anyString()))
+        .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+    Instant before = Instant.now();
+
+    publisher.drain();
+
+    ArgumentCaptor<Instant> at = ArgumentCaptor.forClass(Instant.class);
+    verify(taskScheduler).schedule(any(Runnable.class), at.capture());
+    assertThat(at.getValue()).isAfterOrEqualTo(before.plusMillis(5000));
+  }
+
+  @Test
+  void batch_without_records_to_retry_schedules_no_drain() {
+    batches.add(List.of(new Row("ok", 0, 0), new Row("last-try", 4, 1)));
+    when(kafkaTemplate.send(anyString(), eq("ok"), anyString())).thenReturn(acked());
+    when(kafkaTemplate.send(anyString(), eq("last-try"), anyString()))
+        .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("still down")));
+
+    publisher.drain();
+
+    verify(taskScheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+  }
+
+  @Test
+  void full_batch_with_failures_ends_the_drain_instead_of_reclaiming_at_once() {
+    batches.add(List.of(new Row("a", 0, 0), new Row("b", 0, 1), new Row("c", 0, 2)));
+    batches.add(List.of(new Row("d", 0, 3)));
+    when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(acked());
+    when(kafkaTemplate.send(anyString(), eq("b"), anyString()))
+        .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+    publisher.drain();
+
+    verify(jdbc, times(1)).query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+    verify(kafkaTemplate, never()).send(anyString(), eq("d"), anyString());
+  }
+
+  @Test
+  void full_clean_batch_claims_the_next_one_right_away() {
+    batches.add(List.of(new Row("a", 0, 0), new Row("b", 0, 1), new Row("c", 0, 2)));
+    batches.add(List.of(new Row("d", 0, 3)));
+    when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(acked());
+
+    publisher.drain();
+
+    verify(jdbc, times(2)).query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+    verify(kafkaTemplate).send(anyString(), eq("d"), anyString());
+  }
+
+  @Test
+  void records_of_one_key_are_sent_only_after_the_previous_one_is_acknowledged() {
+    Row first = new Row("k", 0, 0);
+    Row second = new Row("k", 0, 1);
+    batches.add(List.of(first, second));
+    CompletableFuture<SendResult<String, String>> firstAck = new CompletableFuture<>();
+    List<Boolean> firstAckedBeforeSecondSend = new ArrayList<>();
+    when(kafkaTemplate.send(anyString(), eq("k"), anyString()))
+        .thenAnswer(
+            invocation -> {
+              CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS)
+                  .execute(() -> firstAck.complete(null));
+              return firstAck;
+            })
+        .thenAnswer(
+            invocation -> {
+              firstAckedBeforeSecondSend.add(firstAck.isDone());
+              return acked();
+            });
+
+    publisher.drain();
+
+    assertThat(firstAckedBeforeSecondSend).containsExactly(true);
+    ArgumentCaptor<Collection<UUID>> sent = captor();
+    verify(repository).markSent(sent.capture(), eq(OWNER), eq(OutboxStatus.SENT), any());
+    assertThat(sent.getValue()).containsExactly(first.id(), second.id());
+  }
+
+  @Test
+  void failed_send_holds_back_the_later_records_of_its_key_unsent() {
+    Row older = new Row("k", 0, 0);
+    Row otherKey = new Row("x", 0, 1);
+    Row newer = new Row("k", 0, 2);
+    batches.add(List.of(older, otherKey, newer));
+    when(kafkaTemplate.send(anyString(), eq("x"), anyString())).thenReturn(acked());
+    when(kafkaTemplate.send(anyString(), eq("k"), anyString()))
+        .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+    publisher.drain();
+
+    verify(kafkaTemplate, times(1)).send(anyString(), eq("k"), anyString());
+    ArgumentCaptor<Collection<UUID>> sent = captor();
+    verify(repository).markSent(sent.capture(), eq(OWNER), eq(OutboxStatus.SENT), any());
+    assertThat(sent.getValue()).containsExactly(otherKey.id());
+    assertThat(markedFailed()).containsOnlyKeys(older.id());
+    ArgumentCaptor<SqlParameterSource> released = ArgumentCaptor.forClass(SqlParameterSource.class);
+    verify(jdbc).update(contains("set status = 'NEW'"), released.capture());
+    assertThat(released.getValue().getValue("ids")).isEqualTo(List.of(newer.id()));
+    assertThat(released.getValue().getValue("owner")).isEqualTo(OWNER);
+  }
+
+  private Map<UUID, SqlParameterSource> markedFailed() {
+    ArgumentCaptor<SqlParameterSource[]> batch =
+        ArgumentCaptor.forClass(SqlParameterSource[].class);
+    verify(jdbc).batchUpdate(anyString(), batch.capture());
+    return Arrays.stream(batch.getValue())
+        .collect(Collectors.toMap(params -> (UUID) params.getValue("id"), Function.identity()));
+  }
+
+  private static CompletableFuture<SendResult<String, String>> acked() {
+    return CompletableFuture.completedFuture(null);
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static ArgumentCaptor<Collection<UUID>> captor() {
+    return (ArgumentCaptor) ArgumentCaptor.forClass(Collection.class);
+  }
+
+  private record Row(UUID id, String key, int attempts, int order) {
+    Row(String key, int attempts, int order) {
+      this(UUID.randomUUID(), key, attempts, order);
+    }
+
+    ResultSet resultSet() throws Exception {
+      ResultSet rs = mock(ResultSet.class);
+      when(rs.getObject("id", UUID.class)).thenReturn(id);
+      when(rs.getString("topic")).thenReturn("account-topic");
+      when(rs.getString("event_key")).thenReturn(key);
+      when(rs.getString("payload")).thenReturn("{}");
+      when(rs.getInt("attempts")).thenReturn(attempts);
+      when(rs.getObject("created_at", OffsetDateTime.class)).thenReturn(CREATED.plusSeconds(order));
+      return rs;
+    }
+  }
+}
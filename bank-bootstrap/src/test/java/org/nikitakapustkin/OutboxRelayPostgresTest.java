@@ -0,0 +1,287 @@
+package org.nikitakapustkin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.nikitakapustkin.adapters.out.outbox.OutboxKafkaPublisher;
+import org.nikitakapustkin.adapters.out.outbox.OutboxPublisherProperties;
+import org.nikitakapustkin.adapters.out.outbox.OutboxRelayMembership;
+import org.nikitakapustkin.adapters.out.persistence.jpa.OutboxEventJpaRepository;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.TaskScheduler;
+
+/**
+ * Slot assignment, lease reclaim and the epoch fence of the outbox relay. The claim relies on
+ * {@code hashtext} and row locking, so this only runs with {@code -Ppostgres}.
+ */
+@EnabledIfSystemProperty(named = PostgresTestDatabase.URL_PROPERTY, matches = ".+")
+class OutboxRelayPostgresTest {
+  private static final String SCHEMA = PostgresTestDatabase.newSchema("outbox_relay");
+
+  private static NamedParameterJdbcTemplate jdbc;
+
+  @BeforeAll
+  static void migrate() {
+    DataSource dataSource = PostgresTestDatabase.dataSource(SCHEMA);
+    Flyway.configure()
+        .dataSource(dataSource)
+        .schemas(SCHEMA)
+        .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+        .load()
+        .migrate();
+    jdbc = new NamedParameterJdbcTemplate(dataSource);
+  }
+
+  @AfterAll
+  static void dropSchema() {
+    PostgresTestDatabase.dropSchema(SCHEMA);
+  }
+
+  @BeforeEach
+  void clean() {
+    jdbc.getJdbcTemplate().execute("delete from outbox_events");
+    jdbc.getJdbcTemplate().execute("delete from outbox_relay_instances");
+  }
+
+  @Test
+  void every_membership_change_moves_the_epoch() {
+    Relay a = relay("relay-a");
+    OutboxRelayMembership.Assignment alone = a.membership().currentAssignment();
+    Relay b = relay("relay-b");
+    OutboxRelayMembership.Assignment joined = b.membership().currentAssignment();
+
+    assertThat(alone.members()).isEqualTo(1);
+    assertThat(joined.members()).isEqualTo(2);
+    assertThat(joined.epoch()).isGreaterThan(alone.epoch());
+    assertThat(a.membership().currentAssignment())
+        .isEqualTo(new OutboxRelayMembership.Assignment(0, 2, joined.epoch()));
+
+    b.membership().leave();
+
+    OutboxRelayMembership.Assignment left = a.membership().currentAssignment();
+    assertThat(left.members()).isEqualTo(1);
+    assertThat(left.epoch()).isGreaterThan(joined.epoch());
+  }
+
+  @Test
+  void live_relays_split_keys_by_slot_without_overlap() {
+    Relay a = relay("relay-a");
+    Relay b = relay("relay-b");
+    a.membership().currentAssignment();
+    b.membership().currentAssignment();
+    Set<String> keys = new HashSet<>();
+    for (int i = 0; i < 40; i++) {
+      String key = "key-" + i;
+      keys.add(key);
+      insertNew(key, i);
+    }
+
+    a.publisher().drain();
+    b.publisher().drain();
+
+    assertThat(a.sentKeys()).isNotEmpty().doesNotContainAnyElementsOf(b.sentKeys());
+    assertThat(new HashSet<>(a.sentKeys())).hasSize(a.sentKeys().size());
+    Set<String> all = new HashSet<>(a.sentKeys());
+    all.addAll(b.sentKeys());
+    assertThat(all).isEqualTo(keys);
+    int slotOfA = a.membership().currentAssignment().slot();
+    assertThat(a.sentKeys()).allSatisfy(key -> assertThat(slot(key, 2)).isEqualTo(slotOfA));
+    assertThat(b.sentKeys()).allSatisfy(key -> assertThat(slot(key, 2)).isNotEqualTo(slotOfA));
+  }
+
+  @Test
+  void expired_lease_is_reclaimed_and_a_live_one_holds_its_key_back() {
+    Relay a = relay("relay-a");
+    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+    UUID expired = insertProcessing("crashed", "relay-dead", now.minusMinutes(1), 0);
+    insertProcessing("busy", "relay-old", now.plusMinutes(5), 1);
+    UUID waiting = insertNew("busy", 2);
+
+    a.publisher().drain();
+
+    assertThat(a.sentKeys()).containsExactly("crashed");
+    assertThat(status(expired)).isEqualTo("SENT");
+    assertThat(status(waiting)).isEqualTo("NEW");
+
+    jdbc.getJdbcTemplate()
+        .update("update outbox_events set status = 'SENT' where lease_owner = 'relay-old'");
+    a.publisher().drain();
+
+    assertThat(a.sentKeys()).containsExactly("crashed", "busy");
+    assertThat(status(waiting)).isEqualTo("SENT");
+  }
+
+  @Test
+  void reclaiming_an_expired_lease_counts_as_an_attempt() {
+    Relay a = relay("relay-a");
+    OffsetDateTime expired = OffsetDateTime.now(ZoneOffset.UTC).minusMinutes(1);
+    UUID retried = insertProcessing("retried", "relay-dead", expired, 0);
+    // Four relays already died on this one; the fifth reclaim exhausts the default max attempts.
+    UUID poisoned = insert("poisoned", "PROCESSING", "relay-dead", expired, 4, 1);
+
+    a.publisher().drain();
+
+    assertThat(a.sentKeys()).containsExactly("retried");
+    assertThat(status(retried)).isEqualTo("SENT");
+    assertThat(attempts(retried)).isEqualTo(1);
+    assertThat(status(poisoned)).isEqualTo("FAILED");
+  }
+
+  @Test
+  void claims_under_a_superseded_epoch_match_nothing() {
+    OutboxPublisherProperties properties = properties("relay-a");
+    OutboxRelayMembership membership = spy(new OutboxRelayMembership(jdbc, properties));
+    Relay a = relay(membership, properties);
+    OutboxRelayMembership.Assignment stale = membership.currentAssignment();
+    relay("relay-b").membership().currentAssignment();
+    UUID id = insertNew("fenced", 0);
+
+    doReturn(new OutboxRelayMembership.Assignment(0, 1, stale.epoch()))
+        .when(membership)
+        .currentAssignment();
+    a.publisher().drain();
+
+    assertThat(a.sentKeys()).isEmpty();
+    assertThat(status(id)).isEqualTo("NEW");
+
+    // Once the relay has seen the new membership only the owner of the key's slot claims it.
+    doCallRealMethod().when(membership).currentAssignment();
+    Relay b = relay("relay-b");
+    a.publisher().drain();
+    b.publisher().drain();
+
+    assertThat(status(id)).isEqualTo("SENT");
+    assertThat(a.sentKeys().size() + b.sentKeys().size()).isEqualTo(1);
+  }
+
+  private static Relay relay(String instanceId) {
+    OutboxPublisherProperties properties = properties(instanceId);
+    return relay(new OutboxRelayMembership(jdbc, properties), properties);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Relay relay(
+      OutboxRelayMembership membership, OutboxPublisherProperties properties) {
+    List<String> sentKeys = new CopyOnWriteArrayList<>();
+    KafkaTemplate<String, String> kafkaTemplate = mock(KafkaTemplate.class);
+    when(kafkaTemplate.send(anyString(), anyString(), anyString()))
+        .thenAnswer(
+            invocation -> {
+              sentKeys.add(invocation.getArgument(1));
+              return CompletableFuture.<SendResult<String, String>>completedFuture(null);
+            });
+    // The JPA query needs a persistence context; the same UPDATE in plain SQL does here.
+    OutboxEventJpaRepository repository = mock(OutboxEventJpaRepository.class);
+    doAnswer(
+            invocation ->
+                jdbc.update(
+                    """
+                    update outbox_events
+                    set status = 'SENT', published_at = now(), lease_owner = null,
+                        lease_until = null
+                    where id in (:ids) and lease_owner = :owner
+                    """,
+                    new MapSqlParameterSource()
+                        .addValue("ids", (Collection<UUID>) invocation.getArgument(0))
+                        .addValue("owner", invocation.getArgument(1))))
+        .when(repository)
+        .markSent(any(), any(), any(), any());
+    return new Relay(
+        membership,
+        new OutboxKafkaPublisher(
+            repository, jdbc, kafkaTemplate, properties, membership, mock(TaskScheduler.class)),
+        sentKeys);
+  }
+
+  private static OutboxPublisherProperties properties(String instanceId) {
+    OutboxPublisherProperties properties = new OutboxPublisherProperties();
+    properties.setInstanceId(instanceId);
+    properties.setPublishTimeoutMs(1000);
+    return properties;
+  }
+
+  private static UUID insertNew(String key, int order) {
+    return insert(key, "NEW", null, null, 0, order);
+  }
+
+  private static UUID insertProcessing(
+      String key, String owner, OffsetDateTime leaseUntil, int order) {
+    return insert(key, "PROCESSING", owner, leaseUntil, 0, order);
+  }
+
+  private static UUID insert(
+      String key, String status, String owner, OffsetDateTime leaseUntil, int attempts, int order) {
+    UUID id = UUID.randomUUID();
+    jdbc.update(
+        """
+        insert into outbox_events (id, topic, event_key, event_type, payload, status, attempts,
+                                   created_at, lease_owner, lease_until)
+        values (:id, 'test-topic', :key, 'TEST', '{}', :status, :attempts, :createdAt, :owner,
+                :leaseUntil)
+        """,
+        new MapSqlParameterSource()
+            .addValue("id", id)
+            .addValue("key", key)
+            .addValue("status", status)
+            .addValue("attempts", attempts)
+            .addValue(
+                "createdAt", OffsetDateTime.now(ZoneOffset.UTC).minusHours(1).plusSeconds(order))
+            .addValue("owner", owner)
+            .addValue("leaseUntil", leaseUntil));
+    return id;
+  }
+
+  private static String status(UUID id) {
+    return jdbc.queryForObject(
+        "select status from outbox_events where id = :id",
+        new MapSqlParameterSource("id", id),
+        String.class);
+  }
+
+  private static int attempts(UUID id) {
+    Integer attempts =
+        jdbc.queryForObject(
+            "select attempts from outbox_events where id = :id",
+            new MapSqlParameterSource("id", id),
+            Integer.class);
+    return attempts != null ? attempts : -1;
+  }
+
+  private static int slot(String key, int members) {
+    Integer slot =
+        jdbc.queryForObject(
+            "select mod(hashtext(:key)::bigint + 2147483648, :members)::int",
+            new MapSqlParameterSource().addValue("key", key).addValue("members", members),
+            Integer.class);
+    return slot != null ? slot : -1;
+  }
+
+  private record Relay(
+      OutboxRelayMembership membership, OutboxKafkaPublisher publisher, List<String> sentKeys) {}
+}
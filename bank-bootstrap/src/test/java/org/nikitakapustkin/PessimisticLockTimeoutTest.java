@@ -0,0 +1,203 @@
+package org.nikitakapustkin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.PessimisticLockException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.nikitakapustkin.adapters.out.persistence.AccountLockingProperties;
+import org.nikitakapustkin.adapters.out.persistence.AccountLockingStrategy;
+import org.nikitakapustkin.adapters.out.persistence.AccountPersistenceAdapter;
+import org.nikitakapustkin.application.ports.in.CreateAccountUseCase;
+import org.nikitakapustkin.application.ports.in.ImportUserUseCase;
+import org.nikitakapustkin.application.ports.in.commands.CreateAccountCommand;
+import org.nikitakapustkin.application.ports.in.commands.ImportUserCommand;
+import org.nikitakapustkin.domain.enums.HairColor;
+import org.nikitakapustkin.domain.enums.Sex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Two transactions contend for one account row under the PESSIMISTIC strategy: the second, through
+ * the single-account or the batch locking read, must give up once the lock timeout is spent instead
+ * of queueing until the first commits. The batch read is also checked under the other strategies,
+ * where it is still a plain FOR UPDATE. On PostgreSQL ({@code -Ppostgres}) the bound is the
+ * configured lock timeout, or the SKIP_LOCKED wait budget under that strategy; on H2 it is the
+ * database's own lock timeout.
+ */
+@SpringBootTest(classes = BankServiceApplication.class)
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:banklocktimeouttest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.datasource.username=sa",
+      "spring.datasource.password=",
+      "spring.jpa.hibernate.ddl-auto=validate",
+      "spring.jpa.show-sql=false",
+      "spring.flyway.enabled=true",
+      "outbox.publisher.enabled=false",
+      "maintenance.cleanup.enabled=false",
+      "kafka.consumer.auto-startup=false",
+      "account.locking.strategy=PESSIMISTIC",
+      "account.locking.lock-timeout-ms=300",
+      "account.locking.skip-locked-max-wait-ms=300",
+      "jwt.service.secret=MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY=",
+      "jwt.service.issuer=security-service",
+      "jwt.service.audience=bank-service"
+    })
+class PessimisticLockTimeoutTest {
+  private static final String SCHEMA = PostgresTestDatabase.newSchema("lock_timeout");
+  private static final long LOCK_TIMEOUT_MS = 300;
+
+  @Autowired AccountPersistenceAdapter accounts;
+  @Autowired AccountLockingProperties locking;
+  @Autowired ImportUserUseCase importUserUseCase;
+  @Autowired CreateAccountUseCase createAccountUseCase;
+  @Autowired TransactionTemplate transactionTemplate;
+  @Autowired MeterRegistry meterRegistry;
+
+  @DynamicPropertySource
+  static void postgres(DynamicPropertyRegistry registry) {
+    PostgresTestDatabase.register(registry, SCHEMA);
+  }
+
+  @AfterAll
+  static void dropSchema() {
+    PostgresTestDatabase.dropSchema(SCHEMA);
+  }
+
+  @Test
+  void second_locking_read_gives_up_after_the_lock_timeout() throws Exception {
+    UUID accountId = createAccount("lock-holder");
+
+    assertContenderGivesUp(
+        accountId,
+        () -> accounts.loadAccountForUpdate(accountId),
+        PessimisticLockException.class,
+        LockTimeoutException.class);
+  }
+
+  @Test
+  void batch_locking_read_gives_up_after_the_lock_timeout() throws Exception {
+    UUID accountId = createAccount("batch-lock-holder");
+
+    assertContenderGivesUp(
+        accountId,
+        () -> accounts.loadAccountsForUpdate(List.of(accountId)),
+        PessimisticLockingFailureException.class);
+  }
+
+  @Test
+  void batch_locking_read_under_skip_locked_gives_up_after_the_max_wait() throws Exception {
+    UUID accountId = createAccount("skip-locked-batch-holder");
+
+    assertContenderGivesUp(
+        accountId,
+        () ->
+            underStrategy(
+                AccountLockingStrategy.SKIP_LOCKED,
+                () -> accounts.loadAccountsForUpdate(List.of(accountId))),
+        PessimisticLockingFailureException.class);
+  }
+
+  @Test
+  void batch_locking_read_under_optimistic_gives_up_after_the_lock_timeout() throws Exception {
+    UUID accountId = createAccount("optimistic-batch-holder");
+
+    assertContenderGivesUp(
+        accountId,
+        () ->
+            underStrategy(
+                AccountLockingStrategy.OPTIMISTIC,
+                () -> accounts.loadAccountsForUpdate(List.of(accountId))),
+        PessimisticLockingFailureException.class);
+  }
+
+  private void assertContenderGivesUp(
+      UUID accountId, Runnable contender, Class<?>... postgresFailures) throws Exception {
+    double timeoutsBefore = timeouts();
+
+    CountDownLatch locked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<Void> holder =
+        CompletableFuture.runAsync(
+            () ->
+                transactionTemplate.executeWithoutResult(
+                    status -> {
+                      assertThat(accounts.loadAccountForUpdate(accountId)).isPresent();
+                      locked.countDown();
+                      await(release);
+                    }));
+    try {
+      assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+      long start = System.nanoTime();
+      Throwable failure =
+          catchThrowable(() -> transactionTemplate.executeWithoutResult(status -> contender.run()));
+      Duration waited = Duration.ofNanos(System.nanoTime() - start);
+
+      // H2 cannot roll back after its lock timeout, so there the rollback failure is what
+      // surfaces; the bound and the exception type are only meaningful on PostgreSQL.
+      assertThat(failure).isNotNull();
+      assertThat(waited).isLessThan(Duration.ofSeconds(5));
+      if (PostgresTestDatabase.enabled()) {
+        assertThat(failure).isInstanceOfAny(postgresFailures);
+        assertThat(waited)
+            .isGreaterThanOrEqualTo(Duration.ofMillis(LOCK_TIMEOUT_MS))
+            .isLessThan(Duration.ofMillis(LOCK_TIMEOUT_MS + 1500));
+      }
+      assertThat(timeouts() - timeoutsBefore).isEqualTo(1);
+    } finally {
+      release.countDown();
+      holder.get(10, TimeUnit.SECONDS);
+    }
+  }
+
+  // Only the contender switches: the holder has already locked the row under PESSIMISTIC.
+  private void underStrategy(AccountLockingStrategy strategy, Runnable action) {
+    AccountLockingStrategy configured = locking.getStrategy();
+    locking.setStrategy(strategy);
+    try {
+      action.run();
+    } finally {
+      locking.setStrategy(configured);
+    }
+  }
+
+  private UUID createAccount(String login) {
+    UUID userId = UUID.randomUUID();
+    importUserUseCase.importUser(
+        new ImportUserCommand(userId, login, "Holder", 30, Sex.MALE, HairColor.BLACK));
+    return createAccountUseCase.createAccount(new CreateAccountCommand(userId)).getId();
+  }
+
+  private double timeouts() {
+    return meterRegistry
+        .get("bank.account.lock.timeouts")
+        .tag("strategy", "pessimistic")
+        .counter()
+        .count();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
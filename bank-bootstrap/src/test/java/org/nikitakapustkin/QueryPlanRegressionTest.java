@@ -0,0 +1,187 @@
+package org.nikitakapustkin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Loads a ledger-shaped dataset into the migrated schema and checks the plans of the hot lookups,
+ * so a dropped or mismatched index fails the build instead of turning into a sequential scan in
+ * production. Runs on embedded H2 by default and on PostgreSQL with {@code -Ppostgres}, in a schema
+ * of its own.
+ */
+class QueryPlanRegressionTest {
+  private static final int USERS = 5_000;
+  private static final int ACCOUNTS_PER_USER = 2;
+  private static final int TRANSACTIONS_PER_ACCOUNT = 10;
+  private static final String[] SEXES = {"MALE", "FEMALE"};
+  private static final String[] HAIR_COLORS = {"BLONDE", "BLACK", "RED", "BROWN", "WHITE", "GRAY"};
+  private static final String[] TRANSACTION_TYPES = {"DEPOSIT", "WITHDRAWAL", "TRANSFER"};
+
+  private static final String SCHEMA = PostgresTestDatabase.newSchema("query_plans");
+
+  private static JdbcTemplate jdbc;
+  private static boolean postgres;
+  private static UUID sampleUserId;
+  private static UUID sampleAccountId;
+
+  @BeforeAll
+  static void loadDataset() {
+    postgres = PostgresTestDatabase.enabled();
+    DataSource dataSource =
+        postgres
+            ? PostgresTestDatabase.dataSource(SCHEMA)
+            : new DriverManagerDataSource(
+                "jdbc:h2:mem:bankplans;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+    Flyway.configure()
+        .dataSource(dataSource)
+        .schemas(postgres ? new String[] {SCHEMA} : new String[0])
+        .locations(
+            "classpath:db/migration/common",
+            "classpath:db/migration/" + (postgres ? "postgresql" : "h2"))
+        .failOnMissingLocations(false)
+        .load()
+        .migrate();
+    jdbc = new JdbcTemplate(dataSource);
+
+    List<Object[]> users = new ArrayList<>();
+    List<Object[]> accounts = new ArrayList<>();
+    List<Object[]> transactions = new ArrayList<>();
+    Instant start = Instant.parse("2024-01-01T00:00:00Z");
+    for (int u = 0; u < USERS; u++) {
+      UUID userId = UUID.randomUUID();
+      users.add(
+          new Object[] {
+            userId,
+            "plan-user-" + u,
+            "User " + u,
+            SEXES[u % SEXES.length],
+            HAIR_COLORS[u / SEXES.length % HAIR_COLORS.length],
+            18 + u % 60
+          });
+      for (int a = 0; a < ACCOUNTS_PER_USER; a++) {
+        UUID accountId = UUID.randomUUID();
+        accounts.add(new Object[] {accountId, userId, "plan-user-" + u, new BigDecimal("100.00")});
+        for (int t = 0; t < TRANSACTIONS_PER_ACCOUNT; t++) {
+          transactions.add(
+              new Object[] {
+                UUID.randomUUID(),
+                TRANSACTION_TYPES[t % TRANSACTION_TYPES.length],
+                accountId,
+                new BigDecimal("10.00"),
+                Timestamp.from(start.plusSeconds((long) transactions.size() * 60))
+              });
+        }
+        sampleAccountId = accountId;
+      }
+      sampleUserId = userId;
+    }
+    jdbc.batchUpdate(
+        "insert into users (id, login, name, sex, hair_color, age) values (?, ?, ?, ?, ?, ?)",
+        users);
+    jdbc.batchUpdate(
+        "insert into accounts (account_id, user_id, owner_login, balance) values (?, ?, ?, ?)",
+        accounts);
+    jdbc.batchUpdate(
+        "insert into transactions (id, transaction_type, account_id, amount, created_at)"
+            + " values (?, ?, ?, ?, ?)",
+        transactions);
+    jdbc.execute("analyze");
+  }
+
+  @AfterAll
+  static void dropSchema() {
+    PostgresTestDatabase.dropSchema(SCHEMA);
+  }
+
+  @Test
+  void account_history_uses_account_index() {
+    assertIndexScan(
+        "select * from transactions where account_id = '"
+            + sampleAccountId
+            + "' order by created_at desc, id desc limit 51",
+        "idx_transactions_account_created",
+        "fk_transactions_account");
+  }
+
+  @Test
+  void account_history_by_type_uses_account_index() {
+    assertIndexScan(
+        "select * from transactions where account_id = '"
+            + sampleAccountId
+            + "' and transaction_type = 'DEPOSIT' order by created_at desc, id desc limit 51",
+        "idx_transactions_account_created",
+        "fk_transactions_account");
+  }
+
+  @Test
+  void account_history_next_page_uses_account_index() {
+    assertIndexScan(
+        "select * from transactions where account_id = '"
+            + sampleAccountId
+            + "' and (created_at, id) < (timestamp with time zone '2024-01-10 00:00:00+00',"
+            + " '00000000-0000-0000-0000-000000000000')"
+            + " order by created_at desc, id desc limit 51",
+        "idx_transactions_account_created",
+        "fk_transactions_account");
+  }
+
+  @Test
+  void ledger_by_type_uses_type_index() {
+    assertIndexScan(
+        "select * from transactions where transaction_type = 'WITHDRAWAL'"
+            + " order by created_at desc, id desc limit 51",
+        "idx_transactions_type_created");
+  }
+
+  @Test
+  void accounts_by_user_use_user_index() {
+    assertIndexScan(
+        "select * from accounts where user_id = '" + sampleUserId + "'",
+        "idx_accounts_user_id",
+        "fk_accounts_user");
+  }
+
+  @Test
+  void users_by_hair_color_and_sex_use_composite_index() {
+    assertIndexScan(
+        "select * from users where hair_color = 'RED' and sex = 'FEMALE'",
+        "idx_users_hair_color_sex");
+  }
+
+  private static void assertIndexScan(String sql, String expectedIndex) {
+    assertIndexScan(sql, expectedIndex, null);
+  }
+
+  /**
+   * H2 backs every foreign key with an index of its own ({@code <constraint>_INDEX_*}), so on H2 a
+   * lookup by a foreign-key column may use that one instead. PostgreSQL has no implicit foreign-key
+   * indexes and must use the migration's.
+   */
+  private static void assertIndexScan(String sql, String expectedIndex, String foreignKey) {
+    String plan = String.join("\n", jdbc.queryForList("explain " + sql, String.class));
+    assertThat(plan)
+        .as("plan for %s", sql)
+        .doesNotContainIgnoringCase(postgres ? "Seq Scan" : "tableScan");
+    if (postgres || foreignKey == null) {
+      assertThat(plan).as("plan for %s", sql).containsIgnoringCase(expectedIndex);
+    } else {
+      assertThat(plan.toLowerCase(Locale.ROOT))
+          .as("plan for %s", sql)
+          .containsAnyOf(expectedIndex, foreignKey + "_index");
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package org.nikitakapustkin.adapters.in.web.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class JwtServiceKeyRingTest {
+
+  private static final String TEST_SECRET = "MDEyMzQ1Njc4OTAxMjM0NTY3ODkwMTIzNDU2Nzg5MDE=";
+  private static final String ROTATED_SECRET = "YWJjZGVmZ2hpamtsbW5vcHFyc3R1dnd4eXoxMjM0NTY=";
+  private static final String ISSUER = "security-service";
+  private static final String AUDIENCE = "bank-service";
+
+  @Test
+  void tokens_carry_the_signing_key_id_and_unknown_ids_are_rejected() {
+    JwtService service = service(TEST_SECRET, "");
+    String token = service.generateToken("security-service", UUID.randomUUID(), "SERVICE");
+
+    String header =
+        new String(Decoders.BASE64URL.decode(token.split("\\.")[0]), StandardCharsets.UTF_8);
+    assertThat(header)
+        .contains("\"kid\":\"" + HmacKeyRing.of(TEST_SECRET, "").signingKeyId() + "\"");
+    assertThat(service.verify(token).subject()).isEqualTo("security-service");
+
+    String unknownKeyId = token(TEST_SECRET).header().keyId("0000000000000000").and().compact();
+    assertThatThrownBy(() -> service.verify(unknownKeyId))
+        .isInstanceOf(JwtException.class)
+        .hasMessageContaining("Unknown signing key id");
+  }
+
+  @Test
+  void tokens_signed_with_a_retired_key_verify_while_it_is_accepted() {
+    JwtService beforeRotation = service(TEST_SECRET, "");
+    JwtService afterRotation = service(ROTATED_SECRET, " " + TEST_SECRET + " ,");
+    JwtService retiredKeyDropped = service(ROTATED_SECRET, "");
+
+    String oldToken = beforeRotation.generateToken("security-service", null, "SERVICE");
+    String newToken = afterRotation.generateToken("security-service", null, "SERVICE");
+
+    assertThat(afterRotation.verify(oldToken).subject()).isEqualTo("security-service");
+    assertThat(afterRotation.verify(newToken).subject()).isEqualTo("security-service");
+    assertThatThrownBy(() -> retiredKeyDropped.verify(oldToken)).isInstanceOf(JwtException.class);
+    assertThatThrownBy(() -> beforeRotation.verify(newToken)).isInstanceOf(JwtException.class);
+  }
+
+  @Test
+  void token_without_key_id_is_checked_against_the_signing_key() {
+    String legacyToken = token(TEST_SECRET).compact();
+
+    assertThat(service(TEST_SECRET, "").verify(legacyToken).subject()).isEqualTo("legacy");
+    // Only the signing key is tried for tokens without a kid, not the accepted ones.
+    assertThatThrownBy(() -> service(ROTATED_SECRET, TEST_SECRET).verify(legacyToken))
+        .isInstanceOf(JwtException.class);
+  }
+
+  private static JwtService service(String secret, String acceptedSecrets) {
+    return new JwtService(secret, ISSUER, AUDIENCE, "security-service", acceptedSecrets);
+  }
+
+  private static JwtBuilder token(String secret) {
+    return Jwts.builder()
+        .subject("legacy")
+        .issuer(ISSUER)
+        .audience()
+        .add(AUDIENCE)
+        .and()
+        .expiration(new Date(System.currentTimeMillis() + 60_000))
+        .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)));
+  }
+}
@@ -0,0 +1,82 @@
+package org.nikitakapustkin.adapters.in.web.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class VerifiedTokenCacheTest {
+
+  private static final String TEST_SECRET = "MDEyMzQ1Njc4OTAxMjM0NTY3ODkwMTIzNDU2Nzg5MDE=";
+
+  private JwtService jwtService;
+  private VerifiedTokenCache cache;
+
+  @BeforeEach
+  void setUp() {
+    jwtService =
+        spy(
+            new JwtService(
+                TEST_SECRET, "security-service", "bank-service", "security-service", ""));
+    cache = new VerifiedTokenCache(jwtService, 100);
+  }
+
+  @Test
+  void repeat_calls_are_served_without_parsing_again() {
+    UUID userId = UUID.randomUUID();
+    String token = jwtService.generateToken("security-service", userId, "SERVICE");
+
+    VerifiedToken first = cache.verify(token);
+    VerifiedToken second = cache.verify(token);
+
+    assertThat(second).isSameAs(first);
+    assertThat(first.subject()).isEqualTo("security-service");
+    assertThat(first.userId()).isEqualTo(userId);
+    assertThat(first.role()).isEqualTo("SERVICE");
+    verify(jwtService, times(1)).verify(token);
+  }
+
+  @Test
+  void cached_token_is_verified_again_once_it_has_expired() throws InterruptedException {
+    String token =
+        Jwts.builder()
+            .subject("security-service")
+            .issuer("security-service")
+            .audience()
+            .add("bank-service")
+            .and()
+            .expiration(new Date(System.currentTimeMillis() + 2_000))
+            .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(TEST_SECRET)))
+            .compact();
+    VerifiedToken verified = cache.verify(token);
+    assertThat(cache.verify(token)).isSameAs(verified);
+
+    Thread.sleep(Duration.between(Instant.now(), verified.expiresAt()).toMillis() + 100);
+
+    assertThatThrownBy(() -> cache.verify(token)).isInstanceOf(ExpiredJwtException.class);
+    verify(jwtService, times(2)).verify(token);
+  }
+
+  @Test
+  void tampered_token_is_rejected_and_not_cached() {
+    String token = jwtService.generateToken("security-service", null, "SERVICE");
+    String tampered = token.substring(0, token.length() - 2) + "xx";
+
+    assertThatThrownBy(() -> cache.verify(tampered)).isInstanceOf(JwtException.class);
+    assertThatThrownBy(() -> cache.verify(tampered)).isInstanceOf(JwtException.class);
+    verify(jwtService, times(2)).verify(tampered);
+  }
+}
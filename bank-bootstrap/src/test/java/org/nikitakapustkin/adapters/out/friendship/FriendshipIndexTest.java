@@ -0,0 +1,89 @@
+package org.nikitakapustkin.adapters.out.friendship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class FriendshipIndexTest {
+  private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+  private final FriendshipIndex index = new FriendshipIndex(jdbcTemplate);
+  private final UUID alice = UUID.randomUUID();
+  private final UUID bob = UUID.randomUUID();
+
+  @AfterEach
+  void clearSynchronization() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void local_write_becomes_visible_only_after_commit() {
+    TransactionSynchronizationManager.initSynchronization();
+
+    index.applyLocal(alice, bob, true);
+    assertThat(index.areFriends(alice, bob)).isFalse();
+
+    complete(TransactionSynchronization.STATUS_COMMITTED);
+    assertThat(index.areFriends(alice, bob)).isTrue();
+    assertThat(index.areFriends(bob, alice)).isTrue();
+  }
+
+  @Test
+  void rolled_back_local_write_is_never_visible() {
+    index.link(alice, bob);
+    TransactionSynchronizationManager.initSynchronization();
+
+    index.applyLocal(alice, bob, false);
+    assertThat(index.areFriends(alice, bob)).isTrue();
+
+    complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+    assertThat(index.areFriends(alice, bob)).isTrue();
+  }
+
+  @Test
+  void local_write_outside_a_transaction_applies_at_once() {
+    index.applyLocal(alice, bob, true);
+
+    assertThat(index.areFriends(alice, bob)).isTrue();
+  }
+
+  @Test
+  void refresh_follows_the_table_not_the_event_that_triggered_it() {
+    index.link(alice, bob);
+    friendsInTable(0);
+
+    // A stale FRIEND_ADDED delivered after the removal still leaves the pair unlinked.
+    assertThat(index.refresh(alice, bob)).isTrue();
+    assertThat(index.areFriends(alice, bob)).isFalse();
+    assertThat(index.refresh(alice, bob)).isFalse();
+
+    friendsInTable(1);
+    assertThat(index.refresh(bob, alice)).isTrue();
+    assertThat(index.areFriends(alice, bob)).isTrue();
+  }
+
+  private void friendsInTable(int rows) {
+    when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(), any(), any(), any()))
+        .thenReturn(rows);
+  }
+
+  private static void complete(int status) {
+    var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+    if (status == TransactionSynchronization.STATUS_COMMITTED) {
+      synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+    synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    TransactionSynchronizationManager.clearSynchronization();
+  }
+}
@@ -0,0 +1,89 @@
+package org.nikitakapustkin.adapters.out.friendship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LongHashSetTest {
+  // new LongHashSet(1) starts at the minimum capacity of 16 slots.
+  private static final int MASK = 15;
+
+  @Test
+  void add_contains_and_remove() {
+    LongHashSet set = new LongHashSet(1);
+
+    assertThat(set.add(42L)).isTrue();
+    assertThat(set.add(42L)).isFalse();
+    assertThat(set.contains(42L)).isTrue();
+    assertThat(set.contains(43L)).isFalse();
+    assertThat(set.size()).isEqualTo(1);
+
+    assertThat(set.remove(43L)).isFalse();
+    assertThat(set.remove(42L)).isTrue();
+    assertThat(set.remove(42L)).isFalse();
+    assertThat(set.contains(42L)).isFalse();
+    assertThat(set.size()).isZero();
+  }
+
+  @Test
+  void zero_key_is_rejected() {
+    assertThatThrownBy(() -> new LongHashSet(1).add(0L))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void keeps_every_key_across_resizes_and_removals() {
+    LongHashSet set = new LongHashSet(1);
+    for (long key = 1; key <= 5_000; key++) {
+      assertThat(set.add(key << 32 | (key + 1))).isTrue();
+    }
+    assertThat(set.size()).isEqualTo(5_000);
+
+    for (long key = 1; key <= 5_000; key += 2) {
+      assertThat(set.remove(key << 32 | (key + 1))).isTrue();
+    }
+
+    assertThat(set.size()).isEqualTo(2_500);
+    for (long key = 1; key <= 5_000; key++) {
+      assertThat(set.contains(key << 32 | (key + 1))).isEqualTo(key % 2 == 0);
+    }
+  }
+
+  @Test
+  void removal_from_a_chain_that_wraps_past_the_end_keeps_the_rest_reachable() {
+    List<Long> lastSlot = keysWithHome(MASK, 3);
+    long firstSlot = keysWithHome(0, 1).get(0);
+    LongHashSet set = new LongHashSet(1);
+    // Occupies slots 15, 0, 1 and 2: the chain of slot 15 wraps around into slot 0's chain.
+    set.add(lastSlot.get(0));
+    set.add(lastSlot.get(1));
+    set.add(firstSlot);
+    set.add(lastSlot.get(2));
+
+    assertThat(set.remove(lastSlot.get(0))).isTrue();
+
+    assertThat(set.contains(lastSlot.get(1))).isTrue();
+    assertThat(set.contains(firstSlot)).isTrue();
+    assertThat(set.contains(lastSlot.get(2))).isTrue();
+
+    assertThat(set.remove(firstSlot)).isTrue();
+
+    assertThat(set.contains(lastSlot.get(1))).isTrue();
+    assertThat(set.contains(lastSlot.get(2))).isTrue();
+    assertThat(set.contains(lastSlot.get(0))).isFalse();
+    assertThat(set.size()).isEqualTo(2);
+  }
+
+  private static List<Long> keysWithHome(int slot, int count) {
+    List<Long> keys = new ArrayList<>();
+    for (long key = 1; keys.size() < count; key++) {
+      if ((LongHashSet.mix(key) & MASK) == slot) {
+        keys.add(key);
+      }
+    }
+    return keys;
+  }
+}
@@ -0,0 +1,12 @@
+package org.nikitakapustkin.bank.contracts.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record BatchTransferRequestDto(
+    @NotEmpty(message = "At least one transfer is required")
+        @Size(max = 1000, message = "At most 1000 transfers per batch")
+        List<@Valid @NotNull BatchTransferItemRequestDto> transfers) {}
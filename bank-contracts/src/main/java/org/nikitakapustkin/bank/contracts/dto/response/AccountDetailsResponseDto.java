@@ -2,5 +2,11 @@ package org.nikitakapustkin.bank.contracts.dto.response;
 
 import java.util.List;
 
+/**
+ * Account with the first page of its history; {@code transactionsNextCursor} continues it through
+ * {@code GET /transactions?accountId=...&cursor=...}.
+ */
 public record AccountDetailsResponseDto(
-    AccountResponseDto account, List<TransactionResponseDto> transactions) {}
+    AccountResponseDto account,
+    List<TransactionResponseDto> transactions,
+    String transactionsNextCursor) {}
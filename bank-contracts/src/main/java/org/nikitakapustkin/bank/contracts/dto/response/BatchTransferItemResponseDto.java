@@ -0,0 +1,17 @@
+package org.nikitakapustkin.bank.contracts.dto.response;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import org.nikitakapustkin.bank.contracts.enums.TransferStatus;
+import org.nikitakapustkin.bank.contracts.errors.ErrorCode;
+
+public record BatchTransferItemResponseDto(
+    int index,
+    UUID fromAccountId,
+    UUID toAccountId,
+    BigDecimal amount,
+    TransferStatus status,
+    BigDecimal commission,
+    BigDecimal credited,
+    ErrorCode error,
+    String message) {}
@@ -0,0 +1,6 @@
+package org.nikitakapustkin.bank.contracts.dto.response;
+
+import java.util.List;
+
+public record BatchTransferResponseDto(
+    long succeeded, long failed, List<BatchTransferItemResponseDto> results) {}
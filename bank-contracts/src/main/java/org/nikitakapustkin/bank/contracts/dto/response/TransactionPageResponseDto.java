@@ -0,0 +1,5 @@
+package org.nikitakapustkin.bank.contracts.dto.response;
+
+import java.util.List;
+
+public record TransactionPageResponseDto(List<TransactionResponseDto> items, String nextCursor) {}
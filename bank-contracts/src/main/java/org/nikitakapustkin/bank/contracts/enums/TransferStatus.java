@@ -0,0 +1,6 @@
+package org.nikitakapustkin.bank.contracts.enums;
+
+public enum TransferStatus {
+  SUCCEEDED,
+  FAILED
+}
@@ -0,0 +1,30 @@
+package org.nikitakapustkin.security.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for the security-service benchmark suites. Same contract as the bank suite: regular
+ * JMH command line, GC profiler always attached.
+ *
+ * <p>Run with {@code ./mvnw -pl security-benchmarks -am -DskipTests install} followed by {@code
+ * ./mvnw -pl security-benchmarks exec:exec -Dbenchmarks.args="ServiceToken"} (or {@code
+ * "UserToken"}).
+ */
+public final class SecurityBenchmarks {
+  private SecurityBenchmarks() {}
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    Options options =
+        new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build();
+    new Runner(options).run();
+  }
+}
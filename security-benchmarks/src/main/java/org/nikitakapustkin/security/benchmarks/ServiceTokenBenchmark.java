@@ -0,0 +1,77 @@
+package org.nikitakapustkin.security.benchmarks;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.nikitakapustkin.security.adapters.out.bank.BankServiceTokenProvider;
+import org.nikitakapustkin.security.adapters.out.jwt.ServiceJwtService;
+import org.nikitakapustkin.security.enums.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the {@code Authorization} header on one outgoing bank request. {@code deriveKeyAndSign}
+ * is the former per-request path (decode the secret, build the HMAC key, sign), {@code sign} signs
+ * with the key derived once, and {@code cachedToken} is what {@link BankServiceTokenProvider} does
+ * on the request path now.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceTokenBenchmark {
+  private static final String SECRET = "MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY=";
+  private static final String ISSUER = "security-service";
+  private static final String AUDIENCE = "bank-service";
+  private static final String SUBJECT = "security-service";
+
+  private ServiceJwtService jwtService;
+  private BankServiceTokenProvider tokenProvider;
+
+  @Setup
+  public void setUp() {
+    jwtService = new ServiceJwtService(SECRET, ISSUER, AUDIENCE);
+    tokenProvider =
+        new BankServiceTokenProvider(jwtService, SUBJECT, Duration.ofHours(1).toMillis());
+    tokenProvider.refreshIfDue();
+  }
+
+  @Benchmark
+  public String deriveKeyAndSign() {
+    long now = System.currentTimeMillis();
+    return Jwts.builder()
+        .issuer(ISSUER)
+        .audience()
+        .add(AUDIENCE)
+        .and()
+        .subject(SUBJECT)
+        .claim("role", Role.SERVICE.name())
+        .issuedAt(new Date(now))
+        .expiration(new Date(now + ServiceJwtService.TOKEN_TTL.toMillis()))
+        .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+        .compact();
+  }
+
+  @Benchmark
+  public String sign() {
+    return jwtService.generateToken(SUBJECT, Role.SERVICE);
+  }
+
+  @Benchmark
+  public String cachedToken() {
+    return tokenProvider.getToken();
+  }
+}
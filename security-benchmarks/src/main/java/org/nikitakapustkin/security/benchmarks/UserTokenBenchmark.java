@@ -0,0 +1,90 @@
+package org.nikitakapustkin.security.benchmarks;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import org.nikitakapustkin.security.adapters.out.jwt.JwtService;
+import org.nikitakapustkin.security.adapters.out.jwt.VerifiedToken;
+import org.nikitakapustkin.security.enums.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Issue and verify cost of user tokens. The {@code perCall} variants are the former path (decode
+ * the secret and build the key, and for verification a new parser, on every call); the others go
+ * through {@link JwtService}, whose key ring and parser are built once. {@code verifyAcceptedKey}
+ * verifies a token signed with a retired key that is still accepted during a rotation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserTokenBenchmark {
+  private static final String SECRET = "MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY=";
+  private static final String RETIRED_SECRET = "YWJjZGVmZ2hpamtsbW5vcHFyc3R1dnd4eXoxMjM0NTY=";
+  private static final long TTL_MS = 1000L * 60 * 60 * 24;
+
+  private JwtService jwtService;
+  private UUID userId;
+  private String token;
+  private String retiredKeyToken;
+
+  @Setup
+  public void setUp() {
+    jwtService = new JwtService(SECRET, RETIRED_SECRET);
+    userId = UUID.randomUUID();
+    token = jwtService.generateToken("alice", userId, Role.CLIENT);
+    retiredKeyToken =
+        new JwtService(RETIRED_SECRET, "").generateToken("alice", userId, Role.CLIENT);
+  }
+
+  @Benchmark
+  public String issuePerCall() {
+    long now = System.currentTimeMillis();
+    SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    return Jwts.builder()
+        .claim("userId", userId.toString())
+        .claim("role", Role.CLIENT.name())
+        .subject("alice")
+        .issuedAt(new Date(now))
+        .expiration(new Date(now + TTL_MS))
+        .signWith(key)
+        .compact();
+  }
+
+  @Benchmark
+  public String issue() {
+    return jwtService.generateToken("alice", userId, Role.CLIENT);
+  }
+
+  @Benchmark
+  public Claims verifyPerCall() {
+    SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+  }
+
+  @Benchmark
+  public VerifiedToken verify() {
+    return jwtService.verify(token);
+  }
+
+  @Benchmark
+  public VerifiedToken verifyAcceptedKey() {
+    return jwtService.verify(retiredKeyToken);
+  }
+}
@@ -1,27 +1,65 @@
 package org.nikitakapustkin.security.adapters.in.web.security;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
 import org.nikitakapustkin.security.application.ports.out.UserRepositoryPort;
 import org.nikitakapustkin.security.models.User;
 import org.nikitakapustkin.security.models.UserPrincipal;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+/**
+ * Loads users for login. Rows are kept briefly by login so a burst of attempts against one account
+ * reads {@code security_users} once; unknown logins are not cached, so a user can log in right
+ * after registering. As the {@link UserDetailsPasswordService} it also stores the new hash when a
+ * login shows the stored one was made with a lower BCrypt strength than configured.
+ */
 @Service
-@RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
   private final UserRepositoryPort userRepository;
+  private final Cache<String, User> usersByLogin;
+
+  public CustomUserDetailsService(
+      UserRepositoryPort userRepository,
+      @Value("${login.user-cache.ttl-ms:30000}") long ttlMs,
+      @Value("${login.user-cache.maximum-size:10000}") long maximumSize) {
+    this.userRepository = userRepository;
+    this.usersByLogin =
+        Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(ttlMs))
+            .maximumSize(maximumSize)
+            .build();
+  }
 
   @Override
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-    User user = userRepository.findUserByLogin(username);
-
+    User user = usersByLogin.getIfPresent(username);
     if (user == null) {
-      throw new UsernameNotFoundException("user not found");
+      user = userRepository.findUserByLogin(username);
+      if (user == null) {
+        throw new UsernameNotFoundException("user not found");
+      }
+      usersByLogin.put(username, user);
     }
 
     return new UserPrincipal(user);
   }
+
+  @Override
+  public UserDetails updatePassword(UserDetails details, String newPassword) {
+    User user = userRepository.findUserByLogin(details.getUsername());
+    if (user == null) {
+      usersByLogin.invalidate(details.getUsername());
+      return details;
+    }
+    user.setPassword(newPassword);
+    User saved = userRepository.save(user);
+    usersByLogin.put(saved.getLogin(), saved);
+    return new UserPrincipal(saved);
+  }
 }
@@ -9,7 +9,7 @@ import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.nikitakapustkin.security.adapters.out.jwt.JwtService;
+import org.nikitakapustkin.security.adapters.out.jwt.VerifiedToken;
 import org.nikitakapustkin.security.models.JwtPrincipal;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -24,8 +24,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 @RequiredArgsConstructor
 @Component
 public class JwtFilter extends OncePerRequestFilter {
-  private final JwtService jwtService;
-  private final TokenBlacklistService tokenBlacklistService;
+  private final VerifiedTokenCache verifiedTokens;
 
   @Override
   protected void doFilterInternal(
@@ -35,19 +34,14 @@ public class JwtFilter extends OncePerRequestFilter {
       throws ServletException, IOException {
     try {
       String header = request.getHeader("Authorization");
-      String token = null;
-      String username = null;
-      if (header != null && header.startsWith("Bearer ")) {
-        token = header.substring(7);
-        username = jwtService.extractUsername(token);
-      }
-
-      if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-        if (!tokenBlacklistService.isRevoked(token) && jwtService.validateToken(token)) {
-          UUID userId = jwtService.extractUserId(token);
-          String role = jwtService.extractRole(token);
+      if (header != null
+          && header.startsWith("Bearer ")
+          && SecurityContextHolder.getContext().getAuthentication() == null) {
+        VerifiedToken verified = verifiedTokens.verify(header.substring(7));
+        if (verified != null && verified.subject() != null) {
           UsernamePasswordAuthenticationToken authentication =
-              getUsernamePasswordAuthenticationToken(role, username, userId);
+              getUsernamePasswordAuthenticationToken(
+                  verified.role(), verified.subject(), verified.userId());
           authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
           SecurityContextHolder.getContext().setAuthentication(authentication);
         }
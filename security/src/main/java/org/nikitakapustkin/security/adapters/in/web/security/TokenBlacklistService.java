@@ -1,19 +1,17 @@
 package org.nikitakapustkin.security.adapters.in.web.security;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
-import java.util.Base64;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.nikitakapustkin.security.adapters.out.revocation.RevokedTokenStore;
+import org.nikitakapustkin.security.adapters.out.revocation.TokenFingerprint;
 import org.springframework.stereotype.Component;
 
 @Component
+@RequiredArgsConstructor
 public class TokenBlacklistService {
   private static final long DEFAULT_TTL_SECONDS = 24 * 60 * 60;
 
-  private final Map<String, Instant> revokedTokenExpirations = new ConcurrentHashMap<>();
+  private final RevokedTokenStore revokedTokenStore;
 
   public void revoke(String token, Instant expiresAt) {
     if (token == null || token.isBlank()) {
@@ -21,38 +19,22 @@ public class TokenBlacklistService {
     }
     Instant expiration =
         expiresAt != null ? expiresAt : Instant.now().plusSeconds(DEFAULT_TTL_SECONDS);
-    revokedTokenExpirations.put(fingerprint(token), expiration);
-    cleanupExpired();
+    revokedTokenStore.revoke(fingerprint(token), expiration);
   }
 
   public boolean isRevoked(String token) {
     if (token == null || token.isBlank()) {
       return false;
     }
-    String key = fingerprint(token);
-    Instant expiration = revokedTokenExpirations.get(key);
-    if (expiration == null) {
-      return false;
-    }
-    if (expiration.isBefore(Instant.now())) {
-      revokedTokenExpirations.remove(key);
-      return false;
-    }
-    return true;
+    return isRevokedFingerprint(fingerprint(token));
   }
 
-  private void cleanupExpired() {
-    Instant now = Instant.now();
-    revokedTokenExpirations.entrySet().removeIf(entry -> entry.getValue().isBefore(now));
+  // For callers that already hashed the token, so a request hashes it only once.
+  boolean isRevokedFingerprint(TokenFingerprint fingerprint) {
+    return revokedTokenStore.isRevoked(fingerprint);
   }
 
-  private static String fingerprint(String token) {
-    try {
-      MessageDigest digest = MessageDigest.getInstance("SHA-256");
-      byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
-      return Base64.getEncoder().encodeToString(hash);
-    } catch (NoSuchAlgorithmException e) {
-      throw new IllegalStateException("SHA-256 is not available", e);
-    }
+  static TokenFingerprint fingerprint(String token) {
+    return TokenFingerprint.of(token);
   }
 }
@@ -0,0 +1,74 @@
+package org.nikitakapustkin.security.adapters.in.web.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.time.Duration;
+import java.time.Instant;
+import org.nikitakapustkin.security.adapters.out.jwt.JwtService;
+import org.nikitakapustkin.security.adapters.out.jwt.VerifiedToken;
+import org.nikitakapustkin.security.adapters.out.revocation.TokenFingerprint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers tokens that already passed {@link JwtService#verify}, keyed by the same {@link
+ * TokenFingerprint} {@link TokenBlacklistService} uses, so a repeat request costs one hash and two
+ * map lookups. Revocation is checked on every call before the cache is consulted, and each entry
+ * expires with its token.
+ */
+@Component
+public class VerifiedTokenCache {
+  private final JwtService jwtService;
+  private final TokenBlacklistService tokenBlacklistService;
+  private final Cache<TokenFingerprint, VerifiedToken> verified;
+
+  public VerifiedTokenCache(
+      JwtService jwtService,
+      TokenBlacklistService tokenBlacklistService,
+      @Value("${jwt.verified-cache.maximum-size:10000}") long maximumSize) {
+    this.jwtService = jwtService;
+    this.tokenBlacklistService = tokenBlacklistService;
+    this.verified =
+        Caffeine.newBuilder().maximumSize(maximumSize).expireAfter(new UntilTokenExpiry()).build();
+  }
+
+  /**
+   * The claims of {@code token}, or {@code null} when it has been revoked.
+   *
+   * @throws io.jsonwebtoken.JwtException when the token is invalid or expired
+   */
+  public VerifiedToken verify(String token) {
+    TokenFingerprint key = TokenBlacklistService.fingerprint(token);
+    if (tokenBlacklistService.isRevokedFingerprint(key)) {
+      verified.invalidate(key);
+      return null;
+    }
+    VerifiedToken cached = verified.getIfPresent(key);
+    if (cached != null && Instant.now().isBefore(cached.expiresAt())) {
+      return cached;
+    }
+    VerifiedToken fresh = jwtService.verify(token);
+    verified.put(key, fresh);
+    return fresh;
+  }
+
+  private static final class UntilTokenExpiry implements Expiry<TokenFingerprint, VerifiedToken> {
+    @Override
+    public long expireAfterCreate(TokenFingerprint key, VerifiedToken token, long currentTime) {
+      return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        TokenFingerprint key, VerifiedToken token, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, token, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        TokenFingerprint key, VerifiedToken token, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package org.nikitakapustkin.security.adapters.out.bank;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers which user owns an account, so authorizing a write does not need a bank round trip
+ * every time. An account never changes owner, so only confirmed owners are stored and a hit is
+ * authoritative; the TTL just bounds how long a deleted account keeps passing the check (the bank
+ * still rejects the write itself).
+ */
+@Component
+public class AccountOwnershipCache {
+  private final Cache<UUID, UUID> owners;
+
+  public AccountOwnershipCache(
+      @Value("${bank.ownership-cache.ttl-ms:60000}") long ttlMs,
+      @Value("${bank.ownership-cache.maximum-size:100000}") long maximumSize) {
+    this.owners =
+        Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(ttlMs))
+            .maximumSize(maximumSize)
+            .build();
+  }
+
+  /** The cached owner of {@code accountId}, or {@code null} when it is not known. */
+  public UUID ownerOf(UUID accountId) {
+    return owners.getIfPresent(accountId);
+  }
+
+  public void remember(UUID accountId, UUID ownerId) {
+    if (accountId != null && ownerId != null) {
+      owners.put(accountId, ownerId);
+    }
+  }
+}
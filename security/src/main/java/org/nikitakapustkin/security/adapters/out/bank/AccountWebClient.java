@@ -1,11 +1,16 @@
 package org.nikitakapustkin.security.adapters.out.bank;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.nikitakapustkin.bank.contracts.dto.response.TransactionPageResponseDto;
+import org.nikitakapustkin.security.application.models.TransactionPage;
+import org.nikitakapustkin.security.application.models.TransactionPageRequest;
 import org.nikitakapustkin.security.application.ports.out.AccountBankClientPort;
+import org.nikitakapustkin.security.constants.BankApiHeaders;
 import org.nikitakapustkin.security.constants.BankApiPaths;
 import org.nikitakapustkin.security.dto.AccountResponseDto;
 import org.nikitakapustkin.security.dto.DepositRequestDto;
@@ -13,18 +18,33 @@ import org.nikitakapustkin.security.dto.TransactionResponseDto;
 import org.nikitakapustkin.security.dto.TransferRequestDto;
 import org.nikitakapustkin.security.dto.WithdrawRequestDto;
 import org.nikitakapustkin.security.mappers.BankResponseMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Service
 @RequiredArgsConstructor
 public class AccountWebClient implements AccountBankClientPort {
+  // Matches the bank's cap on accountIds per request.
+  private static final int MAX_ACCOUNT_IDS_PER_REQUEST = 100;
+  // Matches the bank's page size when the request has no limit.
+  private static final int DEFAULT_TRANSACTIONS_LIMIT = 50;
+
   private final WebClient webClient;
   private final BankWebClientSupport support;
+  private final AccountOwnershipCache ownershipCache;
+
+  // With bulk reads off (a bank without the accountIds filter) every account is its own request.
+  @Value("${bank.transactions.bulk-enabled:true}")
+  private boolean bulkTransactionsEnabled = true;
+
+  @Value("${bank.transactions.fan-out-concurrency:8}")
+  private int fanOutConcurrency = 8;
 
   @Override
   public AccountResponseDto createAccount(UUID ownerId) {
@@ -39,7 +59,11 @@ public class AccountWebClient implements AccountBankClientPort {
             .bodyToMono(org.nikitakapustkin.bank.contracts.dto.response.AccountResponseDto.class);
     org.nikitakapustkin.bank.contracts.dto.response.AccountResponseDto created =
         support.maybeRetry(response, false).block();
-    return BankResponseMapper.toAccountResponseDto(created);
+    AccountResponseDto dto = BankResponseMapper.toAccountResponseDto(created);
+    if (dto != null) {
+      ownershipCache.remember(dto.getAccountId(), dto.getOwnerId());
+    }
+    return dto;
   }
 
   @Override
@@ -56,22 +80,64 @@ public class AccountWebClient implements AccountBankClientPort {
     if (accounts == null) {
       return List.of();
     }
-    return accounts.stream().map(BankResponseMapper::toAccountResponseDto).toList();
+    List<AccountResponseDto> dtos =
+        accounts.stream().map(BankResponseMapper::toAccountResponseDto).toList();
+    dtos.forEach(dto -> ownershipCache.remember(dto.getAccountId(), userId));
+    return dtos;
   }
 
+  /**
+   * Asks the bank's {@code HEAD /accounts/{id}?ownerId=} probe, which reads the account row only,
+   * unless the owner is already cached. A 404 means missing or owned by someone else.
+   */
+  @Override
+  public boolean isAccountOwnedBy(UUID accountId, UUID ownerId) {
+    UUID cachedOwner = ownershipCache.ownerOf(accountId);
+    if (cachedOwner != null) {
+      return cachedOwner.equals(ownerId);
+    }
+    Mono<Boolean> response =
+        webClient
+            .head()
+            .uri(
+                uriBuilder ->
+                    uriBuilder
+                        .path(BankApiPaths.ACCOUNT_BY_ID)
+                        .queryParam("ownerId", ownerId)
+                        .build(accountId))
+            .exchangeToMono(
+                clientResponse -> {
+                  if (clientResponse.statusCode().is2xxSuccessful()) {
+                    return clientResponse.releaseBody().thenReturn(true);
+                  }
+                  if (clientResponse.statusCode().value() == 404) {
+                    return clientResponse.releaseBody().thenReturn(false);
+                  }
+                  return support.toBankException(clientResponse).flatMap(Mono::error);
+                });
+    boolean owned = Boolean.TRUE.equals(response.retryWhen(support.retrySpec()).block());
+    if (owned) {
+      ownershipCache.remember(accountId, ownerId);
+    }
+    return owned;
+  }
+
+  // Money movements carry an Idempotency-Key generated once per call, so a retry after a timeout
+  // or a 5xx gets the bank's stored outcome instead of moving the money twice.
   @Override
   public void deposit(UUID accountId, DepositRequestDto depositRequest) {
     Mono<ResponseEntity<Void>> response =
         webClient
             .post()
             .uri(BankApiPaths.ACCOUNT_DEPOSIT, accountId)
+            .header(BankApiHeaders.IDEMPOTENCY_KEY, UUID.randomUUID().toString())
             .bodyValue(
                 new org.nikitakapustkin.bank.contracts.dto.request.DepositRequestDto(
                     depositRequest.getAmount()))
             .retrieve()
             .onStatus(HttpStatusCode::isError, support::toBankException)
             .toEntity(Void.class);
-    support.maybeRetry(response, false).block();
+    support.maybeRetry(response, true).block();
   }
 
   @Override
@@ -80,13 +146,14 @@ public class AccountWebClient implements AccountBankClientPort {
         webClient
             .post()
             .uri(BankApiPaths.ACCOUNT_WITHDRAW, accountId)
+            .header(BankApiHeaders.IDEMPOTENCY_KEY, UUID.randomUUID().toString())
             .bodyValue(
                 new org.nikitakapustkin.bank.contracts.dto.request.WithdrawRequestDto(
                     withdrawRequest.getAmount()))
             .retrieve()
             .onStatus(HttpStatusCode::isError, support::toBankException)
             .toEntity(Void.class);
-    support.maybeRetry(response, false).block();
+    support.maybeRetry(response, true).block();
   }
 
   @Override
@@ -95,13 +162,14 @@ public class AccountWebClient implements AccountBankClientPort {
         webClient
             .post()
             .uri(BankApiPaths.ACCOUNT_TRANSFER, fromAccountId)
+            .header(BankApiHeaders.IDEMPOTENCY_KEY, UUID.randomUUID().toString())
             .bodyValue(
                 new org.nikitakapustkin.bank.contracts.dto.request.TransferRequestDto(
                     transferRequest.getToAccountId(), transferRequest.getAmount()))
             .retrieve()
             .onStatus(HttpStatusCode::isError, support::toBankException)
             .toEntity(Void.class);
-    support.maybeRetry(response, false).block();
+    support.maybeRetry(response, true).block();
   }
 
   @Override
@@ -122,11 +190,16 @@ public class AccountWebClient implements AccountBankClientPort {
   }
 
   @Override
-  public AccountResponseDto getAccountById(UUID accountId) {
+  public AccountResponseDto getAccountById(UUID accountId, Integer transactionsLimit) {
     Mono<org.nikitakapustkin.bank.contracts.dto.response.AccountDetailsResponseDto> response =
         webClient
             .get()
-            .uri(BankApiPaths.ACCOUNT_BY_ID, accountId)
+            .uri(
+                uriBuilder ->
+                    uriBuilder
+                        .path(BankApiPaths.ACCOUNT_BY_ID)
+                        .queryParamIfPresent("limit", Optional.ofNullable(transactionsLimit))
+                        .build(accountId))
             .retrieve()
             .onStatus(HttpStatusCode::isError, support::toBankException)
             .bodyToMono(
@@ -138,39 +211,133 @@ public class AccountWebClient implements AccountBankClientPort {
     }
     AccountResponseDto dto = BankResponseMapper.toAccountResponseDto(details.account());
     List<TransactionResponseDto> transactions =
-        details.transactions() == null
-            ? List.of()
-            : details.transactions().stream()
-                .filter(Objects::nonNull)
-                .map(BankResponseMapper::toTransactionResponseDto)
-                .toList();
-    if (dto == null) {
-      return null;
-    }
+        details.transactions() == null ? List.of() : toTransactionResponses(details.transactions());
     return new AccountResponseDto(
-        dto.getAccountId(), dto.getOwnerId(), dto.getBalance(), transactions);
+        dto.getAccountId(),
+        dto.getOwnerId(),
+        dto.getBalance(),
+        transactions,
+        details.transactionsNextCursor());
   }
 
   @Override
-  public List<TransactionResponseDto> getTransactions(String type, UUID accountId) {
-    Mono<List<org.nikitakapustkin.bank.contracts.dto.response.TransactionResponseDto>> response =
-        webClient
-            .get()
-            .uri(
-                uriBuilder ->
-                    uriBuilder
-                        .path(BankApiPaths.TRANSACTIONS)
-                        .queryParamIfPresent("type", Optional.ofNullable(type))
-                        .queryParamIfPresent("accountId", Optional.ofNullable(accountId))
-                        .build())
-            .retrieve()
-            .onStatus(HttpStatusCode::isError, support::toBankException)
-            .bodyToMono(new ParameterizedTypeReference<>() {});
-    List<org.nikitakapustkin.bank.contracts.dto.response.TransactionResponseDto> transactions =
-        response.retryWhen(support.retrySpec()).block();
-    if (transactions == null) {
-      return List.of();
+  public TransactionPage getTransactions(UUID accountId, TransactionPageRequest request) {
+    return toTransactionPage(transactionPage(accountId, null, request).block());
+  }
+
+  /**
+   * Reads one page of the merged history of several accounts with the bulk {@code accountIds}
+   * filter, one request per chunk of ids, or one per account when bulk reads are off. The requests
+   * run concurrently, at most {@code bank.transactions.fan-out-concurrency} at a time, so the call
+   * takes about as long as the slowest of them rather than the sum of all of them. Each request
+   * asks for an equal share of {@code limit}, so the merged page stays within it as long as there
+   * are no more requests than {@code limit}; past that every request still reads one row.
+   */
+  @Override
+  public TransactionPage getTransactions(List<UUID> accountIds, TransactionPageRequest request) {
+    if (accountIds.isEmpty()) {
+      return new TransactionPage(List.of(), null);
+    }
+    int chunkSize = bulkTransactionsEnabled ? MAX_ACCOUNT_IDS_PER_REQUEST : 1;
+    List<List<UUID>> chunks = new ArrayList<>();
+    for (int i = 0; i < accountIds.size(); i += chunkSize) {
+      chunks.add(accountIds.subList(i, Math.min(i + chunkSize, accountIds.size())));
+    }
+    int limit = request.limit() != null ? request.limit() : DEFAULT_TRANSACTIONS_LIMIT;
+    TransactionPageRequest share =
+        chunks.size() == 1 ? request : request.withLimit(Math.max(1, limit / chunks.size()));
+    List<TransactionPageResponseDto> pages =
+        Flux.fromIterable(chunks)
+            .flatMap(
+                chunk ->
+                    bulkTransactionsEnabled
+                        ? transactionPage(null, chunk, share)
+                        : transactionPage(chunk.get(0), null, share),
+                Math.max(1, fanOutConcurrency))
+            .collectList()
+            .block();
+    if (pages == null || pages.isEmpty()) {
+      return new TransactionPage(List.of(), null);
+    }
+    List<TransactionPage> converted =
+        pages.stream().map(AccountWebClient::toTransactionPage).toList();
+    return converted.size() == 1 ? converted.get(0) : mergePages(converted);
+  }
+
+  /**
+   * Merges pages read with the same cursor from disjoint sets of accounts. The bank's cursor is a
+   * keyset position in the global {@code createdAt desc, id desc} order, so it continues any set of
+   * accounts. The merged page ends at the newest last row among the pages that have more, and that
+   * page's cursor continues all of them: every row down to it has been read from every set, so the
+   * merged page holds at most as many rows as all the pages together.
+   */
+  private static TransactionPage mergePages(List<TransactionPage> pages) {
+    List<TransactionResponseDto> merged = new ArrayList<>();
+    TransactionResponseDto boundary = null;
+    String nextCursor = null;
+    for (TransactionPage page : pages) {
+      if (page.items().isEmpty()) {
+        continue;
+      }
+      merged.addAll(page.items());
+      TransactionResponseDto last = page.items().get(page.items().size() - 1);
+      if (page.nextCursor() != null && (boundary == null || newestFirst(last, boundary) < 0)) {
+        boundary = last;
+        nextCursor = page.nextCursor();
+      }
     }
+    merged.sort(AccountWebClient::newestFirst);
+    if (boundary != null) {
+      TransactionResponseDto end = boundary;
+      merged = merged.stream().filter(tx -> newestFirst(tx, end) <= 0).toList();
+    }
+    return new TransactionPage(merged, nextCursor);
+  }
+
+  // The bank's history order; the database compares uuids as unsigned bytes, unlike compareTo.
+  private static int newestFirst(TransactionResponseDto a, TransactionResponseDto b) {
+    int byTime = b.getCreatedAt().compareTo(a.getCreatedAt());
+    return byTime != 0 ? byTime : compareUuids(b.getTransactionId(), a.getTransactionId());
+  }
+
+  private static int compareUuids(UUID a, UUID b) {
+    int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+    return high != 0
+        ? high
+        : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+  }
+
+  private Mono<TransactionPageResponseDto> transactionPage(
+      UUID accountId, List<UUID> accountIds, TransactionPageRequest request) {
+    return webClient
+        .get()
+        .uri(
+            uriBuilder ->
+                uriBuilder
+                    .path(BankApiPaths.TRANSACTIONS)
+                    .queryParamIfPresent("type", Optional.ofNullable(request.type()))
+                    .queryParamIfPresent("accountId", Optional.ofNullable(accountId))
+                    .queryParamIfPresent("accountIds", Optional.ofNullable(accountIds))
+                    .queryParamIfPresent("from", Optional.ofNullable(request.from()))
+                    .queryParamIfPresent("to", Optional.ofNullable(request.to()))
+                    .queryParamIfPresent("cursor", Optional.ofNullable(request.cursor()))
+                    .queryParamIfPresent("limit", Optional.ofNullable(request.limit()))
+                    .build())
+        .retrieve()
+        .onStatus(HttpStatusCode::isError, support::toBankException)
+        .bodyToMono(TransactionPageResponseDto.class)
+        .retryWhen(support.retrySpec());
+  }
+
+  private static TransactionPage toTransactionPage(TransactionPageResponseDto page) {
+    if (page == null || page.items() == null) {
+      return new TransactionPage(List.of(), page != null ? page.nextCursor() : null);
+    }
+    return new TransactionPage(toTransactionResponses(page.items()), page.nextCursor());
+  }
+
+  private static List<TransactionResponseDto> toTransactionResponses(
+      List<org.nikitakapustkin.bank.contracts.dto.response.TransactionResponseDto> transactions) {
     return transactions.stream()
         .filter(Objects::nonNull)
         .map(BankResponseMapper::toTransactionResponseDto)
@@ -1,20 +1,92 @@
 package org.nikitakapustkin.security.adapters.out.bank;
 
-import lombok.RequiredArgsConstructor;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
 import org.nikitakapustkin.security.adapters.out.jwt.ServiceJwtService;
 import org.nikitakapustkin.security.enums.Role;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+/**
+ * Supplies the service JWT attached to every bank request. The signed token is reused until it
+ * enters the refresh window before its expiry; a scheduled job re-signs it then, so the request
+ * path only reads a volatile field. A request signs inline only when there is no token yet or the
+ * cached one has already expired, for instance because refreshing kept failing.
+ */
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class BankServiceTokenProvider {
   private final ServiceJwtService jwtService;
+  private final String subject;
+  private final Duration refreshBeforeExpiry;
+  private final ReentrantLock signLock = new ReentrantLock();
+  private Clock clock = Clock.systemUTC();
 
-  @Value("${jwt.service.subject:security-service}")
-  private String subject;
+  private volatile CachedToken current;
+
+  public BankServiceTokenProvider(
+      ServiceJwtService jwtService,
+      @Value("${jwt.service.subject:security-service}") String subject,
+      @Value("${jwt.service.token-refresh-before-expiry-ms:3600000}") long refreshBeforeExpiryMs) {
+    if (refreshBeforeExpiryMs <= 0
+        || refreshBeforeExpiryMs >= ServiceJwtService.TOKEN_TTL.toMillis()) {
+      throw new IllegalStateException(
+          "jwt.service.token-refresh-before-expiry-ms must be positive and below the token TTL.");
+    }
+    this.jwtService = jwtService;
+    this.subject = subject;
+    this.refreshBeforeExpiry = Duration.ofMillis(refreshBeforeExpiryMs);
+  }
 
   public String getToken() {
-    return jwtService.generateToken(subject, Role.SERVICE);
+    CachedToken token = current;
+    if (token != null && clock.instant().isBefore(token.expiresAt())) {
+      return token.value();
+    }
+    signLock.lock();
+    try {
+      token = current;
+      if (token == null || !clock.instant().isBefore(token.expiresAt())) {
+        token = sign();
+      }
+      return token.value();
+    } finally {
+      signLock.unlock();
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${jwt.service.token-refresh-check-ms:60000}")
+  public void refreshIfDue() {
+    CachedToken token = current;
+    if (token != null && clock.instant().isBefore(token.refreshAt())) {
+      return;
+    }
+    signLock.lock();
+    try {
+      sign();
+    } catch (RuntimeException ex) {
+      log.warn("Failed to refresh the service token, keeping the current one: {}", ex.toString());
+    } finally {
+      signLock.unlock();
+    }
   }
+
+  private CachedToken sign() {
+    // Taken before signing, so the recorded expiry is never later than the token's own.
+    Instant issuedAt = clock.instant();
+    Instant expiresAt = issuedAt.plus(ServiceJwtService.TOKEN_TTL);
+    CachedToken token =
+        new CachedToken(
+            jwtService.generateToken(subject, Role.SERVICE),
+            expiresAt.minus(refreshBeforeExpiry),
+            expiresAt);
+    current = token;
+    return token;
+  }
+
+  private record CachedToken(String value, Instant refreshAt, Instant expiresAt) {}
 }
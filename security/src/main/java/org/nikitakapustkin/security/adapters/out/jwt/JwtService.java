@@ -1,16 +1,14 @@
 package org.nikitakapustkin.security.adapters.out.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import jakarta.annotation.PostConstruct;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.function.Function;
-import javax.crypto.SecretKey;
 import org.nikitakapustkin.security.application.ports.out.JwtIssuerPort;
 import org.nikitakapustkin.security.enums.Role;
 import org.springframework.beans.factory.annotation.Value;
@@ -22,15 +20,19 @@ public class JwtService implements JwtIssuerPort {
   private static final String CLAIM_USER_ID = "userId";
   private static final String CLAIM_ROLE = "role";
 
-  @Value("${jwt.secret}")
-  private String secret;
+  private final HmacKeyRing keyRing;
+  private final JwtParser parser;
 
-  @PostConstruct
-  public void validateSecret() {
+  public JwtService(
+      @Value("${jwt.secret}") String secret,
+      @Value("${jwt.accepted-secrets:}") String acceptedSecrets) {
     if (secret == null || secret.isBlank()) {
       throw new IllegalStateException(
           "jwt.secret is not set. Provide it via env var JWT_SECRET (recommended) or application properties.");
     }
+    // Keys and parser are immutable and thread-safe, so they are built once for all requests.
+    this.keyRing = HmacKeyRing.of(secret, acceptedSecrets);
+    this.parser = Jwts.parser().keyLocator(keyRing).build();
   }
 
   @Override
@@ -43,19 +45,35 @@ public class JwtService implements JwtIssuerPort {
       claims.put(CLAIM_ROLE, role.name());
     }
     return Jwts.builder()
+        .header()
+        .keyId(keyRing.signingKeyId())
+        .and()
         .claims()
         .add(claims)
         .subject(login)
         .issuedAt(new Date(System.currentTimeMillis()))
         .expiration(new Date(System.currentTimeMillis() + 1000L * 60 * 60 * 24))
         .and()
-        .signWith(getKey())
+        .signWith(keyRing.signingKey())
         .compact();
   }
 
-  private SecretKey getKey() {
-    byte[] encodedKey = Decoders.BASE64.decode(secret);
-    return Keys.hmacShaKeyFor(encodedKey);
+  /**
+   * Verifies the signature and expiry in a single parse and returns the claims the filter needs.
+   *
+   * @throws JwtException when the token is invalid or expired
+   */
+  public VerifiedToken verify(String token) {
+    Claims claims = extractAllClaims(token);
+    Date expiration = claims.getExpiration();
+    if (expiration == null) {
+      throw new JwtException("Token has no expiration");
+    }
+    return new VerifiedToken(
+        claims.getSubject(),
+        parseUserId(claims.get(CLAIM_USER_ID, String.class)),
+        claims.get(CLAIM_ROLE, String.class),
+        expiration.toInstant());
   }
 
   public String extractUsername(String token) {
@@ -63,15 +81,7 @@ public class JwtService implements JwtIssuerPort {
   }
 
   public UUID extractUserId(String token) {
-    String raw = extractClaims(token, claims -> claims.get(CLAIM_USER_ID, String.class));
-    if (raw == null || raw.isBlank()) {
-      return null;
-    }
-    try {
-      return UUID.fromString(raw);
-    } catch (IllegalArgumentException e) {
-      return null;
-    }
+    return parseUserId(extractClaims(token, claims -> claims.get(CLAIM_USER_ID, String.class)));
   }
 
   public String extractRole(String token) {
@@ -88,23 +98,33 @@ public class JwtService implements JwtIssuerPort {
   }
 
   private Claims extractAllClaims(String token) {
-    return Jwts.parser().verifyWith(getKey()).build().parseSignedClaims(token).getPayload();
+    return parser.parseSignedClaims(token).getPayload();
   }
 
   public boolean validateToken(String token) {
     try {
-      return !isTokenExpired(token);
+      return verify(token) != null;
     } catch (Exception e) {
       return false;
     }
   }
 
   public boolean validateToken(String token, UserDetails userDetails) {
-    final String username = extractUsername(token);
-    return (username.equals(userDetails.getUsername()) && validateToken(token));
+    try {
+      return verify(token).subject().equals(userDetails.getUsername());
+    } catch (Exception e) {
+      return false;
+    }
   }
 
-  private boolean isTokenExpired(String token) {
-    return extractExpiration(token).before(new Date());
+  private static UUID parseUserId(String raw) {
+    if (raw == null || raw.isBlank()) {
+      return null;
+    }
+    try {
+      return UUID.fromString(raw);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
   }
 }
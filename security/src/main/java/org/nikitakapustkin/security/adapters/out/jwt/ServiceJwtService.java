@@ -1,30 +1,25 @@
 package org.nikitakapustkin.security.adapters.out.jwt;
 
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import jakarta.annotation.PostConstruct;
+import java.time.Duration;
 import java.util.Date;
-import javax.crypto.SecretKey;
 import org.nikitakapustkin.security.enums.Role;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class ServiceJwtService {
+  public static final Duration TOKEN_TTL = Duration.ofHours(24);
   private static final String CLAIM_ROLE = "role";
 
-  @Value("${jwt.service.secret}")
-  private String secret;
+  private final String issuer;
+  private final String audience;
+  private final HmacKeyRing keyRing;
 
-  @Value("${jwt.service.issuer}")
-  private String issuer;
-
-  @Value("${jwt.service.audience}")
-  private String audience;
-
-  @PostConstruct
-  void validateSecret() {
+  public ServiceJwtService(
+      @Value("${jwt.service.secret}") String secret,
+      @Value("${jwt.service.issuer}") String issuer,
+      @Value("${jwt.service.audience}") String audience) {
     if (secret == null || secret.isBlank()) {
       throw new IllegalStateException("jwt.service.secret is not set.");
     }
@@ -34,24 +29,28 @@ public class ServiceJwtService {
     if (audience == null || audience.isBlank()) {
       throw new IllegalStateException("jwt.service.audience is not set.");
     }
+    this.issuer = issuer;
+    this.audience = audience;
+    // The secret is fixed for the life of the process, so the HMAC key is derived once. Only the
+    // signing key matters here; the bank holds the keys it accepts.
+    this.keyRing = HmacKeyRing.of(secret, null);
   }
 
   public String generateToken(String subject, Role role) {
+    long now = System.currentTimeMillis();
     return Jwts.builder()
+        .header()
+        .keyId(keyRing.signingKeyId())
+        .and()
         .issuer(issuer)
         .audience()
         .add(audience)
         .and()
         .subject(subject)
         .claim(CLAIM_ROLE, role != null ? role.name() : null)
-        .issuedAt(new Date(System.currentTimeMillis()))
-        .expiration(new Date(System.currentTimeMillis() + 1000L * 60 * 60 * 24))
-        .signWith(getKey())
+        .issuedAt(new Date(now))
+        .expiration(new Date(now + TOKEN_TTL.toMillis()))
+        .signWith(keyRing.signingKey())
         .compact();
   }
-
-  private SecretKey getKey() {
-    byte[] encodedKey = Decoders.BASE64.decode(secret);
-    return Keys.hmacShaKeyFor(encodedKey);
-  }
 }
@@ -0,0 +1,7 @@
+package org.nikitakapustkin.security.adapters.out.jwt;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** Claims of a token whose signature has been checked. */
+public record VerifiedToken(String subject, UUID userId, String role, Instant expiresAt) {}
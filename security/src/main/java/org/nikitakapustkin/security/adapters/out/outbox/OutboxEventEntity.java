@@ -55,6 +55,12 @@ public class OutboxEventEntity {
   @Column(name = "last_error", columnDefinition = "text")
   private String lastError;
 
+  @Column(name = "lease_owner")
+  private String leaseOwner;
+
+  @Column(name = "lease_until")
+  private Instant leaseUntil;
+
   public static OutboxEventEntity newEvent(
       String topic, String key, String eventType, String payload) {
     return new OutboxEventEntity(
@@ -68,6 +74,8 @@ public class OutboxEventEntity {
         Instant.now(),
         null,
         null,
+        null,
+        null,
         null);
   }
 }
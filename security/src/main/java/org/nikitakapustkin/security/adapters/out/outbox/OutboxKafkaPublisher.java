@@ -1,23 +1,140 @@
 package org.nikitakapustkin.security.adapters.out.outbox;
 
 import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+/**
+ * Relays outbox rows to Kafka in batches: one statement claims the batch, records of different keys
+ * are sent without waiting for each other's ack, the acks are awaited together, and the outcome is
+ * written back with one bulk UPDATE for sent rows and one JDBC batch for failed ones. Records that
+ * share a key go out one after another, so a failed send never ends up behind a newer record of its
+ * key.
+ *
+ * <p>Several instances can run side by side: each claims only its hash partition of event keys (see
+ * {@link OutboxRelayMembership}) under a time-limited lease, and rows left in PROCESSING by a
+ * crashed instance become claimable again once their lease expires.
+ *
+ * <p>In {@link OutboxWakeupMode#NOTIFY} mode {@link OutboxNotificationListener} calls {@link
+ * #drain()} as soon as a row is inserted, and the scheduled poll only runs at the fallback
+ * interval. A batch that leaves records to retry schedules one more drain for when their backoff
+ * ends, since no notification would arrive for them.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @ConditionalOnProperty(value = "outbox.publisher.enabled", matchIfMissing = true)
 public class OutboxKafkaPublisher {
+  private static final int MAX_ERROR_LENGTH = 2000;
+
+  // Claims NEW rows that are not backing off after a failed send, and PROCESSING rows whose lease
+  // has expired because their owner died, from this instance's hash partition. Partitioning by
+  // event_key keeps every key on one instance, and the NOT EXISTS guard skips keys another instance
+  // still holds a live lease on while partitions move, so records of one key are never sent by two
+  // relays at once; the same guard holds a key back behind an older record that is still backing
+  // off. SKIP LOCKED lets overlapping claims during a rebalance pass each other instead of waiting.
+  // The epoch check fences the claim to the membership its slot was computed from: the share lock
+  // makes a concurrent membership change wait for this claim, and a claim from a relay that has
+  // not seen the change yet matches nothing (see OutboxRelayMembership). Reclaiming an expired
+  // lease counts as an attempt, so a record that crashes or hangs its relay reaches max attempts
+  // and FAILED instead of being reclaimed forever.
+  private static final String CLAIM_SQL =
+      """
+      update outbox_events
+      set status = 'PROCESSING',
+          attempts = case when status = 'PROCESSING' then attempts + 1 else attempts end,
+          lease_owner = :owner,
+          lease_until = :leaseUntil,
+          last_attempt_at = :now
+      where id in (
+          select e.id from outbox_events e
+          where exists (
+                  select 1 from outbox_relay_epoch f
+                  where f.id = 1 and f.epoch = :epoch
+                  for share)
+            and ((e.status = 'NEW' and (e.attempts = 0 or e.last_attempt_at < :retryBefore))
+                 or (e.status = 'PROCESSING' and (e.lease_until is null or e.lease_until < :now)))
+            and mod(hashtext(coalesce(e.event_key, e.id::text))::bigint + 2147483648, :members)
+                = :slot
+            and not exists (
+                select 1 from outbox_events p
+                where p.event_key = e.event_key
+                  and ((p.status = 'PROCESSING'
+                        and p.lease_until >= :now
+                        and p.lease_owner <> :owner)
+                       or (p.status = 'NEW'
+                           and p.attempts > 0
+                           and p.last_attempt_at >= :retryBefore
+                           and p.created_at < e.created_at)))
+          order by e.created_at
+          limit :limit
+          for update skip locked)
+      returning id, topic, event_key, payload, attempts, created_at
+      """;
+
+  // The owner check keeps a relay whose lease already expired from overwriting the outcome of
+  // the instance that reclaimed the row.
+  private static final String MARK_FAILED_SQL =
+      """
+      update outbox_events
+      set status = :status,
+          attempts = attempts + 1,
+          last_attempt_at = :now,
+          last_error = :lastError,
+          lease_owner = null,
+          lease_until = null
+      where id = :id
+        and lease_owner = :owner
+      """;
+
+  // Hands records held back behind a failed record of their key to the next claim, unsent and
+  // without counting an attempt.
+  private static final String RELEASE_SQL =
+      """
+      update outbox_events
+      set status = 'NEW',
+          lease_owner = null,
+          lease_until = null
+      where id in (:ids)
+        and lease_owner = :owner
+      """;
+
   private final OutboxEventRepository outboxRepository;
+  private final NamedParameterJdbcTemplate jdbc;
   private final KafkaTemplate<String, String> kafkaTemplate;
+  private final OutboxRelayMembership membership;
+  private final TaskScheduler taskScheduler;
+  private final ReentrantLock relayLock = new ReentrantLock();
+  private final AtomicBoolean drainRequested = new AtomicBoolean();
+  private final AtomicReference<Instant> retryDrainAt = new AtomicReference<>(Instant.EPOCH);
 
   @Value("${outbox.publisher.batch-size:100}")
   private int batchSize;
@@ -28,52 +145,237 @@ public class OutboxKafkaPublisher {
   @Value("${outbox.publisher.max-attempts:5}")
   private int maxAttempts;
 
-  @Scheduled(fixedDelayString = "${outbox.publisher.interval-ms:1000}")
-  public void publishBatch() {
-    var page =
-        outboxRepository.findByStatusOrderByCreatedAt(
-            OutboxStatus.NEW, PageRequest.of(0, batchSize));
+  @Value("${outbox.publisher.lease-ms:30000}")
+  private long leaseMs;
 
-    for (OutboxEventEntity event : page.getContent()) {
-      if (outboxRepository.claimForProcessing(
-              event.getId(), OutboxStatus.NEW, OutboxStatus.PROCESSING, Instant.now())
-          == 0) {
-        continue;
+  @Value("${outbox.publisher.retry-backoff-ms:5000}")
+  private long retryBackoffMs;
+
+  @Value("${outbox.publisher.wakeup-mode:NOTIFY}")
+  private OutboxWakeupMode wakeupMode;
+
+  // In NOTIFY mode this is only the fallback for missed notifications.
+  @Scheduled(
+      fixedDelayString =
+          "#{'${outbox.publisher.wakeup-mode:NOTIFY}'.trim().equalsIgnoreCase('NOTIFY')"
+              + " ? ${outbox.publisher.notify-fallback-interval-ms:30000}"
+              + " : ${outbox.publisher.interval-ms:1000}}")
+  public void poll() {
+    drain();
+  }
+
+  /**
+   * Publishes batches until one comes back smaller than the batch size or with failed sends; failed
+   * records wait out the retry backoff instead of being reclaimed at once. A call that arrives
+   * while another drain holds the relay leaves a request behind and returns; the running drain
+   * picks the request up after it releases the relay and drains again, so no wakeup is lost.
+   */
+  public void drain() {
+    drainRequested.set(true);
+    while (drainRequested.get() && relayLock.tryLock()) {
+      try {
+        drainRequested.set(false);
+        while (publishBatch()) {
+          // keep going, the outbox may hold more than one batch
+        }
+      } finally {
+        relayLock.unlock();
       }
+    }
+  }
 
-      boolean enforceMaxAttempts = maxAttempts > 0;
-      if (enforceMaxAttempts && event.getAttempts() >= maxAttempts) {
-        outboxRepository.markFailed(
-            event.getId(), OutboxStatus.FAILED, Instant.now(), "Max attempts exceeded");
-        log.warn(
-            "Outbox event {} moved to FAILED after {} attempts",
-            event.getId(),
-            event.getAttempts());
+  /** Publishes one batch and returns whether the next one should be claimed right away. */
+  private boolean publishBatch() {
+    List<ClaimedEvent> claimed = claimBatch();
+    if (claimed.isEmpty()) {
+      return false;
+    }
+
+    boolean enforceMaxAttempts = maxAttempts > 0;
+    List<ClaimedEvent> toSend = new ArrayList<>(claimed.size());
+    List<FailedEvent> failed = new ArrayList<>();
+    for (ClaimedEvent event : claimed) {
+      if (enforceMaxAttempts && event.attempts() >= maxAttempts) {
+        failed.add(new FailedEvent(event.id(), OutboxStatus.FAILED, "Max attempts exceeded"));
+        log.warn("Outbox event {} moved to FAILED after {} attempts", event.id(), event.attempts());
         continue;
       }
+      toSend.add(event);
+    }
 
-      try {
-        kafkaTemplate
-            .send(event.getTopic(), event.getKey(), event.getPayload())
-            .get(publishTimeoutMs, TimeUnit.MILLISECONDS);
-
-        outboxRepository.markSent(event.getId(), OutboxStatus.SENT, Instant.now());
-      } catch (Exception ex) {
-        String message = ex.getMessage();
-        if (message != null && message.length() > 2000) {
-          message = message.substring(0, 2000);
+    // Wave n holds the n-th record of every key, so a record is only sent once the previous record
+    // of its key was acknowledged; a batch with distinct keys is a single wave.
+    Map<String, Integer> recordsPerKey = new HashMap<>();
+    List<List<ClaimedEvent>> waves = new ArrayList<>();
+    for (ClaimedEvent event : toSend) {
+      int wave = event.key() != null ? recordsPerKey.merge(event.key(), 1, Integer::sum) - 1 : 0;
+      if (wave == waves.size()) {
+        waves.add(new ArrayList<>());
+      }
+      waves.get(wave).add(event);
+    }
+
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(publishTimeoutMs);
+    Set<String> failedKeys = new HashSet<>();
+    List<UUID> sent = new ArrayList<>(toSend.size());
+    List<UUID> heldBack = new ArrayList<>();
+    for (List<ClaimedEvent> wave : waves) {
+      List<ClaimedEvent> sending = new ArrayList<>(wave.size());
+      for (ClaimedEvent event : wave) {
+        if (failedKeys.contains(event.key()) || deadline - System.nanoTime() <= 0) {
+          heldBack.add(event.id());
+        } else {
+          sending.add(event);
         }
-        boolean terminal = enforceMaxAttempts && event.getAttempts() + 1 >= maxAttempts;
-        OutboxStatus nextStatus = terminal ? OutboxStatus.FAILED : OutboxStatus.NEW;
-        outboxRepository.markFailed(event.getId(), nextStatus, Instant.now(), message);
+      }
+      List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(sending.size());
+      for (ClaimedEvent event : sending) {
+        futures.add(send(event));
+      }
+      awaitAll(futures, deadline);
+
+      for (int i = 0; i < sending.size(); i++) {
+        ClaimedEvent event = sending.get(i);
+        CompletableFuture<SendResult<String, String>> future = futures.get(i);
+        if (future.state() == CompletableFuture.State.SUCCESS) {
+          sent.add(event.id());
+          continue;
+        }
+        if (event.key() != null) {
+          failedKeys.add(event.key());
+        }
+        String error = failureMessage(future);
+        boolean terminal = enforceMaxAttempts && event.attempts() + 1 >= maxAttempts;
+        failed.add(
+            new FailedEvent(event.id(), terminal ? OutboxStatus.FAILED : OutboxStatus.NEW, error));
         log.warn(
             "Failed to publish outbox event {} to {} (attempt {}/{}): {}",
-            event.getId(),
-            event.getTopic(),
-            event.getAttempts() + 1,
+            event.id(),
+            event.topic(),
+            event.attempts() + 1,
             enforceMaxAttempts ? maxAttempts : -1,
-            ex.toString());
+            error);
       }
     }
+
+    if (!sent.isEmpty()) {
+      outboxRepository.markSent(sent, membership.instanceId(), OutboxStatus.SENT, Instant.now());
+    }
+    markFailed(failed);
+    release(heldBack);
+    scheduleRetryDrain(failed);
+    return claimed.size() >= batchSize && sent.size() == toSend.size();
+  }
+
+  private List<ClaimedEvent> claimBatch() {
+    OutboxRelayMembership.Assignment assignment = membership.currentAssignment();
+    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+    List<ClaimedEvent> claimed =
+        jdbc.query(
+            CLAIM_SQL,
+            new MapSqlParameterSource()
+                .addValue("owner", membership.instanceId())
+                .addValue("now", now)
+                .addValue("leaseUntil", now.plusNanos(leaseMs * 1_000_000))
+                .addValue("retryBefore", now.minusNanos(retryBackoffMs * 1_000_000))
+                .addValue("slot", assignment.slot())
+                .addValue("members", assignment.members())
+                .addValue("epoch", assignment.epoch())
+                .addValue("limit", batchSize),
+            (rs, rowNum) ->
+                new ClaimedEvent(
+                    rs.getObject("id", UUID.class),
+                    rs.getString("topic"),
+                    rs.getString("event_key"),
+                    rs.getString("payload"),
+                    rs.getInt("attempts"),
+                    rs.getObject("created_at", OffsetDateTime.class)));
+    // RETURNING does not keep the subquery order; sends must follow creation order so records
+    // with the same key reach their partition in order.
+    claimed.sort(Comparator.comparing(ClaimedEvent::createdAt));
+    return claimed;
+  }
+
+  private CompletableFuture<SendResult<String, String>> send(ClaimedEvent event) {
+    try {
+      return kafkaTemplate.send(event.topic(), event.key(), event.payload());
+    } catch (Exception ex) {
+      return CompletableFuture.failedFuture(ex);
+    }
+  }
+
+  private void awaitAll(
+      List<CompletableFuture<SendResult<String, String>>> futures, long deadline) {
+    try {
+      CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+          .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | TimeoutException ex) {
+      // Outcomes are inspected per future; anything still pending counts as failed.
+    }
+  }
+
+  private String failureMessage(CompletableFuture<?> future) {
+    if (!future.isDone()) {
+      return "No broker acknowledgement within " + publishTimeoutMs + " ms";
+    }
+    Throwable error = future.exceptionNow();
+    if ((error instanceof ExecutionException || error instanceof CompletionException)
+        && error.getCause() != null) {
+      error = error.getCause();
+    }
+    String message = error.getMessage() != null ? error.getMessage() : error.toString();
+    return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
   }
+
+  private void markFailed(List<FailedEvent> failed) {
+    if (failed.isEmpty()) {
+      return;
+    }
+    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+    SqlParameterSource[] batch = new SqlParameterSource[failed.size()];
+    for (int i = 0; i < failed.size(); i++) {
+      FailedEvent event = failed.get(i);
+      batch[i] =
+          new MapSqlParameterSource()
+              .addValue("id", event.id())
+              .addValue("owner", membership.instanceId())
+              .addValue("status", event.status().name())
+              .addValue("now", now)
+              .addValue("lastError", event.error());
+    }
+    jdbc.batchUpdate(MARK_FAILED_SQL, batch);
+  }
+
+  private void release(List<UUID> heldBack) {
+    if (heldBack.isEmpty()) {
+      return;
+    }
+    jdbc.update(
+        RELEASE_SQL,
+        new MapSqlParameterSource()
+            .addValue("ids", heldBack)
+            .addValue("owner", membership.instanceId()));
+  }
+
+  // Without it a failed record waits for the next insert or the fallback poll in NOTIFY mode,
+  // not for its backoff. Taken after markFailed, so the claim at this time sees the backoff over.
+  private void scheduleRetryDrain(List<FailedEvent> failed) {
+    if (wakeupMode != OutboxWakeupMode.NOTIFY
+        || failed.stream().noneMatch(event -> event.status() == OutboxStatus.NEW)) {
+      return;
+    }
+    Instant due = Instant.now().plusMillis(retryBackoffMs);
+    // A drain already scheduled for a later time retries these records as well.
+    Instant scheduled = retryDrainAt.getAndAccumulate(due, (a, b) -> a.isAfter(b) ? a : b);
+    if (scheduled.isBefore(due)) {
+      taskScheduler.schedule(this::drain, due);
+    }
+  }
+
+  private record ClaimedEvent(
+      UUID id, String topic, String key, String payload, int attempts, OffsetDateTime createdAt) {}
+
+  private record FailedEvent(UUID id, OutboxStatus status, String error) {}
 }
@@ -0,0 +1,58 @@
+package org.nikitakapustkin.security.adapters.out.revocation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over {@link TokenFingerprint}s, safe for concurrent puts and reads. The
+ * fingerprint halves are already uniform hash bits, so they drive the double hashing directly.
+ */
+final class FingerprintBloomFilter {
+  private static final double LN2 = Math.log(2);
+
+  private final AtomicLongArray words;
+  private final long bitCount;
+  private final int hashCount;
+
+  private FingerprintBloomFilter(long bitCount, int hashCount) {
+    this.words = new AtomicLongArray(Math.toIntExact((bitCount + 63) / 64));
+    this.bitCount = bitCount;
+    this.hashCount = hashCount;
+  }
+
+  /** Sized so that {@code expectedInsertions} entries give about {@code falsePositiveRate}. */
+  static FingerprintBloomFilter create(long expectedInsertions, double falsePositiveRate) {
+    if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("Bloom false-positive rate must be between 0 and 1");
+    }
+    long insertions = Math.max(1, expectedInsertions);
+    long bits =
+        Math.max(64, (long) Math.ceil(-insertions * Math.log(falsePositiveRate) / (LN2 * LN2)));
+    int hashes = Math.max(1, (int) Math.round((double) bits / insertions * LN2));
+    return new FingerprintBloomFilter(bits, hashes);
+  }
+
+  void put(TokenFingerprint fingerprint) {
+    for (int i = 0; i < hashCount; i++) {
+      long bit = bitIndex(fingerprint, i);
+      long mask = 1L << bit;
+      int word = (int) (bit >>> 6);
+      if ((words.get(word) & mask) == 0) {
+        words.getAndAccumulate(word, mask, (current, add) -> current | add);
+      }
+    }
+  }
+
+  boolean mightContain(TokenFingerprint fingerprint) {
+    for (int i = 0; i < hashCount; i++) {
+      long bit = bitIndex(fingerprint, i);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private long bitIndex(TokenFingerprint fingerprint, int i) {
+    return Math.floorMod(fingerprint.high() + i * fingerprint.low(), bitCount);
+  }
+}
@@ -0,0 +1,99 @@
+package org.nikitakapustkin.security.adapters.out.revocation;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps revoked fingerprints in a set and files each one under the time bucket its token expires
+ * in. The sweeper detaches whole buckets once they lie in the past, so a revocation costs one set
+ * insert and one bucket append, and expiry only touches entries that actually expired.
+ *
+ * <p>An entry may outlive its token by up to one bucket width plus one sweep interval. That is
+ * harmless: an expired token no longer verifies, revoked or not.
+ */
+@Component
+@ConditionalOnProperty(
+    value = "jwt.revocation.store",
+    havingValue = "memory",
+    matchIfMissing = true)
+public class InMemoryRevokedTokenStore implements RevokedTokenStore {
+  private final Set<TokenFingerprint> revoked = ConcurrentHashMap.newKeySet();
+  private final ConcurrentSkipListMap<Long, Queue<TokenFingerprint>> buckets =
+      new ConcurrentSkipListMap<>();
+  // Revocations share the read lock; the sweeper takes the write lock only while it detaches
+  // expired buckets, so no fingerprint is appended to a bucket that was already swept.
+  private final ReadWriteLock bucketLock = new ReentrantReadWriteLock();
+  private final long bucketSeconds;
+
+  public InMemoryRevokedTokenStore(
+      @Value("${jwt.revocation.bucket-seconds:60}") long bucketSeconds) {
+    if (bucketSeconds <= 0) {
+      throw new IllegalArgumentException("jwt.revocation.bucket-seconds must be positive");
+    }
+    this.bucketSeconds = bucketSeconds;
+  }
+
+  @Override
+  public void revoke(TokenFingerprint fingerprint, Instant expiresAt) {
+    if (!expiresAt.isAfter(Instant.now())) {
+      return;
+    }
+    bucketLock.readLock().lock();
+    try {
+      if (revoked.add(fingerprint)) {
+        buckets
+            .computeIfAbsent(bucketOf(expiresAt), bucket -> new ConcurrentLinkedQueue<>())
+            .add(fingerprint);
+      }
+    } finally {
+      bucketLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean isRevoked(TokenFingerprint fingerprint) {
+    return revoked.contains(fingerprint);
+  }
+
+  public int size() {
+    return revoked.size();
+  }
+
+  @Scheduled(fixedDelayString = "${jwt.revocation.sweep-interval-ms:60000}")
+  public void sweepExpired() {
+    sweepExpired(Instant.now());
+  }
+
+  /** Forgets every fingerprint whose bucket ended at or before {@code now}. */
+  public void sweepExpired(Instant now) {
+    List<Queue<TokenFingerprint>> expired;
+    bucketLock.writeLock().lock();
+    try {
+      NavigableMap<Long, Queue<TokenFingerprint>> past = buckets.headMap(bucketOf(now), false);
+      expired = new ArrayList<>(past.values());
+      past.clear();
+    } finally {
+      bucketLock.writeLock().unlock();
+    }
+    for (Queue<TokenFingerprint> bucket : expired) {
+      revoked.removeAll(bucket);
+    }
+  }
+
+  private long bucketOf(Instant instant) {
+    return Math.floorDiv(instant.getEpochSecond(), bucketSeconds);
+  }
+}
@@ -0,0 +1,198 @@
+package org.nikitakapustkin.security.adapters.out.revocation;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Revocations shared by every gateway replica and kept across restarts in {@code revoked_tokens}.
+ *
+ * <p>A local Bloom filter of all live rows fronts the table, so the common case, a token that was
+ * never revoked, is answered from memory. Only filter hits go to the database, and confirmed hits
+ * are remembered in an {@link InMemoryRevokedTokenStore}. Rows written by other replicas reach the
+ * filter through a periodic sync by {@code revoked_at}, so a logout elsewhere takes effect here
+ * within one sync interval. Expired rows are purged periodically and the filter is rebuilt from
+ * what remains, because a Bloom filter cannot forget entries.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "jwt.revocation.store", havingValue = "jdbc")
+public class JdbcRevokedTokenStore implements RevokedTokenStore {
+  private static final String INSERT_SQL =
+      """
+      insert into revoked_tokens (fingerprint_high, fingerprint_low, expires_at, revoked_at)
+      values (:high, :low, :expiresAt, current_timestamp)
+      on conflict do nothing
+      """;
+
+  private static final String LOOKUP_SQL =
+      """
+      select expires_at from revoked_tokens
+      where fingerprint_high = :high and fingerprint_low = :low and expires_at > :now
+      """;
+
+  private static final String LIVE_SINCE_SQL =
+      """
+      select fingerprint_high, fingerprint_low, revoked_at from revoked_tokens
+      where revoked_at >= :since and expires_at > :now
+      """;
+
+  private final NamedParameterJdbcTemplate jdbc;
+  private final InMemoryRevokedTokenStore confirmed;
+  private final long expectedInsertions;
+  private final double falsePositiveRate;
+  private final long syncOverlapMs;
+  // Serializes sync and rebuild so no synced row lands in a filter that is about to be replaced.
+  private final ReentrantLock filterLock = new ReentrantLock();
+  private volatile FingerprintBloomFilter filter;
+  private OffsetDateTime syncedUpTo = OffsetDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC);
+
+  public JdbcRevokedTokenStore(
+      NamedParameterJdbcTemplate jdbc,
+      @Value("${jwt.revocation.bucket-seconds:60}") long bucketSeconds,
+      @Value("${jwt.revocation.bloom.expected-insertions:1000000}") long expectedInsertions,
+      @Value("${jwt.revocation.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+      @Value("${jwt.revocation.sync-overlap-ms:10000}") long syncOverlapMs) {
+    this.jdbc = jdbc;
+    this.confirmed = new InMemoryRevokedTokenStore(bucketSeconds);
+    this.expectedInsertions = expectedInsertions;
+    this.falsePositiveRate = falsePositiveRate;
+    this.syncOverlapMs = syncOverlapMs;
+    this.filter = FingerprintBloomFilter.create(expectedInsertions, falsePositiveRate);
+  }
+
+  @PostConstruct
+  public void load() {
+    rebuildFilter();
+  }
+
+  @Override
+  public void revoke(TokenFingerprint fingerprint, Instant expiresAt) {
+    if (!expiresAt.isAfter(Instant.now())) {
+      return;
+    }
+    jdbc.update(
+        INSERT_SQL,
+        new MapSqlParameterSource()
+            .addValue("high", fingerprint.high())
+            .addValue("low", fingerprint.low())
+            .addValue("expiresAt", OffsetDateTime.ofInstant(expiresAt, ZoneOffset.UTC)));
+    confirmed.revoke(fingerprint, expiresAt);
+    filter.put(fingerprint);
+  }
+
+  @Override
+  public boolean isRevoked(TokenFingerprint fingerprint) {
+    if (confirmed.isRevoked(fingerprint)) {
+      return true;
+    }
+    if (!filter.mightContain(fingerprint)) {
+      return false;
+    }
+    try {
+      List<OffsetDateTime> expiresAt =
+          jdbc.queryForList(
+              LOOKUP_SQL,
+              new MapSqlParameterSource()
+                  .addValue("high", fingerprint.high())
+                  .addValue("low", fingerprint.low())
+                  .addValue("now", OffsetDateTime.now(ZoneOffset.UTC)),
+              OffsetDateTime.class);
+      if (expiresAt.isEmpty()) {
+        return false;
+      }
+      confirmed.revoke(fingerprint, expiresAt.get(0).toInstant());
+      return true;
+    } catch (DataAccessException ex) {
+      // Fail closed: only filter hits get here, so an outage rejects few tokens, never none.
+      log.warn("Revocation lookup failed, treating the token as revoked: {}", ex.toString());
+      return true;
+    }
+  }
+
+  /** Adds rows revoked by other replicas since the last sync to the local filter. */
+  @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:2000}")
+  public void syncFromStore() {
+    filterLock.lock();
+    try {
+      // The overlap re-reads rows whose transaction committed after a later row was already seen.
+      OffsetDateTime since = syncedUpTo.minusNanos(syncOverlapMs * 1_000_000);
+      syncedUpTo = addLiveRows(filter, since, syncedUpTo);
+    } catch (DataAccessException ex) {
+      log.warn("Revoked token sync failed, retrying next interval: {}", ex.toString());
+    } finally {
+      filterLock.unlock();
+    }
+  }
+
+  @Scheduled(
+      fixedDelayString = "${jwt.revocation.rebuild-interval-ms:3600000}",
+      initialDelayString = "${jwt.revocation.rebuild-interval-ms:3600000}")
+  public void purgeAndRebuild() {
+    try {
+      int purged =
+          jdbc.update(
+              "delete from revoked_tokens where expires_at <= :now",
+              Map.of("now", OffsetDateTime.now(ZoneOffset.UTC)));
+      log.debug("Purged {} expired revoked tokens", purged);
+      rebuildFilter();
+    } catch (DataAccessException ex) {
+      log.warn("Revoked token purge failed, keeping the current filter: {}", ex.toString());
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${jwt.revocation.sweep-interval-ms:60000}")
+  public void sweepExpired() {
+    confirmed.sweepExpired(Instant.now());
+  }
+
+  private void rebuildFilter() {
+    filterLock.lock();
+    try {
+      Long live =
+          jdbc.queryForObject(
+              "select count(*) from revoked_tokens where expires_at > :now",
+              Map.of("now", OffsetDateTime.now(ZoneOffset.UTC)),
+              Long.class);
+      long size = Math.max(expectedInsertions, live == null ? 0 : live * 2);
+      FingerprintBloomFilter fresh = FingerprintBloomFilter.create(size, falsePositiveRate);
+      OffsetDateTime epoch = OffsetDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC);
+      syncedUpTo = addLiveRows(fresh, epoch, epoch);
+      filter = fresh;
+    } finally {
+      filterLock.unlock();
+    }
+  }
+
+  // Returns the newest revoked_at seen, or upTo when no row was newer.
+  private OffsetDateTime addLiveRows(
+      FingerprintBloomFilter target, OffsetDateTime since, OffsetDateTime upTo) {
+    OffsetDateTime[] newest = {upTo};
+    jdbc.query(
+        LIVE_SINCE_SQL,
+        new MapSqlParameterSource()
+            .addValue("since", since)
+            .addValue("now", OffsetDateTime.now(ZoneOffset.UTC)),
+        rs -> {
+          target.put(
+              new TokenFingerprint(rs.getLong("fingerprint_high"), rs.getLong("fingerprint_low")));
+          OffsetDateTime revokedAt = rs.getObject("revoked_at", OffsetDateTime.class);
+          if (revokedAt.isAfter(newest[0])) {
+            newest[0] = revokedAt;
+          }
+        });
+    return newest[0];
+  }
+}
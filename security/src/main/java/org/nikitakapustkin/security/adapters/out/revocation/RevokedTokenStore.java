@@ -0,0 +1,11 @@
+package org.nikitakapustkin.security.adapters.out.revocation;
+
+import java.time.Instant;
+
+/** Where revoked user tokens are remembered until they would have expired anyway. */
+public interface RevokedTokenStore {
+
+  void revoke(TokenFingerprint fingerprint, Instant expiresAt);
+
+  boolean isRevoked(TokenFingerprint fingerprint);
+}
@@ -0,0 +1,137 @@
+package org.nikitakapustkin.security.adapters.out.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.nikitakapustkin.security.exceptions.TooManyRequestsException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Runs the wrapped encoder on a small dedicated pool instead of the request thread. The pool has a
+ * fixed number of threads and a bounded queue; when both are full the call is shed with {@link
+ * TooManyRequestsException} (429) rather than piling more CPU-bound hashing onto a saturated host.
+ * The request thread still waits for the result, but never longer than {@code maxWaitMs}: a call
+ * that is not done by then is cancelled and shed the same way.
+ *
+ * <p>Metrics: {@code security.password.hash} (hashing time per operation, without queue wait),
+ * {@code security.password.queue.depth} and {@code security.password.rejected}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+  private final PasswordEncoder delegate;
+  private final BlockingQueue<Runnable> queue;
+  private final ThreadPoolExecutor executor;
+  private final Timer encodeTimer;
+  private final Timer matchesTimer;
+  private final Counter rejectedCounter;
+  private final long maxWaitMs;
+
+  public BoundedPasswordEncoder(
+      PasswordEncoder delegate,
+      int threads,
+      int queueCapacity,
+      long maxWaitMs,
+      MeterRegistry registry) {
+    if (threads <= 0 || queueCapacity <= 0 || maxWaitMs <= 0) {
+      throw new IllegalArgumentException(
+          "Password hashing threads, queue and max wait must be positive");
+    }
+    this.delegate = delegate;
+    this.maxWaitMs = maxWaitMs;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            queue,
+            task -> {
+              Thread thread = new Thread(task, "password-hash-" + threadNumber.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    this.encodeTimer = hashTimer(registry, "encode");
+    this.matchesTimer = hashTimer(registry, "matches");
+    this.rejectedCounter =
+        Counter.builder("security.password.rejected")
+            .description(
+                "Password hashing calls shed because the pool and its queue were full or the"
+                    + " call waited longer than the max wait")
+            .register(registry);
+    Gauge.builder("security.password.queue.depth", queue, BlockingQueue::size)
+        .description("Password hashing calls waiting for a free thread")
+        .register(registry);
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return run(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword)));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return run(
+        () -> matchesTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdown();
+  }
+
+  private <T> T run(Callable<T> task) {
+    Future<T> future;
+    try {
+      future = executor.submit(task);
+    } catch (RejectedExecutionException ex) {
+      throw shed();
+    }
+    try {
+      return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException ex) {
+      future.cancel(true);
+      throw shed();
+    } catch (InterruptedException ex) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for password hashing", ex);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException("Password hashing failed", ex.getCause());
+    }
+  }
+
+  private TooManyRequestsException shed() {
+    rejectedCounter.increment();
+    return new TooManyRequestsException("Too many login attempts in progress, retry shortly");
+  }
+
+  private static Timer hashTimer(MeterRegistry registry, String operation) {
+    return Timer.builder("security.password.hash")
+        .description("Time spent hashing a password, excluding queue wait")
+        .tag("operation", operation)
+        .publishPercentiles(0.5, 0.99)
+        .register(registry);
+  }
+}
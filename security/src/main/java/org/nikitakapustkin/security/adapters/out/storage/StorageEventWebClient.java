@@ -1,6 +1,7 @@
 package org.nikitakapustkin.security.adapters.out.storage;
 
 import io.netty.channel.ChannelOption;
+import jakarta.annotation.PostConstruct;
 import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
@@ -20,11 +21,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Service
 @RequiredArgsConstructor
 public class StorageEventWebClient implements StorageEventClientPort {
   private final WebClient.Builder webClientBuilder;
+  private final ConnectionProvider webClientConnectionProvider;
 
   @Value("${storage.base-url:http://localhost:9093}")
   private String storageBaseUrl;
@@ -35,6 +38,13 @@ public class StorageEventWebClient implements StorageEventClientPort {
   @Value("${storage.webclient.response-timeout-ms:5000}")
   private int responseTimeoutMs;
 
+  private WebClient storageClient;
+
+  @PostConstruct
+  void initStorageClient() {
+    storageClient = buildStorageClient();
+  }
+
   @Override
   public List<StorageEventResponseDto> getEvents(
       String source,
@@ -43,7 +53,6 @@ public class StorageEventWebClient implements StorageEventClientPort {
       UUID correlationId,
       String transactionType,
       Integer limit) {
-    WebClient storageClient = buildStorageClient();
     Mono<List<StorageEventResponseDto>> response =
         storageClient
             .get()
@@ -68,7 +77,7 @@ public class StorageEventWebClient implements StorageEventClientPort {
 
   private WebClient buildStorageClient() {
     HttpClient httpClient =
-        HttpClient.create()
+        HttpClient.create(webClientConnectionProvider)
             .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
             .responseTimeout(Duration.ofMillis(responseTimeoutMs));
 
@@ -1,13 +1,13 @@
 package org.nikitakapustkin.security.application;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.nikitakapustkin.security.application.models.TransactionPage;
+import org.nikitakapustkin.security.application.models.TransactionPageRequest;
 import org.nikitakapustkin.security.application.ports.out.AccountBankClientPort;
 import org.nikitakapustkin.security.dto.AccountResponseDto;
 import org.nikitakapustkin.security.dto.DepositRequestDto;
-import org.nikitakapustkin.security.dto.TransactionResponseDto;
 import org.nikitakapustkin.security.dto.TransferRequestDto;
 import org.nikitakapustkin.security.dto.WithdrawRequestDto;
 import org.nikitakapustkin.security.exceptions.ForbiddenException;
@@ -21,7 +21,7 @@ public class AccountService {
   }
 
   public void deposit(UUID accountId, DepositRequestDto depositRequest, UUID userId) {
-    getUserAccountById(accountId, userId);
+    requireOwnership(accountId, userId);
     accountBankClient.deposit(accountId, depositRequest);
   }
 
@@ -29,23 +29,19 @@ public class AccountService {
     return accountBankClient.getUserAccounts(userId);
   }
 
-  public AccountResponseDto getUserAccountById(UUID accountId, UUID userId) {
-    List<AccountResponseDto> accounts = getUserAccounts(userId);
-    boolean allowed =
-        accounts.stream().anyMatch(account -> accountId.equals(account.getAccountId()));
-    if (!allowed) {
-      throw new ForbiddenException("Access denied");
-    }
-    return accountBankClient.getAccountById(accountId);
+  public AccountResponseDto getUserAccountById(
+      UUID accountId, UUID userId, Integer transactionsLimit) {
+    requireOwnership(accountId, userId);
+    return accountBankClient.getAccountById(accountId, transactionsLimit);
   }
 
   public void withdraw(UUID accountId, WithdrawRequestDto withdrawRequest, UUID userId) {
-    getUserAccountById(accountId, userId);
+    requireOwnership(accountId, userId);
     accountBankClient.withdraw(accountId, withdrawRequest);
   }
 
   public void transfer(UUID fromAccountId, TransferRequestDto transferRequest, UUID userId) {
-    getUserAccountById(fromAccountId, userId);
+    requireOwnership(fromAccountId, userId);
     accountBankClient.transfer(fromAccountId, transferRequest);
   }
 
@@ -57,30 +53,30 @@ public class AccountService {
     return getUserAccounts(userId);
   }
 
-  public AccountResponseDto getAccountById(UUID accountId) {
-    return accountBankClient.getAccountById(accountId);
+  public AccountResponseDto getAccountById(UUID accountId, Integer transactionsLimit) {
+    return accountBankClient.getAccountById(accountId, transactionsLimit);
   }
 
-  public List<TransactionResponseDto> getUserTransactions(
-      UUID userId, String type, UUID accountId) {
+  public TransactionPage getUserTransactions(
+      UUID userId, UUID accountId, TransactionPageRequest request) {
     if (accountId != null) {
-      getUserAccountById(accountId, userId);
-      return accountBankClient.getTransactions(type, accountId);
+      requireOwnership(accountId, userId);
+      return accountBankClient.getTransactions(accountId, request);
     }
 
-    return getUserAccounts(userId).stream()
-        .map(AccountResponseDto::getAccountId)
-        .map(id -> accountBankClient.getTransactions(type, id))
-        .flatMap(List::stream)
-        .sorted(
-            Comparator.comparing(
-                    TransactionResponseDto::getCreatedAt,
-                    Comparator.nullsLast(Comparator.naturalOrder()))
-                .reversed())
-        .toList();
+    List<UUID> accountIds =
+        getUserAccounts(userId).stream().map(AccountResponseDto::getAccountId).toList();
+    return accountBankClient.getTransactions(accountIds, request);
+  }
+
+  public TransactionPage getTransactions(UUID accountId, TransactionPageRequest request) {
+    return accountBankClient.getTransactions(accountId, request);
   }
 
-  public List<TransactionResponseDto> getTransactions(String type, UUID accountId) {
-    return accountBankClient.getTransactions(type, accountId);
+  // Authorizing only needs to know the account is the caller's, not its details or history.
+  private void requireOwnership(UUID accountId, UUID userId) {
+    if (!accountBankClient.isAccountOwnedBy(accountId, userId)) {
+      throw new ForbiddenException("Access denied");
+    }
   }
 }
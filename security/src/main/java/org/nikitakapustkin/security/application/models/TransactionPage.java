@@ -0,0 +1,7 @@
+package org.nikitakapustkin.security.application.models;
+
+import java.util.List;
+import org.nikitakapustkin.security.dto.TransactionResponseDto;
+
+/** One page of history, newest first; {@code nextCursor} is null on the last page. */
+public record TransactionPage(List<TransactionResponseDto> items, String nextCursor) {}
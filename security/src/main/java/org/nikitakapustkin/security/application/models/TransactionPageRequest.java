@@ -0,0 +1,15 @@
+package org.nikitakapustkin.security.application.models;
+
+import java.time.Instant;
+
+/**
+ * Filter and position of one history page. {@code cursor} is the bank's {@code nextCursor} from the
+ * previous page; a null {@code limit} leaves the page size to the bank.
+ */
+public record TransactionPageRequest(
+    String type, Instant from, Instant to, String cursor, Integer limit) {
+
+  public TransactionPageRequest withLimit(Integer limit) {
+    return new TransactionPageRequest(type, from, to, cursor, limit);
+  }
+}
@@ -2,9 +2,10 @@ package org.nikitakapustkin.security.application.ports.out;
 
 import java.util.List;
 import java.util.UUID;
+import org.nikitakapustkin.security.application.models.TransactionPage;
+import org.nikitakapustkin.security.application.models.TransactionPageRequest;
 import org.nikitakapustkin.security.dto.AccountResponseDto;
 import org.nikitakapustkin.security.dto.DepositRequestDto;
-import org.nikitakapustkin.security.dto.TransactionResponseDto;
 import org.nikitakapustkin.security.dto.TransferRequestDto;
 import org.nikitakapustkin.security.dto.WithdrawRequestDto;
 
@@ -13,6 +14,8 @@ public interface AccountBankClientPort {
 
   List<AccountResponseDto> getUserAccounts(UUID userId);
 
+  boolean isAccountOwnedBy(UUID accountId, UUID ownerId);
+
   void deposit(UUID accountId, DepositRequestDto depositRequest);
 
   void withdraw(UUID accountId, WithdrawRequestDto withdrawRequest);
@@ -21,7 +24,12 @@ public interface AccountBankClientPort {
 
   List<AccountResponseDto> getAllAccounts();
 
-  AccountResponseDto getAccountById(UUID accountId);
+  /** Account with the first page of its history, at most {@code transactionsLimit} rows. */
+  AccountResponseDto getAccountById(UUID accountId, Integer transactionsLimit);
+
+  /** One page of history; a null {@code accountId} reads all accounts. */
+  TransactionPage getTransactions(UUID accountId, TransactionPageRequest request);
 
-  List<TransactionResponseDto> getTransactions(String type, UUID accountId);
+  /** One page of the merged history of all {@code accountIds}, newest first. */
+  TransactionPage getTransactions(List<UUID> accountIds, TransactionPageRequest request);
 }
@@ -1,8 +1,11 @@
 package org.nikitakapustkin.security.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.nikitakapustkin.security.adapters.in.web.security.JwtFilter;
+import org.nikitakapustkin.security.adapters.out.security.BoundedPasswordEncoder;
 import org.nikitakapustkin.security.constants.SecurityApiPaths;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -33,8 +36,11 @@ public class SecurityConfig {
                         SecurityApiPaths.USERS_REGISTER,
                         SecurityApiPaths.ROOT,
                         "/ui/**",
-                        "/error")
+                        "/error",
+                        "/actuator/health")
                     .permitAll()
+                    .requestMatchers("/actuator/**")
+                    .hasRole("ADMIN")
                     .requestMatchers(SecurityApiPaths.USERS_ME, SecurityApiPaths.USERS_ME_ALL)
                     .hasRole("CLIENT")
                     .requestMatchers(SecurityApiPaths.TRANSACTIONS_ALL)
@@ -52,9 +58,18 @@ public class SecurityConfig {
         .build();
   }
 
+  // Raising the strength is picked up at each user's next login: DaoAuthenticationProvider sees
+  // upgradeEncoding() and stores a new hash through CustomUserDetailsService.updatePassword.
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder(8);
+  public PasswordEncoder passwordEncoder(
+      @Value("${password.hashing.strength:8}") int strength,
+      @Value("${password.hashing.threads:0}") int threads,
+      @Value("${password.hashing.queue-capacity:64}") int queueCapacity,
+      @Value("${password.hashing.max-wait-ms:2000}") long maxWaitMs,
+      MeterRegistry meterRegistry) {
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    return new BoundedPasswordEncoder(
+        new BCryptPasswordEncoder(strength), poolSize, queueCapacity, maxWaitMs, meterRegistry);
   }
 
   @Bean
@@ -12,17 +12,38 @@ import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+/**
+ * Outbound HTTP for the gateway. Request threads are virtual ({@code
+ * spring.threads.virtual.enabled}), so a call blocked on the bank parks its virtual thread instead
+ * of holding a Tomcat worker; how many calls can be in flight at once is bounded by the shared
+ * connection pool below, not by the servlet thread pool.
+ */
 @Configuration
 public class WebClientConfig {
+  @Bean
+  public ConnectionProvider webClientConnectionProvider(
+      @Value("${webclient.pool.max-connections:500}") int maxConnections,
+      @Value("${webclient.pool.pending-acquire-timeout-ms:5000}") long pendingAcquireTimeoutMs) {
+    // The pool is split per remote host. Waiters are bounded by the acquire timeout rather than by
+    // a queue length, so a burst is queued instead of rejected outright.
+    return ConnectionProvider.builder("gateway-webclient")
+        .maxConnections(maxConnections)
+        .pendingAcquireMaxCount(-1)
+        .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+        .build();
+  }
+
   @Bean
   public WebClient webClient(
       @Value("${bank.base-url:http://localhost:8080}") String baseUrl,
       @Value("${bank.webclient.connect-timeout-ms:2000}") int connectTimeoutMs,
       @Value("${bank.webclient.response-timeout-ms:5000}") int responseTimeoutMs,
-      BankServiceTokenProvider tokenProvider) {
+      BankServiceTokenProvider tokenProvider,
+      ConnectionProvider webClientConnectionProvider) {
     HttpClient httpClient =
-        HttpClient.create()
+        HttpClient.create(webClientConnectionProvider)
             .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
             .responseTimeout(Duration.ofMillis(responseTimeoutMs));
     return WebClient.builder()
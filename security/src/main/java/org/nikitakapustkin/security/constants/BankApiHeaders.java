@@ -0,0 +1,7 @@
+package org.nikitakapustkin.security.constants;
+
+public final class BankApiHeaders {
+  public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+  private BankApiHeaders() {}
+}
@@ -0,0 +1,8 @@
+package org.nikitakapustkin.security.constants;
+
+public final class SecurityApiHeaders {
+  // Passed back as ?cursor= for the next page of history; absent on the last page.
+  public static final String NEXT_CURSOR = "X-Next-Cursor";
+
+  private SecurityApiHeaders() {}
+}
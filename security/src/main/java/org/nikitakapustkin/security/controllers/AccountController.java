@@ -1,6 +1,8 @@
 package org.nikitakapustkin.security.controllers;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
@@ -15,13 +17,16 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
+@Validated
 @RequiredArgsConstructor
 public class AccountController {
   private final AccountService accountService;
@@ -71,9 +76,11 @@ public class AccountController {
 
   @GetMapping(SecurityApiPaths.USERS_ME_ACCOUNT_BY_ID)
   public ResponseEntity<AccountResponseDto> getUserAccount(
-      @PathVariable("accountId") UUID accountId, Authentication authentication) {
+      @PathVariable("accountId") UUID accountId,
+      @RequestParam(required = false, name = "limit") @Min(1) @Max(500) Integer limit,
+      Authentication authentication) {
     UUID userId = requireUserId(authentication);
-    return ResponseEntity.ok(accountService.getUserAccountById(accountId, userId));
+    return ResponseEntity.ok(accountService.getUserAccountById(accountId, userId, limit));
   }
 
   @GetMapping(SecurityApiPaths.ACCOUNTS)
@@ -88,8 +95,10 @@ public class AccountController {
   }
 
   @GetMapping(SecurityApiPaths.ACCOUNT_BY_ID)
-  public ResponseEntity<AccountResponseDto> getAccount(@PathVariable("accountId") UUID accountId) {
-    return ResponseEntity.ok(accountService.getAccountById(accountId));
+  public ResponseEntity<AccountResponseDto> getAccount(
+      @PathVariable("accountId") UUID accountId,
+      @RequestParam(required = false, name = "limit") @Min(1) @Max(500) Integer limit) {
+    return ResponseEntity.ok(accountService.getAccountById(accountId, limit));
   }
 
   private static UUID requireUserId(Authentication authentication) {
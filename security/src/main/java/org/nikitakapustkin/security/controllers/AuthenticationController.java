@@ -1,5 +1,6 @@
 package org.nikitakapustkin.security.controllers;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.nikitakapustkin.security.adapters.in.web.security.TokenBlacklistService;
@@ -33,8 +34,10 @@ public class AuthenticationController {
           String authorizationHeader) {
     if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
       String token = authorizationHeader.substring(7);
-      if (jwtService.validateToken(token)) {
-        tokenBlacklistService.revoke(token, jwtService.extractExpiration(token).toInstant());
+      try {
+        tokenBlacklistService.revoke(token, jwtService.verify(token).expiresAt());
+      } catch (JwtException | IllegalArgumentException ex) {
+        // An invalid or expired token is already rejected; there is nothing to revoke.
       }
     }
     SecurityContextHolder.clearContext();
@@ -1,14 +1,22 @@
 package org.nikitakapustkin.security.controllers;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
+import java.time.Instant;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.nikitakapustkin.security.application.AccountService;
+import org.nikitakapustkin.security.application.models.TransactionPage;
+import org.nikitakapustkin.security.application.models.TransactionPageRequest;
+import org.nikitakapustkin.security.constants.SecurityApiHeaders;
 import org.nikitakapustkin.security.constants.SecurityApiPaths;
 import org.nikitakapustkin.security.dto.TransactionResponseDto;
 import org.nikitakapustkin.security.models.JwtPrincipal;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
@@ -23,6 +31,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class TransactionController {
   private final AccountService accountService;
 
+  /**
+   * One page of the caller's history, newest first; without {@code accountId} the history of all
+   * their accounts merged. The cursor for the next page comes back in {@value
+   * SecurityApiHeaders#NEXT_CURSOR}.
+   */
   @GetMapping(SecurityApiPaths.USERS_ME_TRANSACTIONS)
   public ResponseEntity<List<TransactionResponseDto>> getUserTransactions(
       @RequestParam(required = false, name = "type")
@@ -31,10 +44,16 @@ public class TransactionController {
               message = "Type must be DEPOSIT, WITHDRAWAL or TRANSFER")
           String type,
       @RequestParam(required = false, name = "accountId") UUID accountId,
+      @RequestParam(required = false, name = "from") @DateTimeFormat(iso = ISO.DATE_TIME)
+          Instant from,
+      @RequestParam(required = false, name = "to") @DateTimeFormat(iso = ISO.DATE_TIME) Instant to,
+      @RequestParam(required = false, name = "cursor") String cursor,
+      @RequestParam(required = false, name = "limit") @Min(1) @Max(500) Integer limit,
       Authentication authentication) {
     UUID userId = requireUserId(authentication);
-    String normalizedType = normalizeType(type);
-    return ResponseEntity.ok(accountService.getUserTransactions(userId, normalizedType, accountId));
+    TransactionPageRequest request =
+        new TransactionPageRequest(normalizeType(type), from, to, cursor, limit);
+    return toResponse(accountService.getUserTransactions(userId, accountId, request));
   }
 
   @GetMapping(SecurityApiPaths.TRANSACTIONS)
@@ -44,9 +63,24 @@ public class TransactionController {
               regexp = "(?i)DEPOSIT|WITHDRAWAL|TRANSFER",
               message = "Type must be DEPOSIT, WITHDRAWAL or TRANSFER")
           String type,
-      @RequestParam(required = false, name = "accountId") UUID accountId) {
-    String normalizedType = normalizeType(type);
-    return ResponseEntity.ok(accountService.getTransactions(normalizedType, accountId));
+      @RequestParam(required = false, name = "accountId") UUID accountId,
+      @RequestParam(required = false, name = "from") @DateTimeFormat(iso = ISO.DATE_TIME)
+          Instant from,
+      @RequestParam(required = false, name = "to") @DateTimeFormat(iso = ISO.DATE_TIME) Instant to,
+      @RequestParam(required = false, name = "cursor") String cursor,
+      @RequestParam(required = false, name = "limit") @Min(1) @Max(500) Integer limit) {
+    TransactionPageRequest request =
+        new TransactionPageRequest(normalizeType(type), from, to, cursor, limit);
+    return toResponse(accountService.getTransactions(accountId, request));
+  }
+
+  // The body stays a plain list, so clients that read only the first page keep working.
+  private static ResponseEntity<List<TransactionResponseDto>> toResponse(TransactionPage page) {
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (page.nextCursor() != null) {
+      response.header(SecurityApiHeaders.NEXT_CURSOR, page.nextCursor());
+    }
+    return response.body(page.items());
   }
 
   private static UUID requireUserId(Authentication authentication) {
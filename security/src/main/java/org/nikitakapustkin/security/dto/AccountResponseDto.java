@@ -14,4 +14,7 @@ public class AccountResponseDto {
   private BigDecimal balance;
 
   private List<TransactionResponseDto> transactions;
+
+  // Continues the history through GET /transactions?accountId=&cursor=; null on the last page.
+  private String transactionsNextCursor;
 }
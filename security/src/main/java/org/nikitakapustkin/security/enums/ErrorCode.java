@@ -12,5 +12,6 @@ public enum ErrorCode {
   MESSAGE_NOT_READABLE,
   INTERNAL_ERROR,
   UNAUTHORIZED,
-  FORBIDDEN
+  FORBIDDEN,
+  TOO_MANY_REQUESTS
 }
@@ -101,6 +101,12 @@ public class GlobalExceptionHandler {
     return build(HttpStatus.UNAUTHORIZED, ErrorCode.UNAUTHORIZED, ex.getMessage(), req);
   }
 
+  @ExceptionHandler(TooManyRequestsException.class)
+  public ResponseEntity<ErrorResponse> handleTooManyRequests(
+      TooManyRequestsException ex, HttpServletRequest req) {
+    return build(HttpStatus.TOO_MANY_REQUESTS, ErrorCode.TOO_MANY_REQUESTS, ex.getMessage(), req);
+  }
+
   @ExceptionHandler(AccessDeniedException.class)
   public ResponseEntity<ErrorResponse> handleAccessDenied(HttpServletRequest req) {
     return build(HttpStatus.FORBIDDEN, ErrorCode.FORBIDDEN, "Access denied", req);
@@ -0,0 +1,7 @@
+package org.nikitakapustkin.security.exceptions;
+
+public class TooManyRequestsException extends RuntimeException {
+  public TooManyRequestsException(String message) {
+    super(message);
+  }
+}
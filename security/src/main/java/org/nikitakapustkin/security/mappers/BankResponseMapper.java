@@ -14,7 +14,7 @@ public final class BankResponseMapper {
     if (account == null) {
       return null;
     }
-    return new AccountResponseDto(account.id(), account.ownerId(), account.balance(), null);
+    return new AccountResponseDto(account.id(), account.ownerId(), account.balance(), null, null);
   }
 
   public static TransactionResponseDto toTransactionResponseDto(
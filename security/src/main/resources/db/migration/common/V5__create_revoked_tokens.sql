@@ -0,0 +1,10 @@
+create table revoked_tokens (
+    fingerprint_high bigint not null,
+    fingerprint_low bigint not null,
+    expires_at timestamp with time zone not null,
+    revoked_at timestamp with time zone not null,
+    primary key (fingerprint_high, fingerprint_low)
+);
+
+create index idx_revoked_tokens_expires_at on revoked_tokens (expires_at);
+create index idx_revoked_tokens_revoked_at on revoked_tokens (revoked_at);
@@ -0,0 +1,12 @@
+-- Wakes relays listening on the outbox_events channel; one notification per INSERT statement.
+create or replace function notify_outbox_event() returns trigger as $$
+begin
+    perform pg_notify('outbox_events', '');
+    return null;
+end;
+$$ language plpgsql;
+
+create trigger outbox_events_notify
+    after insert on outbox_events
+    for each statement
+    execute function notify_outbox_event();
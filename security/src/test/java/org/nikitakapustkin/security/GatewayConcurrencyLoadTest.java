@@ -0,0 +1,163 @@
+package org.nikitakapustkin.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.nikitakapustkin.security.adapters.out.jwt.JwtService;
+import org.nikitakapustkin.security.application.ports.out.UserRepositoryPort;
+import org.nikitakapustkin.security.enums.Role;
+import org.nikitakapustkin.security.models.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Load test for the blocking gateway path: with only {@value #TOMCAT_THREADS} Tomcat threads
+ * configured, far more requests than that must be waiting on a slow bank at the same time, and the
+ * whole burst must finish in roughly one bank round trip rather than one per thread-pool wave.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GatewayConcurrencyLoadTest {
+  private static final int TOMCAT_THREADS = 4;
+  private static final int CONCURRENT_REQUESTS = 64;
+  private static final long BANK_LATENCY_MS = 500;
+
+  private static final String TEST_SECRET = "MDEyMzQ1Njc4OTAxMjM0NTY3ODkwMTIzNDU2Nzg5MDE=";
+  private static final String TEST_SERVICE_SECRET = "c2VydmljZS1zZWNyZXQtMDEyMzQ1Njc4OWFiY2RlZjA=";
+
+  private static final AtomicInteger inFlight = new AtomicInteger();
+  private static final AtomicInteger maxInFlight = new AtomicInteger();
+  private static MockWebServer bankServer;
+  private static boolean mockServerAvailable = true;
+
+  @DynamicPropertySource
+  static void registerProperties(DynamicPropertyRegistry registry) {
+    if (bankServer == null) {
+      try {
+        bankServer = new MockWebServer();
+        bankServer.setDispatcher(new SlowBank());
+        bankServer.start();
+      } catch (Exception e) {
+        mockServerAvailable = false;
+      }
+    }
+    String baseUrl =
+        mockServerAvailable && bankServer != null
+            ? bankServer.url("/").toString()
+            : "http://localhost:0";
+    // The test application.properties replaces the main one, so the switch is repeated here.
+    registry.add("spring.threads.virtual.enabled", () -> "true");
+    registry.add("server.tomcat.threads.max", () -> TOMCAT_THREADS);
+    registry.add("server.tomcat.threads.min-spare", () -> 1);
+    registry.add("bank.base-url", () -> baseUrl);
+    registry.add("storage.base-url", () -> baseUrl);
+    registry.add(
+        "spring.datasource.url",
+        () -> "jdbc:h2:mem:securityloadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+    registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+    registry.add("spring.datasource.username", () -> "sa");
+    registry.add("spring.datasource.password", () -> "");
+    registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+    registry.add("spring.flyway.enabled", () -> "false");
+    registry.add("spring.kafka.bootstrap-servers", () -> "localhost:9092");
+    registry.add("kafka.topics.user", () -> "client-topic");
+    registry.add("outbox.publisher.enabled", () -> "false");
+    registry.add("jwt.secret", () -> TEST_SECRET);
+    registry.add("jwt.service.secret", () -> TEST_SERVICE_SECRET);
+    registry.add("jwt.service.issuer", () -> "security-service");
+    registry.add("jwt.service.audience", () -> "bank-service");
+  }
+
+  @LocalServerPort int port;
+  @Autowired UserRepositoryPort userRepository;
+  @Autowired JwtService jwtService;
+
+  @AfterAll
+  void tearDown() throws Exception {
+    if (bankServer != null) {
+      bankServer.shutdown();
+    }
+  }
+
+  @Test
+  void concurrent_requests_are_not_limited_by_the_servlet_thread_pool() throws Exception {
+    Assumptions.assumeTrue(mockServerAvailable, "MockWebServer not available");
+    User admin = new User(UUID.randomUUID(), "load-admin", "unused", Role.ADMIN);
+    userRepository.save(admin);
+    String token = jwtService.generateToken(admin.getLogin(), admin.getUserId(), Role.ADMIN);
+
+    HttpRequest request =
+        HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/accounts"))
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .timeout(Duration.ofSeconds(30))
+            .GET()
+            .build();
+
+    try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+      HttpClient client =
+          HttpClient.newBuilder()
+              .version(HttpClient.Version.HTTP_1_1)
+              .executor(clientThreads)
+              .build();
+
+      long start = System.nanoTime();
+      List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+      for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+        responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+      }
+      CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+      long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+      for (CompletableFuture<HttpResponse<String>> response : responses) {
+        assertThat(response.get().statusCode()).isEqualTo(200);
+      }
+      // A pool of TOMCAT_THREADS platform threads would cap this at TOMCAT_THREADS and need
+      // CONCURRENT_REQUESTS / TOMCAT_THREADS waves of BANK_LATENCY_MS each (8 s here).
+      assertThat(maxInFlight.get()).isGreaterThan(TOMCAT_THREADS * 4);
+      assertThat(elapsedMs).isLessThan(BANK_LATENCY_MS * CONCURRENT_REQUESTS / TOMCAT_THREADS / 2);
+    }
+  }
+
+  private static final class SlowBank extends Dispatcher {
+    @NotNull
+    @Override
+    public MockResponse dispatch(@NotNull RecordedRequest request) throws InterruptedException {
+      int current = inFlight.incrementAndGet();
+      maxInFlight.accumulateAndGet(current, Math::max);
+      try {
+        Thread.sleep(BANK_LATENCY_MS);
+      } finally {
+        inFlight.decrementAndGet();
+      }
+      return new MockResponse()
+          .setResponseCode(200)
+          .setBody("[]")
+          .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+    }
+  }
+}
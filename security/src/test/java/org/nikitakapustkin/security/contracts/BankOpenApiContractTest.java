@@ -48,6 +48,7 @@ class BankOpenApiContractTest {
 
     assertThat(openAPI.getPaths().get("/accounts/{accountId}")).isNotNull();
     assertThat(openAPI.getPaths().get("/accounts/{accountId}").getGet()).isNotNull();
+    assertThat(openAPI.getPaths().get("/accounts/{accountId}").getHead()).isNotNull();
 
     assertThat(openAPI.getPaths().get("/accounts/{accountId}/deposit")).isNotNull();
     assertThat(openAPI.getPaths().get("/accounts/{accountId}/deposit").getPost()).isNotNull();
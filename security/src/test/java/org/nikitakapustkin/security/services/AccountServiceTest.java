@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
@@ -13,9 +14,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.nikitakapustkin.security.application.AccountService;
+import org.nikitakapustkin.security.application.models.TransactionPage;
+import org.nikitakapustkin.security.application.models.TransactionPageRequest;
 import org.nikitakapustkin.security.application.ports.out.AccountBankClientPort;
 import org.nikitakapustkin.security.dto.AccountResponseDto;
 import org.nikitakapustkin.security.dto.DepositRequestDto;
+import org.nikitakapustkin.security.dto.TransactionResponseDto;
 import org.nikitakapustkin.security.exceptions.ForbiddenException;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,7 +33,7 @@ class AccountServiceTest {
   void create_account_calls_web_client() {
     UUID userId = UUID.randomUUID();
     AccountResponseDto created =
-        new AccountResponseDto(UUID.randomUUID(), userId, BigDecimal.ZERO, null);
+        new AccountResponseDto(UUID.randomUUID(), userId, BigDecimal.ZERO, null, null);
     when(accountWebClient.createAccount(userId)).thenReturn(created);
 
     AccountResponseDto result = service.createAccount(userId);
@@ -43,28 +47,27 @@ class AccountServiceTest {
     UUID userId = UUID.randomUUID();
     UUID accountId = UUID.randomUUID();
 
-    AccountResponseDto listed = new AccountResponseDto(accountId, null, null, null);
-    when(accountWebClient.getUserAccounts(userId)).thenReturn(List.of(listed));
+    when(accountWebClient.isAccountOwnedBy(accountId, userId)).thenReturn(true);
 
-    AccountResponseDto details = new AccountResponseDto(accountId, userId, null, null);
-    when(accountWebClient.getAccountById(accountId)).thenReturn(details);
+    AccountResponseDto details = new AccountResponseDto(accountId, userId, null, null, null);
+    when(accountWebClient.getAccountById(accountId, 20)).thenReturn(details);
 
-    AccountResponseDto result = service.getUserAccountById(accountId, userId);
+    AccountResponseDto result = service.getUserAccountById(accountId, userId, 20);
 
     assertThat(result).isEqualTo(details);
-    verify(accountWebClient).getAccountById(accountId);
+    verify(accountWebClient).getAccountById(accountId, 20);
   }
 
   @Test
   void get_user_account_by_id_denies_access_when_not_owned() {
     UUID userId = UUID.randomUUID();
     UUID accountId = UUID.randomUUID();
-    when(accountWebClient.getUserAccounts(userId)).thenReturn(List.of());
+    when(accountWebClient.isAccountOwnedBy(accountId, userId)).thenReturn(false);
 
-    assertThatThrownBy(() -> service.getUserAccountById(accountId, userId))
+    assertThatThrownBy(() -> service.getUserAccountById(accountId, userId, null))
         .isInstanceOf(ForbiddenException.class);
 
-    verify(accountWebClient, never()).getAccountById(any());
+    verify(accountWebClient, never()).getAccountById(any(), any());
   }
 
   @Test
@@ -72,14 +75,71 @@ class AccountServiceTest {
     UUID userId = UUID.randomUUID();
     UUID accountId = UUID.randomUUID();
 
-    AccountResponseDto listed = new AccountResponseDto(accountId, null, null, null);
-    when(accountWebClient.getUserAccounts(userId)).thenReturn(List.of(listed));
-    when(accountWebClient.getAccountById(accountId)).thenReturn(listed);
+    when(accountWebClient.isAccountOwnedBy(accountId, userId)).thenReturn(true);
 
     DepositRequestDto request = new DepositRequestDto(new BigDecimal("10.00"));
 
     service.deposit(accountId, request, userId);
 
     verify(accountWebClient).deposit(accountId, request);
+    verify(accountWebClient, never()).getUserAccounts(any());
+    verify(accountWebClient, never()).getAccountById(any(), any());
+  }
+
+  @Test
+  void deposit_is_denied_when_account_is_not_owned() {
+    UUID userId = UUID.randomUUID();
+    UUID accountId = UUID.randomUUID();
+    when(accountWebClient.isAccountOwnedBy(accountId, userId)).thenReturn(false);
+
+    assertThatThrownBy(
+            () ->
+                service.deposit(accountId, new DepositRequestDto(new BigDecimal("10.00")), userId))
+        .isInstanceOf(ForbiddenException.class);
+
+    verify(accountWebClient, never()).deposit(any(), any());
+  }
+
+  @Test
+  void user_transactions_without_account_read_one_page_of_all_accounts() {
+    UUID userId = UUID.randomUUID();
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    when(accountWebClient.getUserAccounts(userId))
+        .thenReturn(
+            List.of(
+                new AccountResponseDto(first, userId, null, null, null),
+                new AccountResponseDto(second, userId, null, null, null)));
+    TransactionPageRequest request = new TransactionPageRequest(null, null, null, "cursor-1", 20);
+    TransactionPage page =
+        new TransactionPage(
+            List.of(
+                transaction(second, "2024-01-02T00:00:00Z"),
+                transaction(first, "2024-01-01T00:00:00Z")),
+            "cursor-2");
+    when(accountWebClient.getTransactions(List.of(first, second), request)).thenReturn(page);
+
+    TransactionPage result = service.getUserTransactions(userId, null, request);
+
+    assertThat(result).isEqualTo(page);
+    verify(accountWebClient, never()).getTransactions(any(UUID.class), any());
+  }
+
+  @Test
+  void user_transactions_of_an_account_require_ownership() {
+    UUID userId = UUID.randomUUID();
+    UUID accountId = UUID.randomUUID();
+    when(accountWebClient.isAccountOwnedBy(accountId, userId)).thenReturn(false);
+    TransactionPageRequest request = new TransactionPageRequest(null, null, null, null, null);
+
+    assertThatThrownBy(() -> service.getUserTransactions(userId, accountId, request))
+        .isInstanceOf(ForbiddenException.class);
+
+    verify(accountWebClient, never()).getTransactions(any(UUID.class), any());
+  }
+
+  private static TransactionResponseDto transaction(UUID accountId, String createdAt) {
+    return new TransactionResponseDto(
+        UUID.randomUUID(), accountId, null, BigDecimal.ONE, Instant.parse(createdAt));
   }
 }
@@ -0,0 +1,66 @@
+package org.nikitakapustkin.security.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+import org.nikitakapustkin.security.adapters.out.bank.BankServiceTokenProvider;
+import org.nikitakapustkin.security.adapters.out.jwt.ServiceJwtService;
+import org.nikitakapustkin.security.enums.Role;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class BankServiceTokenProviderTest {
+
+  private static final String TEST_SECRET = "MDEyMzQ1Njc4OTAxMjM0NTY3ODkwMTIzNDU2Nzg5MDE=";
+  private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+  private final ServiceJwtService jwtService =
+      spy(new ServiceJwtService(TEST_SECRET, "security-service", "bank-service"));
+  private final BankServiceTokenProvider provider =
+      new BankServiceTokenProvider(jwtService, "security-service", Duration.ofHours(1).toMillis());
+
+  @Test
+  void token_is_signed_once_and_reused_until_the_refresh_window() {
+    at(START);
+    String first = provider.getToken();
+    at(START.plus(Duration.ofHours(22)));
+    provider.refreshIfDue();
+
+    assertThat(provider.getToken()).isSameAs(first);
+    verify(jwtService, times(1)).generateToken("security-service", Role.SERVICE);
+  }
+
+  @Test
+  void scheduled_refresh_re_signs_inside_the_window_without_the_request_path_signing() {
+    at(START);
+    provider.getToken();
+    at(START.plus(Duration.ofHours(23).plusMinutes(30)));
+
+    provider.getToken();
+    verify(jwtService, times(1)).generateToken("security-service", Role.SERVICE);
+
+    provider.refreshIfDue();
+    verify(jwtService, times(2)).generateToken("security-service", Role.SERVICE);
+  }
+
+  @Test
+  void expired_token_is_re_signed_inline_when_no_refresh_ran() {
+    at(START);
+    provider.getToken();
+    at(START.plus(Duration.ofHours(25)));
+
+    provider.getToken();
+
+    verify(jwtService, times(2)).generateToken("security-service", Role.SERVICE);
+  }
+
+  private void at(Instant instant) {
+    ReflectionTestUtils.setField(provider, "clock", Clock.fixed(instant, ZoneOffset.UTC));
+  }
+}
@@ -0,0 +1,111 @@
+package org.nikitakapustkin.security.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.nikitakapustkin.security.adapters.out.security.BoundedPasswordEncoder;
+import org.nikitakapustkin.security.exceptions.TooManyRequestsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class BoundedPasswordEncoderTest {
+
+  @Test
+  void hashes_on_the_pool_and_records_latency() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    BoundedPasswordEncoder encoder =
+        new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, 5_000, registry);
+
+    String hash = encoder.encode("secret");
+
+    assertThat(encoder.matches("secret", hash)).isTrue();
+    assertThat(encoder.matches("wrong", hash)).isFalse();
+    assertThat(registry.get("security.password.hash").tag("operation", "matches").timer().count())
+        .isEqualTo(2);
+    encoder.destroy();
+  }
+
+  @Test
+  void sheds_calls_when_pool_and_queue_are_full() throws Exception {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    PasswordEncoder blocking =
+        new PasswordEncoder() {
+          @Override
+          public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+          }
+
+          @Override
+          public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            started.countDown();
+            try {
+              release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            return true;
+          }
+        };
+    BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 1, 1, 5_000, registry);
+
+    CompletableFuture<Boolean> running =
+        CompletableFuture.supplyAsync(() -> encoder.matches("a", "a"));
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    CompletableFuture<Boolean> queued =
+        CompletableFuture.supplyAsync(() -> encoder.matches("b", "b"));
+    while (registry.get("security.password.queue.depth").gauge().value() < 1) {
+      Thread.onSpinWait();
+    }
+
+    assertThatThrownBy(() -> encoder.matches("c", "c"))
+        .isInstanceOf(TooManyRequestsException.class);
+    assertThat(registry.get("security.password.rejected").counter().count()).isEqualTo(1);
+
+    release.countDown();
+    assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    encoder.destroy();
+  }
+
+  @Test
+  void sheds_a_call_that_waits_longer_than_the_max_wait() throws Exception {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    CountDownLatch interrupted = new CountDownLatch(1);
+    PasswordEncoder slow =
+        new PasswordEncoder() {
+          @Override
+          public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+          }
+
+          @Override
+          public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            try {
+              Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+              interrupted.countDown();
+              Thread.currentThread().interrupt();
+            }
+            return true;
+          }
+        };
+    BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slow, 1, 1, 100, registry);
+
+    long start = System.nanoTime();
+    assertThatThrownBy(() -> encoder.matches("a", "a"))
+        .isInstanceOf(TooManyRequestsException.class);
+
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2_000);
+    assertThat(registry.get("security.password.rejected").counter().count()).isEqualTo(1);
+    // The abandoned hash is cancelled so it does not keep the only thread busy.
+    assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+    encoder.destroy();
+  }
+}
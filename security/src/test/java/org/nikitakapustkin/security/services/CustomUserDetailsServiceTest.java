@@ -0,0 +1,64 @@
+package org.nikitakapustkin.security.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.nikitakapustkin.security.adapters.in.web.security.CustomUserDetailsService;
+import org.nikitakapustkin.security.application.ports.out.UserRepositoryPort;
+import org.nikitakapustkin.security.enums.Role;
+import org.nikitakapustkin.security.models.User;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+class CustomUserDetailsServiceTest {
+
+  private UserRepositoryPort userRepository;
+  private CustomUserDetailsService service;
+
+  @BeforeEach
+  void setUp() {
+    userRepository = mock(UserRepositoryPort.class);
+    when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    service = new CustomUserDetailsService(userRepository, 60_000, 100);
+  }
+
+  @Test
+  void repeated_logins_read_the_user_row_once() {
+    User user = new User(UUID.randomUUID(), "alice", "hash", Role.CLIENT);
+    when(userRepository.findUserByLogin("alice")).thenReturn(user);
+
+    service.loadUserByUsername("alice");
+    service.loadUserByUsername("alice");
+
+    verify(userRepository, times(1)).findUserByLogin("alice");
+  }
+
+  @Test
+  void login_rehashes_password_stored_with_a_lower_strength() {
+    String weakHash = new BCryptPasswordEncoder(4).encode("secret");
+    when(userRepository.findUserByLogin("alice"))
+        .thenAnswer(invocation -> new User(UUID.randomUUID(), "alice", weakHash, Role.CLIENT));
+    BCryptPasswordEncoder configured = new BCryptPasswordEncoder(5);
+    DaoAuthenticationProvider provider = new DaoAuthenticationProvider(configured);
+    provider.setUserDetailsService(service);
+    provider.setUserDetailsPasswordService(service);
+
+    provider.authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+
+    ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+    verify(userRepository).save(saved.capture());
+    assertThat(saved.getValue().getPassword()).startsWith("$2a$05$");
+    assertThat(configured.matches("secret", saved.getValue().getPassword())).isTrue();
+    assertThat(service.loadUserByUsername("alice").getPassword())
+        .isEqualTo(saved.getValue().getPassword());
+  }
+}
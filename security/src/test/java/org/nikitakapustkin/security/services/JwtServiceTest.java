@@ -3,23 +3,26 @@ package org.nikitakapustkin.security.services;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.util.Date;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.nikitakapustkin.security.adapters.out.jwt.JwtService;
 import org.nikitakapustkin.security.enums.Role;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.test.util.ReflectionTestUtils;
 
 class JwtServiceTest {
 
   private static final String TEST_SECRET = "MDEyMzQ1Njc4OTAxMjM0NTY3ODkwMTIzNDU2Nzg5MDE=";
+  private static final String ROTATED_SECRET = "YWJjZGVmZ2hpamtsbW5vcHFyc3R1dnd4eXoxMjM0NTY=";
 
   @Test
   void generate_and_validate_token() {
-    JwtService service = new JwtService();
-    ReflectionTestUtils.setField(service, "secret", TEST_SECRET);
-    service.validateSecret();
+    JwtService service = new JwtService(TEST_SECRET, "");
 
     UUID userId = UUID.randomUUID();
     String token = service.generateToken("alice", userId, Role.CLIENT);
@@ -34,9 +37,7 @@ class JwtServiceTest {
 
   @Test
   void validate_token_fails_for_other_user() {
-    JwtService service = new JwtService();
-    ReflectionTestUtils.setField(service, "secret", TEST_SECRET);
-    service.validateSecret();
+    JwtService service = new JwtService(TEST_SECRET, "");
 
     String token = service.generateToken("alice", UUID.randomUUID(), Role.CLIENT);
 
@@ -45,12 +46,36 @@ class JwtServiceTest {
   }
 
   @Test
-  void validate_secret_throws_when_missing() {
-    JwtService service = new JwtService();
-    ReflectionTestUtils.setField(service, "secret", " ");
-
-    assertThatThrownBy(service::validateSecret)
+  void constructor_throws_when_secret_missing() {
+    assertThatThrownBy(() -> new JwtService(" ", ""))
         .isInstanceOf(IllegalStateException.class)
         .hasMessageContaining("jwt.secret");
   }
+
+  @Test
+  void tokens_signed_with_a_retired_key_verify_while_it_is_accepted() {
+    JwtService beforeRotation = new JwtService(TEST_SECRET, "");
+    JwtService afterRotation = new JwtService(ROTATED_SECRET, TEST_SECRET);
+    JwtService retiredKeyDropped = new JwtService(ROTATED_SECRET, "");
+
+    String oldToken = beforeRotation.generateToken("alice", UUID.randomUUID(), Role.CLIENT);
+    String newToken = afterRotation.generateToken("alice", UUID.randomUUID(), Role.CLIENT);
+
+    assertThat(afterRotation.verify(oldToken).subject()).isEqualTo("alice");
+    assertThat(afterRotation.verify(newToken).subject()).isEqualTo("alice");
+    assertThatThrownBy(() -> retiredKeyDropped.verify(oldToken)).isInstanceOf(JwtException.class);
+    assertThatThrownBy(() -> beforeRotation.verify(newToken)).isInstanceOf(JwtException.class);
+  }
+
+  @Test
+  void token_without_key_id_is_checked_against_the_signing_key() {
+    String legacyToken =
+        Jwts.builder()
+            .subject("alice")
+            .expiration(new Date(System.currentTimeMillis() + 60_000))
+            .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(TEST_SECRET)))
+            .compact();
+
+    assertThat(new JwtService(TEST_SECRET, "").verify(legacyToken).subject()).isEqualTo("alice");
+  }
 }
@@ -0,0 +1,97 @@
+package org.nikitakapustkin.security.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nikitakapustkin.security.adapters.out.revocation.InMemoryRevokedTokenStore;
+import org.nikitakapustkin.security.adapters.out.revocation.JdbcRevokedTokenStore;
+import org.nikitakapustkin.security.adapters.out.revocation.TokenFingerprint;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+class RevokedTokenStoreTest {
+
+  private NamedParameterJdbcTemplate jdbc;
+
+  @BeforeEach
+  void setUp() {
+    DriverManagerDataSource dataSource =
+        new DriverManagerDataSource(
+            "jdbc:h2:mem:revoked-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+            "sa",
+            "");
+    new ResourceDatabasePopulator(
+            new ClassPathResource("db/migration/common/V5__create_revoked_tokens.sql"))
+        .execute(dataSource);
+    jdbc = new NamedParameterJdbcTemplate(dataSource);
+  }
+
+  @Test
+  void sweep_forgets_only_buckets_that_have_ended() {
+    InMemoryRevokedTokenStore store = new InMemoryRevokedTokenStore(60);
+    Instant now = Instant.now();
+    TokenFingerprint soon = TokenFingerprint.of("soon");
+    TokenFingerprint later = TokenFingerprint.of("later");
+    store.revoke(soon, now.plus(5, ChronoUnit.MINUTES));
+    store.revoke(later, now.plus(3, ChronoUnit.HOURS));
+
+    store.sweepExpired(now);
+    assertThat(store.isRevoked(soon)).isTrue();
+
+    store.sweepExpired(now.plus(10, ChronoUnit.MINUTES));
+    assertThat(store.isRevoked(soon)).isFalse();
+    assertThat(store.isRevoked(later)).isTrue();
+    assertThat(store.size()).isEqualTo(1);
+  }
+
+  @Test
+  void revocation_reaches_other_replicas_and_survives_a_restart() {
+    JdbcRevokedTokenStore replicaA = newJdbcStore();
+    JdbcRevokedTokenStore replicaB = newJdbcStore();
+    TokenFingerprint revoked = TokenFingerprint.of("revoked-token");
+
+    replicaA.revoke(revoked, Instant.now().plus(1, ChronoUnit.HOURS));
+    replicaB.syncFromStore();
+
+    assertThat(replicaA.isRevoked(revoked)).isTrue();
+    assertThat(replicaB.isRevoked(revoked)).isTrue();
+    assertThat(replicaB.isRevoked(TokenFingerprint.of("other-token"))).isFalse();
+    assertThat(newJdbcStore().isRevoked(revoked)).isTrue();
+  }
+
+  @Test
+  void purge_drops_expired_rows() {
+    JdbcRevokedTokenStore store = newJdbcStore();
+    TokenFingerprint expired = TokenFingerprint.of("expired-token");
+    jdbc.update(
+        "insert into revoked_tokens (fingerprint_high, fingerprint_low, expires_at, revoked_at)"
+            + " values (:high, :low, :expiresAt, current_timestamp)",
+        new MapSqlParameterSource()
+            .addValue("high", expired.high())
+            .addValue("low", expired.low())
+            .addValue("expiresAt", OffsetDateTime.now(ZoneOffset.UTC).minusMinutes(1)));
+
+    store.purgeAndRebuild();
+
+    assertThat(store.isRevoked(expired)).isFalse();
+    assertThat(
+            jdbc.getJdbcTemplate()
+                .queryForObject("select count(*) from revoked_tokens", Long.class))
+        .isZero();
+  }
+
+  private JdbcRevokedTokenStore newJdbcStore() {
+    JdbcRevokedTokenStore store = new JdbcRevokedTokenStore(jdbc, 60, 1000, 0.01, 10_000);
+    store.load();
+    return store;
+  }
+}
@@ -0,0 +1,68 @@
+package org.nikitakapustkin.security.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.jsonwebtoken.JwtException;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nikitakapustkin.security.adapters.in.web.security.TokenBlacklistService;
+import org.nikitakapustkin.security.adapters.in.web.security.VerifiedTokenCache;
+import org.nikitakapustkin.security.adapters.out.jwt.JwtService;
+import org.nikitakapustkin.security.adapters.out.jwt.VerifiedToken;
+import org.nikitakapustkin.security.adapters.out.revocation.InMemoryRevokedTokenStore;
+import org.nikitakapustkin.security.enums.Role;
+
+class VerifiedTokenCacheTest {
+
+  private static final String TEST_SECRET = "MDEyMzQ1Njc4OTAxMjM0NTY3ODkwMTIzNDU2Nzg5MDE=";
+
+  private JwtService jwtService;
+  private TokenBlacklistService blacklist;
+  private VerifiedTokenCache cache;
+
+  @BeforeEach
+  void setUp() {
+    jwtService = spy(new JwtService(TEST_SECRET, ""));
+    blacklist = new TokenBlacklistService(new InMemoryRevokedTokenStore(60));
+    cache = new VerifiedTokenCache(jwtService, blacklist, 100);
+  }
+
+  @Test
+  void repeat_calls_are_served_without_parsing_again() {
+    UUID userId = UUID.randomUUID();
+    String token = jwtService.generateToken("alice", userId, Role.CLIENT);
+
+    VerifiedToken first = cache.verify(token);
+    VerifiedToken second = cache.verify(token);
+
+    assertThat(second).isSameAs(first);
+    assertThat(first.subject()).isEqualTo("alice");
+    assertThat(first.userId()).isEqualTo(userId);
+    assertThat(first.role()).isEqualTo("CLIENT");
+    verify(jwtService, times(1)).verify(token);
+  }
+
+  @Test
+  void revoked_token_is_rejected_even_when_cached() {
+    String token = jwtService.generateToken("alice", UUID.randomUUID(), Role.CLIENT);
+    VerifiedToken verified = cache.verify(token);
+
+    blacklist.revoke(token, verified.expiresAt());
+
+    assertThat(cache.verify(token)).isNull();
+  }
+
+  @Test
+  void tampered_token_is_rejected_and_not_cached() {
+    String token = jwtService.generateToken("alice", UUID.randomUUID(), Role.CLIENT);
+    String tampered = token.substring(0, token.length() - 2) + "xx";
+
+    assertThatThrownBy(() -> cache.verify(tampered)).isInstanceOf(JwtException.class);
+    assertThatThrownBy(() -> cache.verify(tampered)).isInstanceOf(JwtException.class);
+  }
+}
@@ -7,9 +7,12 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
@@ -19,9 +22,13 @@ import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.nikitakapustkin.bank.contracts.dto.response.AccountDetailsResponseDto;
+import org.nikitakapustkin.bank.contracts.dto.response.TransactionPageResponseDto;
 import org.nikitakapustkin.bank.contracts.enums.TransactionType;
+import org.nikitakapustkin.security.adapters.out.bank.AccountOwnershipCache;
 import org.nikitakapustkin.security.adapters.out.bank.AccountWebClient;
 import org.nikitakapustkin.security.adapters.out.bank.BankWebClientSupport;
+import org.nikitakapustkin.security.application.models.TransactionPage;
+import org.nikitakapustkin.security.application.models.TransactionPageRequest;
 import org.nikitakapustkin.security.dto.AccountResponseDto;
 import org.nikitakapustkin.security.dto.DepositRequestDto;
 import org.nikitakapustkin.security.dto.TransferRequestDto;
@@ -29,6 +36,7 @@ import org.nikitakapustkin.security.enums.ErrorCode;
 import org.nikitakapustkin.security.exceptions.BankServiceException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 
 class AccountWebClientContractTest {
@@ -50,7 +58,9 @@ class AccountWebClientContractTest {
             .baseUrl(server.url("/").toString())
             .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
             .build();
-    accountWebClient = new AccountWebClient(webClient, new BankWebClientSupport());
+    accountWebClient =
+        new AccountWebClient(
+            webClient, new BankWebClientSupport(), new AccountOwnershipCache(60_000, 1_000));
   }
 
   @AfterEach
@@ -100,6 +110,21 @@ class AccountWebClientContractTest {
     assertThat(new BigDecimal(payload.get("amount").toString())).isEqualByComparingTo("10.00");
   }
 
+  @Test
+  void deposit_retries_server_errors_with_the_same_idempotency_key() throws Exception {
+    UUID accountId = UUID.randomUUID();
+    server.enqueue(new MockResponse().setResponseCode(503));
+    server.enqueue(new MockResponse().setResponseCode(200));
+
+    accountWebClient.deposit(accountId, new DepositRequestDto(new BigDecimal("10.00")));
+
+    RecordedRequest first = server.takeRequest();
+    RecordedRequest retry = server.takeRequest();
+    assertThat(first.getHeader("Idempotency-Key")).isNotBlank();
+    assertThat(retry.getHeader("Idempotency-Key")).isEqualTo(first.getHeader("Idempotency-Key"));
+    assertThat(server.getRequestCount()).isEqualTo(2);
+  }
+
   @Test
   void transfer_sends_amount_wrapper_and_to_account_id() throws Exception {
     UUID accountId = UUID.randomUUID();
@@ -131,11 +156,11 @@ class AccountWebClientContractTest {
             .setBody(objectMapper.writeValueAsString(details))
             .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE));
 
-    AccountResponseDto result = accountWebClient.getAccountById(accountId);
+    AccountResponseDto result = accountWebClient.getAccountById(accountId, 20);
 
     RecordedRequest request = server.takeRequest();
     assertThat(request.getMethod()).isEqualTo("GET");
-    assertThat(request.getPath()).isEqualTo("/accounts/" + accountId);
+    assertThat(request.getPath()).isEqualTo("/accounts/" + accountId + "?limit=20");
 
     assertThat(result.getAccountId()).isEqualTo(accountId);
     assertThat(result.getOwnerId()).isEqualTo(ownerId);
@@ -143,6 +168,245 @@ class AccountWebClientContractTest {
     assertThat(result.getTransactions().get(0).getTransactionId()).isEqualTo(txId);
     assertThat(result.getTransactions().get(0).getTransactionType())
         .isEqualTo(TransactionType.DEPOSIT);
+    assertThat(result.getTransactionsNextCursor()).isEqualTo("cursor-1");
+    assertThat(server.getRequestCount()).isEqualTo(1);
+  }
+
+  @Test
+  void ownership_check_uses_head_probe_and_caches_confirmed_owner() throws Exception {
+    UUID accountId = UUID.randomUUID();
+    UUID ownerId = UUID.randomUUID();
+    server.enqueue(new MockResponse().setResponseCode(200));
+
+    assertThat(accountWebClient.isAccountOwnedBy(accountId, ownerId)).isTrue();
+    assertThat(accountWebClient.isAccountOwnedBy(accountId, ownerId)).isTrue();
+    assertThat(accountWebClient.isAccountOwnedBy(accountId, UUID.randomUUID())).isFalse();
+
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getMethod()).isEqualTo("HEAD");
+    assertThat(request.getPath()).isEqualTo("/accounts/" + accountId + "?ownerId=" + ownerId);
+    assertThat(server.getRequestCount()).isEqualTo(1);
+  }
+
+  @Test
+  void ownership_check_treats_404_as_not_owned_and_does_not_cache_it() throws Exception {
+    UUID accountId = UUID.randomUUID();
+    UUID ownerId = UUID.randomUUID();
+    server.enqueue(new MockResponse().setResponseCode(404));
+    server.enqueue(new MockResponse().setResponseCode(200));
+
+    assertThat(accountWebClient.isAccountOwnedBy(accountId, ownerId)).isFalse();
+    assertThat(accountWebClient.isAccountOwnedBy(accountId, ownerId)).isTrue();
+    assertThat(server.getRequestCount()).isEqualTo(2);
+  }
+
+  @Test
+  void get_transactions_passes_one_bank_page_through() throws Exception {
+    UUID accountId = UUID.randomUUID();
+    UUID txId = UUID.randomUUID();
+    server.enqueue(
+        new MockResponse()
+            .setBody(
+                objectMapper.writeValueAsString(
+                    new TransactionPageResponseDto(
+                        List.of(transaction(txId, accountId)), "cursor-2")))
+            .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE));
+    TransactionPageRequest request =
+        new TransactionPageRequest(
+            "DEPOSIT",
+            Instant.parse("2024-01-01T00:00:00Z"),
+            Instant.parse("2024-02-01T00:00:00Z"),
+            "cursor-1",
+            20);
+
+    TransactionPage result = accountWebClient.getTransactions(accountId, request);
+
+    assertThat(result.items()).extracting(tx -> tx.getTransactionId()).containsExactly(txId);
+    assertThat(result.nextCursor()).isEqualTo("cursor-2");
+    assertThat(server.takeRequest().getPath())
+        .isEqualTo(
+            "/transactions?type=DEPOSIT&accountId="
+                + accountId
+                + "&from=2024-01-01T00:00:00Z&to=2024-02-01T00:00:00Z&cursor=cursor-1&limit=20");
+    assertThat(server.getRequestCount()).isEqualTo(1);
+  }
+
+  @Test
+  void get_transactions_for_accounts_sends_one_bulk_request_for_one_page() throws Exception {
+    UUID firstAcc = UUID.randomUUID();
+    UUID secondAcc = UUID.randomUUID();
+    UUID firstTx = UUID.randomUUID();
+    server.enqueue(
+        new MockResponse()
+            .setBody(
+                objectMapper.writeValueAsString(
+                    new TransactionPageResponseDto(
+                        List.of(transaction(firstTx, firstAcc)), "cursor-1")))
+            .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE));
+
+    TransactionPageRequest request = new TransactionPageRequest("DEPOSIT", null, null, null, 1);
+    var result = accountWebClient.getTransactions(List.of(firstAcc, secondAcc), request);
+
+    assertThat(result.items()).extracting(tx -> tx.getTransactionId()).containsExactly(firstTx);
+    assertThat(result.nextCursor()).isEqualTo("cursor-1");
+    String ids = "accountIds=" + firstAcc + "&accountIds=" + secondAcc;
+    assertThat(server.takeRequest().getPath())
+        .isEqualTo("/transactions?type=DEPOSIT&" + ids + "&limit=1");
+    assertThat(server.getRequestCount()).isEqualTo(1);
+  }
+
+  @Test
+  void merged_page_ends_where_every_account_has_been_read() {
+    ReflectionTestUtils.setField(accountWebClient, "bulkTransactionsEnabled", false);
+    UUID busy = UUID.randomUUID();
+    UUID quiet = UUID.randomUUID();
+    UUID newest = UUID.randomUUID();
+    UUID boundary = UUID.randomUUID();
+    UUID quietTx = UUID.randomUUID();
+    UUID tooOld = UUID.randomUUID();
+    server.setDispatcher(
+        new Dispatcher() {
+          @NotNull
+          @Override
+          public MockResponse dispatch(@NotNull RecordedRequest request) {
+            boolean busyAccount =
+                busy.toString().equals(request.getRequestUrl().queryParameter("accountId"));
+            TransactionPageResponseDto page =
+                busyAccount
+                    ? new TransactionPageResponseDto(
+                        List.of(
+                            transaction(newest, busy, "2024-01-05T00:00:00Z"),
+                            transaction(boundary, busy, "2024-01-04T00:00:00Z")),
+                        "busy-cursor")
+                    : new TransactionPageResponseDto(
+                        List.of(
+                            transaction(quietTx, quiet, "2024-01-04T12:00:00Z"),
+                            transaction(tooOld, quiet, "2024-01-01T00:00:00Z")),
+                        "quiet-cursor");
+            try {
+              return new MockResponse()
+                  .setBody(objectMapper.writeValueAsString(page))
+                  .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            } catch (Exception e) {
+              return new MockResponse().setResponseCode(500);
+            }
+          }
+        });
+
+    TransactionPage result =
+        accountWebClient.getTransactions(
+            List.of(busy, quiet), new TransactionPageRequest(null, null, null, null, 4));
+
+    // The quiet account's older row comes again on the next page, read from the busy cursor.
+    assertThat(result.items())
+        .extracting(tx -> tx.getTransactionId())
+        .containsExactly(newest, quietTx, boundary);
+    assertThat(result.nextCursor()).isEqualTo("busy-cursor");
+  }
+
+  @Test
+  void merged_page_without_bulk_stays_within_the_limit() throws Exception {
+    ReflectionTestUtils.setField(accountWebClient, "bulkTransactionsEnabled", false);
+    List<UUID> accounts = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      accounts.add(UUID.randomUUID());
+    }
+    server.setDispatcher(
+        new Dispatcher() {
+          @NotNull
+          @Override
+          public MockResponse dispatch(@NotNull RecordedRequest request) {
+            String accountId = request.getRequestUrl().queryParameter("accountId");
+            int limit = Integer.parseInt(request.getRequestUrl().queryParameter("limit"));
+            int index = accounts.indexOf(UUID.fromString(accountId));
+            // Every account has more rows than asked for, interleaved with the other accounts'.
+            List<org.nikitakapustkin.bank.contracts.dto.response.TransactionResponseDto> items =
+                new ArrayList<>();
+            for (int row = 0; row < limit; row++) {
+              Instant createdAt =
+                  Instant.parse("2024-01-01T00:00:00Z").minusSeconds(row * 10L + index);
+              items.add(transaction(UUID.randomUUID(), accounts.get(index), createdAt.toString()));
+            }
+            try {
+              return new MockResponse()
+                  .setBody(
+                      objectMapper.writeValueAsString(
+                          new TransactionPageResponseDto(items, "cursor-" + accountId)))
+                  .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            } catch (Exception e) {
+              return new MockResponse().setResponseCode(500);
+            }
+          }
+        });
+
+    TransactionPage result =
+        accountWebClient.getTransactions(
+            accounts, new TransactionPageRequest(null, null, null, null, 50));
+
+    assertThat(result.items()).hasSizeLessThanOrEqualTo(50).isNotEmpty();
+    assertThat(result.nextCursor()).isNotNull();
+    assertThat(server.getRequestCount()).isEqualTo(10);
+    for (int i = 0; i < 10; i++) {
+      assertThat(server.takeRequest().getRequestUrl().queryParameter("limit")).isEqualTo("5");
+    }
+  }
+
+  @Test
+  void get_transactions_for_accounts_without_bulk_fans_out_concurrently() throws Exception {
+    ReflectionTestUtils.setField(accountWebClient, "bulkTransactionsEnabled", false);
+    List<UUID> accounts = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+    server.setDispatcher(
+        new Dispatcher() {
+          @NotNull
+          @Override
+          public MockResponse dispatch(@NotNull RecordedRequest request) {
+            UUID accountId = UUID.fromString(request.getRequestUrl().queryParameter("accountId"));
+            try {
+              return new MockResponse()
+                  .setBody(
+                      objectMapper.writeValueAsString(
+                          new TransactionPageResponseDto(
+                              List.of(transaction(UUID.randomUUID(), accountId)), null)))
+                  .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                  .setBodyDelay(500, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+              return new MockResponse().setResponseCode(500);
+            }
+          }
+        });
+
+    long started = System.nanoTime();
+    var result =
+        accountWebClient.getTransactions(
+            accounts, new TransactionPageRequest(null, null, null, null, null));
+    long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+    assertThat(result.items())
+        .extracting(tx -> tx.getAccountId())
+        .containsExactlyInAnyOrderElementsOf(accounts);
+    assertThat(server.getRequestCount()).isEqualTo(3);
+    // Three 500 ms calls in series would take 1.5 s.
+    assertThat(elapsedMs).isLessThan(1200);
+  }
+
+  private static org.nikitakapustkin.bank.contracts.dto.response.TransactionResponseDto transaction(
+      UUID txId, UUID accountId, String createdAt) {
+    return new org.nikitakapustkin.bank.contracts.dto.response.TransactionResponseDto(
+        txId,
+        accountId,
+        TransactionType.DEPOSIT,
+        new BigDecimal("10.00"),
+        Instant.parse(createdAt));
+  }
+
+  private static org.nikitakapustkin.bank.contracts.dto.response.TransactionResponseDto transaction(
+      UUID txId, UUID accountId) {
+    return new org.nikitakapustkin.bank.contracts.dto.response.TransactionResponseDto(
+        txId,
+        accountId,
+        TransactionType.DEPOSIT,
+        new BigDecimal("10.00"),
+        Instant.parse("2024-01-01T00:00:00Z"));
   }
 
   @NotNull
@@ -158,7 +422,7 @@ class AccountWebClientContractTest {
             TransactionType.DEPOSIT,
             new BigDecimal("10.00"),
             Instant.parse("2024-01-01T00:00:00Z"));
-    return new AccountDetailsResponseDto(account, List.of(tx));
+    return new AccountDetailsResponseDto(account, List.of(tx), "cursor-1");
   }
 
   @Test
@@ -177,7 +441,7 @@ class AccountWebClientContractTest {
             .setBody(objectMapper.writeValueAsString(error))
             .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE));
 
-    assertThatThrownBy(() -> accountWebClient.getAccountById(accountId))
+    assertThatThrownBy(() -> accountWebClient.getAccountById(accountId, null))
         .isInstanceOf(BankServiceException.class)
         .satisfies(
             ex -> {
@@ -0,0 +1,52 @@
+package org.nikitakapustkin.storage.adapters.in.kafka;
+
+import java.util.List;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.nikitakapustkin.storage.application.EventBatchIngestionException;
+import org.nikitakapustkin.storage.application.EventIngestionService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Receives each poll as one list and stores it with one batched write. When a record cannot be
+ * parsed or stored, the records before it are already stored; {@link BatchListenerFailedException}
+ * tells the error handler which record failed, so only that one is retried or sent to the DLT and
+ * the rest of the batch is redelivered. With {@code kafka.consumer.key-ordered-lanes} above one the
+ * poll is written by {@link KeyOrderedBatchProcessor} in parallel lanes.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "kafka.consumer.batch-enabled", matchIfMissing = true)
+public class KafkaBatchEventConsumer {
+  private final EventIngestionService eventIngestionService;
+  private final KeyOrderedBatchProcessor processor;
+
+  @KafkaListener(topics = "${kafka.topics.user}", groupId = "${kafka.consumer.group-id}")
+  public void consumeUserEvents(List<ConsumerRecord<String, String>> records) {
+    ingest(records, eventIngestionService::consumeUserEventBatch);
+  }
+
+  @KafkaListener(topics = "${kafka.topics.account}", groupId = "${kafka.consumer.group-id}")
+  public void consumeAccountEvents(List<ConsumerRecord<String, String>> records) {
+    ingest(records, eventIngestionService::consumeAccountEventBatch);
+  }
+
+  @KafkaListener(topics = "${kafka.topics.transaction}", groupId = "${kafka.consumer.group-id}")
+  public void consumeTransactionEvents(List<ConsumerRecord<String, String>> records) {
+    ingest(records, eventIngestionService::consumeTransactionEventBatch);
+  }
+
+  private void ingest(
+      List<ConsumerRecord<String, String>> records, Consumer<List<String>> ingestion) {
+    try {
+      processor.process(records, ingestion);
+    } catch (EventBatchIngestionException ex) {
+      throw new BatchListenerFailedException(
+          ex.getMessage(), ex.getCause(), records.get(ex.getFailedIndex()));
+    }
+  }
+}
@@ -3,11 +3,13 @@ package org.nikitakapustkin.storage.adapters.in.kafka;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.nikitakapustkin.storage.application.EventIngestionService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(value = "kafka.consumer.batch-enabled", havingValue = "false")
 public class KafkaEventConsumer {
   private final EventIngestionService eventIngestionService;
 
@@ -21,33 +21,44 @@ public class KafkaTopicsConfig {
   @Value("${kafka.consumer.dlt-suffix:.dlt}")
   private String dltSuffix;
 
+  // DLT topics get the same count: failed records are published to their source partition number.
+  @Value("${kafka.topics.partitions:1}")
+  private int partitions;
+
+  @Value("${kafka.topics.replicas:1}")
+  private int replicas;
+
   @Bean
   public NewTopic accountTopic() {
-    return TopicBuilder.name(accountTopicName).build();
+    return topic(accountTopicName);
   }
 
   @Bean
   public NewTopic userTopic() {
-    return TopicBuilder.name(userTopicName).build();
+    return topic(userTopicName);
   }
 
   @Bean
   public NewTopic transactionTopic() {
-    return TopicBuilder.name(transactionTopicName).build();
+    return topic(transactionTopicName);
   }
 
   @Bean
   public NewTopic accountDltTopic() {
-    return TopicBuilder.name(accountTopicName + dltSuffix).build();
+    return topic(accountTopicName + dltSuffix);
   }
 
   @Bean
   public NewTopic userDltTopic() {
-    return TopicBuilder.name(userTopicName + dltSuffix).build();
+    return topic(userTopicName + dltSuffix);
   }
 
   @Bean
   public NewTopic transactionDltTopic() {
-    return TopicBuilder.name(transactionTopicName + dltSuffix).build();
+    return topic(transactionTopicName + dltSuffix);
+  }
+
+  private NewTopic topic(String name) {
+    return TopicBuilder.name(name).partitions(partitions).replicas(replicas).build();
   }
 }
@@ -0,0 +1,124 @@
+package org.nikitakapustkin.storage.adapters.in.kafka;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.nikitakapustkin.storage.application.EventBatchIngestionException;
+import org.nikitakapustkin.storage.config.StorageKafkaConsumerProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * Splits one poll into lanes by record key and ingests the lanes in parallel on virtual threads (a
+ * final API since Java 21, the project baseline). Producers key records by entity id, so all events
+ * of one entity land in the same lane in offset order and are written in that order; only different
+ * entities are written concurrently. The caller returns after every lane has finished, so the
+ * container still commits the batch offsets in order.
+ *
+ * <p>When lanes fail, the reported failure is the earliest failed record of the poll. Lanes may
+ * already have stored records after it; they are redelivered together with it and skipped as
+ * duplicates.
+ */
+@Component
+public class KeyOrderedBatchProcessor implements DisposableBean {
+  private final int lanes;
+  private final ExecutorService executor;
+
+  public KeyOrderedBatchProcessor(StorageKafkaConsumerProperties properties) {
+    this.lanes = properties.getKeyOrderedLanes();
+    this.executor =
+        lanes > 1
+            ? Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("storage-ingest-", 0).factory())
+            : null;
+  }
+
+  /**
+   * Hands the payloads of {@code records} to {@code ingestion}, one call per lane.
+   *
+   * @throws EventBatchIngestionException with the index of the earliest failed record in {@code
+   *     records}
+   */
+  public void process(
+      List<ConsumerRecord<String, String>> records, Consumer<List<String>> ingestion) {
+    if (executor == null || records.size() < 2) {
+      ingestion.accept(records.stream().map(ConsumerRecord::value).toList());
+      return;
+    }
+
+    List<List<Integer>> laneIndexes = new ArrayList<>(lanes);
+    for (int i = 0; i < lanes; i++) {
+      laneIndexes.add(new ArrayList<>());
+    }
+    for (int i = 0; i < records.size(); i++) {
+      laneIndexes.get(lane(records.get(i))).add(i);
+    }
+
+    List<List<Integer>> active = new ArrayList<>(lanes);
+    List<CompletableFuture<Void>> futures = new ArrayList<>(lanes);
+    for (List<Integer> indexes : laneIndexes) {
+      if (indexes.isEmpty()) {
+        continue;
+      }
+      List<String> payloads = payloads(records, indexes);
+      active.add(indexes);
+      futures.add(CompletableFuture.runAsync(() -> ingestion.accept(payloads), executor));
+    }
+
+    RuntimeException unrecoverable = null;
+    EventBatchIngestionException earliest = null;
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        futures.get(i).join();
+      } catch (CompletionException ex) {
+        Throwable cause = ex.getCause();
+        if (cause instanceof EventBatchIngestionException failed) {
+          int index = active.get(i).get(failed.getFailedIndex());
+          if (earliest == null || index < earliest.getFailedIndex()) {
+            earliest =
+                new EventBatchIngestionException(index, (RuntimeException) failed.getCause());
+          }
+        } else if (unrecoverable == null) {
+          unrecoverable =
+              cause instanceof RuntimeException runtime
+                  ? runtime
+                  : new IllegalStateException(cause);
+        }
+      }
+    }
+    // A lane that failed outright may not have stored records before another lane's failure, so
+    // the whole poll has to be redelivered.
+    if (unrecoverable != null) {
+      throw unrecoverable;
+    }
+    if (earliest != null) {
+      throw earliest;
+    }
+  }
+
+  @Override
+  public void destroy() {
+    if (executor != null) {
+      executor.close();
+    }
+  }
+
+  private int lane(ConsumerRecord<String, String> record) {
+    int hash = record.key() != null ? record.key().hashCode() : record.partition();
+    return Math.floorMod(hash, lanes);
+  }
+
+  private static List<String> payloads(
+      List<ConsumerRecord<String, String>> records, List<Integer> indexes) {
+    List<String> payloads = new ArrayList<>(indexes.size());
+    for (int index : indexes) {
+      payloads.add(records.get(index).value());
+    }
+    return payloads;
+  }
+}
@@ -2,7 +2,6 @@ package org.nikitakapustkin.storage.adapters.out.persistence;
 
 import java.util.List;
 import java.util.UUID;
-import org.nikitakapustkin.storage.application.ports.out.AccountEventRepositoryPort;
 import org.nikitakapustkin.storage.events.AccountEvent;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,8 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface AccountEventRepository
-    extends JpaRepository<AccountEvent, UUID>, AccountEventRepositoryPort {
+public interface AccountEventRepository extends JpaRepository<AccountEvent, UUID> {
   @Query(
       """
             select e
@@ -0,0 +1,47 @@
+package org.nikitakapustkin.storage.adapters.out.persistence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import org.nikitakapustkin.storage.application.ports.out.EventWriteResult;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts written events per stream and outcome. The dedupe rate of a stream is its {@code
+ * duplicate} count over the sum of both outcomes.
+ */
+@Component
+public class EventIngestionMetrics {
+  static final String USER = "user";
+  static final String ACCOUNT = "account";
+  static final String TRANSACTION = "transaction";
+
+  private final Map<String, Counter> inserted;
+  private final Map<String, Counter> duplicates;
+
+  public EventIngestionMetrics(MeterRegistry registry) {
+    this.inserted =
+        Map.of(
+            USER, counter(registry, USER, "inserted"),
+            ACCOUNT, counter(registry, ACCOUNT, "inserted"),
+            TRANSACTION, counter(registry, TRANSACTION, "inserted"));
+    this.duplicates =
+        Map.of(
+            USER, counter(registry, USER, "duplicate"),
+            ACCOUNT, counter(registry, ACCOUNT, "duplicate"),
+            TRANSACTION, counter(registry, TRANSACTION, "duplicate"));
+  }
+
+  void record(String event, EventWriteResult result) {
+    inserted.get(event).increment(result.inserted());
+    duplicates.get(event).increment(result.duplicates());
+  }
+
+  private static Counter counter(MeterRegistry registry, String event, String outcome) {
+    return Counter.builder("storage.events.ingested")
+        .description("Events written by the Kafka consumers, by outcome")
+        .tag("event", event)
+        .tag("outcome", outcome)
+        .register(registry);
+  }
+}
@@ -0,0 +1,278 @@
+package org.nikitakapustkin.storage.adapters.out.persistence;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.nikitakapustkin.storage.application.ports.out.EventBatchWriterPort;
+import org.nikitakapustkin.storage.application.ports.out.EventWriteResult;
+import org.nikitakapustkin.storage.events.AccountEvent;
+import org.nikitakapustkin.storage.events.TransactionEvent;
+import org.nikitakapustkin.storage.events.UserEvent;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Inserts event batches inside one transaction. {@code ON CONFLICT DO NOTHING} skips rows whose
+ * {@code event_id} (or {@code transaction_id}) is already stored, including repeats within the
+ * batch. On PostgreSQL a batch is a single {@code INSERT ... SELECT FROM unnest(...)} over one
+ * array per column, and the rows it {@code RETURNING}s are the inserted ones. Other databases get a
+ * JDBC batch of single-row INSERTs whose update counts tell inserted rows from duplicates. Ids are
+ * generated here, as Hibernate would have done.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JdbcEventBatchWriter implements EventBatchWriterPort {
+  private static final EventTable USER_EVENTS =
+      new EventTable(
+          "user_event",
+          List.of(
+              new Column("id", "uuid"),
+              new Column("event_id", "uuid"),
+              new Column("correlation_id", "uuid"),
+              new Column("user_id", "uuid"),
+              new Column("event_type", null),
+              new Column("event_time", "timestamptz"),
+              new Column("event_description", null),
+              new Column("payload_type", null),
+              new Column("payload", null)));
+
+  private static final EventTable ACCOUNT_EVENTS =
+      new EventTable(
+          "account_event",
+          List.of(
+              new Column("id", "uuid"),
+              new Column("event_id", "uuid"),
+              new Column("correlation_id", "uuid"),
+              new Column("account_id", "uuid"),
+              new Column("event_type", null),
+              new Column("event_time", "timestamptz"),
+              new Column("event_description", null),
+              new Column("payload_type", null),
+              new Column("payload", null)));
+
+  private static final EventTable TRANSACTION_EVENTS =
+      new EventTable(
+          "transaction_event",
+          List.of(
+              new Column("id", "uuid"),
+              new Column("event_id", "uuid"),
+              new Column("correlation_id", "uuid"),
+              new Column("event_type", null),
+              new Column("event_time", "timestamptz"),
+              new Column("event_description", null),
+              new Column("payload_type", null),
+              new Column("payload", null),
+              new Column("transaction_id", "uuid"),
+              new Column("account_id", "uuid"),
+              new Column("transaction_type", null),
+              new Column("amount", "numeric"),
+              new Column("created_at", "timestamptz")));
+
+  private final JdbcTemplate jdbc;
+  private final EventIngestionMetrics metrics;
+  private volatile Boolean postgres;
+
+  @Override
+  @Transactional
+  public EventWriteResult insertUserEvents(List<UserEvent> events) {
+    return insert(
+        EventIngestionMetrics.USER,
+        USER_EVENTS,
+        events,
+        event ->
+            row(
+                event.getEventId(),
+                event.getCorrelationId(),
+                event.getUserId(),
+                event.getEventType(),
+                event.getEventTime(),
+                event.getEventDescription(),
+                event.getPayloadType(),
+                event.getPayload()));
+  }
+
+  @Override
+  @Transactional
+  public EventWriteResult insertAccountEvents(List<AccountEvent> events) {
+    return insert(
+        EventIngestionMetrics.ACCOUNT,
+        ACCOUNT_EVENTS,
+        events,
+        event ->
+            row(
+                event.getEventId(),
+                event.getCorrelationId(),
+                event.getAccountId(),
+                event.getEventType(),
+                event.getEventTime(),
+                event.getEventDescription(),
+                event.getPayloadType(),
+                event.getPayload()));
+  }
+
+  @Override
+  @Transactional
+  public EventWriteResult insertTransactionEvents(List<TransactionEvent> events) {
+    return insert(
+        EventIngestionMetrics.TRANSACTION,
+        TRANSACTION_EVENTS,
+        events,
+        event ->
+            new Object[] {
+              UUID.randomUUID(),
+              event.getEventId(),
+              event.getCorrelationId(),
+              event.getEventType(),
+              toOffsetDateTime(event.getEventTime()),
+              event.getEventDescription(),
+              event.getPayloadType(),
+              event.getPayload(),
+              event.getTransactionId(),
+              event.getAccountId(),
+              event.getTransactionType() != null ? event.getTransactionType().name() : null,
+              event.getAmount(),
+              toOffsetDateTime(event.getCreatedAt())
+            });
+  }
+
+  private <E> EventWriteResult insert(
+      String event, EventTable table, List<E> events, Function<E, Object[]> row) {
+    if (events.isEmpty()) {
+      return EventWriteResult.EMPTY;
+    }
+    List<Object[]> rows = new ArrayList<>(events.size());
+    for (E e : events) {
+      rows.add(row.apply(e));
+    }
+    int inserted = isPostgres() ? insertUnnest(table, rows) : insertBatch(table, rows);
+    EventWriteResult result = new EventWriteResult(inserted, events.size() - inserted);
+    metrics.record(event, result);
+    return result;
+  }
+
+  private int insertUnnest(EventTable table, List<Object[]> rows) {
+    int columns = table.columns().size();
+    String[][] arrays = new String[columns][rows.size()];
+    for (int r = 0; r < rows.size(); r++) {
+      Object[] values = rows.get(r);
+      for (int c = 0; c < columns; c++) {
+        arrays[c][r] = toText(values[c]);
+      }
+    }
+    Integer inserted =
+        jdbc.query(
+            con -> {
+              PreparedStatement statement = con.prepareStatement(table.unnestSql());
+              for (int c = 0; c < columns; c++) {
+                statement.setArray(c + 1, con.createArrayOf("text", arrays[c]));
+              }
+              return statement;
+            },
+            rs -> {
+              int count = 0;
+              while (rs.next()) {
+                count++;
+              }
+              return count;
+            });
+    return inserted != null ? inserted : 0;
+  }
+
+  private int insertBatch(EventTable table, List<Object[]> rows) {
+    int inserted = 0;
+    for (int count : jdbc.batchUpdate(table.valuesSql(), rows)) {
+      if (count > 0) {
+        inserted++;
+      }
+    }
+    return inserted;
+  }
+
+  private boolean isPostgres() {
+    Boolean cached = postgres;
+    if (cached == null) {
+      cached =
+          jdbc.execute(
+              (ConnectionCallback<Boolean>)
+                  con -> "PostgreSQL".equals(con.getMetaData().getDatabaseProductName()));
+      postgres = cached;
+    }
+    return Boolean.TRUE.equals(cached);
+  }
+
+  private static Object[] row(
+      UUID eventId,
+      UUID correlationId,
+      UUID entityId,
+      String eventType,
+      Instant eventTime,
+      String eventDescription,
+      String payloadType,
+      String payload) {
+    return new Object[] {
+      UUID.randomUUID(),
+      eventId,
+      correlationId,
+      entityId,
+      eventType,
+      toOffsetDateTime(eventTime),
+      eventDescription,
+      payloadType,
+      payload
+    };
+  }
+
+  private static String toText(Object value) {
+    if (value == null) {
+      return null;
+    }
+    return value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+  }
+
+  private static OffsetDateTime toOffsetDateTime(Instant instant) {
+    return instant != null ? instant.atOffset(ZoneOffset.UTC) : null;
+  }
+
+  /** A column and the PostgreSQL type its text form is cast to ({@code null} for text columns). */
+  private record Column(String name, String type) {}
+
+  private record EventTable(String name, List<Column> columns, String valuesSql, String unnestSql) {
+    EventTable(String name, List<Column> columns) {
+      this(name, columns, valuesSql(name, columns), unnestSql(name, columns));
+    }
+
+    private static String valuesSql(String name, List<Column> columns) {
+      return "insert into %s (%s) values (%s) on conflict do nothing"
+          .formatted(
+              name,
+              columns.stream().map(Column::name).collect(Collectors.joining(", ")),
+              columns.stream().map(column -> "?").collect(Collectors.joining(", ")));
+    }
+
+    private static String unnestSql(String name, List<Column> columns) {
+      return "insert into %s (%s) select %s from unnest(%s) as e(%s) on conflict do nothing returning id"
+          .formatted(
+              name,
+              columns.stream().map(Column::name).collect(Collectors.joining(", ")),
+              columns.stream()
+                  .map(
+                      column ->
+                          column.type() != null
+                              ? "e." + column.name() + "::" + column.type()
+                              : "e." + column.name())
+                  .collect(Collectors.joining(", ")),
+              columns.stream().map(column -> "?::text[]").collect(Collectors.joining(", ")),
+              columns.stream().map(Column::name).collect(Collectors.joining(", ")));
+    }
+  }
+}
@@ -3,15 +3,13 @@ package org.nikitakapustkin.storage.adapters.out.persistence;
 import java.util.List;
 import java.util.UUID;
 import org.nikitakapustkin.bank.contracts.enums.TransactionType;
-import org.nikitakapustkin.storage.application.ports.out.TransactionEventRepositoryPort;
 import org.nikitakapustkin.storage.events.TransactionEvent;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface TransactionEventRepository
-    extends JpaRepository<TransactionEvent, UUID>, TransactionEventRepositoryPort {
+public interface TransactionEventRepository extends JpaRepository<TransactionEvent, UUID> {
   @Query(
       """
             select e
@@ -2,7 +2,6 @@ package org.nikitakapustkin.storage.adapters.out.persistence;
 
 import java.util.List;
 import java.util.UUID;
-import org.nikitakapustkin.storage.application.ports.out.UserEventRepositoryPort;
 import org.nikitakapustkin.storage.events.UserEvent;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,8 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface UserEventRepository
-    extends JpaRepository<UserEvent, UUID>, UserEventRepositoryPort {
+public interface UserEventRepository extends JpaRepository<UserEvent, UUID> {
   @Query(
       """
             select e
@@ -0,0 +1,18 @@
+package org.nikitakapustkin.storage.application;
+
+import lombok.Getter;
+
+/**
+ * A record of a batch could not be turned into an event or stored. Every record before {@link
+ * #failedIndex} has already been stored, so only the failed record and the ones after it need
+ * another attempt.
+ */
+@Getter
+public class EventBatchIngestionException extends RuntimeException {
+  private final int failedIndex;
+
+  public EventBatchIngestionException(int failedIndex, RuntimeException cause) {
+    super("Failed to ingest record " + failedIndex + " of batch: " + cause.getMessage(), cause);
+    this.failedIndex = failedIndex;
+  }
+}
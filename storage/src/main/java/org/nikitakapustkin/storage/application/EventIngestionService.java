@@ -5,29 +5,26 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
-import java.util.function.Consumer;
 import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.nikitakapustkin.bank.contracts.events.EventEnvelope;
 import org.nikitakapustkin.bank.contracts.events.EventTypes;
 import org.nikitakapustkin.bank.contracts.events.TransactionCreatedPayload;
-import org.nikitakapustkin.storage.application.ports.out.AccountEventRepositoryPort;
-import org.nikitakapustkin.storage.application.ports.out.TransactionEventRepositoryPort;
-import org.nikitakapustkin.storage.application.ports.out.UserEventRepositoryPort;
+import org.nikitakapustkin.storage.application.ports.out.EventBatchWriterPort;
+import org.nikitakapustkin.storage.application.ports.out.EventWriteResult;
 import org.nikitakapustkin.storage.events.AccountEvent;
 import org.nikitakapustkin.storage.events.TransactionEvent;
 import org.nikitakapustkin.storage.events.UserEvent;
-import org.springframework.dao.DataIntegrityViolationException;
 
 @Slf4j
 @RequiredArgsConstructor
 public class EventIngestionService {
-  private final UserEventRepositoryPort userEventRepository;
-  private final AccountEventRepositoryPort accountEventRepository;
-  private final TransactionEventRepositoryPort transactionEventRepository;
   private final ObjectMapper objectMapper;
+  private final EventBatchWriterPort eventBatchWriter;
 
   public void consumeUserEvents(String payload) {
     consumeEvent(
@@ -35,7 +32,7 @@ public class EventIngestionService {
         new TypeReference<>() {},
         EventEnvelope::eventId,
         this::toUserEvent,
-        userEventRepository::save,
+        eventBatchWriter::insertUserEvents,
         "user",
         "eventId");
   }
@@ -46,7 +43,7 @@ public class EventIngestionService {
         new TypeReference<>() {},
         EventEnvelope::eventId,
         this::toAccountEvent,
-        accountEventRepository::save,
+        eventBatchWriter::insertAccountEvents,
         "account",
         "eventId");
   }
@@ -57,11 +54,46 @@ public class EventIngestionService {
         new TypeReference<>() {},
         envelope -> envelope.payload() != null ? envelope.payload().transactionId() : null,
         this::toTransactionEvent,
-        transactionEventRepository::save,
+        eventBatchWriter::insertTransactionEvents,
         "transaction",
         "transactionId");
   }
 
+  /**
+   * Stores every user event of one poll with a single batched write; returns how many were new.
+   *
+   * @throws EventBatchIngestionException when a record cannot be parsed or stored, after the
+   *     records before it have been stored
+   */
+  public int consumeUserEventBatch(List<String> payloads) {
+    return consumeBatch(
+        payloads,
+        new TypeReference<EventEnvelope<JsonNode>>() {},
+        this::toUserEvent,
+        eventBatchWriter::insertUserEvents,
+        "user");
+  }
+
+  /** Batch counterpart of {@link #consumeAccountEvents}, see {@link #consumeUserEventBatch}. */
+  public int consumeAccountEventBatch(List<String> payloads) {
+    return consumeBatch(
+        payloads,
+        new TypeReference<EventEnvelope<JsonNode>>() {},
+        this::toAccountEvent,
+        eventBatchWriter::insertAccountEvents,
+        "account");
+  }
+
+  /** Batch counterpart of {@link #consumeTransactionEvents}, see {@link #consumeUserEventBatch}. */
+  public int consumeTransactionEventBatch(List<String> payloads) {
+    return consumeBatch(
+        payloads,
+        new TypeReference<EventEnvelope<TransactionCreatedPayload>>() {},
+        this::toTransactionEvent,
+        eventBatchWriter::insertTransactionEvents,
+        "transaction");
+  }
+
   private static UUID fallbackCorrelationId(UUID eventId, UUID correlationId) {
     if (correlationId != null) {
       return correlationId;
@@ -77,17 +109,16 @@ public class EventIngestionService {
       TypeReference<EventEnvelope<T>> typeRef,
       Function<EventEnvelope<T>, UUID> idExtractor,
       Function<EventEnvelope<T>, E> mapper,
-      Consumer<E> saver,
+      Function<List<E>, EventWriteResult> writer,
       String eventName,
       String idName) {
-    UUID eventId = null;
     try {
       EventEnvelope<T> envelope = objectMapper.readValue(payload, typeRef);
-      eventId = idExtractor.apply(envelope);
-      E event = mapper.apply(envelope);
-      saver.accept(event);
-    } catch (DataIntegrityViolationException e) {
-      log.info("Duplicate {} event ignored. {}={}", eventName, idName, eventId);
+      EventWriteResult result = writer.apply(List.of(mapper.apply(envelope)));
+      if (result.duplicates() > 0) {
+        log.debug(
+            "Duplicate {} event ignored. {}={}", eventName, idName, idExtractor.apply(envelope));
+      }
     } catch (JsonProcessingException e) {
       throw new IllegalStateException("Failed to parse " + eventName + " event envelope", e);
     } catch (IllegalStateException e) {
@@ -97,6 +128,61 @@ public class EventIngestionService {
     }
   }
 
+  private <T, E> int consumeBatch(
+      List<String> payloads,
+      TypeReference<EventEnvelope<T>> typeRef,
+      Function<EventEnvelope<T>, E> mapper,
+      Function<List<E>, EventWriteResult> writer,
+      String eventName) {
+    List<E> events = new ArrayList<>(payloads.size());
+    for (int i = 0; i < payloads.size(); i++) {
+      try {
+        events.add(mapper.apply(objectMapper.readValue(payloads.get(i), typeRef)));
+      } catch (JsonProcessingException | RuntimeException e) {
+        RuntimeException cause =
+            e instanceof RuntimeException runtime
+                ? runtime
+                : new IllegalStateException("Failed to parse " + eventName + " event envelope", e);
+        write(events, writer, eventName);
+        throw new EventBatchIngestionException(i, cause);
+      }
+    }
+    return write(events, writer, eventName);
+  }
+
+  // A batched write fails as a whole, e.g. on one value too long for its column. It is then
+  // repeated one row at a time, so the rows before the bad one are stored and only that row is
+  // reported instead of the whole poll going to the DLT.
+  private static <E> int write(
+      List<E> events, Function<List<E>, EventWriteResult> writer, String eventName) {
+    if (events.isEmpty()) {
+      return 0;
+    }
+    EventWriteResult result;
+    try {
+      result = writer.apply(events);
+    } catch (RuntimeException batchFailure) {
+      log.warn(
+          "Batched write of {} {} events failed, retrying row by row: {}",
+          events.size(),
+          eventName,
+          batchFailure.getMessage());
+      int inserted = 0;
+      for (int i = 0; i < events.size(); i++) {
+        try {
+          inserted += writer.apply(List.of(events.get(i))).inserted();
+        } catch (RuntimeException rowFailure) {
+          throw new EventBatchIngestionException(i, rowFailure);
+        }
+      }
+      return inserted;
+    }
+    if (result.duplicates() > 0) {
+      log.debug("Duplicate {} events ignored: {}", eventName, result.duplicates());
+    }
+    return result.inserted();
+  }
+
   private UserEvent toUserEvent(EventEnvelope<JsonNode> envelope) {
     UUID eventId = envelope.eventId();
     UUID correlationId = fallbackCorrelationId(eventId, envelope.correlationId());
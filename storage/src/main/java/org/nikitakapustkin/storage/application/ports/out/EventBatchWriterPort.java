@@ -0,0 +1,19 @@
+package org.nikitakapustkin.storage.application.ports.out;
+
+import java.util.List;
+import org.nikitakapustkin.storage.events.AccountEvent;
+import org.nikitakapustkin.storage.events.TransactionEvent;
+import org.nikitakapustkin.storage.events.UserEvent;
+
+/**
+ * Writes events with {@code INSERT ... ON CONFLICT DO NOTHING}. Events that are already stored are
+ * skipped and counted as duplicates instead of failing the write, so redelivered events are
+ * idempotent and cost no exception or rolled-back transaction.
+ */
+public interface EventBatchWriterPort {
+  EventWriteResult insertUserEvents(List<UserEvent> events);
+
+  EventWriteResult insertAccountEvents(List<AccountEvent> events);
+
+  EventWriteResult insertTransactionEvents(List<TransactionEvent> events);
+}
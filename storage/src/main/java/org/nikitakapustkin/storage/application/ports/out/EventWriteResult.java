@@ -0,0 +1,10 @@
+package org.nikitakapustkin.storage.application.ports.out;
+
+/** Outcome of an insert that skips already stored events. */
+public record EventWriteResult(int inserted, int duplicates) {
+  public static final EventWriteResult EMPTY = new EventWriteResult(0, 0);
+
+  public int total() {
+    return inserted + duplicates;
+  }
+}
@@ -6,9 +6,7 @@ import org.nikitakapustkin.storage.adapters.out.persistence.TransactionEventRepo
 import org.nikitakapustkin.storage.adapters.out.persistence.UserEventRepository;
 import org.nikitakapustkin.storage.application.EventIngestionService;
 import org.nikitakapustkin.storage.application.EventQueryService;
-import org.nikitakapustkin.storage.application.ports.out.AccountEventRepositoryPort;
-import org.nikitakapustkin.storage.application.ports.out.TransactionEventRepositoryPort;
-import org.nikitakapustkin.storage.application.ports.out.UserEventRepositoryPort;
+import org.nikitakapustkin.storage.application.ports.out.EventBatchWriterPort;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -25,11 +23,7 @@ public class ApplicationServiceConfig {
 
   @Bean
   public EventIngestionService eventIngestionService(
-      UserEventRepositoryPort userEventRepository,
-      AccountEventRepositoryPort accountEventRepository,
-      TransactionEventRepositoryPort transactionEventRepository,
-      ObjectMapper objectMapper) {
-    return new EventIngestionService(
-        userEventRepository, accountEventRepository, transactionEventRepository, objectMapper);
+      ObjectMapper objectMapper, EventBatchWriterPort eventBatchWriter) {
+    return new EventIngestionService(objectMapper, eventBatchWriter);
   }
 }
@@ -14,4 +14,11 @@ public class StorageKafkaConsumerProperties {
   private String dltSuffix = ".dlt";
   private long backoffMs = 1000;
   private long maxRetries = 3;
+  // Hand each poll to the listener as one batch that is written with a single JDBC batch.
+  private boolean batchEnabled = true;
+  private int maxPollRecords = 500;
+  // Listener threads per topic; only useful up to the topic's partition count.
+  private int concurrency = 1;
+  // Parallel writers per poll, records split by key; 0 or 1 writes the poll on the listener thread.
+  private int keyOrderedLanes = 0;
 }
@@ -1,11 +1,16 @@
 package org.nikitakapustkin.storage;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,10 +25,10 @@ import org.nikitakapustkin.bank.contracts.events.EventEnvelope;
 import org.nikitakapustkin.bank.contracts.events.EventTypes;
 import org.nikitakapustkin.bank.contracts.events.TransactionCreatedPayload;
 import org.nikitakapustkin.bank.contracts.events.UserCreatedPayload;
+import org.nikitakapustkin.storage.application.EventBatchIngestionException;
 import org.nikitakapustkin.storage.application.EventIngestionService;
-import org.nikitakapustkin.storage.application.ports.out.AccountEventRepositoryPort;
-import org.nikitakapustkin.storage.application.ports.out.TransactionEventRepositoryPort;
-import org.nikitakapustkin.storage.application.ports.out.UserEventRepositoryPort;
+import org.nikitakapustkin.storage.application.ports.out.EventBatchWriterPort;
+import org.nikitakapustkin.storage.application.ports.out.EventWriteResult;
 import org.nikitakapustkin.storage.events.AccountEvent;
 import org.nikitakapustkin.storage.events.TransactionEvent;
 import org.nikitakapustkin.storage.events.UserEvent;
@@ -31,9 +36,7 @@ import org.nikitakapustkin.storage.events.UserEvent;
 @ExtendWith(MockitoExtension.class)
 class EventIngestionServiceTest {
 
-  @Mock private UserEventRepositoryPort userEventRepository;
-  @Mock private AccountEventRepositoryPort accountEventRepository;
-  @Mock private TransactionEventRepositoryPort transactionEventRepository;
+  @Mock private EventBatchWriterPort eventBatchWriter;
 
   private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
 
@@ -55,16 +58,17 @@ class EventIngestionServiceTest {
                 userId, "alice", "Alice", 25, Sex.FEMALE, HairColor.BLACK, "User created"));
     String payload = objectMapper.writeValueAsString(envelope);
 
-    EventIngestionService service =
-        new EventIngestionService(
-            userEventRepository, accountEventRepository, transactionEventRepository, objectMapper);
+    EventIngestionService service = new EventIngestionService(objectMapper, eventBatchWriter);
+
+    when(eventBatchWriter.insertUserEvents(anyList())).thenReturn(new EventWriteResult(1, 0));
 
     service.consumeUserEvents(payload);
 
-    ArgumentCaptor<UserEvent> captor = ArgumentCaptor.forClass(UserEvent.class);
-    verify(userEventRepository).save(captor.capture());
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<UserEvent>> captor = ArgumentCaptor.forClass(List.class);
+    verify(eventBatchWriter).insertUserEvents(captor.capture());
 
-    UserEvent saved = captor.getValue();
+    UserEvent saved = captor.getValue().get(0);
     assertThat(saved.getEventId()).isEqualTo(eventId);
     assertThat(saved.getCorrelationId()).isEqualTo(correlationId);
     assertThat(saved.getUserId()).isEqualTo(userId);
@@ -93,16 +97,17 @@ class EventIngestionServiceTest {
             new AccountDepositedPayload(accountId, new BigDecimal("10.00"), "Deposit"));
     String payload = objectMapper.writeValueAsString(envelope);
 
-    EventIngestionService service =
-        new EventIngestionService(
-            userEventRepository, accountEventRepository, transactionEventRepository, objectMapper);
+    EventIngestionService service = new EventIngestionService(objectMapper, eventBatchWriter);
+
+    when(eventBatchWriter.insertAccountEvents(anyList())).thenReturn(new EventWriteResult(1, 0));
 
     service.consumeAccountEvents(payload);
 
-    ArgumentCaptor<AccountEvent> captor = ArgumentCaptor.forClass(AccountEvent.class);
-    verify(accountEventRepository).save(captor.capture());
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<AccountEvent>> captor = ArgumentCaptor.forClass(List.class);
+    verify(eventBatchWriter).insertAccountEvents(captor.capture());
 
-    AccountEvent saved = captor.getValue();
+    AccountEvent saved = captor.getValue().get(0);
     assertThat(saved.getEventId()).isEqualTo(eventId);
     assertThat(saved.getCorrelationId()).isEqualTo(eventId);
     assertThat(saved.getAccountId()).isEqualTo(accountId);
@@ -139,16 +144,18 @@ class EventIngestionServiceTest {
                 createdAt));
     String payload = objectMapper.writeValueAsString(envelope);
 
-    EventIngestionService service =
-        new EventIngestionService(
-            userEventRepository, accountEventRepository, transactionEventRepository, objectMapper);
+    EventIngestionService service = new EventIngestionService(objectMapper, eventBatchWriter);
+
+    when(eventBatchWriter.insertTransactionEvents(anyList()))
+        .thenReturn(new EventWriteResult(1, 0));
 
     service.consumeTransactionEvents(payload);
 
-    ArgumentCaptor<TransactionEvent> captor = ArgumentCaptor.forClass(TransactionEvent.class);
-    verify(transactionEventRepository).save(captor.capture());
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<TransactionEvent>> captor = ArgumentCaptor.forClass(List.class);
+    verify(eventBatchWriter).insertTransactionEvents(captor.capture());
 
-    TransactionEvent saved = captor.getValue();
+    TransactionEvent saved = captor.getValue().get(0);
     assertThat(saved.getEventId()).isEqualTo(transactionId);
     assertThat(saved.getTransactionId()).isEqualTo(transactionId);
     assertThat(saved.getCorrelationId()).isEqualTo(correlationId);
@@ -168,4 +175,105 @@ class EventIngestionServiceTest {
     assertThat(actualPayload.amount()).isEqualByComparingTo(new BigDecimal("10.50"));
     assertThat(actualPayload.createdAt()).isEqualTo(createdAt);
   }
+
+  @Test
+  void consume_user_event_batch_writes_the_whole_poll_at_once() throws Exception {
+    String first = userEventPayload(UUID.randomUUID());
+    String second = userEventPayload(UUID.randomUUID());
+    when(eventBatchWriter.insertUserEvents(anyList())).thenReturn(new EventWriteResult(1, 1));
+    EventIngestionService service = new EventIngestionService(objectMapper, eventBatchWriter);
+
+    int inserted = service.consumeUserEventBatch(List.of(first, second));
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<UserEvent>> captor = ArgumentCaptor.forClass(List.class);
+    verify(eventBatchWriter).insertUserEvents(captor.capture());
+    assertThat(captor.getValue()).hasSize(2);
+    assertThat(inserted).isEqualTo(1);
+  }
+
+  @Test
+  void consume_user_event_batch_stores_records_before_a_malformed_one() throws Exception {
+    UUID firstEventId = UUID.randomUUID();
+    String first = userEventPayload(firstEventId);
+    when(eventBatchWriter.insertUserEvents(anyList())).thenReturn(new EventWriteResult(1, 0));
+    EventIngestionService service = new EventIngestionService(objectMapper, eventBatchWriter);
+
+    assertThatThrownBy(
+            () ->
+                service.consumeUserEventBatch(
+                    List.of(first, "{not json", userEventPayload(UUID.randomUUID()))))
+        .isInstanceOfSatisfying(
+            EventBatchIngestionException.class,
+            ex -> {
+              assertThat(ex.getFailedIndex()).isEqualTo(1);
+              assertThat(ex.getCause()).isInstanceOf(IllegalStateException.class);
+            });
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<UserEvent>> captor = ArgumentCaptor.forClass(List.class);
+    verify(eventBatchWriter).insertUserEvents(captor.capture());
+    assertThat(captor.getValue()).extracting(UserEvent::getEventId).containsExactly(firstEventId);
+  }
+
+  @Test
+  void consume_user_event_batch_reports_the_row_a_failed_write_trips_on() throws Exception {
+    UUID good = UUID.randomUUID();
+    UUID bad = UUID.randomUUID();
+    when(eventBatchWriter.insertUserEvents(anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<UserEvent> events = invocation.getArgument(0);
+              if (events.stream().anyMatch(event -> bad.equals(event.getEventId()))) {
+                throw new IllegalArgumentException("value too long for type character varying");
+              }
+              return new EventWriteResult(events.size(), 0);
+            });
+    EventIngestionService service = new EventIngestionService(objectMapper, eventBatchWriter);
+
+    assertThatThrownBy(
+            () ->
+                service.consumeUserEventBatch(
+                    List.of(
+                        userEventPayload(good),
+                        userEventPayload(bad),
+                        userEventPayload(UUID.randomUUID()))))
+        .isInstanceOfSatisfying(
+            EventBatchIngestionException.class,
+            ex -> {
+              assertThat(ex.getFailedIndex()).isEqualTo(1);
+              assertThat(ex.getCause()).hasMessageContaining("value too long");
+            });
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<UserEvent>> captor = ArgumentCaptor.forClass(List.class);
+    verify(eventBatchWriter, times(3)).insertUserEvents(captor.capture());
+    assertThat(captor.getAllValues()).extracting(List::size).containsExactly(3, 1, 1);
+    assertThat(captor.getAllValues().get(1))
+        .extracting(UserEvent::getEventId)
+        .containsExactly(good);
+  }
+
+  @Test
+  void consume_user_events_skips_redelivered_event_without_error() throws Exception {
+    when(eventBatchWriter.insertUserEvents(anyList())).thenReturn(new EventWriteResult(0, 1));
+    EventIngestionService service = new EventIngestionService(objectMapper, eventBatchWriter);
+
+    service.consumeUserEvents(userEventPayload(UUID.randomUUID()));
+
+    verify(eventBatchWriter).insertUserEvents(anyList());
+  }
+
+  private String userEventPayload(UUID eventId) throws Exception {
+    UUID userId = UUID.randomUUID();
+    return objectMapper.writeValueAsString(
+        new EventEnvelope<>(
+            eventId,
+            EventTypes.USER_CREATED,
+            Instant.parse("2024-01-01T00:00:00Z"),
+            null,
+            "bank-service",
+            new UserCreatedPayload(
+                userId, "alice", "Alice", 25, Sex.FEMALE, HairColor.BLACK, "User created")));
+  }
 }
@@ -0,0 +1,150 @@
+package org.nikitakapustkin.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.nikitakapustkin.bank.contracts.enums.TransactionType;
+import org.nikitakapustkin.storage.adapters.out.persistence.EventIngestionMetrics;
+import org.nikitakapustkin.storage.adapters.out.persistence.JdbcEventBatchWriter;
+import org.nikitakapustkin.storage.application.ports.out.EventWriteResult;
+import org.nikitakapustkin.storage.events.TransactionEvent;
+import org.nikitakapustkin.storage.events.UserEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Runs on H2 by default and on PostgreSQL with {@code -Ppostgres}, where batches go through the
+ * {@code unnest ... RETURNING} path and duplicates are counted from the returned rows.
+ */
+class JdbcEventBatchWriterTest {
+  private static final String SCHEMA = PostgresTestDatabase.newSchema("storage_writer");
+
+  private static JdbcTemplate jdbc;
+  private static SimpleMeterRegistry registry;
+  private static JdbcEventBatchWriter writer;
+
+  @BeforeAll
+  static void migrate() {
+    DataSource dataSource;
+    String locations;
+    if (PostgresTestDatabase.enabled()) {
+      dataSource = PostgresTestDatabase.dataSource(SCHEMA);
+      locations = "classpath:db/migration/postgresql";
+    } else {
+      dataSource =
+          new DriverManagerDataSource(
+              "jdbc:h2:mem:storagewritertest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+      locations = "classpath:db/migration/h2";
+    }
+    Flyway.configure()
+        .dataSource(dataSource)
+        .schemas(PostgresTestDatabase.enabled() ? new String[] {SCHEMA} : new String[0])
+        .locations(locations)
+        .load()
+        .migrate();
+    jdbc = new JdbcTemplate(dataSource);
+    registry = new SimpleMeterRegistry();
+    writer = new JdbcEventBatchWriter(jdbc, new EventIngestionMetrics(registry));
+  }
+
+  @AfterAll
+  static void dropSchema() {
+    PostgresTestDatabase.dropSchema(SCHEMA);
+  }
+
+  @Test
+  void counts_stored_and_in_batch_duplicates_separately_from_inserted_rows() {
+    UserEvent stored = userEvent(UUID.randomUUID());
+    assertThat(writer.insertUserEvents(List.of(stored))).isEqualTo(new EventWriteResult(1, 0));
+
+    UserEvent fresh = userEvent(UUID.randomUUID());
+    UserEvent redelivered = userEvent(stored.getEventId());
+    EventWriteResult result =
+        writer.insertUserEvents(List.of(redelivered, fresh, userEvent(fresh.getEventId())));
+
+    assertThat(result).isEqualTo(new EventWriteResult(1, 2));
+    assertThat(
+            jdbc.queryForObject(
+                "select count(*) from user_event where event_id in (?, ?)",
+                Long.class,
+                stored.getEventId(),
+                fresh.getEventId()))
+        .isEqualTo(2L);
+    assertThat(counter("user", "inserted")).isEqualTo(2.0);
+    assertThat(counter("user", "duplicate")).isEqualTo(2.0);
+  }
+
+  @Test
+  void skips_transaction_events_whose_transaction_id_is_already_stored() {
+    UUID transactionId = UUID.randomUUID();
+    TransactionEvent first = transactionEvent(transactionId);
+    TransactionEvent sameTransaction = transactionEvent(transactionId);
+    TransactionEvent other = transactionEvent(UUID.randomUUID());
+
+    EventWriteResult result =
+        writer.insertTransactionEvents(List.of(first, sameTransaction, other));
+
+    assertThat(result).isEqualTo(new EventWriteResult(2, 1));
+    assertThat(
+            jdbc.queryForObject(
+                "select amount from transaction_event where transaction_id = ?",
+                BigDecimal.class,
+                transactionId))
+        .isEqualByComparingTo("12.50");
+    assertThat(
+            jdbc.queryForObject(
+                "select count(*) from transaction_event where transaction_id in (?, ?)",
+                Long.class,
+                transactionId,
+                other.getTransactionId()))
+        .isEqualTo(2L);
+  }
+
+  private double counter(String event, String outcome) {
+    return registry
+        .get("storage.events.ingested")
+        .tag("event", event)
+        .tag("outcome", outcome)
+        .counter()
+        .count();
+  }
+
+  private static UserEvent userEvent(UUID eventId) {
+    UserEvent event = new UserEvent();
+    event.setEventId(eventId);
+    event.setCorrelationId(UUID.randomUUID());
+    event.setUserId(UUID.randomUUID());
+    event.setEventType("USER_CREATED");
+    event.setEventTime(Instant.parse("2024-01-01T00:00:00Z"));
+    event.setEventDescription("User created");
+    event.setPayloadType("UserCreatedPayload");
+    event.setPayload("{\"login\":\"alice\"}");
+    return event;
+  }
+
+  private static TransactionEvent transactionEvent(UUID transactionId) {
+    TransactionEvent event = new TransactionEvent();
+    event.setEventId(UUID.randomUUID());
+    event.setTransactionId(transactionId);
+    event.setCorrelationId(UUID.randomUUID());
+    event.setAccountId(UUID.randomUUID());
+    event.setTransactionType(TransactionType.DEPOSIT);
+    event.setAmount(new BigDecimal("12.50"));
+    event.setCreatedAt(Instant.parse("2024-01-02T10:15:30Z"));
+    event.setEventType("TRANSACTION_CREATED");
+    event.setEventTime(Instant.parse("2024-01-02T10:15:30Z"));
+    event.setEventDescription("Transaction created");
+    event.setPayloadType("TransactionCreatedPayload");
+    event.setPayload("{}");
+    return event;
+  }
+}
@@ -3,6 +3,7 @@ package org.nikitakapustkin.storage;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.Map;
@@ -51,10 +52,13 @@ import org.springframework.test.annotation.DirtiesContext;
       "kafka.topics.user=client-topic",
       "kafka.topics.account=account-topic",
       "kafka.topics.transaction=transaction-topic",
-      "kafka.consumer.group-id=storage-test-group"
+      "kafka.topics.partitions=3",
+      "kafka.consumer.group-id=storage-test-group",
+      "kafka.consumer.concurrency=3",
+      "kafka.consumer.key-ordered-lanes=4"
     })
 @EmbeddedKafka(
-    partitions = 1,
+    partitions = 3,
     topics = {"client-topic", "account-topic", "transaction-topic"})
 @DirtiesContext
 class KafkaConsumerIntegrationTest {
@@ -64,6 +68,7 @@ class KafkaConsumerIntegrationTest {
   @Autowired AccountEventRepository accountEventRepository;
   @Autowired TransactionEventRepository transactionEventRepository;
   @Autowired KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+  @Autowired MeterRegistry meterRegistry;
 
   private KafkaTemplate<String, String> kafkaTemplate;
   private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
@@ -198,6 +203,48 @@ class KafkaConsumerIntegrationTest {
     assertThat(actualPayload.createdAt()).isEqualTo(createdAt);
   }
 
+  @Test
+  void redelivered_user_event_is_stored_once() throws Exception {
+    UUID eventId = UUID.randomUUID();
+    UUID userId = UUID.randomUUID();
+    EventEnvelope<UserCreatedPayload> envelope =
+        new EventEnvelope<>(
+            eventId,
+            EventTypes.USER_CREATED,
+            Instant.parse("2024-01-01T00:00:00Z"),
+            null,
+            "bank-service",
+            new UserCreatedPayload(
+                userId, "bob", "Bob", 30, Sex.MALE, HairColor.BLONDE, "User created"));
+    String payload = objectMapper.writeValueAsString(envelope);
+    kafkaTemplate.send("client-topic", userId.toString(), payload).get(5, TimeUnit.SECONDS);
+    kafkaTemplate.send("client-topic", userId.toString(), payload).get(5, TimeUnit.SECONDS);
+    UUID markerId = UUID.randomUUID();
+    kafkaTemplate
+        .send(
+            "client-topic",
+            userId.toString(),
+            objectMapper.writeValueAsString(
+                new EventEnvelope<>(
+                    markerId,
+                    EventTypes.USER_CREATED,
+                    Instant.parse("2024-01-01T00:00:01Z"),
+                    null,
+                    "bank-service",
+                    envelope.payload())))
+        .get(5, TimeUnit.SECONDS);
+
+    assertThat(awaitUserEvent(markerId)).isNotNull();
+    assertThat(userEventRepository.findAll())
+        .filteredOn(e -> eventId.equals(e.getEventId()))
+        .hasSize(1);
+    assertThat(
+            meterRegistry
+                .counter("storage.events.ingested", "event", "user", "outcome", "duplicate")
+                .count())
+        .isGreaterThanOrEqualTo(1);
+  }
+
   private UserEvent awaitUserEvent(UUID eventId) throws InterruptedException {
     long deadline = System.currentTimeMillis() + 10000;
     UserEvent found = null;
@@ -0,0 +1,114 @@
+package org.nikitakapustkin.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.nikitakapustkin.storage.adapters.in.kafka.KeyOrderedBatchProcessor;
+import org.nikitakapustkin.storage.application.EventBatchIngestionException;
+import org.nikitakapustkin.storage.config.StorageKafkaConsumerProperties;
+
+class KeyOrderedBatchProcessorTest {
+  // "a" and "b" hash to different lanes when there are two.
+  private final KeyOrderedBatchProcessor processor = processor(2);
+
+  @AfterEach
+  void tearDown() {
+    processor.destroy();
+  }
+
+  @Test
+  void process_keeps_records_of_one_key_in_offset_order() {
+    List<ConsumerRecord<String, String>> records =
+        List.of(
+            record(0, "a", "a1"),
+            record(1, "b", "b1"),
+            record(2, "a", "a2"),
+            record(3, "b", "b2"),
+            record(4, "a", "a3"));
+    List<List<String>> calls = Collections.synchronizedList(new ArrayList<>());
+
+    processor.process(records, calls::add);
+
+    assertThat(calls).containsExactlyInAnyOrder(List.of("a1", "a2", "a3"), List.of("b1", "b2"));
+  }
+
+  @Test
+  void process_runs_lanes_on_virtual_threads() {
+    List<Boolean> virtual = Collections.synchronizedList(new ArrayList<>());
+
+    processor.process(
+        List.of(record(0, "a", "a1"), record(1, "b", "b1")),
+        payloads -> virtual.add(Thread.currentThread().isVirtual()));
+
+    assertThat(virtual).containsExactly(true, true);
+  }
+
+  @Test
+  void process_reports_the_earliest_failed_record_of_the_poll() {
+    List<ConsumerRecord<String, String>> records =
+        List.of(
+            record(0, "a", "a1"),
+            record(1, "b", "b1"),
+            record(2, "b", "bad"),
+            record(3, "a", "bad"),
+            record(4, "a", "a3"));
+
+    assertThatThrownBy(() -> processor.process(records, failingOn("bad")))
+        .isInstanceOfSatisfying(
+            EventBatchIngestionException.class, ex -> assertThat(ex.getFailedIndex()).isEqualTo(2));
+  }
+
+  @Test
+  void process_redelivers_the_whole_poll_when_a_lane_fails_outright() {
+    List<ConsumerRecord<String, String>> records =
+        List.of(record(0, "a", "bad"), record(1, "b", "b1"));
+    Consumer<List<String>> ingestion =
+        payloads -> {
+          if (payloads.contains("b1")) {
+            throw new IllegalArgumentException("database unavailable");
+          }
+          failingOn("bad").accept(payloads);
+        };
+
+    assertThatThrownBy(() -> processor.process(records, ingestion))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("database unavailable");
+  }
+
+  @Test
+  void process_without_lanes_ingests_the_poll_in_one_call() {
+    KeyOrderedBatchProcessor single = processor(0);
+    List<List<String>> calls = new ArrayList<>();
+
+    single.process(List.of(record(0, "a", "a1"), record(1, "b", "b1")), calls::add);
+
+    assertThat(calls).containsExactly(List.of("a1", "b1"));
+  }
+
+  private static Consumer<List<String>> failingOn(String badPayload) {
+    return payloads -> {
+      for (int i = 0; i < payloads.size(); i++) {
+        if (badPayload.equals(payloads.get(i))) {
+          throw new EventBatchIngestionException(i, new IllegalStateException("malformed"));
+        }
+      }
+    };
+  }
+
+  private static KeyOrderedBatchProcessor processor(int lanes) {
+    StorageKafkaConsumerProperties properties = new StorageKafkaConsumerProperties();
+    properties.setKeyOrderedLanes(lanes);
+    return new KeyOrderedBatchProcessor(properties);
+  }
+
+  private static ConsumerRecord<String, String> record(long offset, String key, String value) {
+    return new ConsumerRecord<>("client-topic", 0, offset, key, value);
+  }
+}
@@ -0,0 +1,54 @@
+package org.nikitakapustkin.storage;
+
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Opt-in PostgreSQL for tests whose subject behaves differently on H2. It is used only when {@code
+ * test.postgres.jdbc-url} is set, which the {@code postgres} Maven profile does. Every test class
+ * works in a schema of its own.
+ */
+final class PostgresTestDatabase {
+  static final String URL_PROPERTY = "test.postgres.jdbc-url";
+
+  private PostgresTestDatabase() {}
+
+  static boolean enabled() {
+    return !System.getProperty(URL_PROPERTY, "").isBlank();
+  }
+
+  static String newSchema(String prefix) {
+    return prefix + "_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+  }
+
+  static DataSource dataSource(String schema) {
+    return new DriverManagerDataSource(url(schema), username(), password());
+  }
+
+  static void dropSchema(String schema) {
+    if (!enabled()) {
+      return;
+    }
+    new JdbcTemplate(new DriverManagerDataSource(baseUrl(), username(), password()))
+        .execute("drop schema if exists " + schema + " cascade");
+  }
+
+  private static String url(String schema) {
+    String base = baseUrl();
+    return base + (base.contains("?") ? "&" : "?") + "currentSchema=" + schema;
+  }
+
+  private static String baseUrl() {
+    return System.getProperty(URL_PROPERTY);
+  }
+
+  private static String username() {
+    return System.getProperty("test.postgres.username", "");
+  }
+
+  private static String password() {
+    return System.getProperty("test.postgres.password", "");
+  }
+}